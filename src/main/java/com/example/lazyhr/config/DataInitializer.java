@@ -2,6 +2,7 @@ package com.example.lazyhr.config;
 
 import com.example.lazyhr.constants.ApiMessages;
 import com.example.lazyhr.model.*;
+import com.example.lazyhr.repository.LeavePolicyRepository;
 import com.example.lazyhr.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,12 +22,21 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LeavePolicyRepository leavePolicyRepository;
+
     @Override
     public void run(String... args) throws Exception {
         // Check if users already exist
         if (userService.getActiveUserCount() == 0) {
             initializeUsers();
         }
+        // Same allocations the V11 migration seeds, for databases built from the entities
+        if (leavePolicyRepository.count() == 0) {
+            leavePolicyRepository.save(new LeavePolicy(LeaveCategory.ANNUAL, new BigDecimal("21.0")));
+            leavePolicyRepository.save(new LeavePolicy(LeaveCategory.SICK, new BigDecimal("14.0")));
+            leavePolicyRepository.save(new LeavePolicy(LeaveCategory.PRIVATE, new BigDecimal("5.0")));
+        }
     }
 
     private void initializeUsers() {
@@ -56,6 +56,14 @@ public final class ApiMessages {
     public static final String LEAVE_REQUESTS_FOR_DATE_RETRIEVED = "Leave requests for date retrieved";
     public static final String LEAVE_BALANCE_RETRIEVED = "Leave balance retrieved";
     public static final String PENDING_LEAVE_REQUESTS_COUNT = "Pending leave requests count";
+    public static final String HOLIDAYS_RETRIEVED = "Holidays retrieved";
+    public static final String HOLIDAY_ADDED = "Holiday added";
+    public static final String HOLIDAY_DELETED = "Holiday deleted";
+    public static final String WORKING_DAYS_RETRIEVED = "Working days retrieved";
+    public static final String LEAVE_POLICIES_RETRIEVED = "Leave policies retrieved";
+    public static final String LEAVE_POLICY_UPDATED = "Leave policy updated";
+    public static final String LEAVE_REQUESTS_DECIDED = "Leave requests processed";
+    public static final String LEAVE_CALENDAR_RETRIEVED = "Leave calendar retrieved";
 
     // Leave Error Messages
     public static final String FAILED_TO_APPLY_FOR_LEAVE = "Failed to apply for leave: ";
@@ -66,6 +74,14 @@ public final class ApiMessages {
     public static final String FAILED_TO_FETCH_PENDING_REQUESTS = "Failed to fetch pending requests: ";
     public static final String FAILED_TO_CANCEL_LEAVE_REQUEST = "Failed to cancel leave request: ";
     public static final String FAILED_TO_FETCH_LEAVE_BALANCE = "Failed to fetch leave balance: ";
+    public static final String FAILED_TO_FETCH_HOLIDAYS = "Failed to fetch holidays: ";
+    public static final String FAILED_TO_ADD_HOLIDAY = "Failed to add holiday: ";
+    public static final String FAILED_TO_DELETE_HOLIDAY = "Failed to delete holiday: ";
+    public static final String FAILED_TO_FETCH_WORKING_DAYS = "Failed to fetch working days: ";
+    public static final String FAILED_TO_FETCH_LEAVE_POLICIES = "Failed to fetch leave policies: ";
+    public static final String FAILED_TO_UPDATE_LEAVE_POLICY = "Failed to update leave policy: ";
+    public static final String FAILED_TO_DECIDE_LEAVE_REQUESTS = "Failed to process leave requests: ";
+    public static final String FAILED_TO_FETCH_LEAVE_CALENDAR = "Failed to fetch leave calendar: ";
     public static final String FAILED_TO_FETCH_PENDING_COUNT = "Failed to fetch pending count: ";
 
     // Attendance Management Messages
@@ -74,12 +90,63 @@ public final class ApiMessages {
     public static final String ATTENDANCE_RETRIEVED_SUCCESSFULLY = "Attendance retrieved successfully";
     public static final String ATTENDANCE_RECORDS_RETRIEVED = "Attendance records retrieved";
     public static final String ATTENDANCE_SUMMARY_RETRIEVED = "Attendance summary retrieved";
+    public static final String ACTIVE_SESSIONS_RECONCILED = "Active sessions reconciled";
+    public static final String PUNCHES_PROCESSED = "Punches processed";
+    public static final String ATTENDANCE_SUMMARY_REBUILT = "Attendance summary rebuilt";
+    public static final String ATTENDANCE_AGGREGATES_RETRIEVED = "Attendance aggregates retrieved";
+    public static final String STALE_SESSIONS_CLOSED = "Stale sessions closed";
+    public static final String ATTENDANCE_BOARD_RETRIEVED = "Attendance board retrieved";
+    public static final String ATTENDANCE_REVIEW_RETRIEVED = "Attendance records needing review retrieved";
+    public static final String ATTENDANCE_REVIEW_RESOLVED = "Attendance review resolved";
+    public static final String ATTENDANCE_ARCHIVED = "Closed attendance periods archived";
+    public static final String ATTENDANCE_REPORT_RETRIEVED = "Attendance report retrieved";
+    public static final String OVERTIME_RETRIEVED = "Overtime retrieved";
+    public static final String SHIFT_SCHEDULE_RETRIEVED = "Shift schedule retrieved";
+    public static final String SHIFT_SCHEDULE_SAVED = "Shift schedule saved";
+    public static final String ATTENDANCE_RECLASSIFIED = "Attendance reclassified";
+    public static final String ATTENDANCE_EVENTS_RETRIEVED = "Attendance events retrieved";
+    public static final String ABSENCES_RETRIEVED = "Absences retrieved";
 
     // Attendance Error Messages
     public static final String FAILED_TO_CLOCK_IN = "Failed to clock in: ";
     public static final String FAILED_TO_CLOCK_OUT = "Failed to clock out: ";
     public static final String FAILED_TO_FETCH_ATTENDANCE = "Failed to fetch attendance: ";
     public static final String FAILED_TO_FETCH_ATTENDANCE_RECORDS = "Failed to fetch attendance records: ";
+    public static final String FAILED_TO_ACCEPT_CLOCK_EVENT = "Failed to accept clock event: ";
+    public static final String FAILED_TO_RECONCILE_ACTIVE_SESSIONS = "Failed to reconcile active sessions: ";
+    public static final String FAILED_TO_RECORD_PUNCHES = "Failed to record punches: ";
+    public static final String FAILED_TO_FETCH_ATTENDANCE_SUMMARY = "Failed to fetch attendance summary: ";
+    public static final String FAILED_TO_REBUILD_ATTENDANCE_SUMMARY = "Failed to rebuild attendance summary: ";
+    public static final String FAILED_TO_FETCH_ATTENDANCE_AGGREGATES = "Failed to fetch attendance aggregates: ";
+    public static final String FAILED_TO_FETCH_ATTENDANCE_BOARD = "Failed to fetch attendance board: ";
+    public static final String BOARD_SUBSCRIBER_LIMIT_REACHED = "Too many attendance board subscribers, please retry later";
+    public static final String FAILED_TO_CLOSE_STALE_SESSIONS = "Failed to close stale sessions: ";
+    public static final String FAILED_TO_FETCH_ATTENDANCE_REVIEW = "Failed to fetch attendance records needing review: ";
+    public static final String FAILED_TO_ARCHIVE_ATTENDANCE = "Failed to archive attendance: ";
+    public static final String ARCHIVE_ALREADY_RUNNING = "An attendance archive run is already in progress";
+    public static final String FAILED_TO_FETCH_ATTENDANCE_REPORT = "Failed to fetch attendance report: ";
+    public static final String FAILED_TO_FETCH_OVERTIME = "Failed to fetch overtime: ";
+    public static final String FAILED_TO_FETCH_SHIFT_SCHEDULE = "Failed to fetch shift schedule: ";
+    public static final String FAILED_TO_SAVE_SHIFT_SCHEDULE = "Failed to save shift schedule: ";
+    public static final String FAILED_TO_RECLASSIFY_ATTENDANCE = "Failed to reclassify attendance: ";
+    public static final String RECLASSIFY_ALREADY_RUNNING = "An attendance reclassification is already in progress";
+    public static final String FAILED_TO_FETCH_ATTENDANCE_EVENTS = "Failed to fetch attendance events: ";
+    public static final String FAILED_TO_FETCH_ABSENCES = "Failed to fetch absences: ";
+    public static final String ATTENDANCE_EVENT_LOG_DISABLED = "The attendance event log is disabled";
+    public static final String SHIFT_SCHEDULE_OWNER_REQUIRED = "Give exactly one of userId or department";
+    public static final String INVALID_SHIFT_SCHEDULE = "Each day needs a distinct dayOfWeek, a start within the day, a positive duration of at most a day and a non-negative grace";
+    public static final String ANALYTICS_NOT_READY = "Attendance analytics are still loading, please retry shortly";
+    public static final String REPORT_TOO_MANY_GROUPS = "Report has too many groups; narrow the range or group by fewer dimensions. Limit: ";
+    public static final String INVALID_DATE_RANGE = "End date must not be before start date";
+    public static final String FAILED_TO_RESOLVE_ATTENDANCE_REVIEW = "Failed to resolve attendance review: ";
+    public static final String ATTENDANCE_NOT_PENDING_REVIEW = "Attendance record is not pending review";
+    public static final String INVALID_CLOCK_OUT_TIME = "Clock-out time must be after the clock-in time";
+    public static final String PUNCH_BATCH_TOO_LARGE = "Too many punches in one request, maximum is ";
+
+    // Clock Event Ingestion Messages
+    public static final String CLOCK_EVENT_ACCEPTED = "Clock event accepted";
+    public static final String CLOCK_EVENT_INGESTION_DISABLED = "Clock event ingestion is disabled";
+    public static final String CLOCK_EVENT_QUEUE_FULL = "Clock event queue is full, please retry shortly";
 
     // Entity Validation Messages
     public static final String USER_NOT_FOUND = "User not found";
@@ -91,6 +158,13 @@ public final class ApiMessages {
     public static final String LEAVE_REQUEST_WRONG_USER = "Leave request does not belong to the user";
     public static final String ONLY_PENDING_REQUESTS_CAN_BE_CANCELLED = "Only pending leave requests can be cancelled";
     public static final String CANNOT_CANCEL_PAST_LEAVE = "Cannot cancel leave request that starts today or in the past";
+    public static final String LEAVE_HAS_NO_WORKING_DAYS = "Leave request does not cover any working day";
+    public static final String INVALID_HOLIDAY = "A holiday needs a date and a name";
+    public static final String HOLIDAY_ALREADY_EXISTS = "A holiday already exists on that day for that region";
+    public static final String INVALID_LEAVE_ALLOCATION = "Allocated days must not be negative";
+    public static final String INVALID_LEAVE_DECISION = "Leave requests can only be approved or rejected, not ";
+    public static final String LEAVE_BATCH_TOO_LARGE = "Too many leave requests in one request, maximum is ";
+    public static final String DEPARTMENT_REQUIRED = "A department is required";
 
     // General Error Messages
     public static final String ERROR_LOADING_DASHBOARD = "Error loading dashboard: ";
@@ -126,7 +200,11 @@ public final class ApiMessages {
     public static final String LEAVE_REQUEST_NOT_FOUND_WITH_ID = "Leave request not found with ID: ";
     public static final String APPROVER_NOT_FOUND_WITH_ID = "Approver not found with ID: ";
     public static final String ATTENDANCE_RECORD_NOT_FOUND_WITH_ID = "Attendance record not found with ID: ";
+    public static final String HOLIDAY_NOT_FOUND_WITH_ID = "Holiday not found with ID: ";
     public static final String USER_ACCOUNT_INACTIVE = "User account is inactive: ";
+    public static final String UNSUPPORTED_EXPORT_FORMAT = "Unsupported export format: ";
+    public static final String INVALID_CURSOR = "Invalid pagination cursor";
+    public static final String INVALID_PAGE_SIZE = "Page size must be between 1 and ";
     public static final String NO_ACTIVE_CLOCK_IN_FOUND = "No active clock-in found for user. Please clock in first.";
     
     // Leave Business Logic Messages
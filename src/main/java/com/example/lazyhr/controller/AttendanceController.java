@@ -1,12 +1,45 @@
 package com.example.lazyhr.controller;
 
+import com.example.lazyhr.dto.AttendanceAggregate;
+import com.example.lazyhr.dto.AttendanceEventPage;
+import com.example.lazyhr.dto.AttendanceHistoryItem;
+import com.example.lazyhr.dto.AttendanceReport;
+import com.example.lazyhr.dto.BoardSnapshot;
+import com.example.lazyhr.dto.CursorPage;
+import com.example.lazyhr.dto.UserOvertime;
 import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.DailyAttendanceSummary;
+import com.example.lazyhr.model.ClockDirection;
+import com.example.lazyhr.model.ShiftSchedule;
+import com.example.lazyhr.service.ActiveSessionRegistry;
+import com.example.lazyhr.service.AttendanceAnalyticsEngine;
+import com.example.lazyhr.service.AttendanceArchiveService;
+import com.example.lazyhr.service.AttendanceBoardService;
+import com.example.lazyhr.service.AttendanceEventLogService;
+import com.example.lazyhr.service.AttendanceExportService;
 import com.example.lazyhr.service.AttendanceService;
+import com.example.lazyhr.service.ClockEvent;
+import com.example.lazyhr.service.ClockEventIngestionService;
+import com.example.lazyhr.service.ClockEventOutcome;
+import com.example.lazyhr.service.DailyAttendanceSummaryService;
+import com.example.lazyhr.service.ShiftReclassifier;
+import com.example.lazyhr.service.ShiftScheduleService;
+import com.example.lazyhr.service.StaleSessionSweeper;
 import com.example.lazyhr.constants.ApiMessages;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,6 +52,42 @@ public class AttendanceController {
     @Autowired
     private AttendanceService attendanceService;
 
+    @Autowired
+    private ClockEventIngestionService clockEventIngestionService;
+
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Autowired
+    private DailyAttendanceSummaryService dailySummaryService;
+
+    @Autowired
+    private AttendanceExportService attendanceExportService;
+
+    @Autowired
+    private StaleSessionSweeper staleSessionSweeper;
+
+    @Autowired
+    private AttendanceArchiveService attendanceArchiveService;
+
+    @Autowired
+    private AttendanceAnalyticsEngine attendanceAnalyticsEngine;
+
+    @Autowired
+    private AttendanceBoardService attendanceBoardService;
+
+    @Autowired
+    private ShiftScheduleService shiftScheduleService;
+
+    @Autowired
+    private ShiftReclassifier shiftReclassifier;
+
+    @Autowired
+    private AttendanceEventLogService attendanceEventLogService;
+
+    @Value("${lazyhr.attendance.punches.max-batch-size:10000}")
+    private int maxPunchBatchSize;
+
     /**
      * Clock in endpoint
      */
@@ -62,6 +131,68 @@ public class AttendanceController {
         }
     }
 
+    /**
+     * Queue a clock-in or clock-out punch for batched processing
+     */
+    @PostMapping("/clock-events")
+    public ResponseEntity<?> submitClockEvent(@RequestParam Long userId, @RequestParam ClockDirection direction) {
+        try {
+            ClockEvent event = clockEventIngestionService.submit(userId, direction);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(new ApiResponse("success", ApiMessages.CLOCK_EVENT_ACCEPTED,
+                            Map.of("sequence", event.getSequence(),
+                                    "userId", event.getUserId(),
+                                    "direction", event.getDirection(),
+                                    "timestamp", event.getTimestamp())));
+        } catch (ClockEventIngestionService.QueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ApiResponse(ApiMessages.ERROR, e.getMessage(), null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_ACCEPT_CLOCK_EVENT + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Upload a batch of punches from a badge reader or kiosk
+     */
+    @PostMapping("/punches")
+    public ResponseEntity<?> recordPunches(@RequestBody PunchBatchDto batch) {
+        try {
+            List<PunchDto> punches = batch.getPunches() != null ? batch.getPunches() : List.of();
+            if (punches.size() > maxPunchBatchSize) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.PUNCH_BATCH_TOO_LARGE + maxPunchBatchSize, null));
+            }
+
+            List<ClockEvent> events = new ArrayList<>(punches.size());
+            for (int i = 0; i < punches.size(); i++) {
+                PunchDto punch = punches.get(i);
+                events.add(new ClockEvent(i, punch.getUserId(), punch.getDirection(),
+                        punch.getDeviceTimestamp() != null ? punch.getDeviceTimestamp() : 0L));
+            }
+
+            List<ClockEventOutcome> outcomes = attendanceService.recordPunches(events);
+
+            Map<ClockEventOutcome, Integer> totals = new EnumMap<>(ClockEventOutcome.class);
+            List<PunchResultDto> results = new ArrayList<>(outcomes.size());
+            for (int i = 0; i < outcomes.size(); i++) {
+                totals.merge(outcomes.get(i), 1, Integer::sum);
+                results.add(new PunchResultDto(i, punches.get(i).getUserId(), outcomes.get(i)));
+            }
+
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.PUNCHES_PROCESSED,
+                    Map.of("totals", totals, "results", results)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_RECORD_PUNCHES + e.getMessage(), null));
+        }
+    }
+
     /**
      * Get today's attendance for user
      */
@@ -99,6 +230,178 @@ public class AttendanceController {
         }
     }
 
+    /**
+     * Get daily attendance summaries (first in, last out, worked and overtime minutes) for a user and date range
+     */
+    @GetMapping("/summary/{userId}")
+    public ResponseEntity<?> getDailySummaries(
+            @PathVariable Long userId,
+            @RequestParam Long startTimestamp,
+            @RequestParam Long endTimestamp) {
+
+        try {
+            List<DailyAttendanceSummary> summaries = attendanceService.getDailySummaries(userId, startTimestamp,
+                    endTimestamp);
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ATTENDANCE_SUMMARY_RETRIEVED, summaries));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_ATTENDANCE_SUMMARY + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Get the working days on which a user neither clocked in nor was on approved leave
+     */
+    @GetMapping("/absences/{userId}")
+    public ResponseEntity<?> getAbsentDays(
+            @PathVariable Long userId,
+            @RequestParam Long startTimestamp,
+            @RequestParam Long endTimestamp) {
+
+        try {
+            List<Long> absentDays = attendanceService.getAbsentDays(userId, startTimestamp, endTimestamp);
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ABSENCES_RETRIEVED, absentDays));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_ABSENCES + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Rebuild daily attendance summaries for a date range from the raw attendance records
+     */
+    @PostMapping("/summary/rebuild")
+    public ResponseEntity<?> rebuildDailySummaries(@RequestParam Long startTimestamp, @RequestParam Long endTimestamp) {
+        try {
+            int rebuilt = dailySummaryService.rebuild(startTimestamp, endTimestamp);
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ATTENDANCE_SUMMARY_REBUILT, rebuilt));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_REBUILD_ATTENDANCE_SUMMARY + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Get worked and overtime hours of every employee for the calendar months containing the range
+     */
+    @GetMapping("/overtime")
+    public ResponseEntity<?> getOvertimeByUser(@RequestParam Long startTimestamp, @RequestParam Long endTimestamp) {
+        try {
+            List<UserOvertime> overtime = attendanceService.getOvertimeByUser(startTimestamp, endTimestamp);
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.OVERTIME_RETRIEVED, overtime));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_OVERTIME + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Get per-day attendance totals (present, late, worked and overtime hours) of every department
+     */
+    @GetMapping("/departments/aggregate")
+    public ResponseEntity<?> getDepartmentAggregates(@RequestParam Long startTimestamp, @RequestParam Long endTimestamp) {
+        try {
+            List<AttendanceAggregate> aggregates = dailySummaryService.getDepartmentAggregates(startTimestamp, endTimestamp);
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ATTENDANCE_AGGREGATES_RETRIEVED, aggregates));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_ATTENDANCE_AGGREGATES + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Count records and worked time in a range from the in-memory analytics store,
+     * grouped by any of DEPARTMENT, WEEK and STATUS
+     */
+    @GetMapping("/report")
+    public ResponseEntity<?> getAttendanceReport(
+            @RequestParam Long startTimestamp,
+            @RequestParam Long endTimestamp,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) com.example.lazyhr.model.AttendanceStatus status,
+            @RequestParam(required = false) List<AttendanceAnalyticsEngine.Dimension> groupBy) {
+
+        try {
+            AttendanceReport report = attendanceAnalyticsEngine.query(startTimestamp, endTimestamp,
+                    department == null || department.isEmpty() ? null : department, status,
+                    groupBy != null ? EnumSet.copyOf(groupBy) : EnumSet.noneOf(AttendanceAnalyticsEngine.Dimension.class));
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ATTENDANCE_REPORT_RETRIEVED, report));
+        } catch (IllegalStateException e) {
+            // Still loading after startup
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "10")
+                    .body(new ApiResponse(ApiMessages.ERROR, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_ATTENDANCE_REPORT + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Get per-day attendance totals of one department
+     */
+    @GetMapping("/departments/{department}/aggregate")
+    public ResponseEntity<?> getDepartmentAggregate(
+            @PathVariable String department,
+            @RequestParam Long startTimestamp,
+            @RequestParam Long endTimestamp) {
+
+        try {
+            List<AttendanceAggregate> aggregates = dailySummaryService.getDepartmentAggregates(department, startTimestamp,
+                    endTimestamp);
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ATTENDANCE_AGGREGATES_RETRIEVED, aggregates));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_ATTENDANCE_AGGREGATES + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Get per-day attendance totals of each team (position) within a department
+     */
+    @GetMapping("/departments/{department}/teams/aggregate")
+    public ResponseEntity<?> getTeamAggregates(
+            @PathVariable String department,
+            @RequestParam Long startTimestamp,
+            @RequestParam Long endTimestamp) {
+
+        try {
+            List<AttendanceAggregate> aggregates = dailySummaryService.getTeamAggregates(department, startTimestamp,
+                    endTimestamp);
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ATTENDANCE_AGGREGATES_RETRIEVED, aggregates));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_ATTENDANCE_AGGREGATES + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Stream all attendance records in a date range as CSV or NDJSON
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportAttendance(
+            @RequestParam Long startTimestamp,
+            @RequestParam Long endTimestamp,
+            @RequestParam(defaultValue = "csv") String format) {
+
+        AttendanceExportService.Format exportFormat;
+        try {
+            exportFormat = AttendanceExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.UNSUPPORTED_EXPORT_FORMAT + format, null));
+        }
+
+        StreamingResponseBody body = outputStream -> attendanceExportService.export(startTimestamp, endTimestamp,
+                exportFormat, outputStream);
+        boolean csv = exportFormat == AttendanceExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : new MediaType("application", "x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"attendance-" + startTimestamp + "-"
+                        + endTimestamp + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+
     /**
      * Get all attendance for today
      */
@@ -113,6 +416,35 @@ public class AttendanceController {
         }
     }
 
+    /**
+     * Get the live "who's in" board: each employee's latest session today
+     */
+    @GetMapping("/board")
+    public ResponseEntity<?> getBoard() {
+        try {
+            BoardSnapshot snapshot = attendanceBoardService.getSnapshot();
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ATTENDANCE_BOARD_RETRIEVED, snapshot));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_ATTENDANCE_BOARD + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Stream the "who's in" board as Server-Sent Events: a snapshot, then a delta per clock event
+     */
+    @GetMapping(value = "/board/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamBoard() {
+        try {
+            return ResponseEntity.ok(attendanceBoardService.subscribe());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(new ApiResponse(ApiMessages.ERROR, e.getMessage(), null));
+        }
+    }
+
     /**
      * Get user's attendance history
      */
@@ -127,6 +459,24 @@ public class AttendanceController {
         }
     }
 
+    /**
+     * Get user's attendance history one page at a time, newest first
+     */
+    @GetMapping("/history/{userId}/page")
+    public ResponseEntity<?> getUserAttendanceHistoryPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        try {
+            CursorPage<AttendanceHistoryItem> page = attendanceService.getUserAttendanceHistoryPage(userId, cursor, size);
+            return ResponseEntity.ok(new ApiResponse("success", "Attendance history retrieved", page));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_ATTENDANCE_HISTORY + e.getMessage(), null));
+        }
+    }
+
     /**
      * Check if user is currently clocked in
      */
@@ -190,6 +540,146 @@ public class AttendanceController {
         }
     }
 
+    /**
+     * Reconcile the active session registry with the attendance table
+     */
+    @PostMapping("/registry/reconcile")
+    public ResponseEntity<?> reconcileActiveSessions() {
+        try {
+            ActiveSessionRegistry.ReconciliationReport report = activeSessionRegistry.reconcile();
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ACTIVE_SESSIONS_RECONCILED, report));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_RECONCILE_ACTIVE_SESSIONS + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Close sessions left open past the stale cutoff now, instead of waiting for the off-hours run
+     */
+    @PostMapping("/auto-clock-out")
+    public ResponseEntity<?> closeStaleSessions() {
+        try {
+            StaleSessionSweeper.SweepReport report = staleSessionSweeper.sweep(false);
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.STALE_SESSIONS_CLOSED, report));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_CLOSE_STALE_SESSIONS + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Move closed records older than the retention period to the archive now, instead of waiting for the off-hours run
+     */
+    @PostMapping("/archive")
+    public ResponseEntity<?> archiveClosedPeriods() {
+        try {
+            AttendanceArchiveService.ArchiveReport report = attendanceArchiveService.archive();
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ATTENDANCE_ARCHIVED, report));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_ARCHIVE_ATTENDANCE + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Get the weekly shift pattern of a user or a department
+     */
+    @GetMapping("/schedules")
+    public ResponseEntity<?> getShiftSchedule(@RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String department) {
+        try {
+            List<ShiftSchedule> schedule = shiftScheduleService.getSchedule(userId, department);
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.SHIFT_SCHEDULE_RETRIEVED, schedule));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_SHIFT_SCHEDULE + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Replace the weekly shift pattern of a user or a department; days not listed are days off.
+     * Existing records keep their status until POST /reclassify is run for the affected range.
+     */
+    @PutMapping("/schedules")
+    public ResponseEntity<?> replaceShiftSchedule(@RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String department,
+            @RequestBody List<ShiftDayDto> days) {
+        try {
+            List<ShiftSchedule> schedule = new ArrayList<>(days.size());
+            for (ShiftDayDto day : days) {
+                ShiftSchedule entry = new ShiftSchedule();
+                entry.setDayOfWeek(day.getDayOfWeek() != null ? day.getDayOfWeek().getValue() : null);
+                entry.setStartMinute(day.getStart() != null ? LocalTime.parse(day.getStart()).toSecondOfDay() / 60 : null);
+                entry.setDurationMinutes(day.getDurationMinutes());
+                entry.setGraceMinutes(day.getGraceMinutes() != null ? day.getGraceMinutes() : 0);
+                schedule.add(entry);
+            }
+            List<ShiftSchedule> saved = shiftScheduleService.replaceSchedule(userId, department, schedule);
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.SHIFT_SCHEDULE_SAVED, saved));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_SAVE_SHIFT_SCHEDULE + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Classify the attendance in a date range again against the current shift schedules
+     */
+    @PostMapping("/reclassify")
+    public ResponseEntity<?> reclassifyAttendance(@RequestParam Long startTimestamp, @RequestParam Long endTimestamp) {
+        try {
+            ShiftReclassifier.ReclassifyReport report = shiftReclassifier.reclassify(startTimestamp, endTimestamp);
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ATTENDANCE_RECLASSIFIED, report));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_RECLASSIFY_ATTENDANCE + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Read the attendance change feed from an offset; pass nextOffset back to continue
+     */
+    @GetMapping("/events")
+    public ResponseEntity<?> getAttendanceEvents(@RequestParam(defaultValue = "0") long fromOffset,
+            @RequestParam(defaultValue = "1000") int limit) {
+        try {
+            AttendanceEventPage page = attendanceEventLogService.read(fromOffset, limit);
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ATTENDANCE_EVENTS_RETRIEVED, page));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_ATTENDANCE_EVENTS + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Get automatically closed sessions that need their clock-out time confirmed
+     */
+    @GetMapping("/review")
+    public ResponseEntity<?> getAttendancesNeedingReview() {
+        try {
+            List<Attendance> attendances = attendanceService.getAttendancesNeedingReview();
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ATTENDANCE_REVIEW_RETRIEVED, attendances));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_ATTENDANCE_REVIEW + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Set the real clock-out time of an automatically closed session
+     */
+    @PutMapping("/{attendanceId}/review")
+    public ResponseEntity<?> resolveReview(@PathVariable Long attendanceId, @RequestParam Long clockOutTime) {
+        try {
+            Attendance attendance = attendanceService.resolveReview(attendanceId, clockOutTime);
+            return ResponseEntity.ok(new ApiResponse("success", ApiMessages.ATTENDANCE_REVIEW_RESOLVED, attendance));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_RESOLVE_ATTENDANCE_REVIEW + e.getMessage(), null));
+        }
+    }
+
     // Inner classes for response structure
     public static class ApiResponse {
         private String status;
@@ -228,6 +718,111 @@ public class AttendanceController {
         }
     }
 
+    public static class PunchBatchDto {
+        private List<PunchDto> punches;
+
+        public List<PunchDto> getPunches() {
+            return punches;
+        }
+
+        public void setPunches(List<PunchDto> punches) {
+            this.punches = punches;
+        }
+    }
+
+    public static class PunchDto {
+        private Long userId;
+        private ClockDirection direction;
+        private Long deviceTimestamp; // Unix timestamp in milliseconds
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public ClockDirection getDirection() {
+            return direction;
+        }
+
+        public void setDirection(ClockDirection direction) {
+            this.direction = direction;
+        }
+
+        public Long getDeviceTimestamp() {
+            return deviceTimestamp;
+        }
+
+        public void setDeviceTimestamp(Long deviceTimestamp) {
+            this.deviceTimestamp = deviceTimestamp;
+        }
+    }
+
+    public static class ShiftDayDto {
+        private DayOfWeek dayOfWeek;
+        private String start; // Local time, e.g. "09:00"
+        private Integer durationMinutes;
+        private Integer graceMinutes;
+
+        public DayOfWeek getDayOfWeek() {
+            return dayOfWeek;
+        }
+
+        public void setDayOfWeek(DayOfWeek dayOfWeek) {
+            this.dayOfWeek = dayOfWeek;
+        }
+
+        public String getStart() {
+            return start;
+        }
+
+        public void setStart(String start) {
+            this.start = start;
+        }
+
+        public Integer getDurationMinutes() {
+            return durationMinutes;
+        }
+
+        public void setDurationMinutes(Integer durationMinutes) {
+            this.durationMinutes = durationMinutes;
+        }
+
+        public Integer getGraceMinutes() {
+            return graceMinutes;
+        }
+
+        public void setGraceMinutes(Integer graceMinutes) {
+            this.graceMinutes = graceMinutes;
+        }
+    }
+
+    public static class PunchResultDto {
+        private final int index;
+        private final Long userId;
+        private final ClockEventOutcome outcome;
+
+        public PunchResultDto(int index, Long userId, ClockEventOutcome outcome) {
+            this.index = index;
+            this.userId = userId;
+            this.outcome = outcome;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public ClockEventOutcome getOutcome() {
+            return outcome;
+        }
+    }
+
     public static class AttendanceStatus {
         private Long userId;
         private boolean isClockedIn;
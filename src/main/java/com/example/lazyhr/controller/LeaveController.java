@@ -1,17 +1,33 @@
 package com.example.lazyhr.controller;
 
+import com.example.lazyhr.dto.CursorPage;
+import com.example.lazyhr.dto.LeaveCalendar;
+import com.example.lazyhr.dto.LeaveRequestItem;
+import com.example.lazyhr.model.Holiday;
+import com.example.lazyhr.model.LeaveCategory;
+import com.example.lazyhr.model.LeavePolicy;
 import com.example.lazyhr.model.LeaveRequest;
 import com.example.lazyhr.model.LeaveStatus;
+import com.example.lazyhr.service.BusinessCalendarService;
+import com.example.lazyhr.service.LeaveBalanceService;
+import com.example.lazyhr.service.LeaveCalendarService;
+import com.example.lazyhr.service.LeaveDecisionOutcome;
 import com.example.lazyhr.service.LeaveService;
 import com.example.lazyhr.service.UserService;
 import com.example.lazyhr.constants.ApiMessages;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/leave")
@@ -26,6 +42,18 @@ public class LeaveController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private BusinessCalendarService businessCalendar;
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private LeaveCalendarService leaveCalendarService;
+
+    @Value("${lazyhr.leave.batch.max-size:500}")
+    private int maxDecisionBatchSize;
+
     /**
      * Apply for leave
      */
@@ -106,6 +134,22 @@ public class LeaveController {
         }
     }
 
+    /**
+     * Approve many pending leave requests at once; see decideLeaves
+     */
+    @PostMapping("/approve-batch")
+    public ResponseEntity<?> approveLeaves(@RequestBody LeaveDecisionBatchDto batch) {
+        return decideLeaves(batch, LeaveStatus.APPROVED);
+    }
+
+    /**
+     * Reject many pending leave requests at once; see decideLeaves
+     */
+    @PostMapping("/reject-batch")
+    public ResponseEntity<?> rejectLeaves(@RequestBody LeaveDecisionBatchDto batch) {
+        return decideLeaves(batch, LeaveStatus.REJECTED);
+    }
+
     /**
      * Get user's leave requests
      */
@@ -120,6 +164,24 @@ public class LeaveController {
         }
     }
 
+    /**
+     * Get user's leave requests one page at a time, newest first
+     */
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<?> getUserLeavesPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        try {
+            CursorPage<LeaveRequestItem> page = leaveService.getUserLeaveRequestsPage(userId, cursor, size);
+            return ResponseEntity.ok(new ApiResponse(ApiMessages.SUCCESS, ApiMessages.USER_LEAVE_REQUESTS_RETRIEVED, page));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_LEAVE_REQUESTS + e.getMessage(), null));
+        }
+    }
+
     /**
      * Get leave requests by status
      */
@@ -134,6 +196,24 @@ public class LeaveController {
         }
     }
 
+    /**
+     * Get leave requests by status one page at a time, newest first
+     */
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<?> getLeavesByStatusPage(
+            @PathVariable LeaveStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        try {
+            CursorPage<LeaveRequestItem> page = leaveService.getLeaveRequestsByStatusPage(status, cursor, size);
+            return ResponseEntity.ok(new ApiResponse(ApiMessages.SUCCESS, ApiMessages.LEAVE_REQUESTS_RETRIEVED_BY_STATUS, page));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_LEAVE_REQUESTS + e.getMessage(), null));
+        }
+    }
+
     /**
      * Get pending leave requests
      */
@@ -148,6 +228,23 @@ public class LeaveController {
         }
     }
 
+    /**
+     * Get pending leave requests one page at a time, oldest first
+     */
+    @GetMapping("/pending/page")
+    public ResponseEntity<?> getPendingLeavesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        try {
+            CursorPage<LeaveRequestItem> page = leaveService.getPendingLeaveRequestsPage(cursor, size);
+            return ResponseEntity.ok(new ApiResponse(ApiMessages.SUCCESS, ApiMessages.PENDING_LEAVE_REQUESTS_RETRIEVED, page));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_PENDING_REQUESTS + e.getMessage(), null));
+        }
+    }
+
     /**
      * Get leave request by ID
      */
@@ -221,7 +318,216 @@ public class LeaveController {
         }
     }
 
+    /**
+     * Get the yearly allocation of every leave category that has a policy
+     */
+    @GetMapping("/policies")
+    public ResponseEntity<?> getLeavePolicies() {
+        try {
+            List<LeavePolicy> policies = leaveBalanceService.getPolicies();
+            return ResponseEntity.ok(new ApiResponse(ApiMessages.SUCCESS, ApiMessages.LEAVE_POLICIES_RETRIEVED, policies));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_LEAVE_POLICIES + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Set the yearly allocation of a leave category; omit allocatedDays to stop tracking one
+     */
+    @PutMapping("/policies/{category}")
+    public ResponseEntity<?> updateLeavePolicy(@PathVariable LeaveCategory category,
+            @RequestParam(required = false) BigDecimal allocatedDays) {
+        try {
+            LeavePolicy policy = leaveBalanceService.updatePolicy(category, allocatedDays);
+            return ResponseEntity.ok(new ApiResponse(ApiMessages.SUCCESS, ApiMessages.LEAVE_POLICY_UPDATED, policy));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_UPDATE_LEAVE_POLICY + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Get public holidays of every region between two days
+     */
+    @GetMapping("/holidays")
+    public ResponseEntity<?> getHolidays(@RequestParam Long startTimestamp, @RequestParam Long endTimestamp) {
+        try {
+            List<Holiday> holidays = businessCalendar.getHolidays(startTimestamp, endTimestamp);
+            return ResponseEntity.ok(new ApiResponse(ApiMessages.SUCCESS, ApiMessages.HOLIDAYS_RETRIEVED, holidays));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_HOLIDAYS + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Add a public holiday; without a region it applies everywhere. Takes effect on commit.
+     */
+    @PostMapping("/holidays")
+    public ResponseEntity<?> addHoliday(@RequestBody HolidayDto holidayDto) {
+        try {
+            Holiday holiday = new Holiday();
+            holiday.setRegion(holidayDto.getRegion());
+            holiday.setHolidayDate(holidayDto.getDate());
+            holiday.setName(holidayDto.getName());
+            Holiday saved = businessCalendar.addHoliday(holiday);
+            return ResponseEntity.ok(new ApiResponse(ApiMessages.SUCCESS, ApiMessages.HOLIDAY_ADDED, saved));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_ADD_HOLIDAY + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Remove a public holiday
+     */
+    @DeleteMapping("/holidays/{holidayId}")
+    public ResponseEntity<?> deleteHoliday(@PathVariable Long holidayId) {
+        try {
+            businessCalendar.deleteHoliday(holidayId);
+            return ResponseEntity.ok(new ApiResponse(ApiMessages.SUCCESS, ApiMessages.HOLIDAY_DELETED, null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_DELETE_HOLIDAY + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Count working days between two days, inclusive, for the region of a department
+     */
+    @GetMapping("/working-days")
+    public ResponseEntity<?> getWorkingDays(@RequestParam Long startTimestamp, @RequestParam Long endTimestamp,
+            @RequestParam(required = false) String department) {
+        try {
+            long workingDays = businessCalendar.workingDays(department, startTimestamp, endTimestamp);
+            return ResponseEntity.ok(new ApiResponse(ApiMessages.SUCCESS, ApiMessages.WORKING_DAYS_RETRIEVED, workingDays));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_WORKING_DAYS + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Month grid of who in a department is off, as per-day bitmaps of member indices
+     */
+    @GetMapping("/calendar")
+    public ResponseEntity<?> getLeaveCalendar(@RequestParam String department, @RequestParam String month) {
+        try {
+            LeaveCalendar calendar = leaveCalendarService.getCalendar(department, YearMonth.parse(month));
+            return ResponseEntity.ok(new ApiResponse(ApiMessages.SUCCESS, ApiMessages.LEAVE_CALENDAR_RETRIEVED, calendar));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_FETCH_LEAVE_CALENDAR + e.getMessage(), null));
+        }
+    }
+
+    // Requests already decided, missing or changed concurrently are reported per item, not as a failure
+    private ResponseEntity<?> decideLeaves(LeaveDecisionBatchDto batch, LeaveStatus decision) {
+        try {
+            List<Long> leaveIds = batch.getLeaveIds() != null ? batch.getLeaveIds() : List.of();
+            if (leaveIds.size() > maxDecisionBatchSize) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.LEAVE_BATCH_TOO_LARGE + maxDecisionBatchSize, null));
+            }
+
+            List<LeaveDecisionOutcome> outcomes = leaveService.decideLeaves(leaveIds, batch.getApproverId(),
+                    batch.getComments(), decision);
+
+            Map<LeaveDecisionOutcome, Integer> totals = new EnumMap<>(LeaveDecisionOutcome.class);
+            List<LeaveDecisionResultDto> results = new ArrayList<>(outcomes.size());
+            for (int i = 0; i < outcomes.size(); i++) {
+                totals.merge(outcomes.get(i), 1, Integer::sum);
+                results.add(new LeaveDecisionResultDto(leaveIds.get(i), outcomes.get(i)));
+            }
+
+            return ResponseEntity.ok(new ApiResponse(ApiMessages.SUCCESS, ApiMessages.LEAVE_REQUESTS_DECIDED,
+                    Map.of("totals", totals, "results", results)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(ApiMessages.ERROR, ApiMessages.FAILED_TO_DECIDE_LEAVE_REQUESTS + e.getMessage(), null));
+        }
+    }
+
     // Inner classes for DTOs and responses
+    public static class LeaveDecisionBatchDto {
+        private List<Long> leaveIds;
+        private Long approverId;
+        private String comments;
+
+        public List<Long> getLeaveIds() {
+            return leaveIds;
+        }
+
+        public void setLeaveIds(List<Long> leaveIds) {
+            this.leaveIds = leaveIds;
+        }
+
+        public Long getApproverId() {
+            return approverId;
+        }
+
+        public void setApproverId(Long approverId) {
+            this.approverId = approverId;
+        }
+
+        public String getComments() {
+            return comments;
+        }
+
+        public void setComments(String comments) {
+            this.comments = comments;
+        }
+    }
+
+    public static class LeaveDecisionResultDto {
+        private final Long leaveId;
+        private final LeaveDecisionOutcome outcome;
+
+        public LeaveDecisionResultDto(Long leaveId, LeaveDecisionOutcome outcome) {
+            this.leaveId = leaveId;
+            this.outcome = outcome;
+        }
+
+        public Long getLeaveId() {
+            return leaveId;
+        }
+
+        public LeaveDecisionOutcome getOutcome() {
+            return outcome;
+        }
+    }
+
+    public static class HolidayDto {
+        private String region;
+        private Long date; // Unix timestamp in milliseconds
+        private String name;
+
+        public String getRegion() {
+            return region;
+        }
+
+        public void setRegion(String region) {
+            this.region = region;
+        }
+
+        public Long getDate() {
+            return date;
+        }
+
+        public void setDate(Long date) {
+            this.date = date;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
     public static class LeaveRequestDto {
         private Long userId;
         private com.example.lazyhr.model.LeaveCategory leaveCategory;
@@ -7,7 +7,6 @@ import com.example.lazyhr.model.LeaveRequest;
 import com.example.lazyhr.service.UserService;
 import com.example.lazyhr.service.AttendanceService;
 import com.example.lazyhr.service.LeaveService;
-import com.example.lazyhr.repository.AttendanceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -35,9 +34,6 @@ public class DashboardController {
     @Autowired
     private LeaveService leaveService;
 
-    @Autowired
-    private AttendanceRepository attendanceRepository;
-
     /**
      * Get the current authenticated user
      */
@@ -133,8 +129,7 @@ public class DashboardController {
         List<Attendance> todayAllAttendances = attendanceService.getAllTodayAttendances(user.getId());
 
         // Active attendance (clocked in but not out)
-        List<Attendance> activeAttendances = attendanceRepository.findActiveAttendances(user.getId());
-        Attendance activeAttendance = activeAttendances.isEmpty() ? null : activeAttendances.get(0);
+        Attendance activeAttendance = attendanceService.getActiveAttendance(user.getId()).orElse(null);
 
         // Set attributes expected by template
         model.addAttribute("user", user);
@@ -143,8 +138,8 @@ public class DashboardController {
         model.addAttribute("todayAttendance", todayAttendance.orElse(null));
         model.addAttribute("todayAttendances", todayAllAttendances); // Template expects this name
         model.addAttribute("activeAttendance", activeAttendance); // Template expects this name
-        model.addAttribute("hasActiveAttendance", !activeAttendances.isEmpty());
-        model.addAttribute("isClockedIn", !activeAttendances.isEmpty()); // Template expects this name
+        model.addAttribute("hasActiveAttendance", activeAttendance != null);
+        model.addAttribute("isClockedIn", activeAttendance != null); // Template expects this name
         model.addAttribute("timestamp", System.currentTimeMillis()); // For cache busting
 
         return "attendance";
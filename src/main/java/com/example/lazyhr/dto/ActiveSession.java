@@ -0,0 +1,61 @@
+package com.example.lazyhr.dto;
+
+import com.example.lazyhr.model.Attendance;
+
+import java.util.Objects;
+
+/**
+ * Compact view of an open (clocked in, not clocked out) attendance session
+ */
+public class ActiveSession {
+
+    private final Long attendanceId;
+    private final Long userId;
+    private final Long attendanceDate; // Unix timestamp in milliseconds
+    private final Long clockInTime; // Unix timestamp in milliseconds
+
+    public ActiveSession(Long attendanceId, Long userId, Long attendanceDate, Long clockInTime) {
+        this.attendanceId = attendanceId;
+        this.userId = userId;
+        this.attendanceDate = attendanceDate;
+        this.clockInTime = clockInTime;
+    }
+
+    public static ActiveSession of(Attendance attendance) {
+        return new ActiveSession(attendance.getId(), attendance.getUser().getId(),
+                attendance.getAttendanceDate(), attendance.getClockInTime());
+    }
+
+    public Long getAttendanceId() {
+        return attendanceId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getAttendanceDate() {
+        return attendanceDate;
+    }
+
+    public Long getClockInTime() {
+        return clockInTime;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ActiveSession)) {
+            return false;
+        }
+        ActiveSession that = (ActiveSession) o;
+        return Objects.equals(attendanceId, that.attendanceId) && Objects.equals(userId, that.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(attendanceId, userId);
+    }
+}
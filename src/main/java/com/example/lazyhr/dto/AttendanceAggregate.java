@@ -0,0 +1,73 @@
+package com.example.lazyhr.dto;
+
+import com.example.lazyhr.model.WorkHours;
+
+import java.math.BigDecimal;
+
+/**
+ * Attendance totals for one group (a department, or a position within a department) and day,
+ * computed in the database from the daily attendance summaries
+ */
+public class AttendanceAggregate {
+
+    private final String group;
+    private final Long day; // Unix timestamp in milliseconds (start of day)
+    private final long recordedCount;
+    private final long presentCount;
+    private final long lateCount;
+    private final long workedMinutes;
+    private final long overtimeMinutes;
+
+    public AttendanceAggregate(String group, Long day, Long recordedCount, Long presentCount, Long lateCount,
+            Long workedMinutes, Long overtimeMinutes) {
+        this.group = group;
+        this.day = day;
+        this.recordedCount = recordedCount != null ? recordedCount : 0L;
+        this.presentCount = presentCount != null ? presentCount : 0L;
+        this.lateCount = lateCount != null ? lateCount : 0L;
+        this.workedMinutes = workedMinutes != null ? workedMinutes : 0L;
+        this.overtimeMinutes = overtimeMinutes != null ? overtimeMinutes : 0L;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public Long getDay() {
+        return day;
+    }
+
+    /**
+     * Employees with at least one attendance record that day
+     */
+    public long getRecordedCount() {
+        return recordedCount;
+    }
+
+    /**
+     * Employees present that day, including late and half-day arrivals
+     */
+    public long getPresentCount() {
+        return presentCount;
+    }
+
+    public long getLateCount() {
+        return lateCount;
+    }
+
+    public long getWorkedMinutes() {
+        return workedMinutes;
+    }
+
+    public long getOvertimeMinutes() {
+        return overtimeMinutes;
+    }
+
+    public BigDecimal getTotalHours() {
+        return WorkHours.toHours(workedMinutes);
+    }
+
+    public BigDecimal getOvertimeHours() {
+        return WorkHours.toHours(overtimeMinutes);
+    }
+}
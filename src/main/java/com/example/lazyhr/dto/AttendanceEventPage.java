@@ -0,0 +1,36 @@
+package com.example.lazyhr.dto;
+
+import java.util.List;
+
+/**
+ * Events read from the attendance event log. Pass {@code nextOffset} back to continue;
+ * it equals {@code endOffset} once the reader has caught up.
+ */
+public class AttendanceEventPage {
+
+    private final List<AttendanceLogEntry> events;
+    private final long nextOffset;
+    private final long endOffset;
+
+    public AttendanceEventPage(List<AttendanceLogEntry> events, long nextOffset, long endOffset) {
+        this.events = events;
+        this.nextOffset = nextOffset;
+        this.endOffset = endOffset;
+    }
+
+    public List<AttendanceLogEntry> getEvents() {
+        return events;
+    }
+
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    public boolean isCaughtUp() {
+        return nextOffset >= endOffset;
+    }
+}
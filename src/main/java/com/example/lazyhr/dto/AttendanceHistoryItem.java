@@ -0,0 +1,64 @@
+package com.example.lazyhr.dto;
+
+import com.example.lazyhr.model.AttendanceStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Attendance history row without the notes text or user association
+ */
+public class AttendanceHistoryItem {
+
+    private final Long id;
+    private final Long attendanceDate; // Unix timestamp in milliseconds
+    private final Long clockInTime; // Unix timestamp in milliseconds
+    private final Long clockOutTime; // Unix timestamp in milliseconds
+    private final Integer breakDurationMinutes;
+    private final BigDecimal totalHours;
+    private final BigDecimal overtimeHours;
+    private final AttendanceStatus status;
+
+    public AttendanceHistoryItem(Long id, Long attendanceDate, Long clockInTime, Long clockOutTime,
+            Integer breakDurationMinutes, BigDecimal totalHours, BigDecimal overtimeHours, AttendanceStatus status) {
+        this.id = id;
+        this.attendanceDate = attendanceDate;
+        this.clockInTime = clockInTime;
+        this.clockOutTime = clockOutTime;
+        this.breakDurationMinutes = breakDurationMinutes;
+        this.totalHours = totalHours;
+        this.overtimeHours = overtimeHours;
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAttendanceDate() {
+        return attendanceDate;
+    }
+
+    public Long getClockInTime() {
+        return clockInTime;
+    }
+
+    public Long getClockOutTime() {
+        return clockOutTime;
+    }
+
+    public Integer getBreakDurationMinutes() {
+        return breakDurationMinutes;
+    }
+
+    public BigDecimal getTotalHours() {
+        return totalHours;
+    }
+
+    public BigDecimal getOvertimeHours() {
+        return overtimeHours;
+    }
+
+    public AttendanceStatus getStatus() {
+        return status;
+    }
+}
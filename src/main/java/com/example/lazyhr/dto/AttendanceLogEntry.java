@@ -0,0 +1,82 @@
+package com.example.lazyhr.dto;
+
+import com.example.lazyhr.event.AttendanceChangedEvent;
+import com.example.lazyhr.model.AttendanceStatus;
+
+/**
+ * One event read back from the attendance event log, with its offset
+ */
+public class AttendanceLogEntry {
+
+    private final long offset;
+    private final AttendanceChangedEvent.Type type;
+    private final Long attendanceId;
+    private final Long userId;
+    private final Long attendanceDate; // Unix timestamp in milliseconds
+    private final Long clockInTime; // Unix timestamp in milliseconds
+    private final Long clockOutTime; // Unix timestamp in milliseconds
+    private final Integer breakDurationMinutes;
+    private final AttendanceStatus status;
+    private final String notes;
+    private final long occurredAt; // Unix timestamp in milliseconds
+
+    public AttendanceLogEntry(long offset, AttendanceChangedEvent.Type type, Long attendanceId, Long userId,
+            Long attendanceDate, Long clockInTime, Long clockOutTime, Integer breakDurationMinutes,
+            AttendanceStatus status, String notes, long occurredAt) {
+        this.offset = offset;
+        this.type = type;
+        this.attendanceId = attendanceId;
+        this.userId = userId;
+        this.attendanceDate = attendanceDate;
+        this.clockInTime = clockInTime;
+        this.clockOutTime = clockOutTime;
+        this.breakDurationMinutes = breakDurationMinutes;
+        this.status = status;
+        this.notes = notes;
+        this.occurredAt = occurredAt;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public AttendanceChangedEvent.Type getType() {
+        return type;
+    }
+
+    public Long getAttendanceId() {
+        return attendanceId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getAttendanceDate() {
+        return attendanceDate;
+    }
+
+    public Long getClockInTime() {
+        return clockInTime;
+    }
+
+    public Long getClockOutTime() {
+        return clockOutTime;
+    }
+
+    public Integer getBreakDurationMinutes() {
+        return breakDurationMinutes;
+    }
+
+    public AttendanceStatus getStatus() {
+        return status;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public long getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.lazyhr.dto;
+
+import java.util.List;
+
+/**
+ * Result of an attendance report query with how much data was scanned and how fresh it is
+ */
+public class AttendanceReport {
+
+    private final List<AttendanceReportRow> rows;
+    private final long workingDays; // In the range, for the department's region when filtered by department
+    private final long scannedRecords;
+    private final long elapsedMillis;
+    private final long dataAsOf; // Unix timestamp in milliseconds of the last refresh
+
+    public AttendanceReport(List<AttendanceReportRow> rows, long workingDays, long scannedRecords, long elapsedMillis,
+            long dataAsOf) {
+        this.rows = rows;
+        this.workingDays = workingDays;
+        this.scannedRecords = scannedRecords;
+        this.elapsedMillis = elapsedMillis;
+        this.dataAsOf = dataAsOf;
+    }
+
+    public List<AttendanceReportRow> getRows() {
+        return rows;
+    }
+
+    public long getWorkingDays() {
+        return workingDays;
+    }
+
+    public long getScannedRecords() {
+        return scannedRecords;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getDataAsOf() {
+        return dataAsOf;
+    }
+}
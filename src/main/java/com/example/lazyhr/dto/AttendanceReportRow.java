@@ -0,0 +1,51 @@
+package com.example.lazyhr.dto;
+
+import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.model.WorkHours;
+
+import java.math.BigDecimal;
+
+/**
+ * One group of an attendance report. Dimensions that were not grouped on are null.
+ */
+public class AttendanceReportRow {
+
+    private final String department;
+    private final Long weekStart; // Unix timestamp in milliseconds of the Monday the week starts on
+    private final AttendanceStatus status;
+    private final long recordCount;
+    private final long workedMinutes;
+
+    public AttendanceReportRow(String department, Long weekStart, AttendanceStatus status, long recordCount,
+            long workedMinutes) {
+        this.department = department;
+        this.weekStart = weekStart;
+        this.status = status;
+        this.recordCount = recordCount;
+        this.workedMinutes = workedMinutes;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public Long getWeekStart() {
+        return weekStart;
+    }
+
+    public AttendanceStatus getStatus() {
+        return status;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public long getWorkedMinutes() {
+        return workedMinutes;
+    }
+
+    public BigDecimal getTotalHours() {
+        return WorkHours.toHours(workedMinutes);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.lazyhr.dto;
+
+/**
+ * One employee on the live "who's in" board: their latest session of the day
+ */
+public class BoardEntry {
+
+    private final Long userId;
+    private final String name;
+    private final String department;
+    private final Long attendanceId;
+    private final Long clockInTime; // Unix timestamp in milliseconds
+    private final Long clockOutTime; // Unix timestamp in milliseconds
+
+    public BoardEntry(Long userId, String name, String department, Long attendanceId, Long clockInTime,
+            Long clockOutTime) {
+        this.userId = userId;
+        this.name = name;
+        this.department = department;
+        this.attendanceId = attendanceId;
+        this.clockInTime = clockInTime;
+        this.clockOutTime = clockOutTime;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public Long getAttendanceId() {
+        return attendanceId;
+    }
+
+    public Long getClockInTime() {
+        return clockInTime;
+    }
+
+    public Long getClockOutTime() {
+        return clockOutTime;
+    }
+
+    public boolean isIn() {
+        return clockInTime != null && clockOutTime == null;
+    }
+}
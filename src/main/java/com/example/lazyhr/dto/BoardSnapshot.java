@@ -0,0 +1,29 @@
+package com.example.lazyhr.dto;
+
+import java.util.List;
+
+/**
+ * Full state of the live "who's in" board for one day
+ */
+public class BoardSnapshot {
+
+    private final Long day; // Unix timestamp in milliseconds (start of day)
+    private final List<BoardEntry> entries;
+
+    public BoardSnapshot(Long day, List<BoardEntry> entries) {
+        this.day = day;
+        this.entries = entries;
+    }
+
+    public Long getDay() {
+        return day;
+    }
+
+    public List<BoardEntry> getEntries() {
+        return entries;
+    }
+
+    public long getInCount() {
+        return entries.stream().filter(BoardEntry::isIn).count();
+    }
+}
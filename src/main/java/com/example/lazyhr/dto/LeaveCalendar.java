@@ -0,0 +1,64 @@
+package com.example.lazyhr.dto;
+
+import java.util.List;
+
+/**
+ * Month grid of who is off in a department. Members are the rows, in the order of {@link #getMembers()};
+ * for every day of the month {@link #getApproved()} and {@link #getPending()} hold a Base64 bitmap of
+ * member indices, bit {@code i} being bit {@code i % 8} of byte {@code i / 8} (as in
+ * {@code java.util.BitSet.valueOf}). Trailing zero bytes are dropped, so a day nobody is off is "".
+ * {@link #getWorkingDays()} is the same encoding over day indices.
+ */
+public class LeaveCalendar {
+
+    private final String department;
+    private final String month; // yyyy-MM
+    private final Long firstDay; // Unix timestamp in milliseconds (start of day)
+    private final List<LeaveCalendarMember> members;
+    private final List<String> approved;
+    private final List<String> pending;
+    private final String workingDays;
+
+    public LeaveCalendar(String department, String month, Long firstDay, List<LeaveCalendarMember> members,
+            List<String> approved, List<String> pending, String workingDays) {
+        this.department = department;
+        this.month = month;
+        this.firstDay = firstDay;
+        this.members = members;
+        this.approved = approved;
+        this.pending = pending;
+        this.workingDays = workingDays;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public Long getFirstDay() {
+        return firstDay;
+    }
+
+    public int getDays() {
+        return approved.size();
+    }
+
+    public List<LeaveCalendarMember> getMembers() {
+        return members;
+    }
+
+    public List<String> getApproved() {
+        return approved;
+    }
+
+    public List<String> getPending() {
+        return pending;
+    }
+
+    public String getWorkingDays() {
+        return workingDays;
+    }
+}
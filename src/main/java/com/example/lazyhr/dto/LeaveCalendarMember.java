@@ -0,0 +1,32 @@
+package com.example.lazyhr.dto;
+
+/**
+ * One row of the team calendar: an active member of the department
+ */
+public class LeaveCalendarMember {
+
+    private final Long userId;
+    private final String employeeId;
+    private final String name;
+
+    public LeaveCalendarMember(Long userId, String employeeId, String username, String firstName, String lastName) {
+        this.userId = userId;
+        this.employeeId = employeeId;
+        // Same rule as User.getFullName
+        String first = firstName != null ? firstName : "";
+        String last = lastName != null ? lastName : "";
+        this.name = first.isEmpty() && last.isEmpty() ? username : (first + " " + last).trim();
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
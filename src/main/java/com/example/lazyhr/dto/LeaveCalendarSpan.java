@@ -0,0 +1,37 @@
+package com.example.lazyhr.dto;
+
+import com.example.lazyhr.model.LeaveStatus;
+
+/**
+ * Days one pending or approved leave request covers, as read for the team calendar
+ */
+public class LeaveCalendarSpan {
+
+    private final Long userId;
+    private final Long startDate; // Unix timestamp in milliseconds
+    private final Long endDate; // Unix timestamp in milliseconds
+    private final LeaveStatus status;
+
+    public LeaveCalendarSpan(Long userId, Long startDate, Long endDate, LeaveStatus status) {
+        this.userId = userId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getStartDate() {
+        return startDate;
+    }
+
+    public Long getEndDate() {
+        return endDate;
+    }
+
+    public LeaveStatus getStatus() {
+        return status;
+    }
+}
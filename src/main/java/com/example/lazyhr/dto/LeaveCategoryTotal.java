@@ -0,0 +1,27 @@
+package com.example.lazyhr.dto;
+
+import com.example.lazyhr.model.LeaveCategory;
+
+import java.math.BigDecimal;
+
+/**
+ * Approved leave days of one category, summed in the database
+ */
+public class LeaveCategoryTotal {
+
+    private final LeaveCategory category;
+    private final BigDecimal days;
+
+    public LeaveCategoryTotal(LeaveCategory category, BigDecimal days) {
+        this.category = category;
+        this.days = days != null ? days : BigDecimal.ZERO;
+    }
+
+    public LeaveCategory getCategory() {
+        return category;
+    }
+
+    public BigDecimal getDays() {
+        return days;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.lazyhr.dto;
+
+import com.example.lazyhr.model.LeaveCategory;
+import com.example.lazyhr.model.LeavePeriod;
+import com.example.lazyhr.model.LeaveStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Leave request row for listings, with the requester and approver flattened in so no association is loaded
+ */
+public class LeaveRequestItem {
+
+    private final Long id;
+    private final Long userId;
+    private final String employeeId;
+    private final String employeeName;
+    private final String department;
+    private final LeaveCategory leaveCategory;
+    private final LeavePeriod leavePeriod;
+    private final Long startDate; // Unix timestamp in milliseconds
+    private final Long endDate; // Unix timestamp in milliseconds
+    private final BigDecimal totalDays;
+    private final String reason;
+    private final LeaveStatus status;
+    private final Long appliedDate; // Unix timestamp in milliseconds
+    private final Long approvedById;
+    private final String approvedByName;
+    private final Long approvedDate; // Unix timestamp in milliseconds
+    private final String comments;
+    private final Long version;
+
+    public LeaveRequestItem(Long id, Long userId, String employeeId, String username, String firstName,
+            String lastName, String department, LeaveCategory leaveCategory, LeavePeriod leavePeriod, Long startDate,
+            Long endDate, BigDecimal totalDays, String reason, LeaveStatus status, Long appliedDate,
+            Long approvedById, String approverUsername, String approverFirstName, String approverLastName,
+            Long approvedDate, String comments, Long version) {
+        this.id = id;
+        this.userId = userId;
+        this.employeeId = employeeId;
+        this.employeeName = fullName(username, firstName, lastName);
+        this.department = department;
+        this.leaveCategory = leaveCategory;
+        this.leavePeriod = leavePeriod;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.totalDays = totalDays;
+        this.reason = reason;
+        this.status = status;
+        this.appliedDate = appliedDate;
+        this.approvedById = approvedById;
+        this.approvedByName = approvedById != null
+                ? fullName(approverUsername, approverFirstName, approverLastName) : null;
+        this.approvedDate = approvedDate;
+        this.comments = comments;
+        this.version = version;
+    }
+
+    // Same rule as User.getFullName
+    private static String fullName(String username, String firstName, String lastName) {
+        String first = firstName != null ? firstName : "";
+        String last = lastName != null ? lastName : "";
+        if (first.isEmpty() && last.isEmpty()) {
+            return username;
+        }
+        return (first + " " + last).trim();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getEmployeeName() {
+        return employeeName;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public LeaveCategory getLeaveCategory() {
+        return leaveCategory;
+    }
+
+    public LeavePeriod getLeavePeriod() {
+        return leavePeriod;
+    }
+
+    public Long getStartDate() {
+        return startDate;
+    }
+
+    public Long getEndDate() {
+        return endDate;
+    }
+
+    public BigDecimal getTotalDays() {
+        return totalDays;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public LeaveStatus getStatus() {
+        return status;
+    }
+
+    public Long getAppliedDate() {
+        return appliedDate;
+    }
+
+    public Long getApprovedById() {
+        return approvedById;
+    }
+
+    public String getApprovedByName() {
+        return approvedByName;
+    }
+
+    public Long getApprovedDate() {
+        return approvedDate;
+    }
+
+    public String getComments() {
+        return comments;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
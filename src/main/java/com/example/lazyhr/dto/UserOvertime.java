@@ -0,0 +1,53 @@
+package com.example.lazyhr.dto;
+
+import com.example.lazyhr.model.WorkHours;
+
+import java.math.BigDecimal;
+
+/**
+ * Worked and overtime totals of one employee over a range of months, read from the overtime ledger
+ */
+public class UserOvertime {
+
+    private final Long userId;
+    private final String employeeId;
+    private final String department;
+    private final long workedMinutes;
+    private final long overtimeMinutes;
+
+    public UserOvertime(Long userId, String employeeId, String department, Long workedMinutes, Long overtimeMinutes) {
+        this.userId = userId;
+        this.employeeId = employeeId;
+        this.department = department;
+        this.workedMinutes = workedMinutes != null ? workedMinutes : 0L;
+        this.overtimeMinutes = overtimeMinutes != null ? overtimeMinutes : 0L;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public long getWorkedMinutes() {
+        return workedMinutes;
+    }
+
+    public long getOvertimeMinutes() {
+        return overtimeMinutes;
+    }
+
+    public BigDecimal getTotalHours() {
+        return WorkHours.toHours(workedMinutes);
+    }
+
+    public BigDecimal getOvertimeHours() {
+        return WorkHours.toHours(overtimeMinutes);
+    }
+}
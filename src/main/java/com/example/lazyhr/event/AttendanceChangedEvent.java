@@ -0,0 +1,98 @@
+package com.example.lazyhr.event;
+
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.AttendanceStatus;
+
+/**
+ * Published whenever an attendance record is opened, closed or edited.
+ * Carries a flat copy of the record so listeners never touch the entity or its lazy user
+ * after the transaction has ended. Listeners that act on committed data use
+ * {@code @TransactionalEventListener}; events published outside a transaction are delivered immediately.
+ */
+public class AttendanceChangedEvent {
+
+    public enum Type {
+        CLOCKED_IN, CLOCKED_OUT, UPDATED
+    }
+
+    private final Type type;
+    private final Long attendanceId; // Null only when a batch-inserted row could not be read back
+    private final Long userId;
+    private final Long attendanceDate; // Unix timestamp in milliseconds
+    private final Long clockInTime; // Unix timestamp in milliseconds
+    private final Long clockOutTime; // Unix timestamp in milliseconds
+    private final Integer breakDurationMinutes;
+    private final AttendanceStatus status;
+    private final String notes;
+    private final long occurredAt; // Unix timestamp in milliseconds
+
+    public AttendanceChangedEvent(Type type, Long attendanceId, Long userId, Long attendanceDate, Long clockInTime,
+            Long clockOutTime, Integer breakDurationMinutes, AttendanceStatus status) {
+        this(type, attendanceId, userId, attendanceDate, clockInTime, clockOutTime, breakDurationMinutes, status, null);
+    }
+
+    public AttendanceChangedEvent(Type type, Long attendanceId, Long userId, Long attendanceDate, Long clockInTime,
+            Long clockOutTime, Integer breakDurationMinutes, AttendanceStatus status, String notes) {
+        this.type = type;
+        this.attendanceId = attendanceId;
+        this.userId = userId;
+        this.attendanceDate = attendanceDate;
+        this.clockInTime = clockInTime;
+        this.clockOutTime = clockOutTime;
+        this.breakDurationMinutes = breakDurationMinutes;
+        this.status = status;
+        this.notes = notes;
+        this.occurredAt = System.currentTimeMillis();
+    }
+
+    public static AttendanceChangedEvent of(Type type, Attendance attendance) {
+        return new AttendanceChangedEvent(type, attendance.getId(), attendance.getUser().getId(),
+                attendance.getAttendanceDate(), attendance.getClockInTime(), attendance.getClockOutTime(),
+                attendance.getBreakDurationMinutes(), attendance.getStatus(), attendance.getNotes());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getAttendanceId() {
+        return attendanceId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getAttendanceDate() {
+        return attendanceDate;
+    }
+
+    public Long getClockInTime() {
+        return clockInTime;
+    }
+
+    public Long getClockOutTime() {
+        return clockOutTime;
+    }
+
+    public Integer getBreakDurationMinutes() {
+        return breakDurationMinutes;
+    }
+
+    public AttendanceStatus getStatus() {
+        return status;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public long getOccurredAt() {
+        return occurredAt;
+    }
+
+    @Override
+    public String toString() {
+        return "AttendanceChangedEvent{" + type + ", attendanceId=" + attendanceId + ", userId=" + userId + "}";
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.lazyhr.event;
+
+import com.example.lazyhr.model.LeaveRequest;
+import com.example.lazyhr.model.LeaveStatus;
+
+/**
+ * Published whenever a leave request is applied for, approved, rejected or cancelled.
+ * Carries a flat copy of the request; listeners that act on committed data use
+ * {@code @TransactionalEventListener}.
+ */
+public class LeaveChangedEvent {
+
+    private final Long leaveId;
+    private final Long userId;
+    private final Long startDate; // Unix timestamp in milliseconds
+    private final Long endDate; // Unix timestamp in milliseconds
+    private final LeaveStatus status; // Null once the request is cancelled
+
+    public LeaveChangedEvent(Long leaveId, Long userId, Long startDate, Long endDate, LeaveStatus status) {
+        this.leaveId = leaveId;
+        this.userId = userId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+    }
+
+    public static LeaveChangedEvent of(LeaveRequest leaveRequest, LeaveStatus status) {
+        return new LeaveChangedEvent(leaveRequest.getId(), leaveRequest.getUser().getId(), leaveRequest.getStartDate(),
+                leaveRequest.getEndDate(), status);
+    }
+
+    public Long getLeaveId() {
+        return leaveId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getStartDate() {
+        return startDate;
+    }
+
+    public Long getEndDate() {
+        return endDate;
+    }
+
+    public LeaveStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.lazyhr.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+/**
+ * Closed attendance record of a past period, moved out of the attendance table by
+ * {@code AttendanceArchiveService}. Rows keep their original id and are never updated.
+ * On MySQL the table is range-partitioned on attendance_date, so queries must filter on
+ * attendance_date directly (no functions or casts) for the optimizer to prune partitions.
+ */
+@Entity
+@Immutable
+@Table(name = "attendance_archive", indexes = {
+        @Index(name = "idx_attendance_archive_user_date_id", columnList = "user_id, attendance_date, id"),
+        @Index(name = "idx_attendance_archive_date", columnList = "attendance_date")
+})
+@Data
+@NoArgsConstructor
+public class ArchivedAttendance {
+
+    @Id
+    private Long id; // Id of the original attendance row
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "attendance_date", nullable = false)
+    private Long attendanceDate; // Unix timestamp in milliseconds
+
+    @Column(name = "clock_in_time")
+    private Long clockInTime; // Unix timestamp in milliseconds
+
+    @Column(name = "clock_out_time")
+    private Long clockOutTime; // Unix timestamp in milliseconds
+
+    @Column(name = "break_duration_minutes")
+    private Integer breakDurationMinutes;
+
+    @Column(name = "total_hours", precision = 4, scale = 2)
+    private BigDecimal totalHours;
+
+    @Column(name = "overtime_hours", precision = 4, scale = 2)
+    private BigDecimal overtimeHours;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AttendanceStatus status;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt; // Unix timestamp in milliseconds
+
+    @Column(name = "updated_at")
+    private Long updatedAt; // Unix timestamp in milliseconds
+
+    @Column(name = "archived_at", nullable = false)
+    private Long archivedAt; // Unix timestamp in milliseconds
+
+    /**
+     * Unmanaged copy as an {@link Attendance}, so callers can treat both tiers alike.
+     * The copy must not be saved.
+     */
+    public Attendance toAttendance(User user) {
+        Attendance attendance = new Attendance();
+        attendance.setId(id);
+        attendance.setUser(user);
+        attendance.setAttendanceDate(attendanceDate);
+        attendance.setClockInTime(clockInTime);
+        attendance.setClockOutTime(clockOutTime);
+        attendance.setBreakDurationMinutes(breakDurationMinutes);
+        attendance.setTotalHours(totalHours);
+        attendance.setOvertimeHours(overtimeHours);
+        attendance.setStatus(status);
+        attendance.setNotes(notes);
+        attendance.setCreatedAt(createdAt);
+        attendance.setUpdatedAt(updatedAt);
+        return attendance;
+    }
+}
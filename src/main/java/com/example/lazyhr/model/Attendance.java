@@ -1,16 +1,25 @@
 package com.example.lazyhr.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 @Entity
-@Table(name = "attendance")
+@Table(name = "attendance", uniqueConstraints = {
+        // open_session_user_id is only set while the session is open, so each user has at most one open session
+        @UniqueConstraint(name = "uk_attendance_open_session", columnNames = "open_session_user_id")
+}, indexes = {
+        @Index(name = "idx_attendance_user_date_id", columnList = "user_id, attendance_date, id"),
+        @Index(name = "idx_attendance_date_clock_out", columnList = "attendance_date, clock_out_time"),
+        @Index(name = "idx_attendance_clock_out_user", columnList = "clock_out_time, user_id"),
+        @Index(name = "idx_attendance_needs_review", columnList = "needs_review, attendance_date"),
+        @Index(name = "idx_attendance_updated_at", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -56,6 +65,16 @@ public class Attendance {
     @Column(name = "updated_at")
     private Long updatedAt; // Unix timestamp in milliseconds
     
+    @Column(name = "needs_review", nullable = false)
+    private boolean needsReview = false; // Set when the session was closed automatically
+    
+    @Column(name = "status_override", nullable = false)
+    private boolean statusOverride = false; // Set when the status was set by hand; shift classification leaves it alone
+    
+    @Column(name = "open_session_user_id")
+    @JsonIgnore
+    private Long openSessionUserId; // Equals user_id while clocked in, NULL once clocked out
+    
     // Helper methods
     public boolean isClockedIn() {
         return clockInTime != null && clockOutTime == null;
@@ -65,23 +84,42 @@ public class Attendance {
         return clockInTime != null && clockOutTime != null;
     }
     
-    public void calculateTotalHours() {
+    /**
+     * Set total and overtime hours from clock times and break, with overtime counted
+     * beyond the given standard day
+     */
+    public void calculateTotalHours(int standardDayMinutes) {
         if (clockInTime != null && clockOutTime != null) {
-            long durationMillis = clockOutTime - clockInTime;
-            long totalMinutes = (durationMillis / (1000 * 60)) - (breakDurationMinutes != null ? breakDurationMinutes : 0);
-            this.totalHours = BigDecimal.valueOf(totalMinutes)
-                    .divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
-            
-            // Calculate overtime (assuming 8 hours is standard work day)
-            BigDecimal standardHours = BigDecimal.valueOf(8);
-            if (this.totalHours.compareTo(standardHours) > 0) {
-                this.overtimeHours = this.totalHours.subtract(standardHours);
-            } else {
-                this.overtimeHours = BigDecimal.ZERO;
-            }
+            int workedMinutes = WorkHours.workedMinutes(clockInTime, clockOutTime, breakDurationMinutes);
+            this.totalHours = WorkHours.toHours(workedMinutes);
+            this.overtimeHours = WorkHours.toHours(WorkHours.overtimeMinutes(workedMinutes, standardDayMinutes));
         }
     }
     
+    /**
+     * Unmanaged copy, including a copy of the user, for handing out records that are shared
+     * between requests. The copy must not be saved.
+     */
+    public Attendance copy() {
+        Attendance copy = new Attendance();
+        copy.id = id;
+        copy.user = user != null ? user.copy() : null;
+        copy.attendanceDate = attendanceDate;
+        copy.clockInTime = clockInTime;
+        copy.clockOutTime = clockOutTime;
+        copy.breakDurationMinutes = breakDurationMinutes;
+        copy.totalHours = totalHours;
+        copy.overtimeHours = overtimeHours;
+        copy.status = status;
+        copy.notes = notes;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.needsReview = needsReview;
+        copy.statusOverride = statusOverride;
+        copy.openSessionUserId = openSessionUserId;
+        return copy;
+    }
+    
     public String getFormattedWorkingHours() {
         if (totalHours != null) {
             return totalHours + " hours";
@@ -95,10 +133,16 @@ public class Attendance {
         long now = System.currentTimeMillis();
         createdAt = now;
         updatedAt = now;
+        syncOpenSessionUserId();
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = System.currentTimeMillis();
+        syncOpenSessionUserId();
+    }
+    
+    private void syncOpenSessionUserId() {
+        openSessionUserId = isClockedIn() && user != null ? user.getId() : null;
     }
 }
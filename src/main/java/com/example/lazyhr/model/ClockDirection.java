@@ -0,0 +1,5 @@
+package com.example.lazyhr.model;
+
+public enum ClockDirection {
+    IN, OUT
+}
@@ -0,0 +1,59 @@
+package com.example.lazyhr.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Entity
+@Table(name = "daily_attendance_summary", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_summary_user_date", columnNames = { "user_id", "summary_date" })
+}, indexes = {
+        @Index(name = "idx_daily_summary_date_user", columnList = "summary_date, user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyAttendanceSummary {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "summary_date", nullable = false)
+    private Long summaryDate; // Unix timestamp in milliseconds (start of day)
+    
+    @Column(name = "first_in")
+    private Long firstIn; // Unix timestamp in milliseconds
+    
+    @Column(name = "last_out")
+    private Long lastOut; // Unix timestamp in milliseconds
+    
+    @Column(name = "worked_minutes", nullable = false)
+    private Integer workedMinutes = 0;
+    
+    @Column(name = "overtime_minutes", nullable = false)
+    private Integer overtimeMinutes = 0;
+    
+    @Column(name = "session_count", nullable = false)
+    private Integer sessionCount = 0;
+    
+    @Column(name = "open_sessions", nullable = false)
+    private Integer openSessions = 0;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AttendanceStatus status = AttendanceStatus.PRESENT;
+    
+    @Column(name = "updated_at")
+    private Long updatedAt; // Unix timestamp in milliseconds
+    
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = System.currentTimeMillis();
+    }
+}
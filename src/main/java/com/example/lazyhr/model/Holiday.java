@@ -0,0 +1,42 @@
+package com.example.lazyhr.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * A public holiday, either for one region or (region null) for every region.
+ * Departments are mapped to regions by {@code lazyhr.calendar.department-regions}.
+ */
+@Entity
+@Table(name = "holidays", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_holiday_region_date", columnNames = { "region", "holiday_date" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Holiday {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(length = 50)
+    private String region; // Null for a holiday observed everywhere
+    
+    @Column(name = "holiday_date", nullable = false)
+    private Long holidayDate; // Unix timestamp in milliseconds (start of day)
+    
+    @Column(nullable = false, length = 100)
+    private String name;
+    
+    @Column(name = "updated_at")
+    private Long updatedAt; // Unix timestamp in milliseconds
+    
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = System.currentTimeMillis();
+    }
+}
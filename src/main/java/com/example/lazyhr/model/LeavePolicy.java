@@ -0,0 +1,47 @@
+package com.example.lazyhr.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Yearly leave allocation of one category. Categories without a row (or without an allocation)
+ * are tracked as used days only.
+ */
+@Entity
+@Table(name = "leave_policies", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_leave_policy_category", columnNames = { "leave_category" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeavePolicy {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "leave_category", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private LeaveCategory leaveCategory;
+    
+    @Column(name = "allocated_days", precision = 4, scale = 1)
+    private BigDecimal allocatedDays; // Per calendar year
+    
+    @Column(name = "updated_at")
+    private Long updatedAt; // Unix timestamp in milliseconds
+    
+    public LeavePolicy(LeaveCategory leaveCategory, BigDecimal allocatedDays) {
+        this.leaveCategory = leaveCategory;
+        this.allocatedDays = allocatedDays;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = System.currentTimeMillis();
+    }
+}
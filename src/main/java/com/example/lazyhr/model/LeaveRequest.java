@@ -2,6 +2,7 @@ package com.example.lazyhr.model;
 
 import com.example.lazyhr.constants.ApiMessages;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,10 +12,14 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "leave_requests")
+@Table(name = "leave_requests", indexes = {
+        @Index(name = "idx_leave_status_applied", columnList = "status, applied_date"),
+        @Index(name = "idx_leave_user_applied", columnList = "user_id, applied_date"),
+        @Index(name = "idx_leave_user_status_start", columnList = "user_id, status, start_date, end_date"),
+        @Index(name = "idx_leave_start_end", columnList = "start_date, end_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -58,6 +63,7 @@ public class LeaveRequest {
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "approved_by")
+    @JsonIgnoreProperties({ "attendances", "leaveRequests", "hibernateLazyInitializer", "handler" })
     private User approvedBy;
     
     @Column(name = "approved_date")
@@ -72,21 +78,20 @@ public class LeaveRequest {
     @Column(name = "updated_at")
     private Long updatedAt; // Unix timestamp in milliseconds
     
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     // Helper methods
-    public void calculateTotalDays() {
-        if (startDate != null && endDate != null) {
-            // Convert timestamps to LocalDate for calculation
-            LocalDate start = Instant.ofEpochMilli(startDate).atZone(ZoneId.systemDefault()).toLocalDate();
-            LocalDate end = Instant.ofEpochMilli(endDate).atZone(ZoneId.systemDefault()).toLocalDate();
-            
-            long daysBetween = ChronoUnit.DAYS.between(start, end) + 1;
-            
-            if (leavePeriod == LeavePeriod.FULL_DAY) {
-                this.totalDays = BigDecimal.valueOf(daysBetween);
-            } else {
-                // AM or PM is half day
-                this.totalDays = BigDecimal.valueOf(daysBetween * 0.5);
-            }
+    /**
+     * Set the leave days taken from the number of working days in the range (see BusinessCalendarService)
+     */
+    public void calculateTotalDays(long workingDays) {
+        if (leavePeriod == LeavePeriod.FULL_DAY) {
+            this.totalDays = BigDecimal.valueOf(workingDays);
+        } else {
+            // AM or PM is half day
+            this.totalDays = BigDecimal.valueOf(workingDays).multiply(new BigDecimal("0.5"));
         }
     }
     
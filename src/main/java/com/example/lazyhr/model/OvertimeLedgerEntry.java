@@ -0,0 +1,42 @@
+package com.example.lazyhr.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Worked and overtime minutes of one user in one calendar month.
+ * Kept current by {@code OvertimeLedgerService} from the changes to the daily attendance summaries,
+ * so payroll reads one row per user and month instead of summing attendance.
+ */
+@Entity
+@Table(name = "overtime_ledger", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_overtime_ledger_user_month", columnNames = { "user_id", "month_start" })
+}, indexes = {
+        @Index(name = "idx_overtime_ledger_month_user", columnList = "month_start, user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OvertimeLedgerEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "month_start", nullable = false)
+    private Long monthStart; // Unix timestamp in milliseconds (start of the first day of the month)
+    
+    @Column(name = "worked_minutes", nullable = false)
+    private Long workedMinutes = 0L;
+    
+    @Column(name = "overtime_minutes", nullable = false)
+    private Long overtimeMinutes = 0L;
+    
+    @Column(name = "updated_at")
+    private Long updatedAt; // Unix timestamp in milliseconds
+}
@@ -0,0 +1,52 @@
+package com.example.lazyhr.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * One working day of a weekly shift pattern, for either a single user or a whole department.
+ * A user's own pattern takes precedence over their department's; days without a row are days off.
+ */
+@Entity
+@Table(name = "shift_schedules", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_shift_schedule_user_day", columnNames = { "user_id", "day_of_week" }),
+        @UniqueConstraint(name = "uk_shift_schedule_department_day", columnNames = { "department", "day_of_week" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShiftSchedule {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id")
+    private Long userId; // Set for a personal pattern
+    
+    @Column
+    private String department; // Set for a department pattern
+    
+    @Column(name = "day_of_week", nullable = false)
+    private Integer dayOfWeek; // ISO-8601, 1 = Monday
+    
+    @Column(name = "start_minute", nullable = false)
+    private Integer startMinute; // Minutes after midnight
+    
+    @Column(name = "duration_minutes", nullable = false)
+    private Integer durationMinutes;
+    
+    @Column(name = "grace_minutes", nullable = false)
+    private Integer graceMinutes = 0;
+    
+    @Column(name = "updated_at")
+    private Long updatedAt; // Unix timestamp in milliseconds
+    
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = System.currentTimeMillis();
+    }
+}
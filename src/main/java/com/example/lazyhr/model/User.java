@@ -10,7 +10,9 @@ import java.math.BigDecimal;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_department_position", columnList = "department, position")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -89,6 +91,30 @@ public class User {
         return getFullName() + " (" + employeeId + ")";
     }
     
+    /**
+     * Unmanaged copy of the profile fields, without the attendance and leave collections.
+     * The copy must not be saved.
+     */
+    public User copy() {
+        User copy = new User();
+        copy.id = id;
+        copy.username = username;
+        copy.password = password;
+        copy.email = email;
+        copy.firstName = firstName;
+        copy.lastName = lastName;
+        copy.employeeId = employeeId;
+        copy.department = department;
+        copy.position = position;
+        copy.hireDate = hireDate;
+        copy.salary = salary;
+        copy.isActive = isActive;
+        copy.role = role;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+    
     // JPA lifecycle methods for timestamp handling
     @PrePersist
     protected void onCreate() {
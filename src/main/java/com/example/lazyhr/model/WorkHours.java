@@ -0,0 +1,57 @@
+package com.example.lazyhr.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point work time arithmetic on whole minutes.
+ * All aggregation is done on primitive minute counts; {@link #toHours(long)} is the only place
+ * where a {@link BigDecimal} is produced, for the persisted and serialized hour columns.
+ */
+public final class WorkHours {
+
+    public static final int DEFAULT_STANDARD_DAY_MINUTES = 8 * 60;
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    // Hours for 0..48h of minutes, so the common conversions do not allocate
+    private static final BigDecimal[] HOURS_BY_MINUTE = new BigDecimal[48 * 60 + 1];
+
+    static {
+        for (int minutes = 0; minutes < HOURS_BY_MINUTE.length; minutes++) {
+            HOURS_BY_MINUTE[minutes] = BigDecimal.valueOf(hundredthsOfHour(minutes), 2);
+        }
+    }
+
+    private WorkHours() {
+    }
+
+    /**
+     * Minutes worked between clock-in and clock-out, less the break. Partial minutes are dropped.
+     */
+    public static int workedMinutes(long clockInTime, long clockOutTime, Integer breakDurationMinutes) {
+        int breakMinutes = breakDurationMinutes != null ? breakDurationMinutes : 0;
+        return (int) ((clockOutTime - clockInTime) / MILLIS_PER_MINUTE) - breakMinutes;
+    }
+
+    /**
+     * Minutes worked beyond the standard day
+     */
+    public static int overtimeMinutes(int workedMinutes, int standardDayMinutes) {
+        return Math.max(0, workedMinutes - standardDayMinutes);
+    }
+
+    /**
+     * Minutes as hours with two decimals, rounded half up (same as dividing by 60 at scale 2)
+     */
+    public static BigDecimal toHours(long minutes) {
+        if (minutes >= 0 && minutes < HOURS_BY_MINUTE.length) {
+            return HOURS_BY_MINUTE[(int) minutes];
+        }
+        return BigDecimal.valueOf(hundredthsOfHour(minutes), 2);
+    }
+
+    private static long hundredthsOfHour(long minutes) {
+        long magnitude = (Math.abs(minutes) * 100 + 30) / 60;
+        return minutes < 0 ? -magnitude : magnitude;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.lazyhr.repository;
+
+import com.example.lazyhr.dto.AttendanceHistoryItem;
+import com.example.lazyhr.model.ArchivedAttendance;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reads of the attendance archive. Every date-bounded query compares attendance_date
+ * directly against its bounds so MySQL only opens the partitions that overlap the range.
+ */
+@Repository
+public interface ArchivedAttendanceRepository extends JpaRepository<ArchivedAttendance, Long> {
+
+    @Query("SELECT a FROM ArchivedAttendance a WHERE a.userId = :userId AND a.attendanceDate >= :startTimestamp AND a.attendanceDate <= :endTimestamp ORDER BY a.attendanceDate DESC")
+    List<ArchivedAttendance> findByUserIdAndDateRange(@Param("userId") Long userId,
+            @Param("startTimestamp") Long startTimestamp,
+            @Param("endTimestamp") Long endTimestamp);
+
+    @Query("SELECT a FROM ArchivedAttendance a WHERE a.userId = :userId ORDER BY a.attendanceDate DESC")
+    List<ArchivedAttendance> findByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT a FROM ArchivedAttendance a WHERE a.userId = :userId AND a.attendanceDate = :timestamp")
+    List<ArchivedAttendance> findByUserIdAndAttendanceDate(@Param("userId") Long userId, @Param("timestamp") Long timestamp);
+
+    @Query("SELECT a FROM ArchivedAttendance a WHERE a.attendanceDate = :timestamp")
+    List<ArchivedAttendance> findAllByAttendanceDate(@Param("timestamp") Long timestamp);
+
+    @Query("SELECT a FROM ArchivedAttendance a WHERE a.userId IN :userIds AND a.attendanceDate IN :days")
+    List<ArchivedAttendance> findByUserIdsAndAttendanceDates(@Param("userIds") Collection<Long> userIds,
+            @Param("days") Collection<Long> days);
+
+    @Query("SELECT a FROM ArchivedAttendance a WHERE a.attendanceDate >= :startTimestamp AND a.attendanceDate <= :endTimestamp ORDER BY a.attendanceDate DESC")
+    List<ArchivedAttendance> findByAttendanceDateBetween(@Param("startTimestamp") Long startTimestamp,
+            @Param("endTimestamp") Long endTimestamp);
+
+    @Query("SELECT a FROM ArchivedAttendance a JOIN User u ON u.id = a.userId WHERE u.department = :department AND a.attendanceDate >= :startTimestamp AND a.attendanceDate <= :endTimestamp")
+    List<ArchivedAttendance> findByDepartmentAndDateRange(@Param("department") String department,
+            @Param("startTimestamp") Long startTimestamp,
+            @Param("endTimestamp") Long endTimestamp);
+
+    // Forward-only cursor for exports, each row paired with its User; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT a, u FROM ArchivedAttendance a JOIN User u ON u.id = a.userId WHERE a.attendanceDate >= :startTimestamp AND a.attendanceDate <= :endTimestamp "
+            + "AND a.archivedAt < :archivedBefore ORDER BY a.attendanceDate, a.id")
+    Stream<Object[]> streamWithUsersByAttendanceDateBetween(@Param("startTimestamp") Long startTimestamp,
+            @Param("endTimestamp") Long endTimestamp,
+            @Param("archivedBefore") Long archivedBefore);
+
+    // Keyset pagination over (attendanceDate, id), served by idx_attendance_archive_user_date_id
+    @Query("SELECT new com.example.lazyhr.dto.AttendanceHistoryItem(a.id, a.attendanceDate, a.clockInTime, a.clockOutTime, a.breakDurationMinutes, a.totalHours, a.overtimeHours, a.status) "
+            + "FROM ArchivedAttendance a WHERE a.userId = :userId ORDER BY a.attendanceDate DESC, a.id DESC")
+    List<AttendanceHistoryItem> findHistoryFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.example.lazyhr.dto.AttendanceHistoryItem(a.id, a.attendanceDate, a.clockInTime, a.clockOutTime, a.breakDurationMinutes, a.totalHours, a.overtimeHours, a.status) "
+            + "FROM ArchivedAttendance a WHERE a.userId = :userId AND (a.attendanceDate < :attendanceDate OR (a.attendanceDate = :attendanceDate AND a.id < :id)) "
+            + "ORDER BY a.attendanceDate DESC, a.id DESC")
+    List<AttendanceHistoryItem> findHistoryPageAfter(@Param("userId") Long userId,
+            @Param("attendanceDate") Long attendanceDate,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query("SELECT MAX(a.attendanceDate) FROM ArchivedAttendance a")
+    Long findLatestAttendanceDate();
+}
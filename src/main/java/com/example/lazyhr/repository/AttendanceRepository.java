@@ -1,14 +1,21 @@
 package com.example.lazyhr.repository;
 
+import com.example.lazyhr.dto.ActiveSession;
+import com.example.lazyhr.dto.AttendanceHistoryItem;
 import com.example.lazyhr.model.Attendance;
 import com.example.lazyhr.model.User;
 import com.example.lazyhr.model.AttendanceStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
@@ -27,14 +34,55 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     List<Attendance> findByAttendanceDateBetween(@Param("startTimestamp") Long startTimestamp,
             @Param("endTimestamp") Long endTimestamp);
 
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.user WHERE a.attendanceDate >= :startTimestamp AND a.attendanceDate <= :endTimestamp ORDER BY a.attendanceDate, a.id")
+    Stream<Attendance> streamByAttendanceDateBetween(@Param("startTimestamp") Long startTimestamp,
+            @Param("endTimestamp") Long endTimestamp);
+
     List<Attendance> findByUserOrderByAttendanceDateDesc(User user);
 
+    // Keyset pagination over (attendanceDate, id), served by idx_attendance_user_date_id
+    @Query("SELECT new com.example.lazyhr.dto.AttendanceHistoryItem(a.id, a.attendanceDate, a.clockInTime, a.clockOutTime, a.breakDurationMinutes, a.totalHours, a.overtimeHours, a.status) "
+            + "FROM Attendance a WHERE a.user.id = :userId ORDER BY a.attendanceDate DESC, a.id DESC")
+    List<AttendanceHistoryItem> findHistoryFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.example.lazyhr.dto.AttendanceHistoryItem(a.id, a.attendanceDate, a.clockInTime, a.clockOutTime, a.breakDurationMinutes, a.totalHours, a.overtimeHours, a.status) "
+            + "FROM Attendance a WHERE a.user.id = :userId AND (a.attendanceDate < :attendanceDate OR (a.attendanceDate = :attendanceDate AND a.id < :id)) "
+            + "ORDER BY a.attendanceDate DESC, a.id DESC")
+    List<AttendanceHistoryItem> findHistoryPageAfter(@Param("userId") Long userId,
+            @Param("attendanceDate") Long attendanceDate,
+            @Param("id") Long id,
+            Pageable pageable);
+
     @Query("SELECT a FROM Attendance a WHERE a.attendanceDate = :timestamp ORDER BY a.createdAt DESC")
     List<Attendance> findByAttendanceDateOrderByCreatedAtDesc(@Param("timestamp") Long timestamp);
 
     @Query("SELECT a FROM Attendance a WHERE a.user.id = :userId AND a.clockOutTime IS NULL ORDER BY a.clockInTime DESC")
     List<Attendance> findActiveAttendances(@Param("userId") Long userId);
 
+    Optional<Attendance> findFirstByUserIdAndClockOutTimeIsNotNullOrderByClockOutTimeDesc(Long userId);
+
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.user WHERE a.id = :id")
+    Optional<Attendance> findWithUserById(@Param("id") Long id);
+
+    @Query("SELECT a.user.id FROM Attendance a WHERE a.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    @Query("SELECT a FROM Attendance a WHERE a.user.id = :userId AND a.attendanceDate = :timestamp")
+    List<Attendance> findByUserIdAndAttendanceDate(@Param("userId") Long userId, @Param("timestamp") Long timestamp);
+
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.user WHERE a.attendanceDate = :timestamp")
+    List<Attendance> findAllByAttendanceDate(@Param("timestamp") Long timestamp);
+
+    @Query("SELECT new com.example.lazyhr.dto.ActiveSession(a.id, a.user.id, a.attendanceDate, a.clockInTime) FROM Attendance a WHERE a.clockOutTime IS NULL")
+    List<ActiveSession> findAllActiveSessions();
+
+    List<Attendance> findByNeedsReviewTrueOrderByAttendanceDateDesc();
+
     @Query("SELECT a FROM Attendance a WHERE a.attendanceDate = :timestamp AND a.clockOutTime IS NULL")
     List<Attendance> findActiveClockedInAttendances(@Param("timestamp") Long timestamp);
 
@@ -55,7 +103,7 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
             @Param("endTimestamp") Long endTimestamp,
             @Param("status") AttendanceStatus status);
 
-    @Query("SELECT a FROM Attendance a WHERE a.attendanceDate = :timestamp AND a.user.isActive = true ORDER BY a.clockInTime DESC")
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.user u WHERE a.attendanceDate = :timestamp AND u.isActive = true ORDER BY a.clockInTime DESC")
     List<Attendance> findTodayAttendances(@Param("timestamp") Long timestamp);
 
     @Query("SELECT a FROM Attendance a WHERE a.user.department = :department AND a.attendanceDate >= :startTimestamp AND a.attendanceDate <= :endTimestamp")
@@ -65,9 +113,4 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
 
     @Query("SELECT COUNT(a) FROM Attendance a WHERE a.attendanceDate = :timestamp AND a.clockInTime IS NOT NULL")
     long countClockedInToday(@Param("timestamp") Long timestamp);
-
-    @Query("SELECT SUM(a.overtimeHours) FROM Attendance a WHERE a.user = :user AND a.attendanceDate >= :startTimestamp AND a.attendanceDate <= :endTimestamp")
-    Double getTotalOvertimeHours(@Param("user") User user,
-            @Param("startTimestamp") Long startTimestamp,
-            @Param("endTimestamp") Long endTimestamp);
 }
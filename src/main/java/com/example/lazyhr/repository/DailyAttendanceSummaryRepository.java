@@ -0,0 +1,68 @@
+package com.example.lazyhr.repository;
+
+import com.example.lazyhr.dto.AttendanceAggregate;
+import com.example.lazyhr.model.DailyAttendanceSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyAttendanceSummaryRepository extends JpaRepository<DailyAttendanceSummary, Long> {
+
+    Optional<DailyAttendanceSummary> findByUserIdAndSummaryDate(Long userId, Long summaryDate);
+
+    // Row lock that serializes refreshes of one user and day across nodes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DailyAttendanceSummary s WHERE s.userId = :userId AND s.summaryDate = :summaryDate")
+    Optional<DailyAttendanceSummary> lockByUserIdAndSummaryDate(@Param("userId") Long userId,
+            @Param("summaryDate") Long summaryDate);
+
+    // Locks every row of the day, and on InnoDB the gaps between them, for rebuilds
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DailyAttendanceSummary s WHERE s.summaryDate = :summaryDate ORDER BY s.userId")
+    List<DailyAttendanceSummary> lockBySummaryDate(@Param("summaryDate") Long summaryDate);
+
+    @Query("SELECT s FROM DailyAttendanceSummary s WHERE s.userId = :userId AND s.summaryDate >= :startTimestamp AND s.summaryDate <= :endTimestamp ORDER BY s.summaryDate DESC")
+    List<DailyAttendanceSummary> findByUserAndDateRange(@Param("userId") Long userId,
+            @Param("startTimestamp") Long startTimestamp,
+            @Param("endTimestamp") Long endTimestamp);
+
+    @Query("SELECT SUM(s.overtimeMinutes) FROM DailyAttendanceSummary s WHERE s.userId = :userId AND s.summaryDate >= :startTimestamp AND s.summaryDate <= :endTimestamp")
+    Long sumOvertimeMinutes(@Param("userId") Long userId,
+            @Param("startTimestamp") Long startTimestamp,
+            @Param("endTimestamp") Long endTimestamp);
+
+    String AGGREGATE_COLUMNS = "COUNT(s), "
+            + "SUM(CASE WHEN s.status <> 'ABSENT' THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN s.status = 'LATE' THEN 1 ELSE 0 END), "
+            + "SUM(s.workedMinutes), SUM(s.overtimeMinutes)";
+
+    @Query("SELECT new com.example.lazyhr.dto.AttendanceAggregate(u.department, s.summaryDate, " + AGGREGATE_COLUMNS + ") "
+            + "FROM DailyAttendanceSummary s JOIN User u ON u.id = s.userId "
+            + "WHERE s.summaryDate >= :startTimestamp AND s.summaryDate <= :endTimestamp "
+            + "GROUP BY u.department, s.summaryDate ORDER BY s.summaryDate, u.department")
+    List<AttendanceAggregate> aggregateByDepartment(@Param("startTimestamp") Long startTimestamp,
+            @Param("endTimestamp") Long endTimestamp);
+
+    @Query("SELECT new com.example.lazyhr.dto.AttendanceAggregate(u.department, s.summaryDate, " + AGGREGATE_COLUMNS + ") "
+            + "FROM DailyAttendanceSummary s JOIN User u ON u.id = s.userId "
+            + "WHERE u.department = :department AND s.summaryDate >= :startTimestamp AND s.summaryDate <= :endTimestamp "
+            + "GROUP BY u.department, s.summaryDate ORDER BY s.summaryDate")
+    List<AttendanceAggregate> aggregateForDepartment(@Param("department") String department,
+            @Param("startTimestamp") Long startTimestamp,
+            @Param("endTimestamp") Long endTimestamp);
+
+    @Query("SELECT new com.example.lazyhr.dto.AttendanceAggregate(u.position, s.summaryDate, " + AGGREGATE_COLUMNS + ") "
+            + "FROM DailyAttendanceSummary s JOIN User u ON u.id = s.userId "
+            + "WHERE u.department = :department AND s.summaryDate >= :startTimestamp AND s.summaryDate <= :endTimestamp "
+            + "GROUP BY u.position, s.summaryDate ORDER BY s.summaryDate, u.position")
+    List<AttendanceAggregate> aggregateByPosition(@Param("department") String department,
+            @Param("startTimestamp") Long startTimestamp,
+            @Param("endTimestamp") Long endTimestamp);
+}
@@ -0,0 +1,21 @@
+package com.example.lazyhr.repository;
+
+import com.example.lazyhr.model.Holiday;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface HolidayRepository extends JpaRepository<Holiday, Long> {
+
+    @Query("SELECT h FROM Holiday h WHERE h.holidayDate >= :startTimestamp AND h.holidayDate <= :endTimestamp "
+            + "ORDER BY h.holidayDate, h.region")
+    List<Holiday> findInRange(@Param("startTimestamp") Long startTimestamp, @Param("endTimestamp") Long endTimestamp);
+
+    @Query("SELECT COUNT(h) > 0 FROM Holiday h WHERE h.holidayDate = :holidayDate "
+            + "AND (h.region = :region OR (h.region IS NULL AND :region IS NULL))")
+    boolean existsOn(@Param("region") String region, @Param("holidayDate") Long holidayDate);
+}
@@ -0,0 +1,14 @@
+package com.example.lazyhr.repository;
+
+import com.example.lazyhr.model.LeaveCategory;
+import com.example.lazyhr.model.LeavePolicy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LeavePolicyRepository extends JpaRepository<LeavePolicy, Long> {
+
+    Optional<LeavePolicy> findByLeaveCategory(LeaveCategory leaveCategory);
+}
@@ -1,27 +1,37 @@
 package com.example.lazyhr.repository;
 
+import com.example.lazyhr.dto.LeaveCalendarSpan;
+import com.example.lazyhr.dto.LeaveCategoryTotal;
+import com.example.lazyhr.dto.LeaveRequestItem;
 import com.example.lazyhr.model.LeaveRequest;
 import com.example.lazyhr.model.User;
 import com.example.lazyhr.model.LeaveStatus;
 import com.example.lazyhr.model.LeaveCategory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long> {
 
+    // Listings load requester and approver in the same select; rendering them must not lazy-load per row
+    @EntityGraph(attributePaths = { "user", "approvedBy" })
     List<LeaveRequest> findByUserOrderByAppliedDateDesc(User user);
 
+    @EntityGraph(attributePaths = { "user", "approvedBy" })
     List<LeaveRequest> findByStatusOrderByAppliedDateDesc(LeaveStatus status);
 
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.user = :user AND lr.startDate >= :startTimestamp AND lr.startDate <= :endTimestamp ORDER BY lr.appliedDate DESC")
     List<LeaveRequest> findByUserAndStartDateBetween(@Param("user") User user,
             @Param("startTimestamp") Long startTimestamp, @Param("endTimestamp") Long endTimestamp);
 
+    @EntityGraph(attributePaths = { "user", "approvedBy" })
     List<LeaveRequest> findByUserAndStatusOrderByAppliedDateDesc(User user, LeaveStatus status);
 
     List<LeaveRequest> findByLeaveCategoryAndStatusOrderByAppliedDateDesc(LeaveCategory category, LeaveStatus status);
@@ -31,9 +41,11 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long
             @Param("startTimestamp") Long startTimestamp,
             @Param("endTimestamp") Long endTimestamp);
 
+    @EntityGraph(attributePaths = { "user", "approvedBy" })
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.status = 'PENDING' ORDER BY lr.appliedDate ASC")
     List<LeaveRequest> findPendingLeaveRequests();
 
+    @EntityGraph(attributePaths = { "user", "approvedBy" })
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.user.department = :department AND lr.status = :status ORDER BY lr.appliedDate DESC")
     List<LeaveRequest> findByDepartmentAndStatus(@Param("department") String department,
             @Param("status") LeaveStatus status);
@@ -50,7 +62,14 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long
             @Param("yearStartTimestamp") Long yearStartTimestamp,
             @Param("yearEndTimestamp") Long yearEndTimestamp);
 
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.startDate = :timestamp OR (lr.startDate <= :timestamp AND lr.endDate >= :timestamp)")
+    @Query("SELECT new com.example.lazyhr.dto.LeaveCategoryTotal(lr.leaveCategory, SUM(lr.totalDays)) FROM LeaveRequest lr "
+            + "WHERE lr.user.id = :userId AND lr.status = 'APPROVED' AND lr.startDate >= :yearStartTimestamp "
+            + "AND lr.startDate < :yearEndTimestamp GROUP BY lr.leaveCategory")
+    List<LeaveCategoryTotal> sumApprovedDaysByCategory(@Param("userId") Long userId,
+            @Param("yearStartTimestamp") Long yearStartTimestamp,
+            @Param("yearEndTimestamp") Long yearEndTimestamp);
+
+    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.startDate <= :timestamp AND lr.endDate >= :timestamp")
     List<LeaveRequest> findLeaveRequestsForDate(@Param("timestamp") Long timestamp);
 
     // Timestamp-based queries for Unix timestamp fields
@@ -59,9 +78,77 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long
             @Param("startTimestamp") Long startTimestamp,
             @Param("endTimestamp") Long endTimestamp);
 
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.startDate = :timestamp OR (lr.startDate <= :timestamp AND lr.endDate >= :timestamp)")
+    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.startDate <= :timestamp AND lr.endDate >= :timestamp")
     List<LeaveRequest> findLeaveRequestsForTimestamp(@Param("timestamp") Long timestamp);
 
+    // Database fallbacks of LeaveIntervalIndex
+    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.startDate <= :endTimestamp AND lr.endDate >= :startTimestamp AND lr.user.id = :userId AND lr.status = 'APPROVED' ORDER BY lr.startDate ASC, lr.id ASC")
+    List<LeaveRequest> findApprovedOverlappingByUserId(@Param("userId") Long userId,
+            @Param("startTimestamp") Long startTimestamp,
+            @Param("endTimestamp") Long endTimestamp);
+
+    @EntityGraph(attributePaths = { "user", "approvedBy" })
+    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.startDate <= :timestamp AND lr.endDate >= :timestamp AND lr.status IN ('PENDING', 'APPROVED') ORDER BY lr.startDate ASC, lr.id ASC")
+    List<LeaveRequest> findActiveLeaveRequestsForTimestamp(@Param("timestamp") Long timestamp);
+
+    @EntityGraph(attributePaths = { "user", "approvedBy" })
+    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.id IN :ids ORDER BY lr.startDate ASC, lr.id ASC")
+    List<LeaveRequest> findWithUsersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.startDate <= :endTimestamp AND lr.endDate >= :startTimestamp AND lr.user.id IN :userIds AND lr.status = 'APPROVED'")
+    List<LeaveRequest> findApprovedOverlappingByUserIds(@Param("userIds") Collection<Long> userIds,
+            @Param("startTimestamp") Long startTimestamp,
+            @Param("endTimestamp") Long endTimestamp);
+
+    @Query("SELECT new com.example.lazyhr.dto.LeaveCalendarSpan(u.id, lr.startDate, lr.endDate, lr.status) "
+            + "FROM LeaveRequest lr JOIN lr.user u WHERE u.department = :department AND u.isActive = true "
+            + "AND lr.status IN ('PENDING', 'APPROVED') AND lr.startDate <= :endTimestamp AND lr.endDate >= :startTimestamp")
+    List<LeaveCalendarSpan> findCalendarSpans(@Param("department") String department,
+            @Param("startTimestamp") Long startTimestamp,
+            @Param("endTimestamp") Long endTimestamp);
+
+    @Query("SELECT DISTINCT lr.user.id FROM LeaveRequest lr WHERE lr.id IN :ids")
+    List<Long> findUserIdsByIds(@Param("ids") Collection<Long> ids);
+
+    // Pairs of leave request id and user id
+    @Query("SELECT lr.id, lr.user.id FROM LeaveRequest lr WHERE lr.id IN :ids")
+    List<Object[]> findIdAndUserIdByIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination over (appliedDate, id) as flat rows, served by idx_leave_status_applied and idx_leave_user_applied
+    String ITEM_SELECT = "SELECT new com.example.lazyhr.dto.LeaveRequestItem(lr.id, u.id, u.employeeId, u.username, "
+            + "u.firstName, u.lastName, u.department, lr.leaveCategory, lr.leavePeriod, lr.startDate, lr.endDate, "
+            + "lr.totalDays, lr.reason, lr.status, lr.appliedDate, a.id, a.username, a.firstName, a.lastName, "
+            + "lr.approvedDate, lr.comments, lr.version) FROM LeaveRequest lr JOIN lr.user u LEFT JOIN lr.approvedBy a ";
+
+    @Query(ITEM_SELECT + "WHERE lr.status = 'PENDING' ORDER BY lr.appliedDate ASC, lr.id ASC")
+    List<LeaveRequestItem> findPendingItemsFirstPage(Pageable pageable);
+
+    @Query(ITEM_SELECT + "WHERE lr.status = 'PENDING' AND (lr.appliedDate > :appliedDate OR (lr.appliedDate = :appliedDate AND lr.id > :id)) "
+            + "ORDER BY lr.appliedDate ASC, lr.id ASC")
+    List<LeaveRequestItem> findPendingItemsAfter(@Param("appliedDate") Long appliedDate,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(ITEM_SELECT + "WHERE lr.status = :status ORDER BY lr.appliedDate DESC, lr.id DESC")
+    List<LeaveRequestItem> findItemsByStatusFirstPage(@Param("status") LeaveStatus status, Pageable pageable);
+
+    @Query(ITEM_SELECT + "WHERE lr.status = :status AND (lr.appliedDate < :appliedDate OR (lr.appliedDate = :appliedDate AND lr.id < :id)) "
+            + "ORDER BY lr.appliedDate DESC, lr.id DESC")
+    List<LeaveRequestItem> findItemsByStatusAfter(@Param("status") LeaveStatus status,
+            @Param("appliedDate") Long appliedDate,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(ITEM_SELECT + "WHERE u.id = :userId ORDER BY lr.appliedDate DESC, lr.id DESC")
+    List<LeaveRequestItem> findItemsByUserFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(ITEM_SELECT + "WHERE u.id = :userId AND (lr.appliedDate < :appliedDate OR (lr.appliedDate = :appliedDate AND lr.id < :id)) "
+            + "ORDER BY lr.appliedDate DESC, lr.id DESC")
+    List<LeaveRequestItem> findItemsByUserAfter(@Param("userId") Long userId,
+            @Param("appliedDate") Long appliedDate,
+            @Param("id") Long id,
+            Pageable pageable);
+
     @Query("SELECT COUNT(lr) FROM LeaveRequest lr WHERE lr.status = 'PENDING'")
     long countPendingLeaveRequests();
 
@@ -0,0 +1,26 @@
+package com.example.lazyhr.repository;
+
+import com.example.lazyhr.dto.UserOvertime;
+import com.example.lazyhr.model.OvertimeLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OvertimeLedgerRepository extends JpaRepository<OvertimeLedgerEntry, Long> {
+
+    @Query("SELECT SUM(l.overtimeMinutes) FROM OvertimeLedgerEntry l WHERE l.userId = :userId AND l.monthStart >= :startMonth AND l.monthStart <= :endMonth")
+    Long sumOvertimeMinutes(@Param("userId") Long userId,
+            @Param("startMonth") Long startMonth,
+            @Param("endMonth") Long endMonth);
+
+    // One indexed range read over (month_start, user_id) for every employee
+    @Query("SELECT new com.example.lazyhr.dto.UserOvertime(u.id, u.employeeId, u.department, SUM(l.workedMinutes), SUM(l.overtimeMinutes)) "
+            + "FROM OvertimeLedgerEntry l JOIN User u ON u.id = l.userId "
+            + "WHERE l.monthStart >= :startMonth AND l.monthStart <= :endMonth "
+            + "GROUP BY u.id, u.employeeId, u.department ORDER BY u.employeeId")
+    List<UserOvertime> sumByUser(@Param("startMonth") Long startMonth, @Param("endMonth") Long endMonth);
+}
@@ -0,0 +1,26 @@
+package com.example.lazyhr.repository;
+
+import com.example.lazyhr.model.ShiftSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ShiftScheduleRepository extends JpaRepository<ShiftSchedule, Long> {
+
+    List<ShiftSchedule> findByUserIdOrderByDayOfWeek(Long userId);
+
+    List<ShiftSchedule> findByDepartmentOrderByDayOfWeek(String department);
+
+    @Modifying
+    @Query("DELETE FROM ShiftSchedule s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM ShiftSchedule s WHERE s.department = :department")
+    int deleteByDepartment(@Param("department") String department);
+}
@@ -1,12 +1,16 @@
 package com.example.lazyhr.repository;
 
+import com.example.lazyhr.dto.LeaveCalendarMember;
 import com.example.lazyhr.model.User;
 import com.example.lazyhr.model.Role;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +19,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
+    // Row locks in id order; the per-user serialization point for leave decisions across nodes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<User> lockAllById(@Param("ids") Collection<Long> ids);
+
     Optional<User> findByEmail(String email);
 
     Optional<User> findByEmployeeId(String employeeId);
@@ -29,6 +38,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByDepartmentAndIsActiveTrue(String department);
 
+    @Query("SELECT new com.example.lazyhr.dto.LeaveCalendarMember(u.id, u.employeeId, u.username, u.firstName, u.lastName) "
+            + "FROM User u WHERE u.department = :department AND u.isActive = true ORDER BY u.id")
+    List<LeaveCalendarMember> findCalendarMembers(@Param("department") String department);
+
     @Query("SELECT u FROM User u WHERE u.isActive = true AND " +
             "(LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -0,0 +1,273 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.dto.ActiveSession;
+import com.example.lazyhr.repository.AttendanceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory registry of open attendance sessions keyed by user id.
+ * Rebuilt from the database at startup, updated after each clock-in/clock-out commit,
+ * and periodically reconciled against the attendance table to detect drift.
+ * Until the first rebuild completes, {@link #isReady()} is false and callers fall back to SQL.
+ * Rebuilds and reconciliations are applied user by user and skip users whose entry changed after
+ * the database was read, so they never overwrite a clock-in or clock-out with older state.
+ */
+@Component
+public class ActiveSessionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveSessionRegistry.class);
+
+    // Newest session first, matching AttendanceRepository.findActiveAttendances
+    private static final Comparator<ActiveSession> NEWEST_FIRST = Comparator
+            .comparing(ActiveSession::getClockInTime, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, List<ActiveSession>> sessionsByUser = new ConcurrentHashMap<>();
+    // Stamp of the last change per user; written inside sessionsByUser.compute for the same key
+    private final Map<Long, Long> changedAt = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+    private volatile boolean ready;
+
+    private Counter missingDrift;
+    private Counter staleDrift;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("lazyhr.attendance.active.sessions", this, ActiveSessionRegistry::size)
+                .description("Open attendance sessions held in the registry")
+                .register(meterRegistry);
+        missingDrift = Counter.builder("lazyhr.attendance.registry.drift")
+                .tag("kind", "missing")
+                .description("Open sessions found in the database but not in the registry")
+                .register(meterRegistry);
+        staleDrift = Counter.builder("lazyhr.attendance.registry.drift")
+                .tag("kind", "stale")
+                .description("Sessions held in the registry that are no longer open in the database")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long loadedAt = changes.get();
+        apply(loadedAt, loadFromDatabase());
+        ready = true;
+        logger.info("Active session registry loaded with {} open sessions", size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isClockedIn(Long userId) {
+        return sessionsByUser.containsKey(userId);
+    }
+
+    /**
+     * Most recent open session for the user
+     */
+    public Optional<ActiveSession> getActiveSession(Long userId) {
+        List<ActiveSession> sessions = sessionsByUser.get(userId);
+        return sessions == null || sessions.isEmpty() ? Optional.empty() : Optional.of(sessions.get(0));
+    }
+
+    public int size() {
+        int total = 0;
+        for (List<ActiveSession> sessions : sessionsByUser.values()) {
+            total += sessions.size();
+        }
+        return total;
+    }
+
+    /**
+     * Record a newly opened session once the surrounding transaction commits
+     */
+    public void sessionOpened(ActiveSession session) {
+        afterCommit(() -> sessionsByUser.compute(session.getUserId(), (userId, current) -> {
+            changedAt.put(userId, changes.incrementAndGet());
+            List<ActiveSession> updated = current == null ? new ArrayList<>() : new ArrayList<>(current);
+            updated.remove(session);
+            updated.add(session);
+            updated.sort(NEWEST_FIRST);
+            return List.copyOf(updated);
+        }));
+    }
+
+    /**
+     * Remove a closed session once the surrounding transaction commits
+     */
+    public void sessionClosed(Long userId, Long attendanceId) {
+        afterCommit(() -> sessionsByUser.compute(userId, (id, current) -> {
+            changedAt.put(id, changes.incrementAndGet());
+            if (current == null) {
+                return null;
+            }
+            List<ActiveSession> updated = new ArrayList<>(current);
+            updated.removeIf(s -> s.getAttendanceId().equals(attendanceId));
+            return updated.isEmpty() ? null : List.copyOf(updated);
+        }));
+    }
+
+    /**
+     * Replace the open sessions of the given users once the surrounding transaction commits.
+     * Users without an entry in {@code sessions} are treated as having no open session.
+     */
+    public void replaceSessions(Set<Long> userIds, List<ActiveSession> sessions) {
+        Map<Long, List<ActiveSession>> grouped = group(sessions);
+        afterCommit(() -> {
+            for (Long userId : userIds) {
+                sessionsByUser.compute(userId, (id, current) -> {
+                    changedAt.put(id, changes.incrementAndGet());
+                    return grouped.get(id);
+                });
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${lazyhr.attendance.registry.reconcile-interval-ms:300000}",
+            initialDelayString = "${lazyhr.attendance.registry.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Compare the registry with the attendance table and repair any drift
+     */
+    public ReconciliationReport reconcile() {
+        long loadedAt = changes.get();
+        Map<Long, List<ActiveSession>> database = loadFromDatabase();
+
+        int openSessions = 0;
+        for (List<ActiveSession> sessions : database.values()) {
+            openSessions += sessions.size();
+        }
+        int[] drift = apply(loadedAt, database);
+        int missing = drift[0];
+        int stale = drift[1];
+
+        if (missing > 0 || stale > 0) {
+            logger.warn("Active session registry drift detected: {} missing, {} stale", missing, stale);
+            missingDrift.increment(missing);
+            staleDrift.increment(stale);
+        }
+        ready = true;
+
+        return new ReconciliationReport(openSessions, missing, stale);
+    }
+
+    /**
+     * Replace each user's entry with the state read from the database, unless the entry changed after
+     * the read started; such a change came from a commit the read may not have seen.
+     * Returns the number of missing and stale sessions that were repaired.
+     */
+    private int[] apply(long loadedAt, Map<Long, List<ActiveSession>> database) {
+        Set<Long> userIds = new HashSet<>(database.keySet());
+        userIds.addAll(sessionsByUser.keySet());
+        userIds.addAll(changedAt.keySet());
+
+        int[] drift = new int[2];
+        for (Long userId : userIds) {
+            List<ActiveSession> loaded = database.getOrDefault(userId, List.of());
+            sessionsByUser.compute(userId, (id, current) -> {
+                if (changedAt.getOrDefault(id, 0L) > loadedAt) {
+                    return current;
+                }
+                changedAt.remove(id);
+                List<ActiveSession> held = current == null ? List.of() : current;
+                for (ActiveSession session : loaded) {
+                    if (!held.contains(session)) {
+                        drift[0]++;
+                    }
+                }
+                for (ActiveSession session : held) {
+                    if (!loaded.contains(session)) {
+                        drift[1]++;
+                    }
+                }
+                return loaded.isEmpty() ? null : loaded;
+            });
+        }
+        return drift;
+    }
+
+    private Map<Long, List<ActiveSession>> loadFromDatabase() {
+        return group(attendanceRepository.findAllActiveSessions());
+    }
+
+    private static Map<Long, List<ActiveSession>> group(List<ActiveSession> sessions) {
+        Map<Long, List<ActiveSession>> grouped = new HashMap<>();
+        for (ActiveSession session : sessions) {
+            grouped.computeIfAbsent(session.getUserId(), k -> new ArrayList<>()).add(session);
+        }
+        grouped.replaceAll((userId, list) -> {
+            list.sort(NEWEST_FIRST);
+            return List.copyOf(list);
+        });
+        return grouped;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Result of a reconciliation run
+    public static class ReconciliationReport {
+        private final int openSessions;
+        private final int missing;
+        private final int stale;
+
+        public ReconciliationReport(int openSessions, int missing, int stale) {
+            this.openSessions = openSessions;
+            this.missing = missing;
+            this.stale = stale;
+        }
+
+        public int getOpenSessions() {
+            return openSessions;
+        }
+
+        public int getMissing() {
+            return missing;
+        }
+
+        public int getStale() {
+            return stale;
+        }
+    }
+}
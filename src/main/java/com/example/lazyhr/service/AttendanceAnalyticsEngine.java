@@ -0,0 +1,505 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.constants.ApiMessages;
+import com.example.lazyhr.dto.AttendanceReport;
+import com.example.lazyhr.dto.AttendanceReportRow;
+import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.model.WorkHours;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory column store of every attendance record (hot and archived) for reports.
+ * Each record takes one slot in parallel primitive arrays sorted by id: user index, local epoch day,
+ * worked minutes and status ordinal, about 19 bytes per record. Filters and group-bys over
+ * department, week and status are answered by scanning the arrays in parallel slices on the common
+ * fork-join pool, without touching the database.
+ * The store is loaded in full at startup and nightly, and kept current in between by re-reading
+ * rows whose updated_at moved past the last refresh. Departments are taken from the users'
+ * current department.
+ */
+@Service
+public class AttendanceAnalyticsEngine {
+
+    public enum Dimension {
+        DEPARTMENT, WEEK, STATUS
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceAnalyticsEngine.class);
+
+    private static final String COLUMNS = "id, user_id, attendance_date, clock_in_time, clock_out_time, "
+            + "break_duration_minutes, status";
+    private static final String SELECT_HOT_SQL = "SELECT " + COLUMNS + " FROM attendance ORDER BY id";
+    private static final String SELECT_ARCHIVE_SQL = "SELECT " + COLUMNS + " FROM attendance_archive ORDER BY id";
+    private static final String SELECT_CHANGED_SQL = "SELECT " + COLUMNS + " FROM attendance WHERE updated_at >= ? ORDER BY id";
+    private static final String SELECT_USERS_SQL = "SELECT id, department FROM users";
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final AttendanceStatus[] STATUSES = AttendanceStatus.values();
+    private static final int MIN_SLICE_ROWS = 1 << 16;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BusinessCalendarService businessCalendar;
+
+    @Value("${lazyhr.analytics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lazyhr.analytics.fetch-size:10000}")
+    private int fetchSize;
+
+    @Value("${lazyhr.analytics.refresh-overlap-ms:60000}")
+    private long refreshOverlapMs;
+
+    @Value("${lazyhr.analytics.max-groups:1000000}")
+    private int maxGroups;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns columns; // Guarded by lock
+    private Dictionary dictionary; // Guarded by lock, published together with the columns
+    private volatile long refreshedAt;
+
+    // Working state of the refreshing thread, copied into a Dictionary on publish
+    private long watermark;
+    private final Map<Long, Integer> userIndex = new HashMap<>();
+    private int[] userDepartment = new int[1024];
+    private final Map<String, Integer> departmentIndex = new HashMap<>();
+    private final List<String> departments = new ArrayList<>(List.of("")); // Index 0: no department
+
+    @Scheduled(initialDelayString = "${lazyhr.analytics.initial-delay-ms:10000}",
+            fixedDelayString = "${lazyhr.analytics.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        if (!enabled) {
+            return;
+        }
+        if (!isReady()) {
+            reload();
+        } else {
+            refresh();
+        }
+    }
+
+    // Picks up deleted rows and any change the incremental refresh could not see
+    @Scheduled(cron = "${lazyhr.analytics.reload-cron:0 45 3 * * *}")
+    public void scheduledReload() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return columns != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild the store from both attendance tiers. Queries keep using the previous data until the swap.
+     */
+    public synchronized void reload() {
+        long started = System.currentTimeMillis();
+        loadUsers();
+        // Hot first, then the archive: a row archived in between is read twice and deduplicated
+        Columns hot = load(SELECT_HOT_SQL);
+        Columns archived = load(SELECT_ARCHIVE_SQL);
+        Columns merged = Columns.merge(hot, archived);
+
+        lock.writeLock().lock();
+        try {
+            columns = merged;
+            dictionary = snapshotDictionary();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        watermark = started - refreshOverlapMs;
+        refreshedAt = started;
+        logger.info("Attendance analytics loaded {} records in {} ms", merged.size, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Apply rows changed since the last refresh. Rows updated within the overlap window are read again,
+     * so a transaction that committed after a later one is not missed.
+     */
+    public synchronized void refresh() {
+        if (!isReady()) {
+            reload();
+            return;
+        }
+        long started = System.currentTimeMillis();
+        loadUsers();
+        Columns changed = load(SELECT_CHANGED_SQL, watermark);
+
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < changed.size; i++) {
+                columns.upsert(changed.id[i], changed.user[i], changed.day[i], changed.minutes[i], changed.status[i]);
+            }
+            dictionary = snapshotDictionary();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        watermark = started - refreshOverlapMs;
+        refreshedAt = started;
+    }
+
+    /**
+     * Count records and sum worked minutes in a date range, grouped by the given dimensions.
+     * Department and status filters are optional.
+     */
+    public AttendanceReport query(Long startTimestamp, Long endTimestamp, String department, AttendanceStatus status,
+            Set<Dimension> groupBy) {
+        long started = System.nanoTime();
+        int startDay = epochDay(startTimestamp);
+        int endDay = epochDay(endTimestamp);
+        if (endDay < startDay) {
+            throw new IllegalArgumentException(ApiMessages.INVALID_DATE_RANGE);
+        }
+        Set<Dimension> dimensions = groupBy.isEmpty() ? EnumSet.noneOf(Dimension.class) : EnumSet.copyOf(groupBy);
+        long workingDays = businessCalendar.workingDays(department, startTimestamp, endTimestamp);
+
+        lock.readLock().lock();
+        try {
+            if (columns == null) {
+                throw new IllegalStateException(ApiMessages.ANALYTICS_NOT_READY);
+            }
+            Integer departmentFilter = department == null ? null : dictionary.departmentIndex.get(department);
+            if (department != null && departmentFilter == null) {
+                return new AttendanceReport(List.of(), workingDays, columns.size, elapsedMillis(started), refreshedAt);
+            }
+
+            Scan scan = new Scan(columns, dictionary, startDay, endDay,
+                    departmentFilter != null ? departmentFilter : -1, status != null ? status.ordinal() : -1,
+                    dimensions);
+            if ((long) scan.departmentCells * scan.weekCells * scan.statusCells > maxGroups) {
+                throw new IllegalArgumentException(ApiMessages.REPORT_TOO_MANY_GROUPS + maxGroups);
+            }
+
+            int slices = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4,
+                    (columns.size + MIN_SLICE_ROWS - 1) / MIN_SLICE_ROWS));
+            int sliceRows = (columns.size + slices - 1) / Math.max(1, slices);
+            Partial total = IntStream.range(0, slices).parallel()
+                    .mapToObj(slice -> scan.run(slice * sliceRows, Math.min(columns.size, (slice + 1) * sliceRows)))
+                    .reduce(Partial::add)
+                    .orElseGet(() -> new Partial(scan.cells()));
+
+            return new AttendanceReport(rows(scan, total, startDay), workingDays, columns.size, elapsedMillis(started),
+                    refreshedAt);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<AttendanceReportRow> rows(Scan scan, Partial total, int startDay) {
+        String[] names = scan.dictionary.departments;
+        int firstMonday = startDay - Math.floorMod(startDay + 3, 7);
+        List<AttendanceReportRow> rows = new ArrayList<>();
+        for (int cell = 0; cell < total.counts.length; cell++) {
+            if (total.counts[cell] == 0) {
+                continue;
+            }
+            int statusCell = cell % scan.statusCells;
+            int weekCell = (cell / scan.statusCells) % scan.weekCells;
+            int departmentCell = cell / (scan.statusCells * scan.weekCells);
+            rows.add(new AttendanceReportRow(
+                    scan.byDepartment && departmentCell > 0 ? names[departmentCell] : null,
+                    scan.byWeek ? LocalDate.ofEpochDay(firstMonday + 7L * weekCell)
+                            .atStartOfDay(zone).toInstant().toEpochMilli() : null,
+                    scan.byStatus ? STATUSES[statusCell] : null,
+                    total.counts[cell], total.minutes[cell]));
+        }
+        return rows;
+    }
+
+    private Columns load(String sql, Object... args) {
+        Columns loaded = new Columns(MIN_SLICE_ROWS);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, rs -> {
+            loaded.append(rs.getLong("id"), userIndexOf(rs.getLong("user_id")), epochDay(rs.getLong("attendance_date")),
+                    workedMinutes(rs), (byte) AttendanceStatus.valueOf(rs.getString("status")).ordinal());
+        });
+        return loaded;
+    }
+
+    private void loadUsers() {
+        jdbcTemplate.query(SELECT_USERS_SQL, rs -> {
+            int index = userIndexOf(rs.getLong("id"));
+            userDepartment[index] = departmentIndexOf(rs.getString("department"));
+        });
+    }
+
+    private int userIndexOf(long userId) {
+        Integer index = userIndex.get(userId);
+        if (index != null) {
+            return index;
+        }
+        int next = userIndex.size();
+        if (next == userDepartment.length) {
+            userDepartment = Arrays.copyOf(userDepartment, next * 2);
+        }
+        userIndex.put(userId, next);
+        return next;
+    }
+
+    private int departmentIndexOf(String department) {
+        if (department == null) {
+            return 0;
+        }
+        Integer index = departmentIndex.get(department);
+        if (index != null) {
+            return index;
+        }
+        departments.add(department);
+        departmentIndex.put(department, departments.size() - 1);
+        return departments.size() - 1;
+    }
+
+    private Dictionary snapshotDictionary() {
+        return new Dictionary(Arrays.copyOf(userDepartment, userIndex.size()), departments.toArray(new String[0]),
+                Map.copyOf(departmentIndex));
+    }
+
+    private static short workedMinutes(ResultSet rs) throws SQLException {
+        long clockIn = rs.getLong("clock_in_time");
+        boolean noClockIn = rs.wasNull();
+        long clockOut = rs.getLong("clock_out_time");
+        if (noClockIn || rs.wasNull()) {
+            return 0;
+        }
+        int breakMinutes = rs.getInt("break_duration_minutes");
+        int minutes = WorkHours.workedMinutes(clockIn, clockOut, breakMinutes);
+        return (short) Math.max(0, Math.min(Short.MAX_VALUE, minutes));
+    }
+
+    private int epochDay(long timestamp) {
+        long offsetMillis = zone.getRules().getOffset(Instant.ofEpochMilli(timestamp)).getTotalSeconds() * 1000L;
+        return (int) Math.floorDiv(timestamp + offsetMillis, MILLIS_PER_DAY);
+    }
+
+    // Weeks start on Monday; epoch day 0 was a Thursday
+    private static int week(int epochDay) {
+        return Math.floorDiv(epochDay + 3, 7);
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000L;
+    }
+
+    // Department of every user index and the department names, as of one refresh
+    private static class Dictionary {
+        private final int[] userDepartment;
+        private final String[] departments;
+        private final Map<String, Integer> departmentIndex;
+
+        Dictionary(int[] userDepartment, String[] departments, Map<String, Integer> departmentIndex) {
+            this.userDepartment = userDepartment;
+            this.departments = departments;
+            this.departmentIndex = departmentIndex;
+        }
+    }
+
+    // One parallel scan over the columns with its filters and group layout
+    private static class Scan {
+        private final Columns columns;
+        private final Dictionary dictionary;
+        private final int startDay;
+        private final int endDay;
+        private final int departmentFilter;
+        private final int statusFilter;
+        private final boolean byDepartment;
+        private final boolean byWeek;
+        private final boolean byStatus;
+        private final int departmentCells;
+        private final int weekCells;
+        private final int statusCells;
+        private final int firstWeek;
+
+        Scan(Columns columns, Dictionary dictionary, int startDay, int endDay, int departmentFilter, int statusFilter,
+                Set<Dimension> dimensions) {
+            this.columns = columns;
+            this.dictionary = dictionary;
+            this.startDay = startDay;
+            this.endDay = endDay;
+            this.departmentFilter = departmentFilter;
+            this.statusFilter = statusFilter;
+            this.byDepartment = dimensions.contains(Dimension.DEPARTMENT);
+            this.byWeek = dimensions.contains(Dimension.WEEK);
+            this.byStatus = dimensions.contains(Dimension.STATUS);
+            this.firstWeek = week(startDay);
+            this.departmentCells = byDepartment ? dictionary.departments.length : 1;
+            this.weekCells = byWeek ? week(endDay) - firstWeek + 1 : 1;
+            this.statusCells = byStatus ? STATUSES.length : 1;
+        }
+
+        int cells() {
+            return departmentCells * weekCells * statusCells;
+        }
+
+        Partial run(int from, int to) {
+            Partial partial = new Partial(cells());
+            int[] user = columns.user;
+            int[] day = columns.day;
+            short[] minutes = columns.minutes;
+            byte[] status = columns.status;
+            int[] userDepartment = dictionary.userDepartment;
+
+            for (int i = from; i < to; i++) {
+                int d = day[i];
+                if (d < startDay || d > endDay) {
+                    continue;
+                }
+                int department = userDepartment[user[i]];
+                if (departmentFilter >= 0 && department != departmentFilter) {
+                    continue;
+                }
+                int s = status[i];
+                if (statusFilter >= 0 && s != statusFilter) {
+                    continue;
+                }
+                int cell = ((byDepartment ? department : 0) * weekCells + (byWeek ? week(d) - firstWeek : 0))
+                        * statusCells + (byStatus ? s : 0);
+                partial.counts[cell]++;
+                partial.minutes[cell] += minutes[i];
+            }
+            return partial;
+        }
+    }
+
+    // Per-slice accumulators, merged after the parallel scan
+    private static class Partial {
+        private final long[] counts;
+        private final long[] minutes;
+
+        Partial(int cells) {
+            this.counts = new long[cells];
+            this.minutes = new long[cells];
+        }
+
+        Partial add(Partial other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+                minutes[i] += other.minutes[i];
+            }
+            return this;
+        }
+    }
+
+    // Parallel primitive arrays, sorted by attendance id
+    private static class Columns {
+        private long[] id;
+        private int[] user;
+        private int[] day;
+        private short[] minutes;
+        private byte[] status;
+        private int size;
+
+        Columns(int capacity) {
+            id = new long[capacity];
+            user = new int[capacity];
+            day = new int[capacity];
+            minutes = new short[capacity];
+            status = new byte[capacity];
+        }
+
+        void append(long rowId, int rowUser, int rowDay, short rowMinutes, byte rowStatus) {
+            ensureCapacity(size + 1);
+            set(size++, rowId, rowUser, rowDay, rowMinutes, rowStatus);
+        }
+
+        void upsert(long rowId, int rowUser, int rowDay, short rowMinutes, byte rowStatus) {
+            int position = Arrays.binarySearch(id, 0, size, rowId);
+            if (position >= 0) {
+                set(position, rowId, rowUser, rowDay, rowMinutes, rowStatus);
+                return;
+            }
+            // New rows almost always have the highest id; a late commit of a lower id shifts the tail
+            int insertAt = -position - 1;
+            ensureCapacity(size + 1);
+            if (insertAt < size) {
+                int tail = size - insertAt;
+                System.arraycopy(id, insertAt, id, insertAt + 1, tail);
+                System.arraycopy(user, insertAt, user, insertAt + 1, tail);
+                System.arraycopy(day, insertAt, day, insertAt + 1, tail);
+                System.arraycopy(minutes, insertAt, minutes, insertAt + 1, tail);
+                System.arraycopy(status, insertAt, status, insertAt + 1, tail);
+            }
+            set(insertAt, rowId, rowUser, rowDay, rowMinutes, rowStatus);
+            size++;
+        }
+
+        private void set(int position, long rowId, int rowUser, int rowDay, short rowMinutes, byte rowStatus) {
+            id[position] = rowId;
+            user[position] = rowUser;
+            day[position] = rowDay;
+            minutes[position] = rowMinutes;
+            status[position] = rowStatus;
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed <= id.length) {
+                return;
+            }
+            int capacity = Math.max(needed, id.length + (id.length >> 1));
+            id = Arrays.copyOf(id, capacity);
+            user = Arrays.copyOf(user, capacity);
+            day = Arrays.copyOf(day, capacity);
+            minutes = Arrays.copyOf(minutes, capacity);
+            status = Arrays.copyOf(status, capacity);
+        }
+
+        // Merge two id-sorted stores; the first wins when both hold the same id
+        static Columns merge(Columns first, Columns second) {
+            Columns merged = new Columns(Math.max(MIN_SLICE_ROWS, first.size + second.size));
+            int a = 0;
+            int b = 0;
+            while (a < first.size || b < second.size) {
+                if (b >= second.size || (a < first.size && first.id[a] <= second.id[b])) {
+                    if (b < second.size && first.id[a] == second.id[b]) {
+                        b++;
+                    }
+                    merged.set(merged.size++, first.id[a], first.user[a], first.day[a], first.minutes[a], first.status[a]);
+                    a++;
+                } else {
+                    merged.set(merged.size++, second.id[b], second.user[b], second.day[b], second.minutes[b],
+                            second.status[b]);
+                    b++;
+                }
+            }
+            return merged;
+        }
+    }
+}
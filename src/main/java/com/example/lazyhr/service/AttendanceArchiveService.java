@@ -0,0 +1,442 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.constants.ApiMessages;
+import com.example.lazyhr.dto.AttendanceHistoryItem;
+import com.example.lazyhr.model.ArchivedAttendance;
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.repository.ArchivedAttendanceRepository;
+import com.example.lazyhr.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier of attendance storage. Closed records older than the retention period are moved from
+ * the attendance table into attendance_archive in chunks, each copied and deleted in one short
+ * transaction, so the hot table and its indexes only cover recent months.
+ * Readers query the hot table first and then the archive, and merge by id: a record moved in
+ * between is seen twice rather than not at all. Records still open or flagged for review stay hot
+ * until they are closed or resolved.
+ */
+@Service
+public class AttendanceArchiveService {
+
+    public enum PartitionPeriod {
+        YEAR, MONTH
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceArchiveService.class);
+
+    /** Newest attendance date first, matching the hot repository queries */
+    public static final Comparator<Attendance> NEWEST_FIRST =
+            Comparator.comparing(Attendance::getAttendanceDate, Comparator.reverseOrder());
+
+    private static final String SELECT_CANDIDATES_SQL = "SELECT id, attendance_date FROM attendance "
+            + "WHERE attendance_date < ? AND clock_out_time IS NOT NULL AND needs_review = FALSE "
+            + "AND (attendance_date > ? OR (attendance_date = ? AND id > ?)) ORDER BY attendance_date, id LIMIT ?";
+
+    private static final String LOCK_SQL = "SELECT id FROM attendance WHERE id IN (:ids) "
+            + "AND clock_out_time IS NOT NULL AND needs_review = FALSE FOR UPDATE";
+
+    private static final String COPY_SQL = "INSERT INTO attendance_archive (id, user_id, attendance_date, clock_in_time, "
+            + "clock_out_time, break_duration_minutes, total_hours, overtime_hours, status, notes, created_at, updated_at, "
+            + "archived_at) SELECT id, user_id, attendance_date, clock_in_time, clock_out_time, break_duration_minutes, "
+            + "total_hours, overtime_hours, status, notes, created_at, updated_at, :archivedAt FROM attendance WHERE id IN (:ids)";
+
+    private static final String DELETE_SQL = "DELETE FROM attendance WHERE id IN (:ids)";
+
+    private static final String PARTITION_BOUNDS_SQL = "SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'attendance_archive' AND PARTITION_NAME IS NOT NULL";
+
+    private static final String ADD_PARTITION_SQL = "ALTER TABLE attendance_archive REORGANIZE PARTITION p_future INTO ("
+            + "PARTITION %s VALUES LESS THAN (%d), PARTITION p_future VALUES LESS THAN MAXVALUE)";
+
+    @Autowired
+    private ArchivedAttendanceRepository archivedAttendanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${lazyhr.attendance.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lazyhr.attendance.archive.retention-months:13}")
+    private int retentionMonths;
+
+    @Value("${lazyhr.attendance.archive.partition-period:MONTH}")
+    private PartitionPeriod partitionPeriod;
+
+    @Value("${lazyhr.attendance.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${lazyhr.attendance.archive.pause-ms:100}")
+    private long pauseMs;
+
+    @Value("${lazyhr.attendance.archive.max-run-minutes:60}")
+    private long maxRunMinutes;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile long latestArchivedDate = Long.MIN_VALUE;
+    private boolean partitioned;
+
+    @PostConstruct
+    void init() {
+        Long latest = archivedAttendanceRepository.findLatestAttendanceDate();
+        if (latest != null) {
+            latestArchivedDate = latest;
+        }
+        // Range partitions are only declared by the MySQL migration; H2 gets a plain table
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        partitioned = product != null && product.toLowerCase().contains("mysql");
+    }
+
+    @Scheduled(cron = "${lazyhr.attendance.archive.cron:0 30 2 * * *}")
+    public void scheduledArchive() {
+        if (enabled && !running.get()) {
+            archive();
+        }
+    }
+
+    /**
+     * Move every closed record dated before the retention boundary into the archive.
+     * Stops between chunks once the configured run time is used up; the next run continues.
+     */
+    public ArchiveReport archive() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException(ApiMessages.ARCHIVE_ALREADY_RUNNING);
+        }
+        try {
+            long boundary = archiveBoundary();
+            long deadline = System.currentTimeMillis() + maxRunMinutes * 60_000L;
+            if (partitioned) {
+                ensurePartitions(boundary);
+            }
+
+            int moved = 0;
+            int chunks = 0;
+            long afterDate = Long.MIN_VALUE;
+            long afterId = 0;
+            while (System.currentTimeMillis() < deadline) {
+                List<long[]> chunk = jdbcTemplate.query(SELECT_CANDIDATES_SQL,
+                        (rs, rowNum) -> new long[] { rs.getLong("id"), rs.getLong("attendance_date") },
+                        boundary, afterDate, afterDate, afterId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                moved += moveChunk(chunk);
+                chunks++;
+                long[] last = chunk.get(chunk.size() - 1);
+                afterDate = last[1];
+                afterId = last[0];
+                if (chunk.size() < chunkSize || !pause()) {
+                    break;
+                }
+            }
+
+            if (moved > 0) {
+                logger.info("Archived {} attendance records dated before {} in {} chunks", moved, boundary, chunks);
+            }
+            return new ArchiveReport(moved, chunks, boundary);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int moveChunk(List<long[]> chunk) {
+        List<Long> ids = new ArrayList<>(chunk.size());
+        long newest = latestArchivedDate;
+        for (long[] row : chunk) {
+            ids.add(row[0]);
+            newest = Math.max(newest, row[1]);
+        }
+        // Readers must start looking in the archive before the rows leave the hot table
+        latestArchivedDate = newest;
+
+        return transactionTemplate.execute(status -> {
+            // Rows edited, reopened or moved by another node since the select are skipped
+            List<Long> locked = namedParameterJdbcTemplate.queryForList(LOCK_SQL,
+                    new MapSqlParameterSource("ids", ids), Long.class);
+            if (locked.isEmpty()) {
+                return 0;
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", locked)
+                    .addValue("archivedAt", System.currentTimeMillis());
+            namedParameterJdbcTemplate.update(COPY_SQL, params);
+            return namedParameterJdbcTemplate.update(DELETE_SQL, params);
+        });
+    }
+
+    /**
+     * Start of the oldest month kept in the hot table (Unix timestamp in milliseconds)
+     */
+    public long archiveBoundary() {
+        return LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths)
+                .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Whether archived records can exist on or after the given day; null means an unbounded range
+     */
+    public boolean mayHoldArchived(Long startTimestamp) {
+        return startTimestamp == null || startTimestamp < archiveBoundary() || startTimestamp <= latestArchivedDate;
+    }
+
+    // Split partitions off p_future up to the boundary, so archived rows never land in the catch-all
+    private void ensurePartitions(long boundary) {
+        Long oldest = jdbcTemplate.queryForObject("SELECT MIN(attendance_date) FROM attendance WHERE attendance_date < ?",
+                Long.class, boundary);
+        if (oldest == null) {
+            return;
+        }
+
+        long highest = Long.MIN_VALUE;
+        for (String bound : jdbcTemplate.queryForList(PARTITION_BOUNDS_SQL, String.class)) {
+            if (bound != null && !"MAXVALUE".equalsIgnoreCase(bound)) {
+                highest = Math.max(highest, Long.parseLong(bound.trim()));
+            }
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate period = Instant.ofEpochMilli(oldest).atZone(zone).toLocalDate();
+        period = partitionPeriod == PartitionPeriod.YEAR ? period.withDayOfYear(1) : period.withDayOfMonth(1);
+        while (period.atStartOfDay(zone).toInstant().toEpochMilli() < boundary) {
+            LocalDate next = partitionPeriod == PartitionPeriod.YEAR ? period.plusYears(1) : period.plusMonths(1);
+            long upper = next.atStartOfDay(zone).toInstant().toEpochMilli();
+            // Ranges must keep increasing; anything below the highest bound is already covered
+            if (upper > highest) {
+                String name = "p" + period.format(DateTimeFormatter.ofPattern(
+                        partitionPeriod == PartitionPeriod.YEAR ? "yyyy" : "yyyyMM"));
+                jdbcTemplate.execute(String.format(ADD_PARTITION_SQL, name, upper));
+                highest = upper;
+                logger.info("Added attendance archive partition {}", name);
+            }
+            period = next;
+        }
+    }
+
+    /**
+     * Archived records of a user in a date range, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<Attendance> findByUser(User user, Long startTimestamp, Long endTimestamp) {
+        if (!mayHoldArchived(startTimestamp)) {
+            return List.of();
+        }
+        List<Attendance> records = new ArrayList<>();
+        for (ArchivedAttendance row : archivedAttendanceRepository.findByUserIdAndDateRange(user.getId(), startTimestamp, endTimestamp)) {
+            records.add(row.toAttendance(user));
+        }
+        return records;
+    }
+
+    /**
+     * Every archived record of a user, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<Attendance> findByUser(User user) {
+        List<Attendance> records = new ArrayList<>();
+        for (ArchivedAttendance row : archivedAttendanceRepository.findByUserId(user.getId())) {
+            records.add(row.toAttendance(user));
+        }
+        return records;
+    }
+
+    /**
+     * Archived records of a user on one day
+     */
+    @Transactional(readOnly = true)
+    public List<Attendance> findByUserIdAndDay(Long userId, Long dayTimestamp) {
+        if (!mayHoldArchived(dayTimestamp)) {
+            return List.of();
+        }
+        return withUsers(archivedAttendanceRepository.findByUserIdAndAttendanceDate(userId, dayTimestamp));
+    }
+
+    /**
+     * Archived records of the given users on the given days; a pair not asked for may be among them
+     */
+    @Transactional(readOnly = true)
+    public List<Attendance> findByUserIdsAndDays(Collection<Long> userIds, Collection<Long> days) {
+        Long earliest = days.stream().min(Long::compare).orElse(null);
+        if (earliest == null || userIds.isEmpty() || !mayHoldArchived(earliest)) {
+            return List.of();
+        }
+        return withUsers(archivedAttendanceRepository.findByUserIdsAndAttendanceDates(userIds, days));
+    }
+
+    /**
+     * Archived records of every user on one day
+     */
+    @Transactional(readOnly = true)
+    public List<Attendance> findAllByDay(Long dayTimestamp) {
+        if (!mayHoldArchived(dayTimestamp)) {
+            return List.of();
+        }
+        return withUsers(archivedAttendanceRepository.findAllByAttendanceDate(dayTimestamp));
+    }
+
+    /**
+     * Archived records in a date range, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<Attendance> findByDateRange(Long startTimestamp, Long endTimestamp) {
+        if (!mayHoldArchived(startTimestamp)) {
+            return List.of();
+        }
+        return withUsers(archivedAttendanceRepository.findByAttendanceDateBetween(startTimestamp, endTimestamp));
+    }
+
+    /**
+     * Archived records of one department in a date range
+     */
+    @Transactional(readOnly = true)
+    public List<Attendance> findByDepartment(String department, Long startTimestamp, Long endTimestamp) {
+        if (!mayHoldArchived(startTimestamp)) {
+            return List.of();
+        }
+        return withUsers(archivedAttendanceRepository.findByDepartmentAndDateRange(department, startTimestamp, endTimestamp));
+    }
+
+    /**
+     * One keyset page of a user's archived history; a null cursor date starts from the newest record
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceHistoryItem> findHistoryPage(Long userId, Long afterDate, Long afterId, Pageable pageable) {
+        if (afterDate == null) {
+            return archivedAttendanceRepository.findHistoryFirstPage(userId, pageable);
+        }
+        return archivedAttendanceRepository.findHistoryPageAfter(userId, afterDate, afterId, pageable);
+    }
+
+    /**
+     * Forward-only cursor over records in a date range archived before the given time, oldest first,
+     * each with its user joined in; must be closed
+     */
+    public Stream<Attendance> stream(Long startTimestamp, Long endTimestamp, long archivedBefore) {
+        if (!mayHoldArchived(startTimestamp)) {
+            return Stream.empty();
+        }
+        return archivedAttendanceRepository.streamWithUsersByAttendanceDateBetween(startTimestamp, endTimestamp, archivedBefore)
+                .map(row -> ((ArchivedAttendance) row[0]).toAttendance((User) row[1]));
+    }
+
+    /**
+     * Combine hot and archived records, dropping archived copies of rows still read from the hot table.
+     * When an order is given the result is sorted by it.
+     */
+    public static List<Attendance> union(List<Attendance> hot, List<Attendance> archived, Comparator<Attendance> order) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        Map<Long, Attendance> byId = new LinkedHashMap<>();
+        for (Attendance attendance : hot) {
+            byId.put(attendance.getId(), attendance);
+        }
+        for (Attendance attendance : archived) {
+            byId.putIfAbsent(attendance.getId(), attendance);
+        }
+        List<Attendance> records = new ArrayList<>(byId.values());
+        if (order != null) {
+            records.sort(order);
+        }
+        return records;
+    }
+
+    private List<Attendance> withUsers(List<ArchivedAttendance> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> userIds = new HashSet<>();
+        for (ArchivedAttendance row : rows) {
+            userIds.add(row.getUserId());
+        }
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(userIds).forEach(user -> users.put(user.getId(), user));
+
+        List<Attendance> records = new ArrayList<>(rows.size());
+        for (ArchivedAttendance row : rows) {
+            records.add(row.toAttendance(users.get(row.getUserId())));
+        }
+        return records;
+    }
+
+    // Give clock-ins and clock-outs a chance between chunks
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Result of an archive run
+    public static class ArchiveReport {
+        private final int moved;
+        private final int chunks;
+        private final long boundary;
+
+        public ArchiveReport(int moved, int chunks, long boundary) {
+            this.moved = moved;
+            this.chunks = chunks;
+            this.boundary = boundary;
+        }
+
+        public int getMoved() {
+            return moved;
+        }
+
+        public int getChunks() {
+            return chunks;
+        }
+
+        /**
+         * Closed records dated before this day (Unix timestamp in milliseconds) were archived
+         */
+        public long getBoundary() {
+            return boundary;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.constants.ApiMessages;
+import com.example.lazyhr.dto.BoardEntry;
+import com.example.lazyhr.dto.BoardSnapshot;
+import com.example.lazyhr.event.AttendanceChangedEvent;
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.repository.AttendanceRepository;
+import com.example.lazyhr.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Live "who's in" board for reception screens and managers.
+ * The board is built once from today's attendance and then kept current from committed
+ * {@link AttendanceChangedEvent}s, so the number of subscribers does not affect database load.
+ * Subscribers receive a {@code snapshot} event on connect and at day rollover, then one
+ * {@code delta} event per change. All board updates run on a single dispatcher thread, which
+ * hands events to a bounded queue per subscriber; a small sender pool drains each queue in order.
+ * A subscriber whose queue overflows is completed, and gets a fresh snapshot when it reconnects,
+ * so one slow client cannot hold up the others.
+ */
+@Service
+public class AttendanceBoardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceBoardService.class);
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lazyhr.attendance.board.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${lazyhr.attendance.board.max-subscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${lazyhr.attendance.board.max-pending-events:64}")
+    private int maxPendingEvents;
+
+    @Value("${lazyhr.attendance.board.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${lazyhr.attendance.board.max-cached-users:10000}")
+    private int maxCachedUsers;
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "attendance-board");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ExecutorService senders;
+    private Counter dropped;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Map<Long, BoardEntry> entries = new ConcurrentHashMap<>();
+    private Map<Long, User> users; // Only touched on the dispatcher thread
+    private volatile long day;
+
+    @PostConstruct
+    void start() {
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "attendance-board-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Least recently used users are dropped first; the daily rebuild reloads the rest
+        users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, User> eldest) {
+                return size() > maxCachedUsers;
+            }
+        };
+
+        Gauge.builder("lazyhr.attendance.board.subscribers", subscribers, List::size)
+                .description("Open live attendance board connections")
+                .register(meterRegistry);
+        dropped = Counter.builder("lazyhr.attendance.board.dropped")
+                .description("Board subscribers completed because they fell behind")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        dispatcher.execute(this::rebuild);
+    }
+
+    /**
+     * Current board, without opening a stream
+     */
+    public BoardSnapshot getSnapshot() {
+        List<BoardEntry> list = new ArrayList<>(entries.values());
+        list.sort(Comparator.comparing(BoardEntry::getClockInTime, Comparator.nullsLast(Comparator.reverseOrder())));
+        return new BoardSnapshot(day, list);
+    }
+
+    /**
+     * Open a stream that starts with the current snapshot and continues with deltas
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException(ApiMessages.BOARD_SUBSCRIBER_LIMIT_REACHED);
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::closed);
+        emitter.onTimeout(subscriber::closed);
+        emitter.onError(e -> subscriber.closed());
+
+        // Snapshot and registration happen on the dispatcher so no delta can slip in between
+        dispatcher.execute(() -> {
+            subscribers.add(subscriber);
+            subscriber.enqueue(SseEmitter.event().name("snapshot").data(getSnapshot()));
+        });
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        try {
+            dispatcher.execute(() -> apply(event));
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    @Scheduled(cron = "${lazyhr.attendance.board.rollover-cron:0 0 0 * * *}")
+    public void rollover() {
+        dispatcher.execute(() -> {
+            rebuild();
+            broadcastSnapshot();
+        });
+    }
+
+    @Scheduled(fixedRateString = "${lazyhr.attendance.board.heartbeat-ms:30000}")
+    public void heartbeat() {
+        // Lets proxies keep idle connections open and surfaces dead ones
+        dispatcher.execute(() -> broadcast(() -> SseEmitter.event().comment("heartbeat")));
+    }
+
+    private void rebuild() {
+        long today = today();
+        users.clear();
+        for (User user : userRepository.findByIsActiveTrue()) {
+            users.put(user.getId(), user);
+        }
+
+        Map<Long, BoardEntry> loaded = new HashMap<>();
+        // Newest clock-in first, so the first record per user is their latest session
+        for (Attendance attendance : attendanceRepository.findTodayAttendances(today)) {
+            Long userId = attendance.getUser().getId();
+            if (!loaded.containsKey(userId)) {
+                loaded.put(userId, entry(userId, attendance.getId(), attendance.getClockInTime(),
+                        attendance.getClockOutTime()));
+            }
+        }
+
+        entries.clear();
+        entries.putAll(loaded);
+        day = today;
+        logger.info("Attendance board loaded with {} entries", loaded.size());
+    }
+
+    private void apply(AttendanceChangedEvent event) {
+        if (today() != day) {
+            rebuild();
+            broadcastSnapshot();
+            return;
+        }
+        if (event.getAttendanceDate() == null || event.getAttendanceDate() != day) {
+            return;
+        }
+
+        BoardEntry current = entries.get(event.getUserId());
+        if (current != null && current.getClockInTime() != null && event.getClockInTime() != null
+                && event.getClockInTime() < current.getClockInTime()) {
+            // Change to an earlier session of the day; the board shows the latest one
+            return;
+        }
+
+        Long attendanceId = event.getAttendanceId() != null ? event.getAttendanceId()
+                : current != null && current.getClockInTime() != null
+                        && current.getClockInTime().equals(event.getClockInTime()) ? current.getAttendanceId() : null;
+        BoardEntry updated = entry(event.getUserId(), attendanceId, event.getClockInTime(), event.getClockOutTime());
+        entries.put(event.getUserId(), updated);
+        broadcast(() -> SseEmitter.event().name("delta").data(updated));
+    }
+
+    private BoardEntry entry(Long userId, Long attendanceId, Long clockInTime, Long clockOutTime) {
+        User user = users.get(userId);
+        if (user == null) {
+            user = userRepository.findById(userId).orElse(null);
+            if (user != null) {
+                users.put(userId, user);
+            }
+        }
+        String name = user != null ? user.getFullName() : null;
+        String department = user != null ? user.getDepartment() : null;
+        return new BoardEntry(userId, name, department, attendanceId, clockInTime, clockOutTime);
+    }
+
+    private void broadcastSnapshot() {
+        BoardSnapshot snapshot = getSnapshot();
+        broadcast(() -> SseEmitter.event().name("snapshot").data(snapshot));
+    }
+
+    // Event builders are single use, so each subscriber gets a fresh one
+    private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(event.get());
+        }
+    }
+
+    private static boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; completing lets the container release the connection
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static long today() {
+        return LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    /**
+     * One open stream with its own queue of events waiting to be sent.
+     * The dispatcher only enqueues; at most one sender thread drains a subscriber at a time,
+     * so its events still go out in order.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pending;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean overflowed;
+        private volatile boolean finished;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(maxPendingEvents);
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (overflowed || finished) {
+                return;
+            }
+            if (!pending.offer(event)) {
+                // Too far behind; completing is left to the sender, which may be blocked on this client
+                overflowed = true;
+                pending.clear();
+                subscribers.remove(this);
+                dropped.increment();
+                logger.debug("Dropping attendance board subscriber that fell {} events behind", maxPendingEvents);
+            }
+            schedule();
+        }
+
+        void closed() {
+            finished = true;
+            pending.clear();
+            subscribers.remove(this);
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!overflowed && !finished && (event = pending.poll()) != null) {
+                    if (!send(emitter, event)) {
+                        closed();
+                        return;
+                    }
+                }
+                if (overflowed && !finished) {
+                    finished = true;
+                    emitter.complete();
+                }
+            } finally {
+                draining.set(false);
+            }
+            // Anything enqueued while this drain was finishing up
+            if (!finished && (overflowed || !pending.isEmpty())) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,561 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.event.AttendanceChangedEvent;
+import com.example.lazyhr.model.AttendanceStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of attendance changes in fixed-size binary records, split into segment files
+ * named by the offset of their first record. Offsets are dense, so any offset is found by position alone.
+ * A snapshot holds the latest record of every attendance id before its offset, sorted by id; taking one
+ * rolls the log to a new segment and drops the segments already covered by the previous snapshot.
+ *
+ * Record layout (72 bytes, big-endian): offset, attendanceId, userId, attendanceDate, clockInTime,
+ * clockOutTime and occurredAt (8 bytes each), breakDurationMinutes (2), type (1), status (1),
+ * notesPosition (8) and a CRC32C of the first 68 bytes (4). Missing values are stored as -1.
+ * Notes are variable length, so they go to a side file next to each segment and snapshot
+ * ({@code .notes}, a 4-byte length and the UTF-8 text per entry) and the record holds their position.
+ */
+public class AttendanceEventLog implements Closeable {
+
+    public static final int RECORD_SIZE = 72;
+
+    private static final int NOTES_POSITION = 60;
+    private static final int CRC_POSITION = 68;
+    private static final int SNAPSHOT_MAGIC = 0x41455331; // "AES1"
+    private static final int SNAPSHOT_HEADER_SIZE = 16;
+    private static final int COPY_BUFFER_RECORDS = 1024;
+    private static final long MAX_SEGMENT_RECORDS = 1L << 24; // 1 GiB per segment
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String NOTES_SUFFIX = ".notes";
+
+    private static final AttendanceChangedEvent.Type[] TYPES = AttendanceChangedEvent.Type.values();
+    private static final AttendanceStatus[] STATUSES = AttendanceStatus.values();
+
+    private final Path directory;
+    private final boolean fsync;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private final Object snapshotLock = new Object();
+    // Replays hold the read lock while they open segments; dropping segments takes the write lock
+    private final ReadWriteLock segmentLock = new ReentrantReadWriteLock();
+
+    // Guarded by this
+    private final List<Long> segmentBases = new ArrayList<>();
+    private FileChannel active;
+    private FileChannel activeNotes;
+    private long notesEnd;
+    private long nextOffset;
+    private volatile long snapshotOffset;
+
+    public AttendanceEventLog(Path directory, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+
+        long[] snapshots = list(SNAPSHOT_SUFFIX);
+        snapshotOffset = snapshots.length > 0 ? snapshots[snapshots.length - 1] : 0;
+        for (long base : list(SEGMENT_SUFFIX)) {
+            segmentBases.add(base);
+        }
+        if (segmentBases.isEmpty()) {
+            segmentBases.add(snapshotOffset);
+        }
+
+        long activeBase = segmentBases.get(segmentBases.size() - 1);
+        active = FileChannel.open(segmentPath(activeBase), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        nextOffset = activeBase + recoverTail(active, activeBase);
+        active.position((nextOffset - activeBase) * RECORD_SIZE);
+        openNotes(activeBase);
+    }
+
+    /**
+     * Append one event and return its offset
+     */
+    public synchronized long append(AttendanceChangedEvent event) throws IOException {
+        if (nextOffset - segmentBases.get(segmentBases.size() - 1) >= MAX_SEGMENT_RECORDS) {
+            roll();
+        }
+
+        // Notes first, so a record never points past the end of its notes file
+        long notesPosition = -1;
+        if (event.getNotes() != null) {
+            notesPosition = notesEnd;
+            notesEnd += writeNotes(event.getNotes(), activeNotes, notesEnd);
+            if (fsync) {
+                activeNotes.force(false);
+            }
+        }
+
+        ByteBuffer buffer = writeBuffer;
+        buffer.clear();
+        buffer.putLong(nextOffset)
+                .putLong(orMissing(event.getAttendanceId()))
+                .putLong(orMissing(event.getUserId()))
+                .putLong(orMissing(event.getAttendanceDate()))
+                .putLong(orMissing(event.getClockInTime()))
+                .putLong(orMissing(event.getClockOutTime()))
+                .putLong(event.getOccurredAt())
+                .putShort(event.getBreakDurationMinutes() != null ? event.getBreakDurationMinutes().shortValue() : -1)
+                .put((byte) event.getType().ordinal())
+                .put(event.getStatus() != null ? (byte) event.getStatus().ordinal() : -1)
+                .putLong(notesPosition);
+        buffer.putInt(checksum(buffer.array()));
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            active.write(buffer);
+        }
+        if (fsync) {
+            active.force(false);
+        }
+        return nextOffset++;
+    }
+
+    /**
+     * Offset the next appended event will get
+     */
+    public synchronized long nextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Oldest offset that can still be replayed from the segments
+     */
+    public synchronized long firstOffset() {
+        return segmentBases.get(0);
+    }
+
+    /**
+     * Offset covered by the latest snapshot; events before it may only be available through {@link #restore}
+     */
+    public long snapshotOffset() {
+        return snapshotOffset;
+    }
+
+    /**
+     * Visit every event from the given offset to the current end, in offset order, until the visitor returns false.
+     * Returns the offset after the last visited event.
+     */
+    public long replay(long fromOffset, Visitor visitor) throws IOException {
+        segmentLock.readLock().lock();
+        try {
+            long end;
+            long[] bases;
+            synchronized (this) {
+                end = nextOffset;
+                bases = segmentBases.stream().mapToLong(Long::longValue).toArray();
+            }
+            return replay(fromOffset, end, bases, visitor);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild state from scratch: visit the latest snapshot (one record per attendance id, with its original offset),
+     * then every event after it. Returns the offset to continue replaying from.
+     */
+    public long restore(Visitor visitor) throws IOException {
+        long from;
+        synchronized (snapshotLock) {
+            from = snapshotOffset;
+            if (from > 0) {
+                try (FileChannel channel = FileChannel.open(snapshotPath(from), StandardOpenOption.READ)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    Record record = new Record(buffer, mapNotes(snapshotPath(from)));
+                    for (int position = SNAPSHOT_HEADER_SIZE; position < buffer.limit(); position += RECORD_SIZE) {
+                        record.position = position;
+                        if (!visitor.visit(record)) {
+                            return record.getOffset() + 1;
+                        }
+                    }
+                }
+            }
+        }
+        return replay(from, visitor);
+    }
+
+    /**
+     * Write a snapshot of everything appended so far and drop segments the previous snapshot already covered.
+     * Appends continue into a new segment while the snapshot is written. Returns the snapshot offset.
+     */
+    public long snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            long previous = snapshotOffset;
+            long offset;
+            long[] bases;
+            synchronized (this) {
+                offset = nextOffset;
+                if (offset == previous) {
+                    return previous;
+                }
+                roll();
+                bases = segmentBases.stream().mapToLong(Long::longValue).toArray();
+            }
+
+            // Latest record per attendance id since the previous snapshot, with its notes; every writer
+            // resolves ids before publishing, so an event without one has nothing to be the latest of
+            Map<Long, Entry> latest = new HashMap<>();
+            replay(previous, offset, bases, record -> {
+                if (record.getAttendanceId() >= 0) {
+                    latest.put(record.getAttendanceId(), new Entry(record.copy(), record.getNotes()));
+                }
+                return true;
+            });
+            long[] ids = latest.keySet().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(ids);
+
+            Path temporary = directory.resolve(name(offset, SNAPSHOT_SUFFIX + ".tmp"));
+            Path temporaryNotes = directory.resolve(name(offset, SNAPSHOT_SUFFIX + NOTES_SUFFIX + ".tmp"));
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                    FileChannel notesOut = FileChannel.open(temporaryNotes, StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_RECORDS * RECORD_SIZE);
+                buffer.putInt(SNAPSHOT_MAGIC).putInt(RECORD_SIZE).putLong(offset);
+                mergeSnapshot(previous, ids, latest, buffer, out, notesOut);
+                flush(buffer, out);
+                notesOut.force(true);
+                out.force(true);
+            }
+            // Notes first, so a snapshot that is visible always has its notes
+            Files.move(temporaryNotes, notesPath(snapshotPath(offset)), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temporary, snapshotPath(offset), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            snapshotOffset = offset;
+
+            // Keep one generation of slack so readers a little behind can still replay by offset
+            if (previous > 0) {
+                Files.deleteIfExists(snapshotPath(previous));
+                Files.deleteIfExists(notesPath(snapshotPath(previous)));
+            }
+            segmentLock.writeLock().lock();
+            try {
+                synchronized (this) {
+                    while (segmentBases.size() > 1 && segmentBases.get(1) <= previous) {
+                        Path segment = segmentPath(segmentBases.remove(0));
+                        Files.deleteIfExists(segment);
+                        Files.deleteIfExists(notesPath(segment));
+                    }
+                }
+            } finally {
+                segmentLock.writeLock().unlock();
+            }
+            return offset;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        active.close();
+        activeNotes.close();
+    }
+
+    // Merge the previous snapshot (sorted by id) with the newer records (sorted ids), newer records winning;
+    // notes are copied into the new snapshot's notes file and the records repointed at them
+    private void mergeSnapshot(long previous, long[] ids, Map<Long, Entry> latest, ByteBuffer buffer, FileChannel out,
+            FileChannel notesOut) throws IOException {
+        long[] notesEnd = {0};
+        int next = 0;
+        if (previous > 0) {
+            try (FileChannel in = FileChannel.open(snapshotPath(previous), StandardOpenOption.READ)) {
+                MappedByteBuffer old = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                Record oldRecord = new Record(old, mapNotes(snapshotPath(previous)));
+                for (int position = SNAPSHOT_HEADER_SIZE; position < old.limit(); position += RECORD_SIZE) {
+                    oldRecord.position = position;
+                    long id = oldRecord.getAttendanceId();
+                    while (next < ids.length && ids[next] < id) {
+                        write(latest.get(ids[next++]), buffer, out, notesOut, notesEnd);
+                    }
+                    if (next < ids.length && ids[next] == id) {
+                        write(latest.get(ids[next++]), buffer, out, notesOut, notesEnd);
+                    } else {
+                        write(new Entry(oldRecord.copy(), oldRecord.getNotes()), buffer, out, notesOut, notesEnd);
+                    }
+                }
+            }
+        }
+        while (next < ids.length) {
+            write(latest.get(ids[next++]), buffer, out, notesOut, notesEnd);
+        }
+    }
+
+    private long replay(long fromOffset, long end, long[] bases, Visitor visitor) throws IOException {
+        if (fromOffset < bases[0]) {
+            throw new IllegalStateException("Offset " + fromOffset + " is older than the log (first offset "
+                    + bases[0] + "); restore from the snapshot instead");
+        }
+        for (int i = 0; i < bases.length; i++) {
+            long base = bases[i];
+            long segmentEnd = i + 1 < bases.length ? bases[i + 1] : end;
+            if (segmentEnd <= fromOffset || base >= end) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(segmentPath(base), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, (segmentEnd - base) * RECORD_SIZE);
+                Record record = new Record(buffer, mapNotes(segmentPath(base)));
+                for (long offset = Math.max(fromOffset, base); offset < segmentEnd; offset++) {
+                    record.position = (int) ((offset - base) * RECORD_SIZE);
+                    if (!visitor.visit(record)) {
+                        return offset + 1;
+                    }
+                }
+            }
+        }
+        return Math.max(fromOffset, end);
+    }
+
+    // Start a new segment at the next offset
+    private void roll() throws IOException {
+        if (nextOffset == segmentBases.get(segmentBases.size() - 1)) {
+            return;
+        }
+        active.force(true);
+        active.close();
+        activeNotes.force(true);
+        activeNotes.close();
+        active = FileChannel.open(segmentPath(nextOffset), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        openNotes(nextOffset);
+        segmentBases.add(nextOffset);
+    }
+
+    // A crash between the notes and the record leaves unreferenced notes at the end, which are harmless
+    private void openNotes(long base) throws IOException {
+        activeNotes = FileChannel.open(notesPath(segmentPath(base)), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        notesEnd = activeNotes.size();
+    }
+
+    // Notes of a segment or snapshot, or null when it has none
+    private static ByteBuffer mapNotes(Path file) throws IOException {
+        Path notes = notesPath(file);
+        if (!Files.exists(notes)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(notes, StandardOpenOption.READ)) {
+            return channel.size() > 0 ? channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()) : null;
+        }
+    }
+
+    // Write one notes entry at the position and return its length
+    private static int writeNotes(String notes, FileChannel channel, long position) throws IOException {
+        byte[] text = notes.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + text.length);
+        buffer.putInt(text.length).put(text).flip();
+        long at = position;
+        while (buffer.hasRemaining()) {
+            at += channel.write(buffer, at);
+        }
+        return 4 + text.length;
+    }
+
+    // Number of intact records in the segment; a torn or corrupt tail from a crash is cut off
+    private long recoverTail(FileChannel channel, long base) throws IOException {
+        long count = channel.size() / RECORD_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        while (count > 0) {
+            buffer.clear();
+            channel.read(buffer, (count - 1) * RECORD_SIZE);
+            if (buffer.getInt(CRC_POSITION) == checksum(buffer.array()) && buffer.getLong(0) == base + count - 1) {
+                break;
+            }
+            count--;
+        }
+        if (channel.size() != count * RECORD_SIZE) {
+            channel.truncate(count * RECORD_SIZE);
+        }
+        return count;
+    }
+
+    // Only called by the snapshot writer, which holds snapshotLock
+    private void write(Entry entry, ByteBuffer buffer, FileChannel out, FileChannel notesOut, long[] notesEnd)
+            throws IOException {
+        byte[] record = entry.record;
+        long notesPosition = -1;
+        if (entry.notes != null) {
+            notesPosition = notesEnd[0];
+            notesEnd[0] += writeNotes(entry.notes, notesOut, notesPosition);
+        }
+        ByteBuffer view = ByteBuffer.wrap(record);
+        view.putLong(NOTES_POSITION, notesPosition);
+        view.putInt(CRC_POSITION, checksum(record));
+
+        if (buffer.remaining() < RECORD_SIZE) {
+            flush(buffer, out);
+        }
+        buffer.put(record);
+    }
+
+    // CRC32C of the bytes before the checksum; the instance is shared, so callers hold this or snapshotLock
+    private int checksum(byte[] record) {
+        synchronized (crc) {
+            crc.reset();
+            crc.update(record, 0, CRC_POSITION);
+            return (int) crc.getValue();
+        }
+    }
+
+    private static void flush(ByteBuffer buffer, FileChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private long[] list(String suffix) throws IOException {
+        List<Long> offsets = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + suffix)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                offsets.add(Long.parseLong(fileName.substring(0, fileName.length() - suffix.length())));
+            }
+        }
+        return offsets.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(name(base, SEGMENT_SUFFIX));
+    }
+
+    private Path snapshotPath(long offset) {
+        return directory.resolve(name(offset, SNAPSHOT_SUFFIX));
+    }
+
+    private static Path notesPath(Path file) {
+        return file.resolveSibling(file.getFileName() + NOTES_SUFFIX);
+    }
+
+    private static String name(long offset, String suffix) {
+        return String.format("%020d%s", offset, suffix);
+    }
+
+    private static long orMissing(Long value) {
+        return value != null ? value : -1L;
+    }
+
+    /**
+     * Receives events during a replay; return false to stop
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        boolean visit(Record record) throws IOException;
+    }
+
+    // A record's bytes with its notes, held while a snapshot is merged
+    private static final class Entry {
+        private final byte[] record;
+        private final String notes;
+
+        Entry(byte[] record, String notes) {
+            this.record = record;
+            this.notes = notes;
+        }
+    }
+
+    /**
+     * View of one record in a mapped segment or snapshot. The same instance is reused for every record
+     * of a replay, so copy what you need instead of keeping it.
+     */
+    public static final class Record {
+        private final ByteBuffer buffer;
+        private final ByteBuffer notes;
+        private int position;
+
+        Record(ByteBuffer buffer, ByteBuffer notes) {
+            this.buffer = buffer;
+            this.notes = notes;
+        }
+
+        public long getOffset() {
+            return buffer.getLong(position);
+        }
+
+        /**
+         * Attendance id, or -1 when the writer could not read back the id of a batch-inserted row
+         */
+        public long getAttendanceId() {
+            return buffer.getLong(position + 8);
+        }
+
+        public long getUserId() {
+            return buffer.getLong(position + 16);
+        }
+
+        public long getAttendanceDate() {
+            return buffer.getLong(position + 24);
+        }
+
+        /**
+         * Clock-in time, or -1 when there is none
+         */
+        public long getClockInTime() {
+            return buffer.getLong(position + 32);
+        }
+
+        /**
+         * Clock-out time, or -1 while the session is open
+         */
+        public long getClockOutTime() {
+            return buffer.getLong(position + 40);
+        }
+
+        public long getOccurredAt() {
+            return buffer.getLong(position + 48);
+        }
+
+        public int getBreakDurationMinutes() {
+            return buffer.getShort(position + 56);
+        }
+
+        public AttendanceChangedEvent.Type getType() {
+            return TYPES[buffer.get(position + 58)];
+        }
+
+        public AttendanceStatus getStatus() {
+            byte status = buffer.get(position + 59);
+            return status >= 0 ? STATUSES[status] : null;
+        }
+
+        /**
+         * Notes of the record as of this event, or null when the event carries none
+         */
+        public String getNotes() {
+            long notesPosition = buffer.getLong(position + NOTES_POSITION);
+            if (notesPosition < 0 || notes == null) {
+                return null;
+            }
+            byte[] text = new byte[notes.getInt((int) notesPosition)];
+            notes.get((int) notesPosition + 4, text);
+            return new String(text, StandardCharsets.UTF_8);
+        }
+
+        byte[] copy() {
+            byte[] bytes = new byte[RECORD_SIZE];
+            buffer.get(position, bytes);
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.constants.ApiMessages;
+import com.example.lazyhr.dto.AttendanceEventPage;
+import com.example.lazyhr.dto.AttendanceLogEntry;
+import com.example.lazyhr.event.AttendanceChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds committed attendance changes into the {@link AttendanceEventLog}, so projections and caches
+ * can catch up from an offset instead of re-querying the tables. The database stays the source of truth:
+ * an event that cannot be written is logged and skipped, never rolled back.
+ */
+@Service
+public class AttendanceEventLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceEventLogService.class);
+
+    @Value("${lazyhr.attendance.event-log.enabled:false}")
+    private boolean enabled;
+
+    @Value("${lazyhr.attendance.event-log.dir:data/attendance-events}")
+    private String directory;
+
+    @Value("${lazyhr.attendance.event-log.fsync:false}")
+    private boolean fsync;
+
+    @Value("${lazyhr.attendance.event-log.snapshot-every:1000000}")
+    private long snapshotEvery;
+
+    @Value("${lazyhr.attendance.event-log.max-page-size:10000}")
+    private int maxPageSize;
+
+    private volatile AttendanceEventLog log;
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        log = new AttendanceEventLog(Paths.get(directory), fsync);
+        logger.info("Attendance event log at {} opened at offset {} (snapshot at {})", directory, log.nextOffset(),
+                log.snapshotOffset());
+    }
+
+    public boolean isEnabled() {
+        return log != null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        AttendanceEventLog current = log;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.append(event);
+        } catch (IOException e) {
+            logger.error("Could not append attendance event for record {} to the event log", event.getAttendanceId(), e);
+        }
+    }
+
+    /**
+     * Snapshot once enough events have accumulated since the last one
+     */
+    @Scheduled(fixedDelayString = "${lazyhr.attendance.event-log.snapshot-check-ms:60000}")
+    public void snapshotIfDue() {
+        AttendanceEventLog current = log;
+        if (current == null || current.nextOffset() - current.snapshotOffset() < snapshotEvery) {
+            return;
+        }
+        try {
+            long offset = current.snapshot();
+            logger.info("Attendance event log snapshot written at offset {}", offset);
+        } catch (IOException e) {
+            logger.error("Could not write attendance event log snapshot", e);
+        }
+    }
+
+    /**
+     * Read up to {@code limit} events starting at {@code fromOffset}
+     */
+    public AttendanceEventPage read(long fromOffset, int limit) throws IOException {
+        AttendanceEventLog current = requireLog();
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        List<AttendanceLogEntry> events = new ArrayList<>(Math.min(size, 1024));
+        long end = current.nextOffset();
+        long next = current.replay(fromOffset, record -> {
+            events.add(toEntry(record));
+            return events.size() < size;
+        });
+        return new AttendanceEventPage(events, next, Math.max(end, next));
+    }
+
+    /**
+     * Visit every event from an offset on; see {@link AttendanceEventLog#replay}
+     */
+    public long replay(long fromOffset, AttendanceEventLog.Visitor visitor) throws IOException {
+        return requireLog().replay(fromOffset, visitor);
+    }
+
+    /**
+     * Visit the latest snapshot and everything after it; see {@link AttendanceEventLog#restore}
+     */
+    public long restore(AttendanceEventLog.Visitor visitor) throws IOException {
+        return requireLog().restore(visitor);
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        AttendanceEventLog current = log;
+        if (current != null) {
+            log = null;
+            current.close();
+        }
+    }
+
+    static AttendanceLogEntry toEntry(AttendanceEventLog.Record record) {
+        return new AttendanceLogEntry(record.getOffset(), record.getType(), orNull(record.getAttendanceId()),
+                record.getUserId(), record.getAttendanceDate(), orNull(record.getClockInTime()),
+                orNull(record.getClockOutTime()), record.getBreakDurationMinutes() >= 0 ? record.getBreakDurationMinutes() : null,
+                record.getStatus(), record.getNotes(), record.getOccurredAt());
+    }
+
+    private AttendanceEventLog requireLog() {
+        AttendanceEventLog current = log;
+        if (current == null) {
+            throw new IllegalStateException(ApiMessages.ATTENDANCE_EVENT_LOG_DISABLED);
+        }
+        return current;
+    }
+
+    private static Long orNull(long value) {
+        return value >= 0 ? value : null;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.repository.AttendanceRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams attendance records for a date range straight from forward-only database cursors over
+ * the hot and archive tables to CSV or NDJSON. Rows are detached as soon as they are written and
+ * the persistence context is cleared periodically, so memory use does not grow with the size of the range.
+ */
+@Service
+public class AttendanceExportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final String CSV_HEADER = "id,userId,employeeId,attendanceDate,clockInTime,clockOutTime,"
+            + "breakDurationMinutes,totalHours,overtimeHours,status,notes\n";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private AttendanceArchiveService archiveService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${lazyhr.attendance.export.clear-interval:1000}")
+    private int clearInterval;
+
+    @Value("${lazyhr.attendance.export.clock-skew-ms:5000}")
+    private long clockSkewMs;
+
+    /**
+     * Write every attendance record in the range to the output stream, hot records first and then
+     * archived ones. Returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long export(Long startTimestamp, Long endTimestamp, Format format, OutputStream outputStream) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try {
+            JsonGenerator generator = null;
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+            } else {
+                generator = objectMapper.getFactory().createGenerator(writer);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null); // Rows are separated by the newline written below
+            }
+
+            long count;
+            long hotReadAt;
+            try (Stream<Attendance> rows = attendanceRepository.streamByAttendanceDateBetween(startTimestamp, endTimestamp)) {
+                // The hot query has run by now: rows archived later were read above and are skipped below.
+                // The allowance for clock skew between nodes errs towards writing a row twice, never not at all.
+                hotReadAt = System.currentTimeMillis() - clockSkewMs;
+                count = writeRows(rows.iterator(), format, writer, generator, 0);
+            }
+            // One cursor at a time: the archive is only queried once the hot cursor is closed
+            try (Stream<Attendance> rows = archiveService.stream(startTimestamp, endTimestamp, hotReadAt)) {
+                count = writeRows(rows.iterator(), format, writer, generator, count);
+            }
+
+            if (generator != null) {
+                generator.flush();
+            }
+            writer.flush();
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long writeRows(Iterator<Attendance> rows, Format format, Writer writer, JsonGenerator generator, long count)
+            throws IOException {
+        return format == Format.CSV ? writeCsv(rows, writer, count) : writeNdjson(rows, generator, count);
+    }
+
+    private long writeCsv(Iterator<Attendance> rows, Writer writer, long count) throws IOException {
+        StringBuilder line = new StringBuilder(256);
+        while (rows.hasNext()) {
+            Attendance attendance = rows.next();
+            line.setLength(0);
+            line.append(attendance.getId()).append(',')
+                    .append(attendance.getUser().getId()).append(',')
+                    .append(csv(attendance.getUser().getEmployeeId())).append(',')
+                    .append(attendance.getAttendanceDate()).append(',')
+                    .append(nullToEmpty(attendance.getClockInTime())).append(',')
+                    .append(nullToEmpty(attendance.getClockOutTime())).append(',')
+                    .append(nullToEmpty(attendance.getBreakDurationMinutes())).append(',')
+                    .append(nullToEmpty(attendance.getTotalHours())).append(',')
+                    .append(nullToEmpty(attendance.getOvertimeHours())).append(',')
+                    .append(attendance.getStatus()).append(',')
+                    .append(csv(attendance.getNotes())).append('\n');
+            writer.write(line.toString());
+            release(attendance, ++count);
+        }
+        return count;
+    }
+
+    private long writeNdjson(Iterator<Attendance> rows, JsonGenerator generator, long count) throws IOException {
+        while (rows.hasNext()) {
+            Attendance attendance = rows.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", attendance.getId());
+            generator.writeNumberField("userId", attendance.getUser().getId());
+            generator.writeStringField("employeeId", attendance.getUser().getEmployeeId());
+            generator.writeNumberField("attendanceDate", attendance.getAttendanceDate());
+            writeNumber(generator, "clockInTime", attendance.getClockInTime());
+            writeNumber(generator, "clockOutTime", attendance.getClockOutTime());
+            writeNumber(generator, "breakDurationMinutes",
+                    attendance.getBreakDurationMinutes() != null ? attendance.getBreakDurationMinutes().longValue() : null);
+            writeDecimal(generator, "totalHours", attendance.getTotalHours());
+            writeDecimal(generator, "overtimeHours", attendance.getOvertimeHours());
+            generator.writeStringField("status", attendance.getStatus().name());
+            generator.writeStringField("notes", attendance.getNotes());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            release(attendance, ++count);
+        }
+        return count;
+    }
+
+    // Keep the persistence context from accumulating every row (and its user) read so far
+    private void release(Attendance attendance, long count) {
+        entityManager.detach(attendance);
+        if (count % clearInterval == 0) {
+            entityManager.clear();
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, String name, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    private static void writeDecimal(JsonGenerator generator, String name, BigDecimal value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    private static String nullToEmpty(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,35 +1,134 @@
 package com.example.lazyhr.service;
 
+import com.example.lazyhr.dto.ActiveSession;
+import com.example.lazyhr.dto.AttendanceHistoryItem;
+import com.example.lazyhr.dto.CursorPage;
+import com.example.lazyhr.dto.UserOvertime;
+import com.example.lazyhr.event.AttendanceChangedEvent;
 import com.example.lazyhr.model.Attendance;
 import com.example.lazyhr.model.User;
 import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.model.DailyAttendanceSummary;
+import com.example.lazyhr.model.WorkHours;
 import com.example.lazyhr.repository.AttendanceRepository;
 import com.example.lazyhr.repository.UserRepository;
 import com.example.lazyhr.constants.ApiMessages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import jakarta.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 @Transactional
 public class AttendanceService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceService.class);
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+    private static final Comparator<AttendanceHistoryItem> HISTORY_ORDER = Comparator
+            .comparing(AttendanceHistoryItem::getAttendanceDate, Comparator.reverseOrder())
+            .thenComparing(AttendanceHistoryItem::getId, Comparator.reverseOrder());
+
     @Autowired
     private AttendanceRepository attendanceRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Autowired
+    private UserLockStripes userLockStripes;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ClockEventBatchWriter clockEventBatchWriter;
+
+    @Autowired
+    private DailyAttendanceSummaryService dailySummaryService;
+
+    @Autowired
+    private WorkHourPolicy workHourPolicy;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TodayAttendanceCache todayAttendanceCache;
+
+    @Autowired
+    private AttendanceArchiveService archiveService;
+
+    @Autowired
+    private OvertimeLedgerService overtimeLedgerService;
+
+    @Autowired
+    private LeaveIntervalIndex leaveIntervalIndex;
+
+    @Autowired
+    private BusinessCalendarService businessCalendar;
+
+    @Value("${lazyhr.attendance.duplicate-punch-window-ms:60000}")
+    private long duplicatePunchWindowMs;
+
+    @Value("${lazyhr.attendance.punches.chunk-size:1000}")
+    private int punchChunkSize;
+
     /**
-     * Clock in user for today
+     * Clock in user for today. A repeated clock-in returns the session that is already open.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Attendance clockIn(Long userId) {
+        return userLockStripes.withLock(userId, () -> {
+            try {
+                return transactionTemplate.execute(status -> openSession(userId));
+            } catch (DataIntegrityViolationException e) {
+                // Another node opened a session after our check; return that one instead
+                return transactionTemplate.execute(status -> {
+                    List<Attendance> activeAttendances = attendanceRepository.findActiveAttendances(userId);
+                    if (activeAttendances.isEmpty()) {
+                        throw e;
+                    }
+                    activeSessionRegistry.sessionOpened(ActiveSession.of(activeAttendances.get(0)));
+                    return activeAttendances.get(0);
+                });
+            }
+        });
+    }
+
+    private Attendance openSession(Long userId) {
+        Optional<Attendance> existing = findActiveForWrite(userId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException(ApiMessages.USER_NOT_FOUND_WITH_ID + userId));
 
@@ -45,24 +144,107 @@ public class AttendanceService {
         attendance.setClockInTime(currentTime);
         attendance.setStatus(AttendanceStatus.PRESENT);
 
-        return attendanceRepository.save(attendance);
+        // Flush now so a concurrent open session on another node surfaces as a constraint violation here
+        Attendance saved = attendanceRepository.saveAndFlush(attendance);
+        activeSessionRegistry.sessionOpened(ActiveSession.of(saved));
+        dailySummaryService.refresh(saved);
+        eventPublisher.publishEvent(AttendanceChangedEvent.of(AttendanceChangedEvent.Type.CLOCKED_IN, saved));
+        return saved;
     }
 
     /**
-     * Clock out user
+     * Clock out user. A repeated clock-out within the duplicate window returns the session it closed.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Attendance clockOut(Long userId) {
+        return userLockStripes.withLock(userId, () -> transactionTemplate.execute(status -> closeSession(userId)));
+    }
+
+    private Attendance closeSession(Long userId) {
         // Get the most recent active attendance record
-        List<Attendance> activeAttendances = attendanceRepository.findActiveAttendances(userId);
-        if (activeAttendances.isEmpty()) {
-            throw new IllegalStateException(ApiMessages.NO_ACTIVE_CLOCK_IN_FOUND);
+        Optional<Attendance> active = findActiveForWrite(userId);
+        if (active.isEmpty()) {
+            long now = System.currentTimeMillis();
+            return attendanceRepository.findFirstByUserIdAndClockOutTimeIsNotNullOrderByClockOutTimeDesc(userId)
+                    .filter(last -> now - last.getClockOutTime() <= duplicatePunchWindowMs)
+                    .orElseThrow(() -> new IllegalStateException(ApiMessages.NO_ACTIVE_CLOCK_IN_FOUND));
         }
 
-        Attendance attendance = activeAttendances.get(0);
+        Attendance attendance = active.get();
         attendance.setClockOutTime(System.currentTimeMillis());
-        attendance.calculateTotalHours(); // This method calculates total and overtime hours
+        attendance.calculateTotalHours(workHourPolicy.standardDayMinutes(attendance.getUser())); // This method calculates total and overtime hours
+
+        Attendance saved = attendanceRepository.save(attendance);
+        activeSessionRegistry.sessionClosed(userId, saved.getId());
+        dailySummaryService.refresh(saved);
+        eventPublisher.publishEvent(AttendanceChangedEvent.of(AttendanceChangedEvent.Type.CLOCKED_OUT, saved));
+        return saved;
+    }
+
+    /**
+     * Apply a batch of punches uploaded by a badge reader or kiosk.
+     * Users are resolved with one query, punches are applied in device-timestamp order per user,
+     * and each chunk is written with batched statements in its own transaction.
+     * Punches that were already applied, e.g. by an earlier upload that timed out, are reported as duplicates.
+     * Returns one outcome per punch, in the order they were given. When a chunk fails, the punches written
+     * before it keep their outcomes and the rest are reported as FAILED; later chunks are not attempted,
+     * since their punches may depend on the failed ones, so the device can simply upload again.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ClockEventOutcome> recordPunches(List<ClockEvent> punches) {
+        ClockEventOutcome[] outcomes = new ClockEventOutcome[punches.size()];
+
+        Set<Long> userIds = new HashSet<>();
+        List<Integer> valid = new ArrayList<>(punches.size());
+        for (int i = 0; i < punches.size(); i++) {
+            ClockEvent punch = punches.get(i);
+            if (punch.getUserId() == null || punch.getDirection() == null || punch.getTimestamp() <= 0) {
+                outcomes[i] = ClockEventOutcome.INVALID;
+            } else {
+                userIds.add(punch.getUserId());
+                valid.add(i);
+            }
+        }
+
+        Map<Long, String> knownUsers = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            userRepository.findAllById(userIds).forEach(user -> knownUsers.put(user.getId(), user.getDepartment()));
+        }
+
+        // Stable sort keeps upload order for punches with the same device timestamp
+        valid.sort(Comparator.comparingLong(i -> punches.get(i).getTimestamp()));
+
+        for (int from = 0; from < valid.size(); from += punchChunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + punchChunkSize, valid.size()));
+            List<ClockEvent> events = new ArrayList<>(chunk.size());
+            for (Integer index : chunk) {
+                events.add(punches.get(index));
+            }
+            List<ClockEventOutcome> written;
+            try {
+                written = clockEventBatchWriter.write(events, knownUsers);
+            } catch (ClockEventBatchWriter.PartialWriteException e) {
+                logger.error("Failed to record {} punches", chunk.size(), e);
+                written = e.getOutcomes();
+            } catch (RuntimeException e) {
+                logger.error("Failed to record {} punches", chunk.size(), e);
+                written = Arrays.asList(new ClockEventOutcome[chunk.size()]);
+            }
+            boolean failed = false;
+            for (int i = 0; i < chunk.size(); i++) {
+                ClockEventOutcome outcome = written.get(i);
+                failed |= outcome == null;
+                outcomes[chunk.get(i)] = outcome != null ? outcome : ClockEventOutcome.FAILED;
+            }
+            if (failed) {
+                for (int i = from + chunk.size(); i < valid.size(); i++) {
+                    outcomes[valid.get(i)] = ClockEventOutcome.FAILED;
+                }
+                break;
+            }
+        }
 
-        return attendanceRepository.save(attendance);
+        return Arrays.asList(outcomes);
     }
 
     /**
@@ -100,7 +282,9 @@ public class AttendanceService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException(ApiMessages.USER_NOT_FOUND_WITH_ID + userId));
 
-        return attendanceRepository.findByUserAndTimestampRange(user, startTimestamp, endTimestamp);
+        return AttendanceArchiveService.union(
+                attendanceRepository.findByUserAndTimestampRange(user, startTimestamp, endTimestamp),
+                archiveService.findByUser(user, startTimestamp, endTimestamp), AttendanceArchiveService.NEWEST_FIRST);
     }
 
     /**
@@ -114,7 +298,9 @@ public class AttendanceService {
 
         long startTimestamp = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
         long endTimestamp = endDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        return attendanceRepository.findByUserAndDateRange(user, startTimestamp, endTimestamp);
+        return AttendanceArchiveService.union(
+                attendanceRepository.findByUserAndDateRange(user, startTimestamp, endTimestamp),
+                archiveService.findByUser(user, startTimestamp, endTimestamp), AttendanceArchiveService.NEWEST_FIRST);
     }
 
     /**
@@ -122,8 +308,7 @@ public class AttendanceService {
      */
     @Transactional(readOnly = true)
     public List<Attendance> getTodayAttendances() {
-        long todayTimestamp = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        return attendanceRepository.findTodayAttendances(todayTimestamp);
+        return todayAttendanceCache.getTodayAttendances();
     }
 
     /**
@@ -133,7 +318,9 @@ public class AttendanceService {
     public List<Attendance> getAttendanceByDateRange(LocalDate startDate, LocalDate endDate) {
         long startTimestamp = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
         long endTimestamp = endDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        return attendanceRepository.findByAttendanceDateBetween(startTimestamp, endTimestamp);
+        return AttendanceArchiveService.union(
+                attendanceRepository.findByAttendanceDateBetween(startTimestamp, endTimestamp),
+                archiveService.findByDateRange(startTimestamp, endTimestamp), AttendanceArchiveService.NEWEST_FIRST);
     }
 
     /**
@@ -144,7 +331,70 @@ public class AttendanceService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException(ApiMessages.USER_NOT_FOUND_WITH_ID + userId));
 
-        return attendanceRepository.findByUserOrderByAttendanceDateDesc(user);
+        return AttendanceArchiveService.union(attendanceRepository.findByUserOrderByAttendanceDateDesc(user),
+                archiveService.findByUser(user), AttendanceArchiveService.NEWEST_FIRST);
+    }
+
+    /**
+     * Get one page of a user's attendance history, newest first.
+     * The cursor is the opaque value returned with the previous page; null starts from the newest record.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AttendanceHistoryItem> getUserAttendanceHistoryPage(Long userId, String cursor, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException(ApiMessages.USER_NOT_FOUND_WITH_ID + userId);
+        }
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException(ApiMessages.INVALID_PAGE_SIZE + MAX_HISTORY_PAGE_SIZE);
+        }
+
+        // Fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<AttendanceHistoryItem> hot;
+        List<AttendanceHistoryItem> archived;
+        long[] position = KeysetCursor.decode(cursor);
+        if (position == null) {
+            hot = attendanceRepository.findHistoryFirstPage(userId, limit);
+            archived = archiveService.findHistoryPage(userId, null, null, limit);
+        } else {
+            hot = attendanceRepository.findHistoryPageAfter(userId, position[0], position[1], limit);
+            archived = archiveService.findHistoryPage(userId, position[0], position[1], limit);
+        }
+        List<AttendanceHistoryItem> rows = mergeHistory(hot, archived, size + 1);
+
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<AttendanceHistoryItem> page = rows.subList(0, size);
+        AttendanceHistoryItem last = page.get(size - 1);
+        return new CursorPage<>(page, KeysetCursor.encode(last.getAttendanceDate(), last.getId()));
+    }
+
+    // Both tiers are ordered by (attendanceDate, id) descending; a row read from both is kept once
+    private static List<AttendanceHistoryItem> mergeHistory(List<AttendanceHistoryItem> hot,
+            List<AttendanceHistoryItem> archived, int limit) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<AttendanceHistoryItem> merged = new ArrayList<>(Math.min(limit, hot.size() + archived.size()));
+        int h = 0;
+        int a = 0;
+        while (merged.size() < limit && (h < hot.size() || a < archived.size())) {
+            AttendanceHistoryItem next;
+            if (a >= archived.size()) {
+                next = hot.get(h++);
+            } else if (h >= hot.size()) {
+                next = archived.get(a++);
+            } else {
+                int order = HISTORY_ORDER.compare(hot.get(h), archived.get(a));
+                next = order <= 0 ? hot.get(h++) : archived.get(a++);
+                if (order == 0) {
+                    a++;
+                }
+            }
+            merged.add(next);
+        }
+        return merged;
     }
 
     /**
@@ -152,66 +402,191 @@ public class AttendanceService {
      */
     @Transactional(readOnly = true)
     public boolean isUserClockedIn(Long userId) {
+        if (activeSessionRegistry.isReady()) {
+            return activeSessionRegistry.isClockedIn(userId);
+        }
         List<Attendance> activeAttendances = attendanceRepository.findActiveAttendances(userId);
         return !activeAttendances.isEmpty();
     }
 
     /**
-     * Get active attendance for user
+     * Get active attendance for user.
+     * Once the registry is ready it is trusted: a hit is a primary key lookup and a miss means no open session.
+     * A session opened on another node shows up here after the next reconciliation; clock-in and clock-out
+     * check the database themselves.
      */
     @Transactional(readOnly = true)
     public Optional<Attendance> getActiveAttendance(Long userId) {
+        if (!activeSessionRegistry.isReady()) {
+            List<Attendance> activeAttendances = attendanceRepository.findActiveAttendances(userId);
+            return activeAttendances.isEmpty() ? Optional.empty() : Optional.of(activeAttendances.get(0));
+        }
+        Optional<ActiveSession> session = activeSessionRegistry.getActiveSession(userId);
+        if (session.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<Attendance> registered = attendanceRepository.findById(session.get().getAttendanceId())
+                .filter(Attendance::isClockedIn);
+        if (registered.isEmpty()) {
+            // Closed elsewhere; drop it until reconciliation finds any newer session
+            activeSessionRegistry.sessionClosed(userId, session.get().getAttendanceId());
+        }
+        return registered;
+    }
+
+    /**
+     * Active attendance for a clock-in or clock-out, called with the user's stripe held.
+     * A registry miss falls back to SQL, since the session may have been opened on another node,
+     * and the session found there is added to the registry.
+     */
+    private Optional<Attendance> findActiveForWrite(Long userId) {
+        Optional<Attendance> registered = getActiveAttendance(userId);
+        if (registered.isPresent() || !activeSessionRegistry.isReady()) {
+            return registered;
+        }
         List<Attendance> activeAttendances = attendanceRepository.findActiveAttendances(userId);
-        return activeAttendances.isEmpty() ? Optional.empty() : Optional.of(activeAttendances.get(0));
+        if (activeAttendances.isEmpty()) {
+            return Optional.empty();
+        }
+        activeSessionRegistry.sessionOpened(ActiveSession.of(activeAttendances.get(0)));
+        return Optional.of(activeAttendances.get(0));
     }
 
     /**
      * Update attendance notes
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Attendance updateAttendanceNotes(Long attendanceId, String notes) {
-        Attendance attendance = attendanceRepository.findById(attendanceId)
-                .orElseThrow(() -> new EntityNotFoundException(ApiMessages.ATTENDANCE_RECORD_NOT_FOUND_WITH_ID + attendanceId));
-
-        attendance.setNotes(notes);
-        return attendanceRepository.save(attendance);
+        return updateRecord(attendanceId, attendance -> {
+            attendance.setNotes(notes);
+            Attendance saved = attendanceRepository.save(attendance);
+            eventPublisher.publishEvent(AttendanceChangedEvent.of(AttendanceChangedEvent.Type.UPDATED, saved));
+            return saved;
+        });
     }
 
     /**
      * Update break duration
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Attendance updateBreakDuration(Long attendanceId, Integer breakMinutes) {
-        Attendance attendance = attendanceRepository.findById(attendanceId)
+        return updateRecord(attendanceId, attendance -> {
+            attendance.setBreakDurationMinutes(breakMinutes);
+            if (attendance.isClockedOut()) {
+                attendance.calculateTotalHours(workHourPolicy.standardDayMinutes(attendance.getUser()));
+            }
+
+            Attendance saved = attendanceRepository.save(attendance);
+            dailySummaryService.refresh(saved);
+            eventPublisher.publishEvent(AttendanceChangedEvent.of(AttendanceChangedEvent.Type.UPDATED, saved));
+            return saved;
+        });
+    }
+
+    /**
+     * Apply a change to one attendance record in its own transaction while holding the owner's stripe,
+     * like clock-in and clock-out, so the record and its daily summary are never updated concurrently on this node
+     */
+    private Attendance updateRecord(Long attendanceId, Function<Attendance, Attendance> change) {
+        Long userId = attendanceRepository.findUserIdById(attendanceId)
                 .orElseThrow(() -> new EntityNotFoundException(ApiMessages.ATTENDANCE_RECORD_NOT_FOUND_WITH_ID + attendanceId));
+        return userLockStripes.withLock(userId, () -> transactionTemplate.execute(status -> {
+            // With its user, whose department the summary refresh needs
+            Attendance attendance = attendanceRepository.findWithUserById(attendanceId)
+                    .orElseThrow(() -> new EntityNotFoundException(ApiMessages.ATTENDANCE_RECORD_NOT_FOUND_WITH_ID + attendanceId));
+            return change.apply(attendance);
+        }));
+    }
 
-        attendance.setBreakDurationMinutes(breakMinutes);
-        if (attendance.isClockedOut()) {
-            attendance.calculateTotalHours();
+    /**
+     * Get attendance statistics
+     */
+    @Transactional(readOnly = true)
+    public long getTodayAttendanceCount() {
+        return todayAttendanceCache.getClockedInCount();
+    }
+
+    /**
+     * Get user's total overtime hours for period, exact to the minute
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getUserOvertimeHours(Long userId, LocalDate startDate, LocalDate endDate) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException(ApiMessages.USER_NOT_FOUND_WITH_ID + userId);
         }
 
-        return attendanceRepository.save(attendance);
+        long startTimestamp = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long endTimestamp = endDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // Whole months come from the overtime ledger, partial months from the daily summary
+        long overtimeMinutes = overtimeLedgerService.getOvertimeMinutes(userId, startTimestamp, endTimestamp);
+        return WorkHours.toHours(overtimeMinutes);
     }
 
     /**
-     * Get attendance statistics
+     * Worked and overtime totals of every employee for the months containing the period
      */
     @Transactional(readOnly = true)
-    public long getTodayAttendanceCount() {
-        long todayTimestamp = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        return attendanceRepository.countClockedInToday(todayTimestamp);
+    public List<UserOvertime> getOvertimeByUser(Long startTimestamp, Long endTimestamp) {
+        return overtimeLedgerService.getOvertimeByUser(startTimestamp, endTimestamp);
     }
 
     /**
-     * Get user's total overtime hours for period
+     * Get daily attendance summaries for a user and date range
      */
     @Transactional(readOnly = true)
-    public Double getUserOvertimeHours(Long userId, LocalDate startDate, LocalDate endDate) {
+    public List<DailyAttendanceSummary> getDailySummaries(Long userId, Long startTimestamp, Long endTimestamp) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException(ApiMessages.USER_NOT_FOUND_WITH_ID + userId);
+        }
+        return dailySummaryService.getSummaries(userId, startTimestamp, endTimestamp);
+    }
+
+    /**
+     * Working days in the range, up to yesterday, on which the user has no attendance and no approved leave.
+     * Returns the start of each such day as a Unix timestamp in milliseconds.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> getAbsentDays(Long userId, Long startTimestamp, Long endTimestamp) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException(ApiMessages.USER_NOT_FOUND_WITH_ID + userId));
 
-        long startTimestamp = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        long endTimestamp = endDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        Double overtime = attendanceRepository.getTotalOvertimeHours(user, startTimestamp, endTimestamp);
-        return overtime != null ? overtime : 0.0;
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate day = Instant.ofEpochMilli(startTimestamp).atZone(zone).toLocalDate();
+        LocalDate last = Instant.ofEpochMilli(endTimestamp).atZone(zone).toLocalDate();
+        LocalDate yesterday = LocalDate.now(zone).minusDays(1);
+        if (last.isAfter(yesterday)) {
+            last = yesterday;
+        }
+        if (last.isBefore(day)) {
+            return List.of();
+        }
+        long rangeStart = day.atStartOfDay(zone).toInstant().toEpochMilli();
+        long rangeEnd = last.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli() - 1;
+
+        Set<Long> attended = new HashSet<>();
+        for (DailyAttendanceSummary summary : dailySummaryService.getSummaries(userId, rangeStart, rangeEnd)) {
+            if (summary.getStatus() != AttendanceStatus.ABSENT) {
+                attended.add(summary.getSummaryDate());
+            }
+        }
+        List<LeaveIntervalIndex.Span> leaves = leaveIntervalIndex.findApproved(userId, rangeStart, rangeEnd);
+
+        List<Long> absent = new ArrayList<>();
+        for (; !day.isAfter(last); day = day.plusDays(1)) {
+            long dayStart = day.atStartOfDay(zone).toInstant().toEpochMilli();
+            long nextDayStart = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            if (!businessCalendar.isWorkingDay(user.getDepartment(), dayStart) || attended.contains(dayStart)) {
+                continue;
+            }
+            boolean onLeave = false;
+            for (LeaveIntervalIndex.Span leave : leaves) {
+                onLeave |= leave.getStartDate() < nextDayStart && leave.getEndDate() >= dayStart;
+            }
+            if (!onLeave) {
+                absent.add(dayStart);
+            }
+        }
+        return absent;
     }
 
     /**
@@ -221,28 +596,67 @@ public class AttendanceService {
     public List<Attendance> getAttendanceByDepartment(String department, LocalDate startDate, LocalDate endDate) {
         long startTimestamp = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
         long endTimestamp = endDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        return attendanceRepository.findByDepartmentAndDateRange(department, startTimestamp, endTimestamp);
+        return AttendanceArchiveService.union(
+                attendanceRepository.findByDepartmentAndDateRange(department, startTimestamp, endTimestamp),
+                archiveService.findByDepartment(department, startTimestamp, endTimestamp), null);
     }
 
     /**
-     * Mark attendance as late
+     * Get sessions that were closed automatically and still need a manager to confirm the clock-out time
      */
-    public Attendance markAsLate(Long attendanceId) {
-        Attendance attendance = attendanceRepository.findById(attendanceId)
-                .orElseThrow(() -> new EntityNotFoundException(ApiMessages.ATTENDANCE_RECORD_NOT_FOUND_WITH_ID + attendanceId));
+    @Transactional(readOnly = true)
+    public List<Attendance> getAttendancesNeedingReview() {
+        return attendanceRepository.findByNeedsReviewTrueOrderByAttendanceDateDesc();
+    }
 
-        attendance.setStatus(AttendanceStatus.LATE);
-        return attendanceRepository.save(attendance);
+    /**
+     * Replace the computed clock-out of an automatically closed session and clear its review flag
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Attendance resolveReview(Long attendanceId, Long clockOutTime) {
+        return updateRecord(attendanceId, attendance -> {
+            if (!attendance.isNeedsReview()) {
+                throw new IllegalStateException(ApiMessages.ATTENDANCE_NOT_PENDING_REVIEW);
+            }
+            if (clockOutTime == null || clockOutTime <= attendance.getClockInTime()) {
+                throw new IllegalArgumentException(ApiMessages.INVALID_CLOCK_OUT_TIME);
+            }
+
+            attendance.setClockOutTime(clockOutTime);
+            attendance.calculateTotalHours(workHourPolicy.standardDayMinutes(attendance.getUser()));
+            attendance.setNeedsReview(false);
+
+            Attendance saved = attendanceRepository.save(attendance);
+            dailySummaryService.refresh(saved);
+            eventPublisher.publishEvent(AttendanceChangedEvent.of(AttendanceChangedEvent.Type.UPDATED, saved));
+            return saved;
+        });
     }
 
     /**
-     * Mark attendance as half day
+     * Mark attendance as late. A status set by hand is kept when the shift classification runs again.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Attendance markAsLate(Long attendanceId) {
+        return overrideStatus(attendanceId, AttendanceStatus.LATE);
+    }
+
+    /**
+     * Mark attendance as half day. A status set by hand is kept when the shift classification runs again.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Attendance markAsHalfDay(Long attendanceId) {
-        Attendance attendance = attendanceRepository.findById(attendanceId)
-                .orElseThrow(() -> new EntityNotFoundException(ApiMessages.ATTENDANCE_RECORD_NOT_FOUND_WITH_ID + attendanceId));
+        return overrideStatus(attendanceId, AttendanceStatus.HALF_DAY);
+    }
 
-        attendance.setStatus(AttendanceStatus.HALF_DAY);
-        return attendanceRepository.save(attendance);
+    private Attendance overrideStatus(Long attendanceId, AttendanceStatus status) {
+        return updateRecord(attendanceId, attendance -> {
+            attendance.setStatus(status);
+            attendance.setStatusOverride(true);
+            Attendance saved = attendanceRepository.save(attendance);
+            dailySummaryService.refresh(saved);
+            eventPublisher.publishEvent(AttendanceChangedEvent.of(AttendanceChangedEvent.Type.UPDATED, saved));
+            return saved;
+        });
     }
 }
@@ -0,0 +1,302 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.constants.ApiMessages;
+import com.example.lazyhr.model.Holiday;
+import com.example.lazyhr.repository.HolidayRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Working-day calendar shared by leave day counts, absence detection and reports.
+ * Weekends come from configuration and public holidays from the holidays table. For every region a bitmap
+ * of working days and its prefix sums cover a window of years around today, so the number of working days
+ * between two dates is two array reads. The calendar is rebuilt after every holiday change and periodically,
+ * for changes made on other nodes.
+ */
+@Service
+public class BusinessCalendarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusinessCalendarService.class);
+
+    @Autowired
+    private HolidayRepository holidayRepository;
+
+    @Value("${lazyhr.calendar.weekend:SATURDAY,SUNDAY}")
+    private String weekendDays;
+
+    @Value("${lazyhr.calendar.department-regions:}")
+    private String departmentRegions;
+
+    @Value("${lazyhr.calendar.years-back:10}")
+    private int yearsBack;
+
+    @Value("${lazyhr.calendar.years-ahead:5}")
+    private int yearsAhead;
+
+    private final boolean[] weekend = new boolean[7]; // Indexed by DayOfWeek.ordinal(), 0 = Monday
+    private final Map<String, String> regionByDepartment = new HashMap<>();
+    private int workdaysPerWeek;
+
+    private volatile Calendar calendar;
+
+    @PostConstruct
+    void init() {
+        if (!weekendDays.isBlank()) {
+            for (String day : weekendDays.split(",")) {
+                weekend[DayOfWeek.valueOf(day.trim().toUpperCase()).ordinal()] = true;
+            }
+        }
+        for (boolean off : weekend) {
+            workdaysPerWeek += off ? 0 : 1;
+        }
+        if (!departmentRegions.isBlank()) {
+            for (String entry : departmentRegions.split(",")) {
+                int separator = entry.lastIndexOf(':');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Invalid department region entry: " + entry);
+                }
+                regionByDepartment.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+            }
+        }
+        // Weekends only until the holidays are loaded
+        calendar = build(List.of());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${lazyhr.calendar.reload-interval-ms:300000}",
+            fixedDelayString = "${lazyhr.calendar.reload-interval-ms:300000}")
+    public void reload() {
+        List<Holiday> holidays = holidayRepository.findAll();
+        calendar = build(holidays);
+        logger.debug("Loaded business calendar with {} holidays for {} regions", holidays.size(),
+                calendar.byRegion.size());
+    }
+
+    /**
+     * Number of working days from the start day to the end day, both inclusive, for the region of a department.
+     * Takes Unix timestamps in milliseconds; returns 0 when the end is before the start.
+     */
+    public long workingDays(String department, long startTimestamp, long endTimestamp) {
+        Calendar current = calendar;
+        long first = current.epochDay(startTimestamp);
+        long last = current.epochDay(endTimestamp);
+        if (last < first) {
+            return 0;
+        }
+        return count(current, current.workdays(regionOf(department)), first, last + 1);
+    }
+
+    /**
+     * Whether the day of the given timestamp is a working day in the region of a department
+     */
+    public boolean isWorkingDay(String department, long dayTimestamp) {
+        Calendar current = calendar;
+        long day = current.epochDay(dayTimestamp);
+        long index = day - current.firstDay;
+        if (index >= 0 && index < current.length) {
+            return current.workdays(regionOf(department)).days.get((int) index);
+        }
+        return !weekend[dayOfWeek(day)];
+    }
+
+    /**
+     * Region whose holidays apply to a department, or null when only the common holidays apply
+     */
+    public String regionOf(String department) {
+        return department != null ? regionByDepartment.get(department) : null;
+    }
+
+    /**
+     * Get holidays between two days, inclusive, for every region
+     */
+    @Transactional(readOnly = true)
+    public List<Holiday> getHolidays(Long startTimestamp, Long endTimestamp) {
+        return holidayRepository.findInRange(startTimestamp, endTimestamp);
+    }
+
+    /**
+     * Add a holiday; the date is moved to the start of its day
+     */
+    @Transactional
+    public Holiday addHoliday(Holiday holiday) {
+        if (holiday.getHolidayDate() == null || holiday.getName() == null || holiday.getName().isBlank()) {
+            throw new IllegalArgumentException(ApiMessages.INVALID_HOLIDAY);
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        holiday.setId(null);
+        holiday.setHolidayDate(Instant.ofEpochMilli(holiday.getHolidayDate()).atZone(zone).toLocalDate()
+                .atStartOfDay(zone).toInstant().toEpochMilli());
+        if (holiday.getRegion() != null && holiday.getRegion().isBlank()) {
+            holiday.setRegion(null);
+        }
+        if (holidayRepository.existsOn(holiday.getRegion(), holiday.getHolidayDate())) {
+            throw new IllegalStateException(ApiMessages.HOLIDAY_ALREADY_EXISTS);
+        }
+        Holiday saved = holidayRepository.save(holiday);
+        afterCommit(this::reload);
+        return saved;
+    }
+
+    /**
+     * Remove a holiday
+     */
+    @Transactional
+    public void deleteHoliday(Long id) {
+        Holiday holiday = holidayRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(ApiMessages.HOLIDAY_NOT_FOUND_WITH_ID + id));
+        holidayRepository.delete(holiday);
+        afterCommit(this::reload);
+    }
+
+    private Calendar build(List<Holiday> holidays) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate today = LocalDate.now(zone);
+        long firstDay = today.minusYears(yearsBack).withDayOfYear(1).toEpochDay();
+        long endDay = today.plusYears(yearsAhead + 1L).withDayOfYear(1).toEpochDay();
+
+        Map<String, Set<Long>> holidayDays = new HashMap<>();
+        Set<Long> commonDays = new HashSet<>();
+        for (Holiday holiday : holidays) {
+            long day = Instant.ofEpochMilli(holiday.getHolidayDate()).atZone(zone).toLocalDate().toEpochDay();
+            firstDay = Math.min(firstDay, day);
+            endDay = Math.max(endDay, day + 1);
+            if (holiday.getRegion() == null) {
+                commonDays.add(day);
+            } else {
+                holidayDays.computeIfAbsent(holiday.getRegion(), k -> new HashSet<>()).add(day);
+            }
+        }
+        for (String region : regionByDepartment.values()) {
+            holidayDays.computeIfAbsent(region, k -> new HashSet<>());
+        }
+
+        int length = (int) (endDay - firstDay);
+        BitSet weekdays = new BitSet(length);
+        for (int i = 0; i < length; i++) {
+            if (!weekend[dayOfWeek(firstDay + i)]) {
+                weekdays.set(i);
+            }
+        }
+        for (long day : commonDays) {
+            weekdays.clear((int) (day - firstDay));
+        }
+
+        Map<String, Workdays> byRegion = new HashMap<>();
+        holidayDays.forEach((region, days) -> {
+            BitSet regional = (BitSet) weekdays.clone();
+            for (long day : days) {
+                regional.clear((int) (day - firstDay));
+            }
+            byRegion.put(region, new Workdays(regional, length));
+        });
+        return new Calendar(zone, firstDay, length, new Workdays(weekdays, length), byRegion);
+    }
+
+    // Working days in [fromDay, toDay) as epoch days; days outside the window have no holidays, only weekends
+    private long count(Calendar current, Workdays workdays, long fromDay, long toDay) {
+        long windowStart = current.firstDay;
+        long windowEnd = current.firstDay + current.length;
+        long total = 0;
+        if (fromDay < windowStart) {
+            total += countWeekdays(fromDay, Math.min(toDay, windowStart));
+        }
+        if (toDay > windowEnd) {
+            total += countWeekdays(Math.max(fromDay, windowEnd), toDay);
+        }
+        long from = Math.max(fromDay, windowStart);
+        long to = Math.min(toDay, windowEnd);
+        if (from < to) {
+            total += workdays.prefix[(int) (to - windowStart)] - workdays.prefix[(int) (from - windowStart)];
+        }
+        return total;
+    }
+
+    private long countWeekdays(long fromDay, long toDay) {
+        long days = toDay - fromDay;
+        long total = days / 7 * workdaysPerWeek;
+        for (long day = fromDay + days / 7 * 7; day < toDay; day++) {
+            total += weekend[dayOfWeek(day)] ? 0 : 1;
+        }
+        return total;
+    }
+
+    // 1970-01-01 was a Thursday
+    private static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Working days of one region: a bitmap over the window and prefix[i] = working days in its first i days
+    private static class Workdays {
+        private final BitSet days;
+        private final int[] prefix;
+
+        Workdays(BitSet days, int length) {
+            this.days = days;
+            this.prefix = new int[length + 1];
+            for (int i = 0; i < length; i++) {
+                prefix[i + 1] = prefix[i] + (days.get(i) ? 1 : 0);
+            }
+        }
+    }
+
+    // Immutable calendar, published as a whole on reload
+    private static class Calendar {
+        private final ZoneId zone;
+        private final long firstDay; // Epoch day of the first day of the window
+        private final int length;
+        private final Workdays common;
+        private final Map<String, Workdays> byRegion;
+
+        Calendar(ZoneId zone, long firstDay, int length, Workdays common, Map<String, Workdays> byRegion) {
+            this.zone = zone;
+            this.firstDay = firstDay;
+            this.length = length;
+            this.common = common;
+            this.byRegion = byRegion;
+        }
+
+        long epochDay(long timestamp) {
+            return Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate().toEpochDay();
+        }
+
+        Workdays workdays(String region) {
+            Workdays regional = region != null ? byRegion.get(region) : null;
+            return regional != null ? regional : common;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.lazyhr.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Age-based eviction for the small in-process caches kept in concurrent maps
+ */
+final class CacheEviction {
+
+    private CacheEviction() {
+    }
+
+    /**
+     * Make room for one more entry: drop entries older than the TTL, then, if the cache is still full,
+     * the oldest entries down to nine tenths of the limit, so a full cache is not scanned on every miss.
+     * Entries replaced concurrently are left alone.
+     */
+    static <K, V> void evictOldest(Map<K, V> cache, ToLongFunction<V> loadedAt, long now, long ttlMs, int maxEntries) {
+        if (cache.size() < maxEntries) {
+            return;
+        }
+        List<Map.Entry<K, V>> live = new ArrayList<>(cache.size());
+        for (Map.Entry<K, V> entry : cache.entrySet()) {
+            if (now - loadedAt.applyAsLong(entry.getValue()) >= ttlMs) {
+                cache.remove(entry.getKey(), entry.getValue());
+            } else {
+                live.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        int excess = live.size() - maxEntries * 9 / 10;
+        if (excess <= 0) {
+            return;
+        }
+        live.sort(Comparator.comparingLong(entry -> loadedAt.applyAsLong(entry.getValue())));
+        for (Map.Entry<K, V> entry : live.subList(0, excess)) {
+            cache.remove(entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.ClockDirection;
+
+/**
+ * A single clock-in or clock-out punch waiting to be written to the attendance table
+ */
+public class ClockEvent {
+
+    private final long sequence;
+    private final Long userId;
+    private final ClockDirection direction;
+    private final long timestamp; // Unix timestamp in milliseconds
+
+    public ClockEvent(long sequence, Long userId, ClockDirection direction, long timestamp) {
+        this.sequence = sequence;
+        this.userId = userId;
+        this.direction = direction;
+        this.timestamp = timestamp;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public ClockDirection getDirection() {
+        return direction;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "ClockEvent{" +
+                "sequence=" + sequence +
+                ", userId=" + userId +
+                ", direction=" + direction +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,397 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.dto.ActiveSession;
+import com.example.lazyhr.event.AttendanceChangedEvent;
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.model.ClockDirection;
+import com.example.lazyhr.model.WorkHours;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Applies clock events to the attendance table with batched JDBC statements.
+ * The users of a batch are split into stripe groups; for each group the users are resolved with one query,
+ * their open sessions with another, and the resulting inserts and updates are sent as two JDBC batches
+ * in one transaction that holds only that group's stripes. The daily summaries of the touched users and days
+ * are refreshed together in the same transaction, so a group costs a fixed number of statements.
+ */
+@Service
+public class ClockEventBatchWriter {
+
+    private static final String SELECT_USERS_SQL = "SELECT id, department FROM users WHERE id IN (:userIds)";
+
+    private static final String SELECT_OPEN_SESSIONS_SQL = "SELECT id, user_id, attendance_date, clock_in_time, break_duration_minutes "
+            + "FROM attendance WHERE clock_out_time IS NULL AND user_id IN (:userIds) ORDER BY clock_in_time ASC";
+
+    // Punches already applied, so that a device re-uploading after a timeout does not apply them twice
+    private static final String SELECT_RECORDED_PUNCHES_SQL = "SELECT user_id, clock_in_time, clock_out_time FROM attendance "
+            + "WHERE user_id IN (:userIds) AND (clock_in_time BETWEEN :from AND :to OR clock_out_time BETWEEN :from AND :to)";
+
+    private static final String INSERT_SQL = "INSERT INTO attendance (user_id, attendance_date, clock_in_time, clock_out_time, "
+            + "break_duration_minutes, total_hours, overtime_hours, status, created_at, updated_at, open_session_user_id, "
+            + "needs_review, status_override) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE, FALSE)";
+
+    private static final String CLOSE_SQL = "UPDATE attendance SET clock_out_time = ?, total_hours = ?, overtime_hours = ?, updated_at = ?, "
+            + "open_session_user_id = NULL WHERE id = ? AND clock_out_time IS NULL";
+
+    private static final String SELECT_CLOCK_OUT_SQL = "SELECT clock_out_time FROM attendance WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Autowired
+    private UserLockStripes userLockStripes;
+
+    @Autowired
+    private DailyAttendanceSummaryService dailySummaryService;
+
+    @Autowired
+    private WorkHourPolicy workHourPolicy;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Apply events in order. Returns one outcome per event, in the same order.
+     * Each stripe group is written in its own transaction and its stripes are held until that transaction
+     * has committed; when a group fails, the groups before it stay committed and a
+     * {@link PartialWriteException} carries their outcomes.
+     */
+    public List<ClockEventOutcome> write(List<ClockEvent> events) {
+        return write(events, null);
+    }
+
+    /**
+     * Same as {@link #write(List)} for callers that already resolved which user ids exist,
+     * given as user id to department
+     */
+    public List<ClockEventOutcome> write(List<ClockEvent> events, Map<Long, String> knownUsers) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<Integer>> positionsByUser = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            positionsByUser.computeIfAbsent(events.get(i).getUserId(), k -> new ArrayList<>()).add(i);
+        }
+
+        ClockEventOutcome[] outcomes = new ClockEventOutcome[events.size()];
+        for (List<Long> group : userLockStripes.partition(positionsByUser.keySet())) {
+            List<Integer> positions = new ArrayList<>();
+            for (Long userId : group) {
+                positions.addAll(positionsByUser.get(userId));
+            }
+            // Keep the original event order within the group
+            Collections.sort(positions);
+            List<ClockEvent> groupEvents = new ArrayList<>(positions.size());
+            for (Integer position : positions) {
+                groupEvents.add(events.get(position));
+            }
+
+            Set<Long> userIds = new LinkedHashSet<>(group);
+            List<ClockEventOutcome> written;
+            try {
+                written = userLockStripes.withLocks(userIds,
+                        () -> transactionTemplate.execute(status -> apply(groupEvents, userIds, knownUsers)));
+            } catch (RuntimeException e) {
+                throw new PartialWriteException(Arrays.asList(outcomes), e);
+            }
+            for (int i = 0; i < positions.size(); i++) {
+                outcomes[positions.get(i)] = written.get(i);
+            }
+        }
+        return Arrays.asList(outcomes);
+    }
+
+    private List<ClockEventOutcome> apply(List<ClockEvent> events, Set<Long> userIds, Map<Long, String> resolvedUsers) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userIds", userIds);
+
+        Map<Long, String> knownUsers;
+        if (resolvedUsers != null) {
+            knownUsers = resolvedUsers;
+        } else {
+            knownUsers = new HashMap<>();
+            namedParameterJdbcTemplate.query(SELECT_USERS_SQL, params,
+                    rs -> { knownUsers.put(rs.getLong("id"), rs.getString("department")); });
+        }
+
+        // Open sessions per user, oldest first so the newest one is at the tail
+        Map<Long, Deque<Session>> openSessions = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_OPEN_SESSIONS_SQL, params, rs -> {
+            Session session = new Session(rs.getLong("user_id"), rs.getLong("attendance_date"),
+                    rs.getLong("clock_in_time"), rs.getInt("break_duration_minutes"));
+            session.id = rs.getLong("id");
+            openSessions.computeIfAbsent(session.userId, k -> new ArrayDeque<>()).addLast(session);
+        });
+
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        for (ClockEvent event : events) {
+            from = Math.min(from, event.getTimestamp());
+            to = Math.max(to, event.getTimestamp());
+        }
+        Set<String> recorded = new HashSet<>();
+        namedParameterJdbcTemplate.query(SELECT_RECORDED_PUNCHES_SQL,
+                new MapSqlParameterSource("userIds", userIds).addValue("from", from).addValue("to", to), rs -> {
+                    long userId = rs.getLong("user_id");
+                    recorded.add(punchKey(userId, ClockDirection.IN, rs.getLong("clock_in_time")));
+                    long clockOutTime = rs.getLong("clock_out_time");
+                    if (!rs.wasNull()) {
+                        recorded.add(punchKey(userId, ClockDirection.OUT, clockOutTime));
+                    }
+                });
+
+        List<ClockEventOutcome> outcomes = new ArrayList<>(events.size());
+        List<Session> inserts = new ArrayList<>();
+        List<Session> closes = new ArrayList<>();
+        List<Change> changes = new ArrayList<>();
+
+        for (ClockEvent event : events) {
+            if (!knownUsers.containsKey(event.getUserId())) {
+                outcomes.add(ClockEventOutcome.UNKNOWN_USER);
+                continue;
+            }
+            if (!recorded.add(punchKey(event.getUserId(), event.getDirection(), event.getTimestamp()))) {
+                outcomes.add(ClockEventOutcome.DUPLICATE);
+                continue;
+            }
+
+            Deque<Session> sessions = openSessions.computeIfAbsent(event.getUserId(), k -> new ArrayDeque<>());
+            if (event.getDirection() == ClockDirection.IN) {
+                // A repeated clock-in keeps the session that is already open
+                if (!sessions.isEmpty()) {
+                    outcomes.add(ClockEventOutcome.ALREADY_CLOCKED_IN);
+                    continue;
+                }
+                Session session = new Session(event.getUserId(), startOfDay(event.getTimestamp()),
+                        event.getTimestamp(), 0);
+                sessions.addLast(session);
+                inserts.add(session);
+                changes.add(new Change(AttendanceChangedEvent.Type.CLOCKED_IN, session, null));
+                outcomes.add(ClockEventOutcome.CLOCKED_IN);
+            } else {
+                Session session = sessions.peekLast();
+                if (session == null) {
+                    outcomes.add(ClockEventOutcome.NO_OPEN_SESSION);
+                    continue;
+                }
+                // A clock-out must leave a positive duration; the session stays open
+                if (event.getTimestamp() <= session.clockInTime) {
+                    outcomes.add(ClockEventOutcome.CLOCK_OUT_BEFORE_CLOCK_IN);
+                    continue;
+                }
+                sessions.pollLast();
+                session.clockOut(event.getTimestamp(),
+                        workHourPolicy.standardDayMinutes(knownUsers.get(event.getUserId())));
+                // Sessions opened in this batch are inserted already closed
+                if (session.id != null) {
+                    session.closedBy = outcomes.size();
+                    closes.add(session);
+                }
+                changes.add(new Change(AttendanceChangedEvent.Type.CLOCKED_OUT, session, session.clockOutTime));
+                outcomes.add(ClockEventOutcome.CLOCKED_OUT);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        if (!inserts.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(inserts.size());
+            for (Session session : inserts) {
+                rows.add(new Object[] { session.userId, session.attendanceDate, session.clockInTime,
+                        session.clockOutTime, session.breakMinutes, session.totalHours(), session.overtimeHours(),
+                        AttendanceStatus.PRESENT.name(), now, now,
+                        session.clockOutTime == null ? session.userId : null });
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+        if (!closes.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(closes.size());
+            for (Session session : closes) {
+                rows.add(new Object[] { session.clockOutTime, session.totalHours(), session.overtimeHours(), now,
+                        session.id });
+            }
+            int[] counts = jdbcTemplate.batchUpdate(CLOSE_SQL, rows);
+            for (int i = 0; i < closes.size(); i++) {
+                Session session = closes.get(i);
+                if (counts[i] != 1 && !closedAsWritten(session)) {
+                    // Closed by another node since the open sessions were read
+                    session.conflict = true;
+                    outcomes.set(session.closedBy, ClockEventOutcome.ALREADY_CLOCKED_OUT);
+                }
+            }
+        }
+
+        // Inserted ids are not returned by JDBC batches, so re-read the open sessions of the touched users
+        if (!inserts.isEmpty() || !closes.isEmpty()) {
+            List<ActiveSession> stillOpen = namedParameterJdbcTemplate.query(SELECT_OPEN_SESSIONS_SQL, params,
+                    (rs, rowNum) -> new ActiveSession(rs.getLong("id"), rs.getLong("user_id"),
+                            rs.getLong("attendance_date"), rs.getLong("clock_in_time")));
+            activeSessionRegistry.replaceSessions(userIds, stillOpen);
+
+            // Pick up the ids of sessions inserted still open, for the change events below
+            Map<String, Long> openIds = new HashMap<>();
+            for (ActiveSession session : stillOpen) {
+                openIds.put(session.getUserId() + ":" + session.getClockInTime(), session.getAttendanceId());
+            }
+            for (Session session : inserts) {
+                if (session.id == null && session.clockOutTime == null) {
+                    session.id = openIds.get(session.userId + ":" + session.clockInTime);
+                }
+            }
+        }
+
+        // Keep the daily summaries of every touched user and day in step with the raw rows;
+        // this also classifies the sessions against the users' shifts
+        // Sorted, so that the summary rows are locked in the same order by every writer
+        Map<Long, Set<Long>> touchedDays = new TreeMap<>();
+        for (Session session : inserts) {
+            touchedDays.computeIfAbsent(session.userId, k -> new TreeSet<>()).add(session.attendanceDate);
+        }
+        for (Session session : closes) {
+            if (!session.conflict) {
+                touchedDays.computeIfAbsent(session.userId, k -> new TreeSet<>()).add(session.attendanceDate);
+            }
+        }
+        Map<Long, AttendanceStatus> statuses = new HashMap<>();
+        Map<String, Long> recordIds = new HashMap<>();
+        dailySummaryService.refreshAll(knownUsers, touchedDays).forEach((userId, records) -> {
+            for (Attendance record : records) {
+                statuses.put(record.getId(), record.getStatus());
+                recordIds.put(userId + ":" + record.getClockInTime(), record.getId());
+            }
+        });
+        // Sessions inserted already closed were not among the open sessions; the refresh read them back
+        for (Session session : inserts) {
+            if (session.id == null) {
+                session.id = recordIds.get(session.userId + ":" + session.clockInTime);
+            }
+        }
+
+        for (Change change : changes) {
+            Session session = change.session;
+            if (session.conflict) {
+                continue;
+            }
+            eventPublisher.publishEvent(new AttendanceChangedEvent(change.type, session.id, session.userId,
+                    session.attendanceDate, session.clockInTime, change.clockOutTime, session.breakMinutes,
+                    session.id != null ? statuses.getOrDefault(session.id, AttendanceStatus.PRESENT) : AttendanceStatus.PRESENT));
+        }
+
+        return outcomes;
+    }
+
+    // A batch count other than 1 may be a driver that reports no row counts (SUCCESS_NO_INFO); check the row
+    private boolean closedAsWritten(Session session) {
+        List<Long> clockOut = jdbcTemplate.queryForList(SELECT_CLOCK_OUT_SQL, Long.class, session.id);
+        return !clockOut.isEmpty() && session.clockOutTime.equals(clockOut.get(0));
+    }
+
+    private static String punchKey(long userId, ClockDirection direction, long timestamp) {
+        return userId + ":" + direction + ":" + timestamp;
+    }
+
+    private static long startOfDay(long timestamp) {
+        ZoneId zone = ZoneId.systemDefault();
+        return Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate()
+                .atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    // Change to publish once the batch is written; clockOutTime is captured when the event was applied
+    private static class Change {
+        private final AttendanceChangedEvent.Type type;
+        private final Session session;
+        private final Long clockOutTime;
+
+        Change(AttendanceChangedEvent.Type type, Session session, Long clockOutTime) {
+            this.type = type;
+            this.session = session;
+            this.clockOutTime = clockOutTime;
+        }
+    }
+
+    // Working copy of an attendance row while a batch is applied
+    private static class Session {
+        private Long id;
+        private final Long userId;
+        private final long attendanceDate;
+        private final long clockInTime;
+        private final int breakMinutes;
+        private Long clockOutTime;
+        private int workedMinutes;
+        private int overtimeMinutes;
+        private int closedBy = -1; // index of the clock-out outcome that closed an existing row
+        private boolean conflict;
+
+        Session(Long userId, long attendanceDate, long clockInTime, int breakMinutes) {
+            this.userId = userId;
+            this.attendanceDate = attendanceDate;
+            this.clockInTime = clockInTime;
+            this.breakMinutes = breakMinutes;
+        }
+
+        // Same arithmetic as Attendance.calculateTotalHours, so batched rows match rows written through JPA
+        void clockOut(long timestamp, int standardDayMinutes) {
+            this.clockOutTime = timestamp;
+            this.workedMinutes = WorkHours.workedMinutes(clockInTime, timestamp, breakMinutes);
+            this.overtimeMinutes = WorkHours.overtimeMinutes(workedMinutes, standardDayMinutes);
+        }
+
+        BigDecimal totalHours() {
+            return clockOutTime != null ? WorkHours.toHours(workedMinutes) : null;
+        }
+
+        BigDecimal overtimeHours() {
+            return WorkHours.toHours(overtimeMinutes);
+        }
+    }
+
+    /**
+     * Thrown when a stripe group fails after earlier groups were committed.
+     * The outcomes list has one entry per event; events that were not committed have a null outcome.
+     */
+    public static class PartialWriteException extends RuntimeException {
+
+        private final List<ClockEventOutcome> outcomes;
+
+        public PartialWriteException(List<ClockEventOutcome> outcomes, Throwable cause) {
+            super(cause.getMessage(), cause);
+            this.outcomes = outcomes;
+        }
+
+        public List<ClockEventOutcome> getOutcomes() {
+            return outcomes;
+        }
+    }
+}
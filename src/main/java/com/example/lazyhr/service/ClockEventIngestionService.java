@@ -0,0 +1,290 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.constants.ApiMessages;
+import com.example.lazyhr.model.ClockDirection;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind ingestion of clock-in/clock-out punches.
+ * Punches are journaled, acknowledged and queued in memory; a single background thread
+ * drains the queue and writes it through {@link ClockEventBatchWriter} in batches.
+ * When the queue is full, callers wait up to the configured offer timeout and are then rejected.
+ * A batch that keeps failing is moved to a dead-letter file after the configured number of attempts
+ * so that it cannot hold up the punches behind it.
+ */
+@Service
+public class ClockEventIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClockEventIngestionService.class);
+
+    @Autowired
+    private ClockEventBatchWriter batchWriter;
+
+    @Value("${lazyhr.attendance.ingest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${lazyhr.attendance.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${lazyhr.attendance.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Value("${lazyhr.attendance.ingest.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${lazyhr.attendance.ingest.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${lazyhr.attendance.ingest.journal-path:data/clock-events.journal}")
+    private String journalPath;
+
+    @Value("${lazyhr.attendance.ingest.journal-fsync:true}")
+    private boolean journalFsync;
+
+    @Value("${lazyhr.attendance.ingest.max-flush-attempts:5}")
+    private int maxFlushAttempts;
+
+    @Value("${lazyhr.attendance.ingest.dead-letter-path:data/clock-events.dead}")
+    private String deadLetterPath;
+
+    private final Object submitLock = new Object();
+    private BlockingQueue<ClockEvent> queue;
+    // One permit per free queue slot, taken before submitLock so a full queue is waited out without holding it
+    private Semaphore slots;
+    private ClockEventJournal journal;
+    private ClockEventJournal deadLetters;
+    private Thread flusher;
+    private volatile boolean running;
+    private long nextSequence;
+    private int recoveredPending; // flusher thread only
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        slots = new Semaphore(queueCapacity);
+        journal = new ClockEventJournal(Paths.get(journalPath), journalFsync);
+        deadLetters = new ClockEventJournal(Paths.get(deadLetterPath), journalFsync);
+
+        ClockEventJournal.Recovery recovery = journal.recover();
+        List<ClockEvent> recovered = recovery.getPending();
+        // Continue above everything the journal has seen, committed or not; restarting below a
+        // commit marker would make new events look committed to the next recovery
+        nextSequence = recovery.getHighWaterMark() + 1;
+        recoveredPending = recovered.size();
+        if (!recovered.isEmpty()) {
+            logger.warn("Replaying {} unflushed clock events from journal {}", recovered.size(), journalPath);
+        }
+
+        running = true;
+        flusher = new Thread(() -> run(recovered), "clock-event-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Accept a punch for asynchronous processing.
+     * Throws {@link IllegalStateException} when ingestion is disabled and
+     * {@link QueueFullException} when the queue stays full for the whole offer timeout.
+     */
+    public ClockEvent submit(Long userId, ClockDirection direction) {
+        if (!enabled || !running) {
+            throw new IllegalStateException(ApiMessages.CLOCK_EVENT_INGESTION_DISABLED);
+        }
+
+        if (!reserveSlot(offerTimeoutMs)) {
+            throw new QueueFullException(ApiMessages.CLOCK_EVENT_QUEUE_FULL);
+        }
+        try {
+            ClockEvent event;
+            // Sequence assignment, journaling and enqueueing happen under one lock so that the
+            // queue order matches the journal order and commit markers stay meaningful
+            synchronized (submitLock) {
+                event = new ClockEvent(nextSequence, userId, direction, System.currentTimeMillis());
+                try {
+                    journal.append(event);
+                } catch (IOException e) {
+                    slots.release();
+                    throw e;
+                }
+                // Cannot fail: the reserved slot stays taken until the flusher removes the event
+                queue.add(event);
+                nextSequence++;
+            }
+            // The fsync happens outside the lock, so one force covers every punch appended meanwhile
+            journal.sync(event.getSequence());
+            return event;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Number of accepted punches that have not been flushed yet
+     */
+    public int getPendingCount() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    private boolean reserveSlot(long timeoutMs) {
+        try {
+            return slots.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void run(List<ClockEvent> recovered) {
+        for (int i = 0; i < recovered.size(); i += batchSize) {
+            List<ClockEvent> chunk = new ArrayList<>(recovered.subList(i, Math.min(i + batchSize, recovered.size())));
+            recoveredPending -= chunk.size();
+            if (!flush(chunk)) {
+                return;
+            }
+        }
+
+        List<ClockEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ClockEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                slots.release();
+
+                // Fill the batch until it is full or the flush interval has elapsed
+                long deadline = System.currentTimeMillis() + flushIntervalMs;
+                while (batch.size() < batchSize) {
+                    slots.release(queue.drainTo(batch, batchSize - batch.size()));
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    ClockEvent next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                        slots.release();
+                    }
+                }
+
+                if (!flush(batch)) {
+                    return;
+                }
+                batch = new ArrayList<>(batchSize);
+            } catch (InterruptedException e) {
+                if (!batch.isEmpty()) {
+                    if (!flush(batch)) {
+                        return;
+                    }
+                    batch = new ArrayList<>(batchSize);
+                }
+                running = false;
+            }
+        }
+    }
+
+    /**
+     * Write one batch, retrying up to the configured number of attempts; a batch that still fails is
+     * appended to the dead-letter file instead. The journal keeps the events safe meanwhile.
+     * Returns false when interrupted before the batch was committed; the caller must stop then, since a
+     * later commit marker would also cover this batch.
+     */
+    private boolean flush(List<ClockEvent> batch) {
+        long backoffMs = flushIntervalMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (attempt <= maxFlushAttempts) {
+                    List<ClockEventOutcome> outcomes = batchWriter.write(batch);
+                    logRejected(batch, outcomes);
+                } else {
+                    deadLetters.appendAll(batch);
+                    logger.error("Moved {} clock events to {} after {} failed flushes",
+                            batch.size(), deadLetterPath, maxFlushAttempts);
+                }
+                journal.commit(batch.get(batch.size() - 1).getSequence());
+                truncateJournalIfDrained();
+                return true;
+            } catch (Exception e) {
+                logger.error("Failed to flush {} clock events (attempt {}), retrying in {} ms",
+                        batch.size(), attempt, backoffMs, e);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                backoffMs = Math.min(backoffMs * 2, 10_000);
+            }
+        }
+    }
+
+    private void logRejected(List<ClockEvent> batch, List<ClockEventOutcome> outcomes) {
+        for (int i = 0; i < batch.size(); i++) {
+            ClockEventOutcome outcome = outcomes.get(i);
+            if (outcome == ClockEventOutcome.NO_OPEN_SESSION || outcome == ClockEventOutcome.ALREADY_CLOCKED_OUT
+                    || outcome == ClockEventOutcome.CLOCK_OUT_BEFORE_CLOCK_IN
+                    || outcome == ClockEventOutcome.UNKNOWN_USER) {
+                logger.warn("Dropped {}: {}", batch.get(i), outcome);
+            }
+        }
+    }
+
+    /**
+     * Truncate once every recovered and every queued event has been committed
+     */
+    private void truncateJournalIfDrained() throws IOException {
+        if (recoveredPending > 0) {
+            return;
+        }
+        synchronized (submitLock) {
+            if (queue.isEmpty()) {
+                journal.truncate(nextSequence - 1);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        journal.close();
+        deadLetters.close();
+    }
+
+    /**
+     * Thrown when the ingestion queue is full; callers should retry later
+     */
+    public static class QueueFullException extends IllegalStateException {
+        public QueueFullException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.ClockDirection;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only local journal for accepted clock events.
+ * Every event is written and synced before it is acknowledged, and a commit marker is written after
+ * each successful flush, so events that were accepted but never flushed can be replayed on startup.
+ * Appends only write; {@link #sync(long)} forces them to disk, so concurrent submitters share one fsync.
+ *
+ * Line format: {@code E,<sequence>,<userId>,<direction>,<timestamp>} for events and
+ * {@code C,<sequence>} for commit markers. A truncated journal keeps its last commit marker so that
+ * sequences keep growing across restarts.
+ */
+class ClockEventJournal implements Closeable {
+
+    private final Path path;
+    private final boolean fsync;
+    private final FileChannel channel;
+    private final Object syncLock = new Object();
+    private long writtenSequence = -1; // guarded by this
+    private volatile long durableSequence = -1;
+
+    ClockEventJournal(Path path, boolean fsync) throws IOException {
+        this.path = path;
+        this.fsync = fsync;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Read back every event that has no commit marker after it, together with the highest
+     * sequence ever written, committed or not
+     */
+    Recovery recover() throws IOException {
+        List<ClockEvent> events = new ArrayList<>();
+        long committed = -1;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                try {
+                    if (parts.length == 5 && "E".equals(parts[0])) {
+                        events.add(new ClockEvent(Long.parseLong(parts[1]), Long.valueOf(parts[2]),
+                                ClockDirection.valueOf(parts[3]), Long.parseLong(parts[4])));
+                    } else if (parts.length == 2 && "C".equals(parts[0])) {
+                        committed = Math.max(committed, Long.parseLong(parts[1]));
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Torn write at the tail of the file; everything before it is intact
+                    break;
+                }
+            }
+        }
+
+        long highWaterMark = committed;
+        List<ClockEvent> pending = new ArrayList<>();
+        for (ClockEvent event : events) {
+            highWaterMark = Math.max(highWaterMark, event.getSequence());
+            if (event.getSequence() > committed) {
+                pending.add(event);
+            }
+        }
+        synchronized (this) {
+            writtenSequence = highWaterMark;
+        }
+        durableSequence = highWaterMark;
+        return new Recovery(pending, highWaterMark);
+    }
+
+    /**
+     * Write an event without forcing it to disk; call {@link #sync(long)} before acknowledging it
+     */
+    synchronized void append(ClockEvent event) throws IOException {
+        write(eventLine(event));
+        writtenSequence = Math.max(writtenSequence, event.getSequence());
+    }
+
+    /**
+     * Write and force a whole batch of events at once
+     */
+    synchronized void appendAll(List<ClockEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (ClockEvent event : events) {
+            lines.append(eventLine(event));
+        }
+        write(lines.toString());
+        force();
+    }
+
+    /**
+     * Make sure every event up to the given sequence is on disk.
+     * Whoever forces the channel covers all events appended before it, so callers that arrive
+     * while a force is running usually find their event already durable afterwards.
+     */
+    void sync(long sequence) throws IOException {
+        if (!fsync || durableSequence >= sequence) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            long target;
+            synchronized (this) {
+                target = writtenSequence;
+            }
+            channel.force(false);
+            durableSequence = target;
+        }
+    }
+
+    /**
+     * Mark every event up to and including the given sequence as flushed
+     */
+    synchronized void commit(long sequence) throws IOException {
+        write("C," + sequence + "\n");
+        force();
+    }
+
+    /**
+     * Drop the journal contents, keeping only a commit marker for the given high-water mark;
+     * only safe when no accepted event is still unflushed
+     */
+    synchronized void truncate(long highWaterMark) throws IOException {
+        channel.truncate(0);
+        write("C," + highWaterMark + "\n");
+        force();
+    }
+
+    private static String eventLine(ClockEvent event) {
+        return "E," + event.getSequence() + "," + event.getUserId() + "," + event.getDirection() + ","
+                + event.getTimestamp() + "\n";
+    }
+
+    private void write(String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void force() throws IOException {
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Result of reading the journal at startup
+     */
+    static class Recovery {
+
+        private final List<ClockEvent> pending;
+        private final long highWaterMark;
+
+        Recovery(List<ClockEvent> pending, long highWaterMark) {
+            this.pending = pending;
+            this.highWaterMark = highWaterMark;
+        }
+
+        /**
+         * Events that were accepted but never committed, in sequence order
+         */
+        List<ClockEvent> getPending() {
+            return pending;
+        }
+
+        /**
+         * Highest sequence found in the journal, -1 for an empty journal
+         */
+        long getHighWaterMark() {
+            return highWaterMark;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.lazyhr.service;
+
+/**
+ * Result of applying a single clock event in a batch
+ */
+public enum ClockEventOutcome {
+    CLOCKED_IN, CLOCKED_OUT, ALREADY_CLOCKED_IN, ALREADY_CLOCKED_OUT, NO_OPEN_SESSION, CLOCK_OUT_BEFORE_CLOCK_IN,
+    DUPLICATE, UNKNOWN_USER, INVALID, FAILED
+}
@@ -0,0 +1,429 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.dto.AttendanceAggregate;
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.model.DailyAttendanceSummary;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.model.WorkHours;
+import com.example.lazyhr.repository.AttendanceRepository;
+import com.example.lazyhr.repository.DailyAttendanceSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Maintains the daily_attendance_summary read model: one row per user and day
+ * with first clock-in, last clock-out, worked and overtime minutes and the day's status.
+ * Rows are recomputed from that user's attendance records for the day whenever one of them changes,
+ * including records already moved to the archive. A refresh holds a row lock on the summary while it
+ * reads the records, so concurrent refreshes of the same user and day run one after the other.
+ * Batch writers refresh all the users and days they touched at once, with a fixed number of statements.
+ */
+@Service
+@Transactional
+public class DailyAttendanceSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyAttendanceSummaryService.class);
+
+    private static final String INSERT_EMPTY_SQL = "INSERT INTO daily_attendance_summary (user_id, summary_date, "
+            + "worked_minutes, overtime_minutes, session_count, open_sessions, status, updated_at) "
+            + "VALUES (?, ?, 0, 0, 0, 0, ?, ?)";
+
+    // Locks the summaries of every user and day pair of the two lists; pairs that were not touched are
+    // locked too, which is cheap while a batch spans a day or two
+    private static final String LOCK_SUMMARIES_SQL = "SELECT id, user_id, summary_date, worked_minutes, overtime_minutes "
+            + "FROM daily_attendance_summary WHERE user_id IN (:userIds) AND summary_date IN (:days) "
+            + "ORDER BY user_id, summary_date FOR UPDATE";
+
+    private static final String SELECT_RECORDS_SQL = "SELECT id, user_id, attendance_date, clock_in_time, clock_out_time, "
+            + "break_duration_minutes, status, status_override FROM attendance "
+            + "WHERE user_id IN (:userIds) AND attendance_date IN (:days) ORDER BY id";
+
+    private static final String UPDATE_STATUS_SQL = "UPDATE attendance SET status = :status, updated_at = :now "
+            + "WHERE id IN (:ids) AND status_override = FALSE";
+
+    private static final String UPDATE_SUMMARY_SQL = "UPDATE daily_attendance_summary SET first_in = ?, last_out = ?, "
+            + "worked_minutes = ?, overtime_minutes = ?, session_count = ?, open_sessions = ?, status = ?, updated_at = ? "
+            + "WHERE id = ?";
+
+    private static final String DELETE_SUMMARY_SQL = "DELETE FROM daily_attendance_summary WHERE id = ?";
+
+    @Autowired
+    private DailyAttendanceSummaryRepository summaryRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private WorkHourPolicy workHourPolicy;
+
+    @Autowired
+    private AttendanceArchiveService archiveService;
+
+    @Autowired
+    private OvertimeLedgerService overtimeLedgerService;
+
+    @Autowired
+    private ShiftScheduleService shiftScheduleService;
+
+    /**
+     * Classify the day's records against the user's shift and recompute the summary of one user and day
+     * from its attendance records. Returns the day's records with their current status.
+     * The caller passes the user's department, so the records' users are never loaded here.
+     */
+    public List<Attendance> refresh(Long userId, String department, Long day) {
+        // Lock before reading the records, so the previous totals below are the ones the last refresh wrote
+        DailyAttendanceSummary summary = summaryRepository.lockByUserIdAndSummaryDate(userId, day).orElse(null);
+        List<Attendance> hot = attendanceRepository.findByUserIdAndAttendanceDate(userId, day);
+        if (!hot.isEmpty()) {
+            // Changed statuses are written back by dirty checking; archived records keep theirs
+            shiftScheduleService.classify(userId, department, day, hot);
+        }
+        List<Attendance> records = AttendanceArchiveService.union(hot, archiveService.findByUserIdAndDay(userId, day), null);
+        if (summary == null && !records.isEmpty()) {
+            summary = createSummary(userId, day);
+        }
+        int previousWorked = summary != null ? summary.getWorkedMinutes() : 0;
+        int previousOvertime = summary != null ? summary.getOvertimeMinutes() : 0;
+
+        if (records.isEmpty()) {
+            if (summary != null) {
+                summaryRepository.delete(summary);
+                overtimeLedgerService.record(userId, day, -previousWorked, -previousOvertime);
+            }
+            return records;
+        }
+
+        summarize(summary, records, workHourPolicy.standardDayMinutes(department));
+        summaryRepository.save(summary);
+        overtimeLedgerService.record(userId, day, summary.getWorkedMinutes() - previousWorked,
+                summary.getOvertimeMinutes() - previousOvertime);
+        return records;
+    }
+
+    /**
+     * Insert an empty summary row unless another transaction already did, then lock it
+     */
+    private DailyAttendanceSummary createSummary(Long userId, Long day) {
+        try {
+            jdbcTemplate.update(INSERT_EMPTY_SQL, userId, day, AttendanceStatus.PRESENT.name(), System.currentTimeMillis());
+        } catch (DuplicateKeyException e) {
+            // Created by a concurrent refresh; the lock below waits for it to commit
+        }
+        return summaryRepository.lockByUserIdAndSummaryDate(userId, day)
+                .orElseThrow(() -> new IllegalStateException("Daily summary of user " + userId + " missing after insert"));
+    }
+
+    /**
+     * Same as {@link #refresh(Long, String, Long)} for many users and days at once, for callers that write
+     * attendance with plain JDBC: the summaries are locked with one query, the records read with one more,
+     * and statuses, summaries and overtime ledger months are written back in batches. Takes the users'
+     * departments and the days touched per user; returns each user's records of those days.
+     */
+    public Map<Long, List<Attendance>> refreshAll(Map<Long, String> departments, Map<Long, ? extends Set<Long>> daysByUser) {
+        Map<Long, List<Attendance>> result = new HashMap<>();
+        Set<Long> days = new TreeSet<>();
+        daysByUser.values().forEach(days::addAll);
+        if (days.isEmpty()) {
+            return result;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("userIds", daysByUser.keySet()).addValue("days", days);
+
+        // Lock before reading the records, as in refresh
+        Map<String, SummaryRow> summaries = lockSummaries(params);
+        Map<String, List<Attendance>> hot = new TreeMap<>();
+        namedParameterJdbcTemplate.query(SELECT_RECORDS_SQL, params, rs -> {
+            Attendance record = new Attendance();
+            record.setId(rs.getLong("id"));
+            record.setAttendanceDate(rs.getLong("attendance_date"));
+            record.setClockInTime(rs.getObject("clock_in_time", Long.class));
+            record.setClockOutTime(rs.getObject("clock_out_time", Long.class));
+            record.setBreakDurationMinutes(rs.getObject("break_duration_minutes", Integer.class));
+            record.setStatus(AttendanceStatus.valueOf(rs.getString("status")));
+            record.setStatusOverride(rs.getBoolean("status_override"));
+            hot.computeIfAbsent(rs.getLong("user_id") + ":" + record.getAttendanceDate(), k -> new ArrayList<>()).add(record);
+        });
+        Map<String, List<Attendance>> archived = new HashMap<>();
+        for (Attendance record : archiveService.findByUserIdsAndDays(daysByUser.keySet(), days)) {
+            archived.computeIfAbsent(record.getUser().getId() + ":" + record.getAttendanceDate(), k -> new ArrayList<>())
+                    .add(record);
+        }
+
+        // Summaries of days that got their first records; created empty, then locked like the others
+        List<Object[]> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        daysByUser.forEach((userId, userDays) -> userDays.forEach(day -> {
+            String key = userId + ":" + day;
+            if (!summaries.containsKey(key) && (hot.containsKey(key) || archived.containsKey(key))) {
+                missing.add(new Object[] { userId, day, AttendanceStatus.PRESENT.name(), now });
+            }
+        }));
+        if (!missing.isEmpty()) {
+            insertEmpty(missing);
+            summaries.putAll(lockSummaries(params));
+        }
+
+        Map<AttendanceStatus, List<Long>> idsByStatus = new EnumMap<>(AttendanceStatus.class);
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<OvertimeLedgerService.DayDelta> deltas = new ArrayList<>();
+        daysByUser.forEach((userId, userDays) -> {
+            String department = departments.get(userId);
+            for (Long day : userDays) {
+                String key = userId + ":" + day;
+                List<Attendance> hotRecords = hot.getOrDefault(key, List.of());
+                if (!hotRecords.isEmpty()) {
+                    for (Attendance record : shiftScheduleService.classify(userId, department, day, hotRecords)) {
+                        idsByStatus.computeIfAbsent(record.getStatus(), k -> new ArrayList<>()).add(record.getId());
+                    }
+                }
+                List<Attendance> records = AttendanceArchiveService.union(hotRecords,
+                        archived.getOrDefault(key, List.of()), null);
+                result.computeIfAbsent(userId, k -> new ArrayList<>()).addAll(records);
+
+                SummaryRow row = summaries.get(key);
+                if (row == null) {
+                    continue;
+                }
+                if (records.isEmpty()) {
+                    deletes.add(new Object[] { row.id });
+                    deltas.add(new OvertimeLedgerService.DayDelta(userId, day, -row.workedMinutes, -row.overtimeMinutes));
+                    continue;
+                }
+                DailyAttendanceSummary summary = new DailyAttendanceSummary();
+                summarize(summary, records, workHourPolicy.standardDayMinutes(department));
+                updates.add(new Object[] { summary.getFirstIn(), summary.getLastOut(), summary.getWorkedMinutes(),
+                        summary.getOvertimeMinutes(), summary.getSessionCount(), summary.getOpenSessions(),
+                        summary.getStatus().name(), now, row.id });
+                deltas.add(new OvertimeLedgerService.DayDelta(userId, day,
+                        summary.getWorkedMinutes() - row.workedMinutes, summary.getOvertimeMinutes() - row.overtimeMinutes));
+            }
+        });
+
+        idsByStatus.forEach((status, ids) -> namedParameterJdbcTemplate.update(UPDATE_STATUS_SQL,
+                new MapSqlParameterSource("status", status.name()).addValue("now", now).addValue("ids", ids)));
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SUMMARY_SQL, updates);
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SUMMARY_SQL, deletes);
+        }
+        overtimeLedgerService.recordAll(deltas);
+        return result;
+    }
+
+    private Map<String, SummaryRow> lockSummaries(MapSqlParameterSource params) {
+        Map<String, SummaryRow> rows = new HashMap<>();
+        namedParameterJdbcTemplate.query(LOCK_SUMMARIES_SQL, params, rs -> {
+            rows.put(rs.getLong("user_id") + ":" + rs.getLong("summary_date"),
+                    new SummaryRow(rs.getLong("id"), rs.getInt("worked_minutes"), rs.getInt("overtime_minutes")));
+        });
+        return rows;
+    }
+
+    // Creating a summary twice is harmless, so rows another transaction created first are skipped one by one
+    private void insertEmpty(List<Object[]> rows) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_EMPTY_SQL, rows);
+        } catch (DuplicateKeyException e) {
+            for (Object[] row : rows) {
+                try {
+                    jdbcTemplate.update(INSERT_EMPTY_SQL, row);
+                } catch (DuplicateKeyException ignored) {
+                    // Created by a concurrent refresh; the lock that follows waits for it to commit
+                }
+            }
+        }
+    }
+
+    /**
+     * Recompute the summary of the user and day an attendance record belongs to;
+     * the record's user should already be loaded
+     */
+    public void refresh(Attendance attendance) {
+        User user = attendance.getUser();
+        refresh(user.getId(), user.getDepartment(), attendance.getAttendanceDate());
+    }
+
+    /**
+     * Get daily summaries for a user and date range
+     */
+    @Transactional(readOnly = true)
+    public List<DailyAttendanceSummary> getSummaries(Long userId, Long startTimestamp, Long endTimestamp) {
+        return summaryRepository.findByUserAndDateRange(userId, startTimestamp, endTimestamp);
+    }
+
+    /**
+     * Per-day totals of every department, grouped in the database
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceAggregate> getDepartmentAggregates(Long startTimestamp, Long endTimestamp) {
+        return summaryRepository.aggregateByDepartment(startTimestamp, endTimestamp);
+    }
+
+    /**
+     * Per-day totals of one department
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceAggregate> getDepartmentAggregates(String department, Long startTimestamp, Long endTimestamp) {
+        return summaryRepository.aggregateForDepartment(department, startTimestamp, endTimestamp);
+    }
+
+    /**
+     * Per-day totals of each team (position) within a department
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceAggregate> getTeamAggregates(String department, Long startTimestamp, Long endTimestamp) {
+        return summaryRepository.aggregateByPosition(department, startTimestamp, endTimestamp);
+    }
+
+    /**
+     * Rebuild summaries for every day in the range, one transaction per day.
+     * Used to backfill the table or to repair it after direct data fixes. Rows are rewritten in place
+     * under the same row locks that {@link #refresh(Long, String, Long)} takes, so live refreshes wait for the
+     * day being rebuilt. The overtime ledger months covering the range are recomputed afterwards.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuild(Long startTimestamp, Long endTimestamp) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate day = Instant.ofEpochMilli(startTimestamp).atZone(zone).toLocalDate();
+        LocalDate last = Instant.ofEpochMilli(endTimestamp).atZone(zone).toLocalDate();
+
+        int written = 0;
+        while (!day.isAfter(last)) {
+            long dayTimestamp = day.atStartOfDay(zone).toInstant().toEpochMilli();
+            written += transactionTemplate.execute(status -> rebuildDay(dayTimestamp));
+            day = day.plusDays(1);
+        }
+        logger.info("Rebuilt {} daily attendance summaries", written);
+        overtimeLedgerService.rebuild(startTimestamp, endTimestamp);
+        return written;
+    }
+
+    private int rebuildDay(long dayTimestamp) {
+        // Lock before reading the records, as in refresh
+        Map<Long, DailyAttendanceSummary> existing = new HashMap<>();
+        for (DailyAttendanceSummary summary : summaryRepository.lockBySummaryDate(dayTimestamp)) {
+            existing.put(summary.getUserId(), summary);
+        }
+
+        // User order, so the rows created below are locked in the same order by every rebuild
+        Map<Long, List<Attendance>> byUser = new TreeMap<>();
+        List<Attendance> records = AttendanceArchiveService.union(attendanceRepository.findAllByAttendanceDate(dayTimestamp),
+                archiveService.findAllByDay(dayTimestamp), null);
+        for (Attendance attendance : records) {
+            byUser.computeIfAbsent(attendance.getUser().getId(), k -> new ArrayList<>()).add(attendance);
+        }
+
+        List<DailyAttendanceSummary> summaries = new ArrayList<>(byUser.size());
+        for (Map.Entry<Long, List<Attendance>> entry : byUser.entrySet()) {
+            DailyAttendanceSummary summary = existing.remove(entry.getKey());
+            if (summary == null) {
+                summary = createSummary(entry.getKey(), dayTimestamp);
+            }
+            summarize(summary, entry.getValue(), workHourPolicy.standardDayMinutes(entry.getValue().get(0).getUser()));
+            summaries.add(summary);
+        }
+        summaryRepository.saveAll(summaries);
+        // Rows left over belong to users with no records that day any more
+        summaryRepository.deleteAll(existing.values());
+        return summaries.size();
+    }
+
+    private static void summarize(DailyAttendanceSummary summary, List<Attendance> records, int standardDayMinutes) {
+        Long firstIn = null;
+        Long lastOut = null;
+        int worked = 0;
+        int overtime = 0;
+        int open = 0;
+
+        for (Attendance record : records) {
+            if (record.getClockInTime() != null && (firstIn == null || record.getClockInTime() < firstIn)) {
+                firstIn = record.getClockInTime();
+            }
+            if (record.getClockOutTime() != null && (lastOut == null || record.getClockOutTime() > lastOut)) {
+                lastOut = record.getClockOutTime();
+            }
+            if (record.isClockedIn()) {
+                open++;
+            }
+            if (record.isClockedOut()) {
+                int minutes = WorkHours.workedMinutes(record.getClockInTime(), record.getClockOutTime(),
+                        record.getBreakDurationMinutes());
+                worked += minutes;
+                // Overtime is per record, as in Attendance.calculateTotalHours
+                overtime += WorkHours.overtimeMinutes(minutes, standardDayMinutes);
+            }
+        }
+
+        summary.setFirstIn(firstIn);
+        summary.setLastOut(lastOut);
+        summary.setWorkedMinutes(worked);
+        summary.setOvertimeMinutes(overtime);
+        summary.setSessionCount(records.size());
+        summary.setOpenSessions(open);
+        summary.setStatus(dayStatus(records));
+    }
+
+    // Locked summary row and the totals the last refresh wrote to the overtime ledger
+    private static final class SummaryRow {
+        private final long id;
+        private final int workedMinutes;
+        private final int overtimeMinutes;
+
+        SummaryRow(long id, int workedMinutes, int overtimeMinutes) {
+            this.id = id;
+            this.workedMinutes = workedMinutes;
+            this.overtimeMinutes = overtimeMinutes;
+        }
+    }
+
+    /**
+     * Status of a day from its records: HALF_DAY over LATE, ABSENT only when every record is absent
+     */
+    static AttendanceStatus dayStatus(List<Attendance> records) {
+        boolean late = false;
+        boolean halfDay = false;
+        boolean allAbsent = true;
+        for (Attendance record : records) {
+            AttendanceStatus status = record.getStatus();
+            halfDay |= status == AttendanceStatus.HALF_DAY;
+            late |= status == AttendanceStatus.LATE;
+            allAbsent &= status == AttendanceStatus.ABSENT;
+        }
+        return halfDay ? AttendanceStatus.HALF_DAY
+                : late ? AttendanceStatus.LATE
+                : allAbsent ? AttendanceStatus.ABSENT
+                : AttendanceStatus.PRESENT;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.constants.ApiMessages;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor of the keyset-paginated listings: the sort key and id of the last row of a page,
+ * URL-safe Base64 encoded
+ */
+final class KeysetCursor {
+
+    private KeysetCursor() {
+    }
+
+    static String encode(long key, long id) {
+        String raw = key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sort key and id of the cursor, or null when there is no cursor and the listing starts at its first page
+     */
+    static long[] decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(ApiMessages.INVALID_CURSOR);
+            }
+            return new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) };
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(ApiMessages.INVALID_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.constants.ApiMessages;
+import com.example.lazyhr.dto.LeaveCategoryTotal;
+import com.example.lazyhr.event.LeaveChangedEvent;
+import com.example.lazyhr.model.LeaveCategory;
+import com.example.lazyhr.model.LeavePolicy;
+import com.example.lazyhr.model.LeaveStatus;
+import com.example.lazyhr.repository.LeavePolicyRepository;
+import com.example.lazyhr.repository.LeaveRequestRepository;
+import com.example.lazyhr.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Leave balances per user and year: used days of every category from one grouped query and yearly
+ * allocations from the leave_policies table. Balances are cached until a leave request of that user is
+ * approved, rejected or cancelled on this node, a policy changes, or the TTL runs out, which bounds how long
+ * changes made on other nodes go unseen. Every caller gets its own copy of the cached summary.
+ */
+@Service
+public class LeaveBalanceService {
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private LeavePolicyRepository leavePolicyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lazyhr.leave.balance-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${lazyhr.leave.balance-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    private final Map<BalanceKey, Cached> balances = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a load that raced with a change is not kept
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Map<LeaveCategory, BigDecimal> allocations;
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void registerMetrics() {
+        hits = Counter.builder("lazyhr.leave.balance.cache")
+                .tag("result", "hit")
+                .description("Leave balance reads served from the cache")
+                .register(meterRegistry);
+        misses = Counter.builder("lazyhr.leave.balance.cache")
+                .tag("result", "miss")
+                .description("Leave balance reads that queried the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Leave balance of a user for a calendar year; the caller may modify the returned summary
+     */
+    public LeaveService.LeaveBalanceSummary getBalance(Long userId, int year) {
+        BalanceKey key = new BalanceKey(userId, year);
+        long now = System.currentTimeMillis();
+        Cached cached = balances.get(key);
+        if (cached != null && now - cached.loadedAt < ttlMs) {
+            hits.increment();
+            return cached.summary.copy();
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException(ApiMessages.USER_NOT_FOUND_WITH_ID + userId);
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        long yearStart = LocalDate.of(year, 1, 1).atStartOfDay(zone).toInstant().toEpochMilli();
+        long yearEnd = LocalDate.of(year + 1, 1, 1).atStartOfDay(zone).toInstant().toEpochMilli();
+        Map<LeaveCategory, BigDecimal> used = new EnumMap<>(LeaveCategory.class);
+        for (LeaveCategoryTotal total : leaveRequestRepository.sumApprovedDaysByCategory(userId, yearStart, yearEnd)) {
+            used.put(total.getCategory(), total.getDays());
+        }
+        Map<LeaveCategory, BigDecimal> allocated = allocations();
+
+        LeaveService.LeaveBalanceSummary summary = new LeaveService.LeaveBalanceSummary();
+        summary.setAnnualLeaveUsed(days(used.get(LeaveCategory.ANNUAL)));
+        summary.setSickLeaveUsed(days(used.get(LeaveCategory.SICK)));
+        summary.setPrivateLeaveUsed(days(used.get(LeaveCategory.PRIVATE)));
+        summary.setSpecialHolidayUsed(days(used.get(LeaveCategory.SPECIAL_HOLIDAY)));
+        summary.setAnnualLeaveAllocated(allocation(allocated.get(LeaveCategory.ANNUAL)));
+        summary.setSickLeaveAllocated(allocation(allocated.get(LeaveCategory.SICK)));
+        summary.setPrivateLeaveAllocated(allocation(allocated.get(LeaveCategory.PRIVATE)));
+
+        CacheEviction.evictOldest(balances, entry -> entry.loadedAt, now, ttlMs, maxEntries);
+        Cached entry = new Cached(summary, now);
+        balances.put(key, entry);
+        // An invalidation that ran while loading may have missed this entry
+        if (generation.get() != loadGeneration) {
+            balances.remove(key, entry);
+        }
+        return summary.copy();
+    }
+
+    /**
+     * Get the allocation of every category that has a policy
+     */
+    @Transactional(readOnly = true)
+    public List<LeavePolicy> getPolicies() {
+        return leavePolicyRepository.findAll();
+    }
+
+    /**
+     * Set the yearly allocation of a category; null stops tracking an allocation for it.
+     * Cached balances are dropped once the change commits.
+     */
+    @Transactional
+    public LeavePolicy updatePolicy(LeaveCategory category, BigDecimal allocatedDays) {
+        if (allocatedDays != null && allocatedDays.signum() < 0) {
+            throw new IllegalArgumentException(ApiMessages.INVALID_LEAVE_ALLOCATION);
+        }
+        LeavePolicy policy = leavePolicyRepository.findByLeaveCategory(category)
+                .orElseGet(() -> new LeavePolicy(category, null));
+        policy.setAllocatedDays(allocatedDays);
+        LeavePolicy saved = leavePolicyRepository.save(policy);
+        afterCommit(() -> {
+            allocations = null;
+            invalidateAll();
+        });
+        return saved;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaveChanged(LeaveChangedEvent event) {
+        if (event.getStatus() == LeaveStatus.PENDING) {
+            return; // A new request uses no days until it is approved
+        }
+        generation.incrementAndGet();
+        ZoneId zone = ZoneId.systemDefault();
+        // Used days are counted in the year the leave starts
+        int year = Instant.ofEpochMilli(event.getStartDate()).atZone(zone).getYear();
+        balances.remove(new BalanceKey(event.getUserId(), year));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        balances.clear();
+    }
+
+    private Map<LeaveCategory, BigDecimal> allocations() {
+        Map<LeaveCategory, BigDecimal> current = allocations;
+        if (current == null) {
+            long loadGeneration = generation.get();
+            current = new EnumMap<>(LeaveCategory.class);
+            for (LeavePolicy policy : leavePolicyRepository.findAll()) {
+                if (policy.getAllocatedDays() != null) {
+                    current.put(policy.getLeaveCategory(), policy.getAllocatedDays());
+                }
+            }
+            if (generation.get() == loadGeneration) {
+                allocations = current;
+            }
+        }
+        return current;
+    }
+
+    private static Double days(BigDecimal days) {
+        return days != null ? days.doubleValue() : 0.0;
+    }
+
+    private static Double allocation(BigDecimal days) {
+        return days != null ? days.doubleValue() : null;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Cached {
+        private final LeaveService.LeaveBalanceSummary summary;
+        private final long loadedAt;
+
+        Cached(LeaveService.LeaveBalanceSummary summary, long loadedAt) {
+            this.summary = summary;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static final class BalanceKey {
+        private final Long userId;
+        private final int year;
+
+        BalanceKey(Long userId, int year) {
+            this.userId = userId;
+            this.year = year;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BalanceKey)) {
+                return false;
+            }
+            BalanceKey other = (BalanceKey) o;
+            return year == other.year && userId.equals(other.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, year);
+        }
+    }
+}
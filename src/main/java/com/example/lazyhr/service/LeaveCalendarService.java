@@ -0,0 +1,218 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.constants.ApiMessages;
+import com.example.lazyhr.dto.LeaveCalendar;
+import com.example.lazyhr.dto.LeaveCalendarMember;
+import com.example.lazyhr.dto.LeaveCalendarSpan;
+import com.example.lazyhr.event.LeaveChangedEvent;
+import com.example.lazyhr.model.LeaveStatus;
+import com.example.lazyhr.repository.LeaveRequestRepository;
+import com.example.lazyhr.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Team calendar: who in a department is on pending or approved leave on each day of a month.
+ * A calendar is built from one range query over the department's leave into one bitmap of member
+ * indices per day, and cached per department and month until a leave request touching that month
+ * changes or the entry is older than the configured time to live (member names and department moves
+ * are only picked up then). A full cache drops its oldest calendars. Cached calendars are immutable and shared.
+ */
+@Service
+public class LeaveCalendarService {
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BusinessCalendarService businessCalendar;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lazyhr.leave.calendar.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${lazyhr.leave.calendar.ttl-ms:300000}")
+    private long ttlMs;
+
+    private final Map<CalendarKey, Cached> calendars = new ConcurrentHashMap<>();
+    // Bumped for every change touching the month, so a build that raced with such a change is not kept.
+    // Created by the first read of a month; changes to months never read have nothing to discard.
+    private final Map<YearMonth, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void registerMetrics() {
+        hits = Counter.builder("lazyhr.leave.calendar.cache")
+                .tag("result", "hit")
+                .description("Team calendar reads served from the cache")
+                .register(meterRegistry);
+        misses = Counter.builder("lazyhr.leave.calendar.cache")
+                .tag("result", "miss")
+                .description("Team calendar reads that queried the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Leave calendar of the active members of a department for one month
+     */
+    public LeaveCalendar getCalendar(String department, YearMonth month) {
+        if (department == null || department.isBlank()) {
+            throw new IllegalArgumentException(ApiMessages.DEPARTMENT_REQUIRED);
+        }
+        CalendarKey key = new CalendarKey(department, month);
+        long now = System.currentTimeMillis();
+        Cached cached = calendars.get(key);
+        if (cached != null && now - cached.loadedAt < ttlMs) {
+            hits.increment();
+            return cached.calendar;
+        }
+
+        misses.increment();
+        AtomicLong generation = generations.computeIfAbsent(month, k -> new AtomicLong());
+        long loadGeneration = generation.get();
+        LeaveCalendar calendar = build(department, month);
+
+        CacheEviction.evictOldest(calendars, entry -> entry.loadedAt, now, ttlMs, maxEntries);
+        Cached entry = new Cached(calendar, now);
+        calendars.put(key, entry);
+        // An invalidation of this month that ran while building may have missed this entry
+        if (generation.get() != loadGeneration) {
+            calendars.remove(key, entry);
+        }
+        return calendar;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaveChanged(LeaveChangedEvent event) {
+        // The event carries no department; drop the months it touches in every department
+        ZoneId zone = ZoneId.systemDefault();
+        YearMonth first = YearMonth.from(Instant.ofEpochMilli(event.getStartDate()).atZone(zone));
+        YearMonth last = YearMonth.from(Instant.ofEpochMilli(event.getEndDate()).atZone(zone));
+        generations.forEach((month, generation) -> {
+            if (!month.isBefore(first) && !month.isAfter(last)) {
+                generation.incrementAndGet();
+            }
+        });
+        calendars.keySet().removeIf(key -> !key.month.isBefore(first) && !key.month.isAfter(last));
+    }
+
+    private LeaveCalendar build(String department, YearMonth month) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = month.atDay(1);
+        int days = month.lengthOfMonth();
+        long monthStart = firstDay.atStartOfDay(zone).toInstant().toEpochMilli();
+        long monthEnd = firstDay.plusMonths(1).atStartOfDay(zone).toInstant().toEpochMilli() - 1;
+
+        List<LeaveCalendarMember> members = userRepository.findCalendarMembers(department);
+        Map<Long, Integer> indexByUser = new HashMap<>(members.size() * 2);
+        for (int i = 0; i < members.size(); i++) {
+            indexByUser.put(members.get(i).getUserId(), i);
+        }
+
+        BitSet[] approved = new BitSet[days];
+        BitSet[] pending = new BitSet[days];
+        for (int day = 0; day < days; day++) {
+            approved[day] = new BitSet(members.size());
+            pending[day] = new BitSet(members.size());
+        }
+        long firstEpochDay = firstDay.toEpochDay();
+        for (LeaveCalendarSpan span : leaveRequestRepository.findCalendarSpans(department, monthStart, monthEnd)) {
+            Integer member = indexByUser.get(span.getUserId());
+            if (member == null) {
+                continue;
+            }
+            BitSet[] target = span.getStatus() == LeaveStatus.APPROVED ? approved : pending;
+            long from = Instant.ofEpochMilli(span.getStartDate()).atZone(zone).toLocalDate().toEpochDay() - firstEpochDay;
+            long to = Instant.ofEpochMilli(span.getEndDate()).atZone(zone).toLocalDate().toEpochDay() - firstEpochDay;
+            for (int day = (int) Math.max(from, 0); day <= Math.min(to, days - 1); day++) {
+                target[day].set(member);
+            }
+        }
+
+        BitSet workingDays = new BitSet(days);
+        for (int day = 0; day < days; day++) {
+            long dayStart = firstDay.plusDays(day).atStartOfDay(zone).toInstant().toEpochMilli();
+            if (businessCalendar.isWorkingDay(department, dayStart)) {
+                workingDays.set(day);
+            }
+        }
+
+        return new LeaveCalendar(department, month.toString(), monthStart, List.copyOf(members), encode(approved),
+                encode(pending), encode(workingDays));
+    }
+
+    private static List<String> encode(BitSet[] bitmaps) {
+        List<String> encoded = new ArrayList<>(bitmaps.length);
+        for (BitSet bitmap : bitmaps) {
+            encoded.add(encode(bitmap));
+        }
+        return List.copyOf(encoded);
+    }
+
+    private static String encode(BitSet bitmap) {
+        return Base64.getEncoder().encodeToString(bitmap.toByteArray());
+    }
+
+    private static final class Cached {
+        private final LeaveCalendar calendar;
+        private final long loadedAt;
+
+        Cached(LeaveCalendar calendar, long loadedAt) {
+            this.calendar = calendar;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static final class CalendarKey {
+        private final String department;
+        private final YearMonth month;
+
+        CalendarKey(String department, YearMonth month) {
+            this.department = department;
+            this.month = month;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CalendarKey)) {
+                return false;
+            }
+            CalendarKey other = (CalendarKey) o;
+            return month.equals(other.month) && department.equals(other.department);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(department, month);
+        }
+    }
+}
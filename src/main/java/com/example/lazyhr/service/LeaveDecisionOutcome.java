@@ -0,0 +1,8 @@
+package com.example.lazyhr.service;
+
+/**
+ * Result of deciding a single leave request in a batch
+ */
+public enum LeaveDecisionOutcome {
+    APPROVED, REJECTED, NOT_FOUND, NOT_PENDING, CONFLICT, OVERLAPS
+}
@@ -0,0 +1,330 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.event.LeaveChangedEvent;
+import com.example.lazyhr.model.LeaveRequest;
+import com.example.lazyhr.model.LeaveStatus;
+import com.example.lazyhr.repository.LeaveRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-memory interval index of pending and approved leave, globally and per user, for overlap checks and
+ * "who is off on date X" lookups. Each index is an immutable array sorted by start date, laid out as an
+ * implicit binary tree whose nodes also hold the latest end date below them, so a stabbing or range query
+ * takes O(log n + matches). Changes are applied after commit by copying the affected arrays; leave changes
+ * are rare next to reads. Leave that ended before the history horizon is not indexed, and those dates,
+ * like every query before the first load, go to the database. A periodic reload reconciles the index.
+ */
+@Service
+public class LeaveIntervalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveIntervalIndex.class);
+
+    private static final String LOAD_SQL = "SELECT id, user_id, start_date, end_date, status FROM leave_requests "
+            + "WHERE status IN ('PENDING', 'APPROVED') AND end_date >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Value("${lazyhr.leave.index.history-days:400}")
+    private int historyDays;
+
+    private volatile State state;
+
+    // Guarded by this: changes seen while a reload reads the table, replayed onto its result
+    private List<LeaveChangedEvent> changesDuringReload;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${lazyhr.leave.index.reconcile-interval-ms:900000}",
+            fixedDelayString = "${lazyhr.leave.index.reconcile-interval-ms:900000}")
+    public void reload() {
+        synchronized (this) {
+            changesDuringReload = new ArrayList<>();
+        }
+        long horizon = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(historyDays);
+        List<Span> spans;
+        try {
+            spans = jdbcTemplate.query(LOAD_SQL, (rs, rowNum) -> new Span(rs.getLong("id"), rs.getLong("user_id"),
+                    rs.getLong("start_date"), rs.getLong("end_date"), LeaveStatus.valueOf(rs.getString("status"))),
+                    horizon);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringReload = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            State loaded = State.of(spans, horizon);
+            for (LeaveChangedEvent change : changesDuringReload) {
+                loaded = loaded.apply(change);
+            }
+            changesDuringReload = null;
+            State previous = state;
+            if (previous != null && previous.byId.size() != loaded.byId.size()) {
+                logger.info("Leave index reconciled: {} entries, was {}", loaded.byId.size(), previous.byId.size());
+            }
+            state = loaded;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onLeaveChanged(LeaveChangedEvent event) {
+        if (changesDuringReload != null) {
+            changesDuringReload.add(event);
+        }
+        if (state != null) {
+            state = state.apply(event);
+        }
+    }
+
+    /**
+     * Approved leave of a user overlapping the range (timestamps in milliseconds, inclusive), by start date
+     */
+    public List<Span> findApproved(Long userId, long startTimestamp, long endTimestamp) {
+        State current = state;
+        if (current == null || startTimestamp < current.horizon) {
+            List<Span> spans = new ArrayList<>();
+            for (LeaveRequest leave : leaveRequestRepository.findApprovedOverlappingByUserId(userId, startTimestamp,
+                    endTimestamp)) {
+                spans.add(Span.of(leave));
+            }
+            return spans;
+        }
+        Intervals intervals = current.byUser.get(userId);
+        if (intervals == null) {
+            return List.of();
+        }
+        List<Span> spans = new ArrayList<>();
+        intervals.collect(startTimestamp, endTimestamp, span -> {
+            if (span.status == LeaveStatus.APPROVED) {
+                spans.add(span);
+            }
+        });
+        return spans;
+    }
+
+    /**
+     * Pending and approved leave requests covering the timestamp, by start date
+     */
+    public List<LeaveRequest> findOn(long timestamp) {
+        State current = state;
+        if (current == null || timestamp < current.horizon) {
+            return leaveRequestRepository.findActiveLeaveRequestsForTimestamp(timestamp);
+        }
+        List<Long> ids = new ArrayList<>();
+        current.all.collect(timestamp, timestamp, span -> ids.add(span.id));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Requester and approver in the same select, so rendering the list does not lazy-load per row
+        return leaveRequestRepository.findWithUsersByIdIn(ids);
+    }
+
+    /**
+     * One indexed leave request
+     */
+    public static final class Span {
+        private final long id;
+        private final long userId;
+        private final long startDate; // Unix timestamp in milliseconds
+        private final long endDate; // Unix timestamp in milliseconds
+        private final LeaveStatus status;
+
+        Span(long id, long userId, long startDate, long endDate, LeaveStatus status) {
+            this.id = id;
+            this.userId = userId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.status = status;
+        }
+
+        static Span of(LeaveRequest leave) {
+            return new Span(leave.getId(), leave.getUser().getId(), leave.getStartDate(), leave.getEndDate(),
+                    leave.getStatus());
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public long getStartDate() {
+            return startDate;
+        }
+
+        public long getEndDate() {
+            return endDate;
+        }
+
+        public LeaveStatus getStatus() {
+            return status;
+        }
+    }
+
+    // Spans sorted by start date (then id); the node of the range [lo, hi) is its middle element,
+    // and maxEnd[mid] is the latest end date in that range
+    static final class Intervals {
+        static final Intervals EMPTY = new Intervals(new Span[0]);
+
+        private final Span[] spans;
+        private final long[] maxEnd;
+
+        Intervals(Span[] sorted) {
+            this.spans = sorted;
+            this.maxEnd = new long[sorted.length];
+            build(0, sorted.length);
+        }
+
+        static Intervals of(List<Span> spans) {
+            Span[] sorted = spans.toArray(new Span[0]);
+            Arrays.sort(sorted, ORDER);
+            return new Intervals(sorted);
+        }
+
+        int size() {
+            return spans.length;
+        }
+
+        // Spans with start <= to and end >= from, in start order
+        void collect(long from, long to, Consumer<Span> out) {
+            collect(0, spans.length, from, to, out);
+        }
+
+        Intervals with(Span span) {
+            Span[] removed = without(span.id).spans;
+            int index = Arrays.binarySearch(removed, span, ORDER);
+            int insertAt = index >= 0 ? index : -index - 1;
+            Span[] sorted = new Span[removed.length + 1];
+            System.arraycopy(removed, 0, sorted, 0, insertAt);
+            sorted[insertAt] = span;
+            System.arraycopy(removed, insertAt, sorted, insertAt + 1, removed.length - insertAt);
+            return new Intervals(sorted);
+        }
+
+        Intervals without(long id) {
+            for (int i = 0; i < spans.length; i++) {
+                if (spans[i].id == id) {
+                    Span[] sorted = new Span[spans.length - 1];
+                    System.arraycopy(spans, 0, sorted, 0, i);
+                    System.arraycopy(spans, i + 1, sorted, i, spans.length - i - 1);
+                    return new Intervals(sorted);
+                }
+            }
+            return this;
+        }
+
+        private long build(int lo, int hi) {
+            if (lo >= hi) {
+                return Long.MIN_VALUE;
+            }
+            int mid = (lo + hi) >>> 1;
+            long max = Math.max(spans[mid].endDate, Math.max(build(lo, mid), build(mid + 1, hi)));
+            maxEnd[mid] = max;
+            return max;
+        }
+
+        private void collect(int lo, int hi, long from, long to, Consumer<Span> out) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (maxEnd[mid] < from) {
+                return;
+            }
+            collect(lo, mid, from, to, out);
+            Span span = spans[mid];
+            if (span.startDate > to) {
+                return;
+            }
+            if (span.endDate >= from) {
+                out.accept(span);
+            }
+            collect(mid + 1, hi, from, to, out);
+        }
+
+        private static final Comparator<Span> ORDER = Comparator.comparingLong((Span span) -> span.startDate)
+                .thenComparingLong(span -> span.id);
+    }
+
+    // Everything the index answers from, replaced as a whole on every change
+    private static final class State {
+        private final Intervals all;
+        private final Map<Long, Intervals> byUser;
+        private final Map<Long, Span> byId;
+        private final long horizon;
+
+        State(Intervals all, Map<Long, Intervals> byUser, Map<Long, Span> byId, long horizon) {
+            this.all = all;
+            this.byUser = byUser;
+            this.byId = byId;
+            this.horizon = horizon;
+        }
+
+        static State of(List<Span> spans, long horizon) {
+            Map<Long, List<Span>> grouped = new HashMap<>();
+            Map<Long, Span> byId = new HashMap<>();
+            for (Span span : spans) {
+                grouped.computeIfAbsent(span.userId, k -> new ArrayList<>()).add(span);
+                byId.put(span.id, span);
+            }
+            Map<Long, Intervals> byUser = new HashMap<>();
+            grouped.forEach((userId, userSpans) -> byUser.put(userId, Intervals.of(userSpans)));
+            return new State(Intervals.of(spans), byUser, byId, horizon);
+        }
+
+        State apply(LeaveChangedEvent change) {
+            boolean indexed = (change.getStatus() == LeaveStatus.PENDING || change.getStatus() == LeaveStatus.APPROVED)
+                    && change.getEndDate() >= horizon;
+            Span previous = byId.get(change.getLeaveId());
+            if (previous == null && !indexed) {
+                return this;
+            }
+
+            Map<Long, Span> ids = new HashMap<>(byId);
+            Map<Long, Intervals> users = new HashMap<>(byUser);
+            Intervals global = all;
+            if (previous != null) {
+                ids.remove(previous.id);
+                global = global.without(previous.id);
+                Intervals remaining = users.getOrDefault(previous.userId, Intervals.EMPTY).without(previous.id);
+                if (remaining.size() == 0) {
+                    users.remove(previous.userId);
+                } else {
+                    users.put(previous.userId, remaining);
+                }
+            }
+            if (indexed) {
+                Span span = new Span(change.getLeaveId(), change.getUserId(), change.getStartDate(), change.getEndDate(),
+                        change.getStatus());
+                ids.put(span.id, span);
+                global = global.with(span);
+                users.put(span.userId, users.getOrDefault(span.userId, Intervals.EMPTY).with(span));
+            }
+            return new State(global, users, ids, horizon);
+        }
+    }
+}
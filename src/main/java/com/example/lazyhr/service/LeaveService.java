@@ -1,41 +1,99 @@
 package com.example.lazyhr.service;
 
 import com.example.lazyhr.constants.ApiMessages;
+import com.example.lazyhr.dto.CursorPage;
+import com.example.lazyhr.dto.LeaveRequestItem;
+import com.example.lazyhr.event.LeaveChangedEvent;
 import com.example.lazyhr.model.LeaveRequest;
 import com.example.lazyhr.model.User;
 import com.example.lazyhr.model.LeaveStatus;
 import com.example.lazyhr.model.LeaveCategory;
 import com.example.lazyhr.repository.LeaveRequestRepository;
 import com.example.lazyhr.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
 public class LeaveService {
 
+    private static final Logger logger = LoggerFactory.getLogger(LeaveService.class);
+
     @Autowired
     private LeaveRequestRepository leaveRequestRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BusinessCalendarService businessCalendar;
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private LeaveIntervalIndex leaveIntervalIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserLockStripes userLockStripes;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${lazyhr.leave.max-attempts:3}")
+    private int maxAttempts;
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final String DECIDE_SQL = "UPDATE leave_requests SET status = ?, approved_by = ?, approved_date = ?, "
+            + "comments = ?, updated_at = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    private static final String SELECT_DECIDED_VERSION_SQL = "SELECT version FROM leave_requests WHERE id = ? "
+            + "AND status = ? AND approved_by = ? AND approved_date = ?";
+
     /**
-     * Apply for leave
+     * Apply for leave. Applications and approvals of one user are serialized, on this node by a lock stripe
+     * and across nodes by a row lock on the user, and retried when they lose a race.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LeaveRequest applyLeave(LeaveRequest leaveRequest) {
-        // Validate user exists
-        User user = userRepository.findById(leaveRequest.getUser().getId())
-                .orElseThrow(() -> new EntityNotFoundException(ApiMessages.USER_NOT_FOUND));
-
-        leaveRequest.setUser(user);
+        Long userId = leaveRequest.getUser().getId();
 
         // Validate dates
         if (leaveRequest.getStartDate() > leaveRequest.getEndDate()) {
@@ -47,45 +105,74 @@ public class LeaveService {
             throw new IllegalArgumentException(ApiMessages.CANNOT_APPLY_LEAVE_IN_PAST);
         }
 
-        // Check for overlapping approved leaves
-        List<LeaveRequest> overlappingLeaves = leaveRequestRepository.findOverlappingLeavesTimestamp(
-                user, leaveRequest.getStartDate(), leaveRequest.getEndDate());
-
-        if (!overlappingLeaves.isEmpty()) {
-            throw new IllegalStateException(ApiMessages.LEAVE_REQUEST_OVERLAPS +
-                    Instant.ofEpochMilli(overlappingLeaves.get(0).getStartDate()).toString() + ApiMessages.TO +
-                    Instant.ofEpochMilli(overlappingLeaves.get(0).getEndDate()).toString());
+        // Cheap rejection from the index before taking any lock
+        List<LeaveIntervalIndex.Span> indexed = leaveIntervalIndex.findApproved(userId, leaveRequest.getStartDate(),
+                leaveRequest.getEndDate());
+        if (!indexed.isEmpty()) {
+            throw overlapError(indexed.get(0).getStartDate(), indexed.get(0).getEndDate());
         }
 
-        // Calculate total days
-        leaveRequest.calculateTotalDays();
+        return userLockStripes.withLock(userId, () -> withRetry(() -> transactionTemplate.execute(status -> {
+            // A failed attempt may have assigned these
+            leaveRequest.setId(null);
+            leaveRequest.setVersion(null);
+            return submit(userId, leaveRequest);
+        })));
+    }
+
+    private LeaveRequest submit(Long userId, LeaveRequest leaveRequest) {
+        User user = lockUser(userId, ApiMessages.USER_NOT_FOUND);
+        leaveRequest.setUser(user);
+
+        // Check for overlapping approved leaves, against the table now that the user is locked
+        rejectOverlaps(userId, leaveRequest);
+
+        // Only working days of the user's region count against the balance
+        long workingDays = businessCalendar.workingDays(user.getDepartment(), leaveRequest.getStartDate(),
+                leaveRequest.getEndDate());
+        if (workingDays == 0) {
+            throw new IllegalArgumentException(ApiMessages.LEAVE_HAS_NO_WORKING_DAYS);
+        }
+        leaveRequest.calculateTotalDays(workingDays);
 
         // Set initial status
         leaveRequest.setStatus(LeaveStatus.PENDING);
 
-        return leaveRequestRepository.save(leaveRequest);
+        LeaveRequest saved = leaveRequestRepository.save(leaveRequest);
+        eventPublisher.publishEvent(LeaveChangedEvent.of(saved, LeaveStatus.PENDING));
+        return saved;
     }
 
     /**
-     * Approve leave request
+     * Approve leave request; fails when it overlaps leave of the same user that is already approved
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LeaveRequest approveLeave(Long leaveId, Long approverId, String comments) {
-        LeaveRequest leaveRequest = leaveRequestRepository.findById(leaveId)
+        Long userId = leaveRequestRepository.findUserIdsByIds(List.of(leaveId)).stream().findFirst()
                 .orElseThrow(() -> new EntityNotFoundException(ApiMessages.LEAVE_REQUEST_NOT_FOUND_WITH_ID + leaveId));
 
-        User approver = userRepository.findById(approverId)
-                .orElseThrow(() -> new EntityNotFoundException(ApiMessages.APPROVER_NOT_FOUND_WITH_ID + approverId));
+        return userLockStripes.withLock(userId, () -> withRetry(() -> transactionTemplate.execute(status -> {
+            lockUser(userId, ApiMessages.USER_NOT_FOUND);
+            LeaveRequest leaveRequest = leaveRequestRepository.findById(leaveId)
+                    .orElseThrow(() -> new EntityNotFoundException(ApiMessages.LEAVE_REQUEST_NOT_FOUND_WITH_ID + leaveId));
 
-        if (leaveRequest.getStatus() != LeaveStatus.PENDING) {
-            throw new IllegalStateException(ApiMessages.LEAVE_REQUEST_NOT_PENDING);
-        }
+            User approver = userRepository.findById(approverId)
+                    .orElseThrow(() -> new EntityNotFoundException(ApiMessages.APPROVER_NOT_FOUND_WITH_ID + approverId));
 
-        leaveRequest.setStatus(LeaveStatus.APPROVED);
-        leaveRequest.setApprovedBy(approver);
-        leaveRequest.setApprovedDate(System.currentTimeMillis());
-        leaveRequest.setComments(comments);
+            if (leaveRequest.getStatus() != LeaveStatus.PENDING) {
+                throw new IllegalStateException(ApiMessages.LEAVE_REQUEST_NOT_PENDING);
+            }
+            rejectOverlaps(userId, leaveRequest);
 
-        return leaveRequestRepository.save(leaveRequest);
+            leaveRequest.setStatus(LeaveStatus.APPROVED);
+            leaveRequest.setApprovedBy(approver);
+            leaveRequest.setApprovedDate(System.currentTimeMillis());
+            leaveRequest.setComments(comments);
+
+            LeaveRequest saved = leaveRequestRepository.saveAndFlush(leaveRequest);
+            eventPublisher.publishEvent(LeaveChangedEvent.of(saved, LeaveStatus.APPROVED));
+            return saved;
+        })));
     }
 
     /**
@@ -107,7 +194,212 @@ public class LeaveService {
         leaveRequest.setApprovedDate(System.currentTimeMillis());
         leaveRequest.setComments(comments);
 
-        return leaveRequestRepository.save(leaveRequest);
+        LeaveRequest saved = leaveRequestRepository.save(leaveRequest);
+        eventPublisher.publishEvent(LeaveChangedEvent.of(saved, LeaveStatus.REJECTED));
+        return saved;
+    }
+
+    /**
+     * Approve or reject many leave requests at once. Requests and the approver are loaded with one query each
+     * and all decisions are written with one batched update that checks each request's version, so a request
+     * decided concurrently by another approver comes back as CONFLICT instead of being decided twice.
+     * Approvals apply the same overlap check as approveLeave: a request overlapping approved leave of its user,
+     * including leave approved earlier in the same batch, comes back as OVERLAPS.
+     * Approvals are split by requester into {@link UserLockStripes#partition(java.util.Collection)} groups, each
+     * decided in its own transaction under that group's stripes and user row locks, so a large batch never holds
+     * most of the stripes at once. A group still losing lock races after the retries comes back as CONFLICT;
+     * groups decided before it stay decided. Returns one outcome per id, in order.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<LeaveDecisionOutcome> decideLeaves(List<Long> leaveIds, Long approverId, String comments,
+            LeaveStatus decision) {
+        if (decision != LeaveStatus.APPROVED && decision != LeaveStatus.REJECTED) {
+            throw new IllegalArgumentException(ApiMessages.INVALID_LEAVE_DECISION + decision);
+        }
+        if (decision == LeaveStatus.REJECTED || leaveIds.isEmpty()) {
+            return withRetry(() -> transactionTemplate.execute(
+                    status -> decide(leaveIds, approverId, comments, decision)));
+        }
+
+        Map<Long, Long> userIds = new HashMap<>();
+        for (Object[] row : leaveRequestRepository.findIdAndUserIdByIds(new HashSet<>(leaveIds))) {
+            userIds.put((Long) row[0], (Long) row[1]);
+        }
+        LeaveDecisionOutcome[] outcomes = new LeaveDecisionOutcome[leaveIds.size()];
+        Map<Long, List<Integer>> positionsByUser = new HashMap<>();
+        for (int i = 0; i < leaveIds.size(); i++) {
+            Long userId = userIds.get(leaveIds.get(i));
+            if (userId == null) {
+                outcomes[i] = LeaveDecisionOutcome.NOT_FOUND;
+            } else {
+                positionsByUser.computeIfAbsent(userId, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        for (List<Long> group : userLockStripes.partition(positionsByUser.keySet())) {
+            List<Integer> positions = new ArrayList<>();
+            for (Long userId : group) {
+                positions.addAll(positionsByUser.get(userId));
+            }
+            // Keep the original order within the group, so of two overlapping requests the first is approved
+            Collections.sort(positions);
+            List<Long> groupIds = new ArrayList<>(positions.size());
+            for (Integer position : positions) {
+                groupIds.add(leaveIds.get(position));
+            }
+
+            List<LeaveDecisionOutcome> decided;
+            try {
+                decided = userLockStripes.withLocks(group, () -> withRetry(() -> transactionTemplate.execute(status -> {
+                    userRepository.lockAllById(group);
+                    return decide(groupIds, approverId, comments, decision);
+                })));
+            } catch (ConcurrencyFailureException e) {
+                logger.warn("Batch leave decision lost lock races for {} requests, reporting them as conflicts",
+                        groupIds.size(), e);
+                decided = Collections.nCopies(groupIds.size(), LeaveDecisionOutcome.CONFLICT);
+            }
+            for (int i = 0; i < positions.size(); i++) {
+                outcomes[positions.get(i)] = decided.get(i);
+            }
+        }
+        return Arrays.asList(outcomes);
+    }
+
+    private List<LeaveDecisionOutcome> decide(List<Long> leaveIds, Long approverId, String comments,
+            LeaveStatus decision) {
+        User approver = userRepository.findById(approverId)
+                .orElseThrow(() -> new EntityNotFoundException(ApiMessages.APPROVER_NOT_FOUND_WITH_ID + approverId));
+
+        Map<Long, LeaveRequest> byId = new HashMap<>();
+        for (LeaveRequest leaveRequest : leaveRequestRepository.findAllById(new HashSet<>(leaveIds))) {
+            byId.put(leaveRequest.getId(), leaveRequest);
+        }
+
+        LeaveDecisionOutcome decided = decision == LeaveStatus.APPROVED
+                ? LeaveDecisionOutcome.APPROVED : LeaveDecisionOutcome.REJECTED;
+        List<LeaveDecisionOutcome> outcomes = new ArrayList<>(leaveIds.size());
+        List<LeaveRequest> pending = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (Long leaveId : leaveIds) {
+            LeaveRequest leaveRequest = byId.get(leaveId);
+            if (leaveRequest == null) {
+                outcomes.add(LeaveDecisionOutcome.NOT_FOUND);
+            } else if (leaveRequest.getStatus() != LeaveStatus.PENDING || !seen.add(leaveId)) {
+                outcomes.add(LeaveDecisionOutcome.NOT_PENDING);
+            } else {
+                positions.add(outcomes.size());
+                outcomes.add(decided);
+                pending.add(leaveRequest);
+            }
+        }
+        if (decision == LeaveStatus.APPROVED) {
+            dropOverlapping(pending, positions, outcomes);
+        }
+        if (pending.isEmpty()) {
+            return outcomes;
+        }
+
+        long now = System.currentTimeMillis();
+        List<Object[]> rows = new ArrayList<>(pending.size());
+        for (LeaveRequest leaveRequest : pending) {
+            rows.add(new Object[] { decision.name(), approver.getId(), now, comments, now, leaveRequest.getId(),
+                    leaveRequest.getVersion() });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(DECIDE_SQL, rows);
+
+        for (int i = 0; i < counts.length; i++) {
+            LeaveRequest leaveRequest = pending.get(i);
+            // Changed since it was loaded: another approver got there first
+            if (counts[i] != 1 && !decidedAsWritten(leaveRequest, decision, approver.getId(), now)) {
+                outcomes.set(positions.get(i), LeaveDecisionOutcome.CONFLICT);
+                continue;
+            }
+            eventPublisher.publishEvent(LeaveChangedEvent.of(leaveRequest, decision));
+        }
+        return outcomes;
+    }
+
+    // A batch count other than 1 may be a driver that reports no row counts (SUCCESS_NO_INFO); check the row
+    private boolean decidedAsWritten(LeaveRequest leaveRequest, LeaveStatus decision, Long approverId, long decidedAt) {
+        List<Long> version = jdbcTemplate.queryForList(SELECT_DECIDED_VERSION_SQL, Long.class, leaveRequest.getId(),
+                decision.name(), approverId, decidedAt);
+        return !version.isEmpty() && version.get(0) == leaveRequest.getVersion() + 1;
+    }
+
+    // Removes requests overlapping approved leave of their user, checking in order so that of two
+    // overlapping requests in the batch only the first is approved. Reads one query for all users.
+    private void dropOverlapping(List<LeaveRequest> pending, List<Integer> positions,
+            List<LeaveDecisionOutcome> outcomes) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Set<Long> userIds = new HashSet<>();
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        for (LeaveRequest leaveRequest : pending) {
+            userIds.add(leaveRequest.getUser().getId());
+            from = Math.min(from, leaveRequest.getStartDate());
+            to = Math.max(to, leaveRequest.getEndDate());
+        }
+        Map<Long, List<LeaveRequest>> approved = new HashMap<>();
+        for (LeaveRequest leaveRequest : leaveRequestRepository.findApprovedOverlappingByUserIds(userIds, from, to)) {
+            approved.computeIfAbsent(leaveRequest.getUser().getId(), k -> new ArrayList<>()).add(leaveRequest);
+        }
+
+        for (int i = 0; i < pending.size(); ) {
+            LeaveRequest candidate = pending.get(i);
+            List<LeaveRequest> taken = approved.computeIfAbsent(candidate.getUser().getId(), k -> new ArrayList<>());
+            boolean overlaps = false;
+            for (LeaveRequest other : taken) {
+                overlaps |= other.getStartDate() <= candidate.getEndDate() && other.getEndDate() >= candidate.getStartDate();
+            }
+            if (overlaps) {
+                outcomes.set(positions.remove(i), LeaveDecisionOutcome.OVERLAPS);
+                pending.remove(i);
+            } else {
+                taken.add(candidate);
+                i++;
+            }
+        }
+    }
+
+    private User lockUser(Long userId, String notFoundMessage) {
+        List<User> locked = userRepository.lockAllById(List.of(userId));
+        if (locked.isEmpty()) {
+            throw new EntityNotFoundException(notFoundMessage);
+        }
+        return locked.get(0);
+    }
+
+    private void rejectOverlaps(Long userId, LeaveRequest leaveRequest) {
+        List<LeaveRequest> overlapping = leaveRequestRepository.findApprovedOverlappingByUserId(userId,
+                leaveRequest.getStartDate(), leaveRequest.getEndDate());
+        if (!overlapping.isEmpty()) {
+            throw overlapError(overlapping.get(0).getStartDate(), overlapping.get(0).getEndDate());
+        }
+    }
+
+    private static IllegalStateException overlapError(long startDate, long endDate) {
+        return new IllegalStateException(ApiMessages.LEAVE_REQUEST_OVERLAPS + Instant.ofEpochMilli(startDate).toString()
+                + ApiMessages.TO + Instant.ofEpochMilli(endDate).toString());
+    }
+
+    // Runs a transaction again when it lost a race: a stale version or a lock that could not be taken
+    private <T> T withRetry(Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (ConcurrencyFailureException e) {
+                if (i >= maxAttempts) {
+                    throw e;
+                }
+                logger.debug("Leave change lost a race, retrying (attempt {} of {})", i + 1, maxAttempts, e);
+                // Entities of the failed attempt must not be served from an open-in-view persistence context
+                entityManager.clear();
+            }
+        }
     }
 
     /**
@@ -137,6 +429,66 @@ public class LeaveService {
         return leaveRequestRepository.findPendingLeaveRequests();
     }
 
+    /**
+     * Get one page of pending leave requests, oldest first.
+     * The cursor is the opaque value returned with the previous page; null starts from the oldest request.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<LeaveRequestItem> getPendingLeaveRequestsPage(String cursor, int size) {
+        Pageable limit = pageLimit(size);
+        long[] position = KeysetCursor.decode(cursor);
+        List<LeaveRequestItem> rows = position == null
+                ? leaveRequestRepository.findPendingItemsFirstPage(limit)
+                : leaveRequestRepository.findPendingItemsAfter(position[0], position[1], limit);
+        return toPage(rows, size);
+    }
+
+    /**
+     * Get one page of leave requests with a status, newest first
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<LeaveRequestItem> getLeaveRequestsByStatusPage(LeaveStatus status, String cursor, int size) {
+        Pageable limit = pageLimit(size);
+        long[] position = KeysetCursor.decode(cursor);
+        List<LeaveRequestItem> rows = position == null
+                ? leaveRequestRepository.findItemsByStatusFirstPage(status, limit)
+                : leaveRequestRepository.findItemsByStatusAfter(status, position[0], position[1], limit);
+        return toPage(rows, size);
+    }
+
+    /**
+     * Get one page of a user's leave requests, newest first
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<LeaveRequestItem> getUserLeaveRequestsPage(Long userId, String cursor, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException(ApiMessages.USER_NOT_FOUND_WITH_ID + userId);
+        }
+        Pageable limit = pageLimit(size);
+        long[] position = KeysetCursor.decode(cursor);
+        List<LeaveRequestItem> rows = position == null
+                ? leaveRequestRepository.findItemsByUserFirstPage(userId, limit)
+                : leaveRequestRepository.findItemsByUserAfter(userId, position[0], position[1], limit);
+        return toPage(rows, size);
+    }
+
+    // Fetch one extra row to know whether another page exists
+    private static Pageable pageLimit(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(ApiMessages.INVALID_PAGE_SIZE + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    private static CursorPage<LeaveRequestItem> toPage(List<LeaveRequestItem> rows, int size) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<LeaveRequestItem> page = rows.subList(0, size);
+        LeaveRequestItem last = page.get(size - 1);
+        return new CursorPage<>(page, KeysetCursor.encode(last.getAppliedDate(), last.getId()));
+    }
+
     /**
      * Get leave request by ID
      */
@@ -162,7 +514,7 @@ public class LeaveService {
      */
     @Transactional(readOnly = true)
     public List<LeaveRequest> getLeaveRequestsForTimestamp(Long timestamp) {
-        return leaveRequestRepository.findLeaveRequestsForTimestamp(timestamp);
+        return leaveIntervalIndex.findOn(timestamp);
     }
 
     /**
@@ -172,7 +524,7 @@ public class LeaveService {
     @Deprecated
     public List<LeaveRequest> getLeaveRequestsForDate(LocalDate date) {
         long timestamp = date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        return leaveRequestRepository.findLeaveRequestsForDate(timestamp);
+        return leaveIntervalIndex.findOn(timestamp);
     }
 
     /**
@@ -246,36 +598,15 @@ public class LeaveService {
         }
 
         leaveRequestRepository.delete(leaveRequest);
+        eventPublisher.publishEvent(LeaveChangedEvent.of(leaveRequest, null));
     }
 
     /**
-     * Get leave balance summary for user
+     * Get leave balance summary for user; served from the balance cache when possible
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public LeaveBalanceSummary getLeaveBalanceSummary(Long userId, int year) {
-        // Validate user exists
-        userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException(ApiMessages.USER_NOT_FOUND_WITH_ID + userId));
-
-        LeaveBalanceSummary summary = new LeaveBalanceSummary();
-
-        // Calculate used days for each category
-        Double annualUsed = getTotalLeaveDaysUsed(userId, LeaveCategory.ANNUAL, year);
-        Double sickUsed = getTotalLeaveDaysUsed(userId, LeaveCategory.SICK, year);
-        Double privateUsed = getTotalLeaveDaysUsed(userId, LeaveCategory.PRIVATE, year);
-        Double specialUsed = getTotalLeaveDaysUsed(userId, LeaveCategory.SPECIAL_HOLIDAY, year);
-
-        summary.setAnnualLeaveUsed(annualUsed);
-        summary.setSickLeaveUsed(sickUsed);
-        summary.setPrivateLeaveUsed(privateUsed);
-        summary.setSpecialHolidayUsed(specialUsed);
-
-        // Set allocated amounts (these could be configurable)
-        summary.setAnnualLeaveAllocated(21.0);
-        summary.setSickLeaveAllocated(14.0);
-        summary.setPrivateLeaveAllocated(5.0);
-
-        return summary;
+        return leaveBalanceService.getBalance(userId, year);
     }
 
     // Inner class for leave balance summary
@@ -358,5 +689,20 @@ public class LeaveService {
         public void setSpecialHolidayUsed(Double specialHolidayUsed) {
             this.specialHolidayUsed = specialHolidayUsed;
         }
+
+        /**
+         * Independent copy, for handing out summaries that are cached and shared
+         */
+        public LeaveBalanceSummary copy() {
+            LeaveBalanceSummary copy = new LeaveBalanceSummary();
+            copy.annualLeaveAllocated = annualLeaveAllocated;
+            copy.annualLeaveUsed = annualLeaveUsed;
+            copy.sickLeaveAllocated = sickLeaveAllocated;
+            copy.sickLeaveUsed = sickLeaveUsed;
+            copy.privateLeaveAllocated = privateLeaveAllocated;
+            copy.privateLeaveUsed = privateLeaveUsed;
+            copy.specialHolidayUsed = specialHolidayUsed;
+            return copy;
+        }
     }
 }
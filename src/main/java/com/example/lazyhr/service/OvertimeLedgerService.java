@@ -0,0 +1,297 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.dto.UserOvertime;
+import com.example.lazyhr.repository.DailyAttendanceSummaryRepository;
+import com.example.lazyhr.repository.OvertimeLedgerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Maintains the overtime_ledger: worked and overtime minutes per user and calendar month.
+ * Every change to a daily attendance summary is applied to its month as an increment, in the
+ * transaction that changes the summary and while that summary row is locked. The deltas are only
+ * correct because those refreshes are serialized per user and day; a rebuild takes the same
+ * summary row locks before it rewrites a month.
+ */
+@Service
+@Transactional
+public class OvertimeLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OvertimeLedgerService.class);
+
+    private static final String ADD_SQL = "UPDATE overtime_ledger SET worked_minutes = worked_minutes + ?, "
+            + "overtime_minutes = overtime_minutes + ?, updated_at = ? WHERE user_id = ? AND month_start = ?";
+
+    private static final String INSERT_SQL = "INSERT INTO overtime_ledger (user_id, month_start, worked_minutes, "
+            + "overtime_minutes, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SET_SQL = "UPDATE overtime_ledger SET worked_minutes = ?, overtime_minutes = ?, "
+            + "updated_at = ? WHERE user_id = ? AND month_start = ?";
+
+    private static final String DELETE_SQL = "DELETE FROM overtime_ledger WHERE user_id = ? AND month_start = ?";
+
+    // Locking reads: the month's summaries, then its ledger rows, in the order refreshes take them
+    private static final String LOCK_MONTH_SUMMARIES_SQL = "SELECT user_id, worked_minutes, overtime_minutes "
+            + "FROM daily_attendance_summary WHERE summary_date >= ? AND summary_date < ? ORDER BY summary_date, user_id "
+            + "FOR UPDATE";
+
+    private static final String LOCK_MONTH_SQL = "SELECT user_id FROM overtime_ledger WHERE month_start = ? "
+            + "ORDER BY user_id FOR UPDATE";
+
+    private static final String LOCK_USER_MONTHS_SQL = "SELECT user_id, month_start FROM overtime_ledger "
+            + "WHERE user_id IN (:userIds) AND month_start IN (:months) ORDER BY user_id, month_start FOR UPDATE";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OvertimeLedgerRepository ledgerRepository;
+
+    @Autowired
+    private DailyAttendanceSummaryRepository summaryRepository;
+
+    /**
+     * Add the change of one day's worked and overtime minutes to the user's month
+     */
+    public void record(Long userId, Long day, long workedDelta, long overtimeDelta) {
+        if (workedDelta == 0 && overtimeDelta == 0) {
+            return;
+        }
+        long month = monthStart(day);
+        long now = System.currentTimeMillis();
+        if (jdbcTemplate.update(ADD_SQL, workedDelta, overtimeDelta, now, userId, month) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, userId, month, workedDelta, overtimeDelta, now);
+        } catch (DuplicateKeyException e) {
+            // Another transaction created the month first
+            jdbcTemplate.update(ADD_SQL, workedDelta, overtimeDelta, now, userId, month);
+        }
+    }
+
+    /**
+     * Add the changes of many users and days with a fixed number of statements. The months are locked with
+     * one query, months not yet in the ledger are created empty, and every change is added in one batch, so
+     * the batch's row counts, which drivers may not report, are never needed.
+     */
+    public void recordAll(Collection<DayDelta> deltas) {
+        // User and month order, the order the rows are locked and created in
+        Map<Long, Map<Long, long[]>> totals = new TreeMap<>();
+        for (DayDelta delta : deltas) {
+            if (delta.workedDelta == 0 && delta.overtimeDelta == 0) {
+                continue;
+            }
+            long[] total = totals.computeIfAbsent(delta.userId, k -> new TreeMap<>())
+                    .computeIfAbsent(monthStart(delta.day), k -> new long[2]);
+            total[0] += delta.workedDelta;
+            total[1] += delta.overtimeDelta;
+        }
+        if (totals.isEmpty()) {
+            return;
+        }
+
+        Set<Long> months = new TreeSet<>();
+        totals.values().forEach(byMonth -> months.addAll(byMonth.keySet()));
+        MapSqlParameterSource params = new MapSqlParameterSource("userIds", totals.keySet()).addValue("months", months);
+        Set<String> existing = lockMonths(params);
+
+        long now = System.currentTimeMillis();
+        List<Object[]> missing = new ArrayList<>();
+        List<Object[]> adds = new ArrayList<>();
+        totals.forEach((userId, byMonth) -> byMonth.forEach((month, total) -> {
+            if (!existing.contains(userId + ":" + month)) {
+                missing.add(new Object[] {userId, month, 0L, 0L, now});
+            }
+            adds.add(new Object[] {total[0], total[1], now, userId, month});
+        }));
+        if (!missing.isEmpty()) {
+            insertEmpty(missing);
+            lockMonths(params);
+        }
+        jdbcTemplate.batchUpdate(ADD_SQL, adds);
+    }
+
+    private Set<String> lockMonths(MapSqlParameterSource params) {
+        Set<String> locked = new HashSet<>();
+        namedParameterJdbcTemplate.query(LOCK_USER_MONTHS_SQL, params,
+                rs -> { locked.add(rs.getLong("user_id") + ":" + rs.getLong("month_start")); });
+        return locked;
+    }
+
+    // Creating a month twice is harmless, so rows another transaction created first are skipped one by one
+    private void insertEmpty(List<Object[]> rows) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        } catch (DuplicateKeyException e) {
+            for (Object[] row : rows) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, row);
+                } catch (DuplicateKeyException ignored) {
+                    // Created by a concurrent refresh; the lock that follows waits for it to commit
+                }
+            }
+        }
+    }
+
+    /**
+     * Recompute every month overlapping the range from the daily summaries, one transaction per month.
+     * Ledger rows are overwritten in place while the month's summary rows are locked, so deltas from
+     * live refreshes either are part of the recomputed totals or land on top of them afterwards.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuild(Long startTimestamp, Long endTimestamp) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate month = Instant.ofEpochMilli(startTimestamp).atZone(zone).toLocalDate().withDayOfMonth(1);
+        LocalDate last = Instant.ofEpochMilli(endTimestamp).atZone(zone).toLocalDate().withDayOfMonth(1);
+
+        int written = 0;
+        while (!month.isAfter(last)) {
+            long from = month.atStartOfDay(zone).toInstant().toEpochMilli();
+            long to = month.plusMonths(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            written += transactionTemplate.execute(status -> rebuildMonth(from, to));
+            month = month.plusMonths(1);
+        }
+        logger.info("Rebuilt {} overtime ledger entries", written);
+        return written;
+    }
+
+    private int rebuildMonth(long from, long to) {
+        Map<Long, long[]> totals = new TreeMap<>();
+        jdbcTemplate.query(LOCK_MONTH_SUMMARIES_SQL, rs -> {
+            long[] total = totals.computeIfAbsent(rs.getLong(1), k -> new long[2]);
+            total[0] += rs.getInt(2);
+            total[1] += rs.getInt(3);
+        }, from, to);
+        Set<Long> stale = new TreeSet<>(jdbcTemplate.queryForList(LOCK_MONTH_SQL, Long.class, from));
+
+        long now = System.currentTimeMillis();
+        List<Object[]> updates = new ArrayList<>();
+        for (Map.Entry<Long, long[]> entry : totals.entrySet()) {
+            long[] total = entry.getValue();
+            if (stale.remove(entry.getKey())) {
+                updates.add(new Object[] {total[0], total[1], now, entry.getKey(), from});
+                continue;
+            }
+            try {
+                jdbcTemplate.update(INSERT_SQL, entry.getKey(), from, total[0], total[1], now);
+            } catch (DuplicateKeyException e) {
+                // Created by a refresh since the lock above
+                updates.add(new Object[] {total[0], total[1], now, entry.getKey(), from});
+            }
+        }
+        jdbcTemplate.batchUpdate(SET_SQL, updates);
+
+        // Months of users with no summaries left
+        List<Object[]> deletes = new ArrayList<>(stale.size());
+        for (Long userId : stale) {
+            deletes.add(new Object[] {userId, from});
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+        return totals.size();
+    }
+
+    /**
+     * Overtime minutes of a user between two days, inclusive. Whole months are read from the ledger
+     * and partial months at either end from the daily summaries.
+     */
+    @Transactional(readOnly = true)
+    public long getOvertimeMinutes(Long userId, Long startTimestamp, Long endTimestamp) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate first = Instant.ofEpochMilli(startTimestamp).atZone(zone).toLocalDate();
+        LocalDate last = Instant.ofEpochMilli(endTimestamp).atZone(zone).toLocalDate();
+        if (last.isBefore(first)) {
+            return 0L;
+        }
+
+        LocalDate firstWholeMonth = first.getDayOfMonth() == 1 ? first : first.withDayOfMonth(1).plusMonths(1);
+        LocalDate lastWholeMonth = last.equals(last.withDayOfMonth(last.lengthOfMonth()))
+                ? last.withDayOfMonth(1) : last.withDayOfMonth(1).minusMonths(1);
+        if (lastWholeMonth.isBefore(firstWholeMonth)) {
+            return summaryMinutes(userId, first, last, zone);
+        }
+
+        long minutes = nullToZero(ledgerRepository.sumOvertimeMinutes(userId,
+                firstWholeMonth.atStartOfDay(zone).toInstant().toEpochMilli(),
+                lastWholeMonth.atStartOfDay(zone).toInstant().toEpochMilli()));
+        if (first.isBefore(firstWholeMonth)) {
+            minutes += summaryMinutes(userId, first, firstWholeMonth.minusDays(1), zone);
+        }
+        LocalDate afterWholeMonths = lastWholeMonth.plusMonths(1);
+        if (!last.isBefore(afterWholeMonths)) {
+            minutes += summaryMinutes(userId, afterWholeMonths, last, zone);
+        }
+        return minutes;
+    }
+
+    /**
+     * Worked and overtime totals of every employee for the months containing the two days, inclusive
+     */
+    @Transactional(readOnly = true)
+    public List<UserOvertime> getOvertimeByUser(Long startTimestamp, Long endTimestamp) {
+        return ledgerRepository.sumByUser(monthStart(startTimestamp), monthStart(endTimestamp));
+    }
+
+    /**
+     * Start of the month containing the timestamp (Unix timestamp in milliseconds)
+     */
+    public static long monthStart(long timestamp) {
+        ZoneId zone = ZoneId.systemDefault();
+        return Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate().withDayOfMonth(1)
+                .atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private long summaryMinutes(Long userId, LocalDate first, LocalDate last, ZoneId zone) {
+        return nullToZero(summaryRepository.sumOvertimeMinutes(userId,
+                first.atStartOfDay(zone).toInstant().toEpochMilli(),
+                last.atStartOfDay(zone).toInstant().toEpochMilli()));
+    }
+
+    private static long nullToZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    /**
+     * Change of one user's worked and overtime minutes on one day
+     */
+    public static final class DayDelta {
+        private final Long userId;
+        private final long day; // Unix timestamp in milliseconds (start of day)
+        private final long workedDelta;
+        private final long overtimeDelta;
+
+        public DayDelta(Long userId, long day, long workedDelta, long overtimeDelta) {
+            this.userId = userId;
+            this.day = day;
+            this.workedDelta = workedDelta;
+            this.overtimeDelta = overtimeDelta;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.constants.ApiMessages;
+import com.example.lazyhr.event.AttendanceChangedEvent;
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.AttendanceStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Re-applies the shift classification to stored attendance after schedules change.
+ * Each day is walked in chunks of users, and each chunk is split into lock stripe groups; a group's records
+ * are read with one query, classified in memory and written back with one UPDATE per resulting status and
+ * one batch of summary updates, in its own short transaction holding only that group's stripes.
+ * Records whose status was set by hand are left alone.
+ */
+@Service
+public class ShiftReclassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShiftReclassifier.class);
+
+    private static final String SELECT_USERS_SQL = "SELECT DISTINCT user_id FROM attendance "
+            + "WHERE attendance_date = ? AND user_id > ? ORDER BY user_id LIMIT ?";
+
+    private static final String SELECT_RECORDS_SQL = "SELECT a.id, a.user_id, a.clock_in_time, a.clock_out_time, "
+            + "a.break_duration_minutes, a.status, a.status_override, u.department FROM attendance a "
+            + "JOIN users u ON u.id = a.user_id WHERE a.attendance_date = :day AND a.user_id IN (:userIds) ORDER BY a.id";
+
+    private static final String UPDATE_STATUS_SQL = "UPDATE attendance SET status = :status, updated_at = :now "
+            + "WHERE id IN (:ids) AND status_override = FALSE";
+
+    private static final String UPDATE_SUMMARY_STATUS_SQL = "UPDATE daily_attendance_summary SET status = ?, updated_at = ? "
+            + "WHERE user_id = ? AND summary_date = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserLockStripes userLockStripes;
+
+    @Autowired
+    private ShiftScheduleService shiftScheduleService;
+
+    @Autowired
+    private DailyAttendanceSummaryService dailySummaryService;
+
+    @Autowired
+    private AttendanceArchiveService archiveService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${lazyhr.attendance.schedule.reclassify-chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${lazyhr.attendance.schedule.reclassify-pause-ms:50}")
+    private long pauseMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Reclassify every record dated between the two days, inclusive
+     */
+    public ReclassifyReport reclassify(Long startTimestamp, Long endTimestamp) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException(ApiMessages.RECLASSIFY_ALREADY_RUNNING);
+        }
+        try {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate day = Instant.ofEpochMilli(startTimestamp).atZone(zone).toLocalDate();
+            LocalDate last = Instant.ofEpochMilli(endTimestamp).atZone(zone).toLocalDate();
+
+            int updated = 0;
+            int chunks = 0;
+            while (!day.isAfter(last)) {
+                long dayTimestamp = day.atStartOfDay(zone).toInstant().toEpochMilli();
+                long afterUserId = 0;
+                while (true) {
+                    List<Long> userIds = jdbcTemplate.queryForList(SELECT_USERS_SQL, Long.class, dayTimestamp,
+                            afterUserId, chunkSize);
+                    if (userIds.isEmpty()) {
+                        break;
+                    }
+                    updated += reclassifyChunk(dayTimestamp, userIds);
+                    chunks++;
+                    afterUserId = userIds.get(userIds.size() - 1);
+                    if (userIds.size() < chunkSize || !pause()) {
+                        break;
+                    }
+                }
+                day = day.plusDays(1);
+            }
+
+            logger.info("Reclassified {} attendance records in {} chunks", updated, chunks);
+            return new ReclassifyReport(updated, chunks);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int reclassifyChunk(long day, List<Long> userIds) {
+        // One stripe group at a time, so a large chunk never holds most of the pool and stalls clock-ins
+        int updated = 0;
+        for (List<Long> group : userLockStripes.partition(userIds)) {
+            updated += reclassifyGroup(day, group);
+        }
+        return updated;
+    }
+
+    private int reclassifyGroup(long day, List<Long> userIds) {
+        // Hold the users' stripes so a concurrent clock-out cannot classify the same day at the same time
+        return userLockStripes.withLocks(userIds, () -> transactionTemplate.execute(status -> {
+            Map<Long, List<Attendance>> byUser = new LinkedHashMap<>();
+            Map<Long, String> departments = new HashMap<>();
+            namedParameterJdbcTemplate.query(SELECT_RECORDS_SQL,
+                    new MapSqlParameterSource("day", day).addValue("userIds", userIds), rs -> {
+                        Attendance record = new Attendance();
+                        record.setId(rs.getLong("id"));
+                        record.setAttendanceDate(day);
+                        record.setClockInTime(rs.getObject("clock_in_time", Long.class));
+                        record.setClockOutTime(rs.getObject("clock_out_time", Long.class));
+                        record.setBreakDurationMinutes(rs.getObject("break_duration_minutes", Integer.class));
+                        record.setStatus(AttendanceStatus.valueOf(rs.getString("status")));
+                        record.setStatusOverride(rs.getBoolean("status_override"));
+                        long userId = rs.getLong("user_id");
+                        byUser.computeIfAbsent(userId, k -> new ArrayList<>()).add(record);
+                        departments.put(userId, rs.getString("department"));
+                    });
+
+            long now = System.currentTimeMillis();
+            boolean mayHoldArchived = archiveService.mayHoldArchived(day);
+            Map<AttendanceStatus, List<Long>> idsByStatus = new EnumMap<>(AttendanceStatus.class);
+            List<Attendance> changed = new ArrayList<>();
+            Map<Long, Long> userOfRecord = new HashMap<>();
+            List<Object[]> summaryRows = new ArrayList<>();
+            Map<Long, Set<Long>> refreshDays = new TreeMap<>();
+            byUser.forEach((userId, records) -> {
+                List<Attendance> reclassified = shiftScheduleService.classify(userId, departments.get(userId), day, records);
+                if (reclassified.isEmpty()) {
+                    return;
+                }
+                for (Attendance record : reclassified) {
+                    idsByStatus.computeIfAbsent(record.getStatus(), k -> new ArrayList<>()).add(record.getId());
+                    changed.add(record);
+                    userOfRecord.put(record.getId(), userId);
+                }
+                if (mayHoldArchived) {
+                    // The summary also counts archived records, so recompute it in full
+                    refreshDays.put(userId, Set.of(day));
+                } else {
+                    summaryRows.add(new Object[] { DailyAttendanceSummaryService.dayStatus(records).name(), now, userId, day });
+                }
+            });
+
+            idsByStatus.forEach((newStatus, ids) -> namedParameterJdbcTemplate.update(UPDATE_STATUS_SQL,
+                    new MapSqlParameterSource("status", newStatus.name()).addValue("now", now).addValue("ids", ids)));
+            if (!summaryRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SUMMARY_STATUS_SQL, summaryRows);
+            }
+            if (!refreshDays.isEmpty()) {
+                dailySummaryService.refreshAll(departments, refreshDays);
+            }
+
+            for (Attendance record : changed) {
+                eventPublisher.publishEvent(new AttendanceChangedEvent(AttendanceChangedEvent.Type.UPDATED, record.getId(),
+                        userOfRecord.get(record.getId()), day, record.getClockInTime(), record.getClockOutTime(),
+                        record.getBreakDurationMinutes(), record.getStatus()));
+            }
+            return changed.size();
+        }));
+    }
+
+    // Give waiting clock-ins and clock-outs a chance between chunks
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Result of a reclassification run
+    public static class ReclassifyReport {
+        private final int updated;
+        private final int chunks;
+
+        public ReclassifyReport(int updated, int chunks) {
+            this.updated = updated;
+            this.chunks = chunks;
+        }
+
+        public int getUpdated() {
+            return updated;
+        }
+
+        public int getChunks() {
+            return chunks;
+        }
+    }
+}
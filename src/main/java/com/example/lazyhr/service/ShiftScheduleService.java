@@ -0,0 +1,242 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.constants.ApiMessages;
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.model.ShiftSchedule;
+import com.example.lazyhr.model.WorkHours;
+import com.example.lazyhr.repository.ShiftScheduleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weekly shift patterns and the PRESENT / LATE / HALF_DAY classification derived from them.
+ * Patterns are held in memory and reloaded after every change (and periodically, for changes
+ * made on other nodes), so classifying a day's records needs no query.
+ */
+@Service
+public class ShiftScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShiftScheduleService.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Autowired
+    private ShiftScheduleRepository scheduleRepository;
+
+    @Value("${lazyhr.attendance.schedule.half-day-percent:50}")
+    private int halfDayPercent;
+
+    private volatile Patterns patterns = new Patterns(Map.of(), Map.of());
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${lazyhr.attendance.schedule.reload-interval-ms:300000}",
+            fixedDelayString = "${lazyhr.attendance.schedule.reload-interval-ms:300000}")
+    public void reload() {
+        Map<Long, Shift[]> byUser = new HashMap<>();
+        Map<String, Shift[]> byDepartment = new HashMap<>();
+        for (ShiftSchedule schedule : scheduleRepository.findAll()) {
+            Shift[] week = schedule.getUserId() != null
+                    ? byUser.computeIfAbsent(schedule.getUserId(), k -> new Shift[8])
+                    : byDepartment.computeIfAbsent(schedule.getDepartment(), k -> new Shift[8]);
+            week[schedule.getDayOfWeek()] = new Shift(schedule.getStartMinute(), schedule.getDurationMinutes(),
+                    schedule.getGraceMinutes());
+        }
+        patterns = new Patterns(byUser, byDepartment);
+        logger.debug("Loaded shift patterns of {} users and {} departments", byUser.size(), byDepartment.size());
+    }
+
+    /**
+     * Get the weekly pattern of a user or a department, one row per working day
+     */
+    @Transactional(readOnly = true)
+    public List<ShiftSchedule> getSchedule(Long userId, String department) {
+        requireOneOwner(userId, department);
+        return userId != null ? scheduleRepository.findByUserIdOrderByDayOfWeek(userId)
+                : scheduleRepository.findByDepartmentOrderByDayOfWeek(department);
+    }
+
+    /**
+     * Replace the weekly pattern of a user or a department. Days not given become days off;
+     * an empty list removes the pattern. Stored records keep their status until they are reclassified.
+     */
+    @Transactional
+    public List<ShiftSchedule> replaceSchedule(Long userId, String department, List<ShiftSchedule> days) {
+        requireOneOwner(userId, department);
+        boolean[] seen = new boolean[8];
+        for (ShiftSchedule day : days) {
+            validate(day, seen);
+            day.setId(null);
+            day.setUserId(userId);
+            day.setDepartment(userId != null ? null : department);
+        }
+
+        if (userId != null) {
+            scheduleRepository.deleteByUserId(userId);
+        } else {
+            scheduleRepository.deleteByDepartment(department);
+        }
+        List<ShiftSchedule> saved = scheduleRepository.saveAllAndFlush(days);
+        afterCommit(this::reload);
+        return saved;
+    }
+
+    /**
+     * Shift of the user on the given day (Unix timestamp in milliseconds of the start of the day),
+     * or null when it is a day off or no pattern applies. The user's own pattern wins over the department's.
+     */
+    public Shift shiftFor(Long userId, String department, long day) {
+        Patterns current = patterns;
+        Shift[] week = current.byUser.get(userId);
+        if (week == null && department != null) {
+            week = current.byDepartment.get(department);
+        }
+        if (week == null) {
+            return null;
+        }
+        return week[Instant.ofEpochMilli(day).atZone(ZoneId.systemDefault()).getDayOfWeek().getValue()];
+    }
+
+    /**
+     * Classify one user's records of one day against their shift and return the records whose status changed.
+     * The day's first session is LATE when it started after the shift start plus grace; once no session is open,
+     * every session is HALF_DAY when the day's worked time is under the half-day share of the shift.
+     * Records set by hand, ABSENT records and days without a shift are left alone.
+     */
+    public List<Attendance> classify(Long userId, String department, long day, List<Attendance> records) {
+        Shift shift = shiftFor(userId, department, day);
+        if (shift == null || records.isEmpty()) {
+            return List.of();
+        }
+
+        Attendance first = null;
+        boolean open = false;
+        long worked = 0;
+        for (Attendance record : records) {
+            if (record.getClockInTime() == null) {
+                continue;
+            }
+            if (first == null || record.getClockInTime() < first.getClockInTime()) {
+                first = record;
+            }
+            if (record.isClockedIn()) {
+                open = true;
+            } else {
+                worked += WorkHours.workedMinutes(record.getClockInTime(), record.getClockOutTime(),
+                        record.getBreakDurationMinutes());
+            }
+        }
+        if (first == null) {
+            return List.of();
+        }
+
+        // Wall-clock start of the shift, so days with a DST change are handled
+        ZoneId zone = ZoneId.systemDefault();
+        ZonedDateTime start = Instant.ofEpochMilli(day).atZone(zone).toLocalDate()
+                .atTime(LocalTime.ofSecondOfDay(shift.startMinute * 60L)).atZone(zone);
+        boolean late = first.getClockInTime() > start.plusMinutes(shift.graceMinutes).toInstant().toEpochMilli();
+        boolean halfDay = !open && worked * 100 < (long) shift.durationMinutes * halfDayPercent;
+
+        List<Attendance> changed = new ArrayList<>();
+        for (Attendance record : records) {
+            if (record.isStatusOverride() || record.getStatus() == AttendanceStatus.ABSENT || record.getClockInTime() == null) {
+                continue;
+            }
+            AttendanceStatus status = halfDay ? AttendanceStatus.HALF_DAY
+                    : late && record == first ? AttendanceStatus.LATE
+                    : AttendanceStatus.PRESENT;
+            if (record.getStatus() != status) {
+                record.setStatus(status);
+                changed.add(record);
+            }
+        }
+        return changed;
+    }
+
+    private static void validate(ShiftSchedule day, boolean[] seen) {
+        Integer dayOfWeek = day.getDayOfWeek();
+        if (dayOfWeek == null || dayOfWeek < 1 || dayOfWeek > 7 || seen[dayOfWeek]
+                || day.getStartMinute() == null || day.getStartMinute() < 0 || day.getStartMinute() >= MINUTES_PER_DAY
+                || day.getDurationMinutes() == null || day.getDurationMinutes() <= 0 || day.getDurationMinutes() > MINUTES_PER_DAY
+                || day.getGraceMinutes() == null || day.getGraceMinutes() < 0) {
+            throw new IllegalArgumentException(ApiMessages.INVALID_SHIFT_SCHEDULE);
+        }
+        seen[dayOfWeek] = true;
+    }
+
+    private static void requireOneOwner(Long userId, String department) {
+        boolean hasDepartment = department != null && !department.isBlank();
+        if ((userId == null) == !hasDepartment) {
+            throw new IllegalArgumentException(ApiMessages.SHIFT_SCHEDULE_OWNER_REQUIRED);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * One scheduled working day: start (minutes after midnight), length and grace before a clock-in counts as late
+     */
+    public static class Shift {
+        private final int startMinute;
+        private final int durationMinutes;
+        private final int graceMinutes;
+
+        Shift(int startMinute, int durationMinutes, int graceMinutes) {
+            this.startMinute = startMinute;
+            this.durationMinutes = durationMinutes;
+            this.graceMinutes = graceMinutes;
+        }
+
+        public int getStartMinute() {
+            return startMinute;
+        }
+
+        public int getDurationMinutes() {
+            return durationMinutes;
+        }
+
+        public int getGraceMinutes() {
+            return graceMinutes;
+        }
+    }
+
+    // Weekly patterns indexed by ISO day of week (1 = Monday); published together on reload
+    private static class Patterns {
+        private final Map<Long, Shift[]> byUser;
+        private final Map<String, Shift[]> byDepartment;
+
+        Patterns(Map<Long, Shift[]> byUser, Map<String, Shift[]> byDepartment) {
+            this.byUser = byUser;
+            this.byDepartment = byDepartment;
+        }
+    }
+}
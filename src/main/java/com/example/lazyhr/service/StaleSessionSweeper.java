@@ -0,0 +1,295 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.event.AttendanceChangedEvent;
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.model.WorkHours;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Closes attendance sessions that were left open past the configured cutoff.
+ * Stale sessions are closed in chunks; each chunk is split into lock stripe groups, and each group is
+ * closed with one batched UPDATE in its own short transaction holding only that group's stripes,
+ * with a computed clock-out of one standard day (plus break) after clock-in. Closed rows are
+ * flagged {@code needs_review} so a manager can correct the real clock-out time.
+ * The scheduled run only proceeds inside the configured off-hours window.
+ */
+@Service
+public class StaleSessionSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleSessionSweeper.class);
+
+    private static final String SELECT_STALE_SQL = "SELECT a.id, a.user_id, a.attendance_date, a.clock_in_time, "
+            + "a.break_duration_minutes, a.status, u.department FROM attendance a JOIN users u ON u.id = a.user_id "
+            + "WHERE a.clock_out_time IS NULL AND a.clock_in_time < ? AND a.id > ? ORDER BY a.id LIMIT ?";
+
+    private static final String CLOSE_SQL = "UPDATE attendance SET clock_out_time = ?, total_hours = ?, overtime_hours = ?, "
+            + "needs_review = TRUE, open_session_user_id = NULL, updated_at = ? WHERE id = ? AND clock_out_time IS NULL";
+
+    private static final String SELECT_CLOCK_OUT_SQL = "SELECT clock_out_time FROM attendance WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserLockStripes userLockStripes;
+
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Autowired
+    private DailyAttendanceSummaryService dailySummaryService;
+
+    @Autowired
+    private WorkHourPolicy workHourPolicy;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${lazyhr.attendance.auto-clock-out.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lazyhr.attendance.auto-clock-out.stale-after-hours:16}")
+    private int staleAfterHours;
+
+    @Value("${lazyhr.attendance.auto-clock-out.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${lazyhr.attendance.auto-clock-out.pause-ms:100}")
+    private long pauseMs;
+
+    @Value("${lazyhr.attendance.auto-clock-out.window-start:00:00}")
+    private String windowStartValue;
+
+    @Value("${lazyhr.attendance.auto-clock-out.window-end:06:00}")
+    private String windowEndValue;
+
+    private LocalTime windowStart;
+    private LocalTime windowEnd;
+    private Counter autoClosed;
+
+    @PostConstruct
+    void init() {
+        windowStart = LocalTime.parse(windowStartValue);
+        windowEnd = LocalTime.parse(windowEndValue);
+
+        autoClosed = Counter.builder("lazyhr.attendance.auto.clock.out")
+                .description("Stale attendance sessions closed automatically")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${lazyhr.attendance.auto-clock-out.cron:0 15 0-5 * * *}")
+    public void scheduledSweep() {
+        if (enabled && inWindow(LocalTime.now())) {
+            sweep(true);
+        }
+    }
+
+    /**
+     * Close every session that is still open past the cutoff. When {@code windowed} is true,
+     * sweeping stops between chunks once the off-hours window has ended.
+     */
+    public SweepReport sweep(boolean windowed) {
+        long now = System.currentTimeMillis();
+        long cutoff = now - staleAfterHours * 3_600_000L;
+
+        int closed = 0;
+        int chunks = 0;
+        long afterId = 0;
+        while (!windowed || inWindow(LocalTime.now())) {
+            List<StaleSession> chunk = jdbcTemplate.query(SELECT_STALE_SQL,
+                    (rs, rowNum) -> new StaleSession(rs.getLong("id"), rs.getLong("user_id"),
+                            rs.getLong("attendance_date"), rs.getLong("clock_in_time"),
+                            rs.getInt("break_duration_minutes"), AttendanceStatus.valueOf(rs.getString("status")),
+                            rs.getString("department")),
+                    cutoff, afterId, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            closed += closeChunk(chunk, now);
+            chunks++;
+            afterId = chunk.get(chunk.size() - 1).id;
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+
+        if (closed > 0) {
+            autoClosed.increment(closed);
+            logger.info("Auto clocked out {} stale attendance sessions in {} chunks", closed, chunks);
+        }
+        return new SweepReport(closed, chunks, cutoff);
+    }
+
+    private int closeChunk(List<StaleSession> chunk, long now) {
+        Map<Long, List<StaleSession>> byUser = new LinkedHashMap<>();
+        for (StaleSession session : chunk) {
+            byUser.computeIfAbsent(session.userId, k -> new ArrayList<>()).add(session);
+        }
+
+        // One stripe group at a time, so the sweep never holds most of the pool and stalls clock-ins
+        int closed = 0;
+        for (List<Long> group : userLockStripes.partition(byUser.keySet())) {
+            List<StaleSession> sessions = new ArrayList<>();
+            for (Long userId : group) {
+                sessions.addAll(byUser.get(userId));
+            }
+            closed += closeGroup(group, sessions, now);
+        }
+        return closed;
+    }
+
+    private int closeGroup(List<Long> userIds, List<StaleSession> sessions, long now) {
+        // Hold the users' stripes so a concurrent clock-out cannot close the same session twice
+        return userLockStripes.withLocks(userIds, () -> transactionTemplate.execute(status -> {
+            List<Object[]> rows = new ArrayList<>(sessions.size());
+            for (StaleSession session : sessions) {
+                int standardDayMinutes = workHourPolicy.standardDayMinutes(session.department);
+                long clockOut = Math.min(now,
+                        session.clockInTime + (standardDayMinutes + session.breakMinutes) * 60_000L);
+                int worked = WorkHours.workedMinutes(session.clockInTime, clockOut, session.breakMinutes);
+                session.clockOutTime = clockOut;
+                rows.add(new Object[] { clockOut, WorkHours.toHours(worked),
+                        WorkHours.toHours(WorkHours.overtimeMinutes(worked, standardDayMinutes)), now, session.id });
+            }
+            int[] counts = jdbcTemplate.batchUpdate(CLOSE_SQL, rows);
+
+            List<StaleSession> closed = new ArrayList<>();
+            Map<Long, Set<Long>> touchedDays = new TreeMap<>();
+            Map<Long, String> departments = new HashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                StaleSession session = sessions.get(i);
+                // A session closed by its owner after the select is left alone
+                if (counts[i] != 1 && !closedAsWritten(session)) {
+                    continue;
+                }
+                activeSessionRegistry.sessionClosed(session.userId, session.id);
+                touchedDays.computeIfAbsent(session.userId, k -> new TreeSet<>()).add(session.attendanceDate);
+                departments.put(session.userId, session.department);
+                closed.add(session);
+            }
+            // Also classifies the days against the users' shifts
+            Map<Long, AttendanceStatus> statuses = new HashMap<>();
+            dailySummaryService.refreshAll(departments, touchedDays).values().forEach(records -> {
+                for (Attendance record : records) {
+                    statuses.put(record.getId(), record.getStatus());
+                }
+            });
+            for (StaleSession session : closed) {
+                eventPublisher.publishEvent(new AttendanceChangedEvent(AttendanceChangedEvent.Type.CLOCKED_OUT,
+                        session.id, session.userId, session.attendanceDate, session.clockInTime, session.clockOutTime,
+                        session.breakMinutes, statuses.getOrDefault(session.id, session.status)));
+            }
+            return closed.size();
+        }));
+    }
+
+    // A batch count other than 1 may be a driver that reports no row counts (SUCCESS_NO_INFO); check the row
+    private boolean closedAsWritten(StaleSession session) {
+        List<Long> clockOut = jdbcTemplate.queryForList(SELECT_CLOCK_OUT_SQL, Long.class, session.id);
+        return !clockOut.isEmpty() && clockOut.get(0) != null && clockOut.get(0) == session.clockOutTime;
+    }
+
+    private boolean inWindow(LocalTime time) {
+        if (windowStart.isBefore(windowEnd)) {
+            return !time.isBefore(windowStart) && time.isBefore(windowEnd);
+        }
+        // Window spans midnight, e.g. 22:00-05:00
+        return !time.isBefore(windowStart) || time.isBefore(windowEnd);
+    }
+
+    // Give waiting clock-ins and clock-outs a chance between chunks
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class StaleSession {
+        private final long id;
+        private final Long userId;
+        private final long attendanceDate;
+        private final long clockInTime;
+        private final int breakMinutes;
+        private final AttendanceStatus status;
+        private final String department;
+        private long clockOutTime;
+
+        StaleSession(long id, Long userId, long attendanceDate, long clockInTime, int breakMinutes,
+                AttendanceStatus status, String department) {
+            this.id = id;
+            this.userId = userId;
+            this.attendanceDate = attendanceDate;
+            this.clockInTime = clockInTime;
+            this.breakMinutes = breakMinutes;
+            this.status = status;
+            this.department = department;
+        }
+    }
+
+    // Result of a sweep
+    public static class SweepReport {
+        private final int closed;
+        private final int chunks;
+        private final long cutoff;
+
+        public SweepReport(int closed, int chunks, long cutoff) {
+            this.closed = closed;
+            this.chunks = chunks;
+            this.cutoff = cutoff;
+        }
+
+        public int getClosed() {
+            return closed;
+        }
+
+        public int getChunks() {
+            return chunks;
+        }
+
+        /**
+         * Sessions opened before this time (Unix timestamp in milliseconds) were considered stale
+         */
+        public long getCutoff() {
+            return cutoff;
+        }
+    }
+}
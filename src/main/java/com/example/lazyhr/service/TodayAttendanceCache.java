@@ -0,0 +1,152 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.event.AttendanceChangedEvent;
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.repository.AttendanceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cached snapshot of today's attendance records and clocked-in count.
+ * The snapshot is dropped whenever an {@link AttendanceChangedEvent} for today commits on this node
+ * and when the day rolls over, and reloaded on the next read. Changes committed on other nodes are
+ * not seen here, so a snapshot is also reloaded once it is older than the TTL.
+ * Concurrent misses share a single load, and every read gets its own copies of the records.
+ */
+@Component
+public class TodayAttendanceCache {
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${lazyhr.attendance.today-cache.ttl-ms:30000}")
+    private long ttlMs;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final Object loadLock = new Object();
+    // Bumped on every invalidation so a load that raced with a change is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void registerMetrics() {
+        hits = Counter.builder("lazyhr.attendance.today.cache")
+                .tag("result", "hit")
+                .description("Reads of today's attendance served from the cache")
+                .register(meterRegistry);
+        misses = Counter.builder("lazyhr.attendance.today.cache")
+                .tag("result", "miss")
+                .description("Reads of today's attendance that loaded from the database")
+                .register(meterRegistry);
+        Gauge.builder("lazyhr.attendance.today.cache.hit.ratio", this, TodayAttendanceCache::hitRatio)
+                .description("Share of today's attendance reads served from the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("lazyhr.attendance.today.cache.invalidations", generation, AtomicLong::get)
+                .description("Times the cached snapshot of today's attendance was dropped")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Today's attendance records of active users, newest clock-in first.
+     * The records are unmanaged copies that the caller may change freely.
+     */
+    public List<Attendance> getTodayAttendances() {
+        return current().records.stream().map(Attendance::copy).toList();
+    }
+
+    /**
+     * Number of today's attendance records with a clock-in
+     */
+    public long getClockedInCount() {
+        return current().clockedInCount;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        Snapshot cached = snapshot.get();
+        if (cached == null || event.getAttendanceDate() == null || event.getAttendanceDate() == cached.day) {
+            invalidate();
+        }
+    }
+
+    @Scheduled(cron = "${lazyhr.attendance.today-cache.rollover-cron:0 0 0 * * *}")
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot.set(null);
+    }
+
+    private Snapshot current() {
+        long today = today();
+        Snapshot cached = snapshot.get();
+        if (isFresh(cached, today)) {
+            hits.increment();
+            return cached;
+        }
+
+        // One load at a time; readers that queued behind it take its result
+        synchronized (loadLock) {
+            cached = snapshot.get();
+            if (isFresh(cached, today)) {
+                hits.increment();
+                return cached;
+            }
+
+            misses.increment();
+            long loadGeneration = generation.get();
+            long loadedAt = System.currentTimeMillis();
+            Snapshot loaded = new Snapshot(today, loadedAt,
+                    List.copyOf(attendanceRepository.findTodayAttendances(today)),
+                    attendanceRepository.countClockedInToday(today));
+            if (generation.get() == loadGeneration) {
+                snapshot.compareAndSet(cached, loaded);
+            }
+            return loaded;
+        }
+    }
+
+    private boolean isFresh(Snapshot cached, long today) {
+        return cached != null && cached.day == today && System.currentTimeMillis() - cached.loadedAt < ttlMs;
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+
+    private static long today() {
+        return LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static class Snapshot {
+        private final long day;
+        private final long loadedAt;
+        private final List<Attendance> records;
+        private final long clockedInCount;
+
+        Snapshot(long day, long loadedAt, List<Attendance> records, long clockedInCount) {
+            this.day = day;
+            this.loadedAt = loadedAt;
+            this.records = records;
+            this.clockedInCount = clockedInCount;
+        }
+    }
+}
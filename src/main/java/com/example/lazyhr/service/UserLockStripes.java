@@ -0,0 +1,105 @@
+package com.example.lazyhr.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed pool of locks used to serialize work per user within this node.
+ * Users are mapped onto stripes by id, so memory stays constant regardless of the number of users.
+ * Cross-node safety is left to database constraints and row locks.
+ * Batch work over many users should lock one {@link #partition(Collection)} group at a time,
+ * so that it never holds most of the pool and stalls interactive requests.
+ */
+@Component
+public class UserLockStripes {
+
+    private final ReentrantLock[] stripes;
+    private final int maxStripesPerBatch;
+
+    public UserLockStripes(@Value("${lazyhr.locks.user-stripes:256}") int stripeCount,
+            @Value("${lazyhr.locks.max-stripes-per-batch:16}") int maxStripesPerBatch) {
+        this.maxStripesPerBatch = Math.max(1, maxStripesPerBatch);
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Run the action while holding the stripe of the given user
+     */
+    public <T> T withLock(Long userId, Supplier<T> action) {
+        ReentrantLock lock = stripes[indexOf(userId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run the action while holding the stripes of all given users.
+     * Stripes are acquired in index order so concurrent callers cannot deadlock.
+     */
+    public <T> T withLocks(Collection<Long> userIds, Supplier<T> action) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long userId : userIds) {
+            indexes.add(indexOf(userId));
+        }
+
+        Deque<ReentrantLock> held = new ArrayDeque<>(indexes.size());
+        try {
+            for (Integer index : indexes) {
+                stripes[index].lock();
+                held.push(stripes[index]);
+            }
+            return action.get();
+        } finally {
+            while (!held.isEmpty()) {
+                held.pop().unlock();
+            }
+        }
+    }
+
+    /**
+     * Split users into groups that each map onto at most the configured number of stripes.
+     * Groups come in stripe order, and all users sharing a stripe end up in the same group.
+     */
+    public List<List<Long>> partition(Collection<Long> userIds) {
+        TreeMap<Integer, List<Long>> byStripe = new TreeMap<>();
+        for (Long userId : userIds) {
+            byStripe.computeIfAbsent(indexOf(userId), k -> new ArrayList<>()).add(userId);
+        }
+
+        List<List<Long>> groups = new ArrayList<>();
+        List<Long> group = new ArrayList<>();
+        int stripesInGroup = 0;
+        for (List<Long> users : byStripe.values()) {
+            group.addAll(users);
+            if (++stripesInGroup == maxStripesPerBatch) {
+                groups.add(group);
+                group = new ArrayList<>();
+                stripesInGroup = 0;
+            }
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    private int indexOf(Long userId) {
+        return Math.floorMod(Long.hashCode(userId), stripes.length);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.model.WorkHours;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Standard working day used to split worked time into regular time and overtime.
+ * A default applies to everyone; departments can override it with
+ * {@code lazyhr.attendance.policy.department-standard-day-minutes=Engineering:450,Support:420}.
+ */
+@Component
+public class WorkHourPolicy {
+
+    @Value("${lazyhr.attendance.policy.standard-day-minutes:" + WorkHours.DEFAULT_STANDARD_DAY_MINUTES + "}")
+    private int defaultStandardDayMinutes;
+
+    @Value("${lazyhr.attendance.policy.department-standard-day-minutes:}")
+    private String departmentOverrides;
+
+    private final Map<String, Integer> standardDayMinutesByDepartment = new HashMap<>();
+
+    @PostConstruct
+    void parseOverrides() {
+        if (departmentOverrides == null || departmentOverrides.isBlank()) {
+            return;
+        }
+        for (String entry : departmentOverrides.split(",")) {
+            int separator = entry.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid department standard day entry: " + entry);
+            }
+            standardDayMinutesByDepartment.put(entry.substring(0, separator).trim(),
+                    Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+    }
+
+    public int getDefaultStandardDayMinutes() {
+        return defaultStandardDayMinutes;
+    }
+
+    /**
+     * Standard day in minutes for a department, or the default when it has no override
+     */
+    public int standardDayMinutes(String department) {
+        if (department == null) {
+            return defaultStandardDayMinutes;
+        }
+        return standardDayMinutesByDepartment.getOrDefault(department, defaultStandardDayMinutes);
+    }
+
+    public int standardDayMinutes(User user) {
+        return user != null ? standardDayMinutes(user.getDepartment()) : defaultStandardDayMinutes;
+    }
+}
@@ -0,0 +1,10 @@
+-- Public holidays per region (region NULL = observed everywhere), used for working-day counts
+CREATE TABLE holidays (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    region VARCHAR(50),
+    holiday_date BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    updated_at BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_holiday_region_date UNIQUE (region, holiday_date)
+) ENGINE = InnoDB;
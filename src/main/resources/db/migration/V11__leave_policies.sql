@@ -0,0 +1,15 @@
+-- Yearly leave allocations per category, previously hard-coded in LeaveService
+CREATE TABLE leave_policies (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    leave_category VARCHAR(255) NOT NULL,
+    allocated_days DECIMAL(4,1),
+    updated_at BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_leave_policy_category UNIQUE (leave_category)
+) ENGINE = InnoDB;
+
+INSERT INTO leave_policies (leave_category, allocated_days, updated_at) VALUES
+    ('ANNUAL', 21.0, UNIX_TIMESTAMP() * 1000),
+    ('SICK', 14.0, UNIX_TIMESTAMP() * 1000),
+    ('PRIVATE', 5.0, UNIX_TIMESTAMP() * 1000);
+
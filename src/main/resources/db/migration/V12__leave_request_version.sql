@@ -0,0 +1,2 @@
+-- Optimistic locking for leave decisions, so two approvers cannot both decide a request
+ALTER TABLE leave_requests ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
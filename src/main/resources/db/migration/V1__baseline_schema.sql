@@ -0,0 +1,62 @@
+-- Baseline schema as originally created by Hibernate (ddl-auto=update).
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(50) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    first_name VARCHAR(50),
+    last_name VARCHAR(50),
+    employee_id VARCHAR(20) NOT NULL,
+    department VARCHAR(100),
+    position VARCHAR(100),
+    hire_date BIGINT,
+    salary DECIMAL(10, 2),
+    is_active BIT NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    created_at BIGINT NOT NULL,
+    updated_at BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_employee_id UNIQUE (employee_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS attendance (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    attendance_date BIGINT NOT NULL,
+    clock_in_time BIGINT,
+    clock_out_time BIGINT,
+    break_duration_minutes INT,
+    total_hours DECIMAL(4, 2),
+    overtime_hours DECIMAL(4, 2),
+    status VARCHAR(20) NOT NULL,
+    notes TEXT,
+    created_at BIGINT NOT NULL,
+    updated_at BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_attendance_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS leave_requests (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    leave_category VARCHAR(20) NOT NULL,
+    start_date BIGINT NOT NULL,
+    end_date BIGINT NOT NULL,
+    leave_period VARCHAR(20) NOT NULL,
+    total_days DECIMAL(3, 1) NOT NULL,
+    reason TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    applied_date BIGINT,
+    approved_by BIGINT,
+    approved_date BIGINT,
+    comments TEXT,
+    created_at BIGINT NOT NULL,
+    updated_at BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_leave_requests_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_leave_requests_approved_by FOREIGN KEY (approved_by) REFERENCES users (id)
+) ENGINE = InnoDB;
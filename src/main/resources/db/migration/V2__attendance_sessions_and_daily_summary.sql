@@ -0,0 +1,29 @@
+-- One open session per user: open_session_user_id equals user_id only while clock_out_time is NULL
+ALTER TABLE attendance
+    ADD COLUMN open_session_user_id BIGINT NULL,
+    ADD CONSTRAINT uk_attendance_open_session UNIQUE (open_session_user_id);
+
+-- Claim the newest open session of each user; older duplicates stay unconstrained until closed
+UPDATE attendance a
+    JOIN (SELECT user_id, MAX(id) AS id FROM attendance WHERE clock_out_time IS NULL GROUP BY user_id) newest
+        ON newest.id = a.id
+SET a.open_session_user_id = a.user_id;
+
+-- Keyset pagination of attendance history
+CREATE INDEX idx_attendance_user_date_id ON attendance (user_id, attendance_date, id);
+
+CREATE TABLE daily_attendance_summary (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    summary_date BIGINT NOT NULL,
+    first_in BIGINT,
+    last_out BIGINT,
+    worked_minutes INT NOT NULL,
+    overtime_minutes INT NOT NULL,
+    session_count INT NOT NULL,
+    open_sessions INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    updated_at BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_daily_summary_user_date UNIQUE (user_id, summary_date)
+) ENGINE = InnoDB;
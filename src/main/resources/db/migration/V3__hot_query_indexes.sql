@@ -0,0 +1,19 @@
+-- Indexes matching the hot repository queries. Keep in sync with the @Index declarations on the entities.
+
+-- findTodayAttendances, findActiveClockedInAttendances, countClockedInToday, findAllByAttendanceDate
+CREATE INDEX idx_attendance_date_clock_out ON attendance (attendance_date, clock_out_time);
+
+-- findAllActiveSessions, findActiveAttendances
+CREATE INDEX idx_attendance_clock_out_user ON attendance (clock_out_time, user_id);
+
+-- findPendingLeaveRequests, findByStatusOrderByAppliedDateDesc, countPendingLeaveRequests
+CREATE INDEX idx_leave_status_applied ON leave_requests (status, applied_date);
+
+-- findByUserOrderByAppliedDateDesc, findByUserAndStatusOrderByAppliedDateDesc
+CREATE INDEX idx_leave_user_applied ON leave_requests (user_id, applied_date);
+
+-- findOverlappingLeavesTimestamp, getTotalLeaveDaysByUserAndCategoryAndYear
+CREATE INDEX idx_leave_user_status_start ON leave_requests (user_id, status, start_date, end_date);
+
+-- findLeaveRequestsForTimestamp
+CREATE INDEX idx_leave_start_end ON leave_requests (start_date, end_date);
@@ -0,0 +1,7 @@
+-- Department and team aggregation joins users to daily_attendance_summary
+
+-- aggregateForDepartment, aggregateByPosition: users of one department, then their summaries by (user_id, summary_date)
+CREATE INDEX idx_users_department_position ON users (department, position);
+
+-- aggregateByDepartment: every summary in a date range
+CREATE INDEX idx_daily_summary_date_user ON daily_attendance_summary (summary_date, user_id);
@@ -0,0 +1,4 @@
+-- Sessions closed by the stale session sweeper carry a computed clock-out and are flagged for review
+ALTER TABLE attendance ADD COLUMN needs_review BIT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_attendance_needs_review ON attendance (needs_review, attendance_date);
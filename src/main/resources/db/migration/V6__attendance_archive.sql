@@ -0,0 +1,26 @@
+-- Cold tier for closed attendance records of past periods, filled by AttendanceArchiveService.
+-- Range partitioned on attendance_date so date-bounded reads only open the overlapping partitions.
+-- MySQL requires the partition column in every unique key and allows no foreign keys on a
+-- partitioned table, hence the composite primary key and the missing reference to users.
+-- The job splits dated partitions (pYYYY or pYYYYMM) off p_future before moving rows into them.
+CREATE TABLE attendance_archive (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    attendance_date BIGINT NOT NULL,
+    clock_in_time BIGINT,
+    clock_out_time BIGINT,
+    break_duration_minutes INT,
+    total_hours DECIMAL(4, 2),
+    overtime_hours DECIMAL(4, 2),
+    status VARCHAR(20) NOT NULL,
+    notes TEXT,
+    created_at BIGINT NOT NULL,
+    updated_at BIGINT,
+    archived_at BIGINT NOT NULL,
+    PRIMARY KEY (id, attendance_date),
+    KEY idx_attendance_archive_user_date_id (user_id, attendance_date, id),
+    KEY idx_attendance_archive_date (attendance_date)
+) ENGINE = InnoDB
+PARTITION BY RANGE (attendance_date) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
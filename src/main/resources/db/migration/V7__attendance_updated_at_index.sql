@@ -0,0 +1,2 @@
+-- Incremental refresh of the attendance analytics store reads rows by updated_at
+CREATE INDEX idx_attendance_updated_at ON attendance (updated_at);
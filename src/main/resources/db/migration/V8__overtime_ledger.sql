@@ -0,0 +1,25 @@
+-- Worked and overtime minutes per user and calendar month, kept current on every summary change
+CREATE TABLE overtime_ledger (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    month_start BIGINT NOT NULL,
+    worked_minutes BIGINT NOT NULL,
+    overtime_minutes BIGINT NOT NULL,
+    updated_at BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_overtime_ledger_user_month UNIQUE (user_id, month_start)
+) ENGINE = InnoDB;
+
+-- sumByUser: every user's months in a range
+CREATE INDEX idx_overtime_ledger_month_user ON overtime_ledger (month_start, user_id);
+
+-- Backfill from the daily summaries. Months are computed in the session time zone, which must match
+-- the application's; POST /api/attendance/summary/rebuild recomputes any range otherwise.
+INSERT INTO overtime_ledger (user_id, month_start, worked_minutes, overtime_minutes, updated_at)
+SELECT user_id,
+       UNIX_TIMESTAMP(DATE_FORMAT(FROM_UNIXTIME(summary_date DIV 1000), '%Y-%m-01')) * 1000 AS month_start,
+       SUM(worked_minutes),
+       SUM(overtime_minutes),
+       UNIX_TIMESTAMP() * 1000
+FROM daily_attendance_summary
+GROUP BY user_id, month_start;
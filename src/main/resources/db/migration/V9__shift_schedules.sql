@@ -0,0 +1,18 @@
+-- Weekly shift patterns per user or department, used to classify attendance as PRESENT, LATE or HALF_DAY
+CREATE TABLE shift_schedules (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT,
+    department VARCHAR(255),
+    day_of_week INT NOT NULL,
+    start_minute INT NOT NULL,
+    duration_minutes INT NOT NULL,
+    grace_minutes INT NOT NULL,
+    updated_at BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_shift_schedule_user_day UNIQUE (user_id, day_of_week),
+    CONSTRAINT uk_shift_schedule_department_day UNIQUE (department, day_of_week)
+) ENGINE = InnoDB;
+
+-- Statuses set by hand are kept when attendance is classified again
+ALTER TABLE attendance ADD COLUMN status_override BOOLEAN NOT NULL DEFAULT FALSE;
+UPDATE attendance SET status_override = TRUE WHERE status IN ('LATE', 'HALF_DAY');
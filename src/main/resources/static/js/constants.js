@@ -63,6 +63,7 @@ const Messages = {
     CANCEL_RESPONSE_DATA: "Cancel response data:",
     ERROR_CANCELLING_LEAVE: "Error cancelling leave request:",
     UPDATING_REPORT: "Updating report with:",
+    ERROR_LOADING_ATTENDANCE_REPORT: "Error loading attendance report:",
     UPDATING_REAL_TIME_DATA: "Updating real-time data at",
     START_DATE_TIMESTAMP: "Start date timestamp:",
     END_DATE_TIMESTAMP: "End date timestamp:",
@@ -220,7 +221,8 @@ const ApiEndpoints = {
     LEAVE_CANCEL: "/lazyhr/api/leave/",
     LEAVE_UPDATE: "/lazyhr/api/leave/",
     LEAVE_CANCEL_WITH_USER_ID: (id, userId) => `/lazyhr/api/leave/${id}/cancel?userId=${userId}`,
-    USERS_UPDATE: (userId) => `/lazyhr/api/users/${userId}`
+    USERS_UPDATE: (userId) => `/lazyhr/api/users/${userId}`,
+    ATTENDANCE_REPORT: "/lazyhr/api/attendance/report"
 };
 
 const HttpMethods = {
@@ -146,7 +146,6 @@ function updateReport() {
     }
   }
 
-  // Here you would typically make an API call to fetch updated data
   console.log(Messages.UPDATING_REPORT, {
     reportType,
     dateRange,
@@ -156,34 +155,101 @@ function updateReport() {
     endTimestamp
   });
 
-  // Simulate data update
-  updateChartData();
+  const range = reportRange(dateRange, startTimestamp, endTimestamp);
+  updateChartData(range.start, range.end, department);
 }
 
-function updateChartData() {
-  // Simulate updating chart data based on filters
-  // In a real application, this would fetch data from your API
-
-  // Update attendance chart
-  if (attendanceChart) {
-    attendanceChart.data.datasets[0].data = [
-      Math.floor(Math.random() * 20) + 80,
-      Math.floor(Math.random() * 20) + 80,
-      Math.floor(Math.random() * 20) + 80,
-      Math.floor(Math.random() * 20) + 80,
-    ];
-    attendanceChart.update();
+// Start and end day (local midnight timestamps) of the selected period
+function reportRange(dateRange, customStart, customEnd) {
+  const today = new Date();
+  today.setHours(0, 0, 0, 0);
+  let start = new Date(today);
+
+  switch (dateRange) {
+    case "today":
+      break;
+    case "week":
+      start.setDate(today.getDate() - ((today.getDay() + 6) % 7));
+      break;
+    case "quarter":
+      start = new Date(today.getFullYear(), Math.floor(today.getMonth() / 3) * 3, 1);
+      break;
+    case "year":
+      start = new Date(today.getFullYear(), 0, 1);
+      break;
+    case Messages.CUSTOM_VALUE:
+      if (customStart && customEnd) {
+        return { start: customStart, end: customEnd };
+      }
+      start = new Date(today.getFullYear(), today.getMonth(), 1);
+      break;
+    default:
+      start = new Date(today.getFullYear(), today.getMonth(), 1);
   }
+  return { start: start.getTime(), end: today.getTime() };
+}
 
-  // Update metrics
-  const attendanceRateEl = document.getElementById(DomElements.ATTENDANCE_RATE);
-  if (attendanceRateEl) {
-    attendanceRateEl.textContent = Math.floor(Math.random() * 10) + 90 + "%";
+async function fetchAttendanceReport(startTimestamp, endTimestamp, department, groupBy) {
+  const params = new URLSearchParams({ startTimestamp, endTimestamp, groupBy });
+  if (department) {
+    params.append("department", department);
   }
-  
-  const leaveUtilizationEl = document.getElementById(DomElements.LEAVE_UTILIZATION);
-  if (leaveUtilizationEl) {
-    leaveUtilizationEl.textContent = Math.floor(Math.random() * 20) + 60 + "%";
+  return ApiUtils.makeRequest(`${ApiEndpoints.ATTENDANCE_REPORT}?${params}`);
+}
+
+// Share of attendance records in each group that are not ABSENT, keyed by the given field
+function attendanceRates(rows, keyOf) {
+  const totals = new Map();
+  rows.forEach((row) => {
+    const key = keyOf(row);
+    const total = totals.get(key) || { records: 0, attended: 0 };
+    total.records += row.recordCount;
+    if (row.status !== "ABSENT") {
+      total.attended += row.recordCount;
+    }
+    totals.set(key, total);
+  });
+  const rates = new Map();
+  totals.forEach((total, key) => {
+    rates.set(key, total.records === 0 ? 0 : Math.round((total.attended * 1000) / total.records) / 10);
+  });
+  return rates;
+}
+
+async function updateChartData(startTimestamp, endTimestamp, department) {
+  try {
+    const [weekly, byDepartment] = await Promise.all([
+      fetchAttendanceReport(startTimestamp, endTimestamp, department, "WEEK,STATUS"),
+      fetchAttendanceReport(startTimestamp, endTimestamp, department, "DEPARTMENT,STATUS"),
+    ]);
+
+    ApiUtils.handleResponse(weekly, (response) => {
+      const rates = attendanceRates(response.data.rows, (row) => row.weekStart);
+      const weeks = Array.from(rates.keys()).sort((a, b) => a - b);
+      if (attendanceChart) {
+        attendanceChart.data.labels = weeks.map((week) => DateTimeUtils.formatDate(week));
+        attendanceChart.data.datasets[0].data = weeks.map((week) => rates.get(week));
+        attendanceChart.update();
+      }
+
+      const overall = attendanceRates(response.data.rows, () => "all").get("all");
+      const attendanceRateEl = document.getElementById(DomElements.ATTENDANCE_RATE);
+      if (attendanceRateEl && overall !== undefined) {
+        attendanceRateEl.textContent = overall + "%";
+      }
+    });
+
+    ApiUtils.handleResponse(byDepartment, (response) => {
+      const rates = attendanceRates(response.data.rows, (row) => row.department || "-");
+      const departments = Array.from(rates.keys()).sort();
+      if (departmentChart) {
+        departmentChart.data.labels = departments;
+        departmentChart.data.datasets[0].data = departments.map((name) => rates.get(name));
+        departmentChart.update();
+      }
+    });
+  } catch (error) {
+    console.error(Messages.ERROR_LOADING_ATTENDANCE_REPORT, error);
   }
 }
 
@@ -220,5 +286,6 @@ document.addEventListener(EventTypes.DOM_CONTENT_LOADED, function () {
   // Initialize reports-specific functionality
   initializeCharts();
   initializeDateRangeHandler();
+  updateReport();
   startRealTimeUpdates();
 });
@@ -0,0 +1,173 @@
+package com.example.lazyhr.controller;
+
+import com.example.lazyhr.constants.ApiMessages;
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.ClockDirection;
+import com.example.lazyhr.service.AttendanceService;
+import com.example.lazyhr.service.ClockEvent;
+import com.example.lazyhr.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walks the keyset-paged history endpoint across both storage tiers: every record once, newest first
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AttendanceHistoryPageTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long FIRST_ARCHIVED_ID = 9_100_001L;
+
+    private static final String ARCHIVE_SQL = "INSERT INTO attendance_archive (id, user_id, attendance_date, "
+            + "clock_in_time, clock_out_time, break_duration_minutes, total_hours, overtime_hours, status, notes, "
+            + "created_at, updated_at, archived_at) VALUES (?, ?, ?, ?, ?, 0, 8.00, 0.00, 'PRESENT', NULL, ?, ?, ?)";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private final List<Long> archivedIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.findByUsername("jdoe").getId();
+        while (attendanceService.isUserClockedIn(userId)) {
+            attendanceService.clockOut(userId);
+        }
+
+        // Hot sessions on three past days, two of them on the same day so the id breaks the tie
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = LocalDate.now().minusDays(40);
+        List<ClockEvent> punches = new ArrayList<>();
+        long sequence = 0;
+        for (int day = 0; day < 3; day++) {
+            long clockIn = firstDay.plusDays(day).atTime(9, 0).atZone(zone).toInstant().toEpochMilli();
+            punches.add(new ClockEvent(sequence++, userId, ClockDirection.IN, clockIn));
+            punches.add(new ClockEvent(sequence++, userId, ClockDirection.OUT, clockIn + 120 * MINUTE));
+            if (day == 1) {
+                punches.add(new ClockEvent(sequence++, userId, ClockDirection.IN, clockIn + 240 * MINUTE));
+                punches.add(new ClockEvent(sequence++, userId, ClockDirection.OUT, clockIn + 360 * MINUTE));
+            }
+        }
+        attendanceService.recordPunches(punches);
+
+        // Archived sessions from years back, plus one hot row copied as if it moved while being paged
+        long now = System.currentTimeMillis();
+        LocalDate archivedDay = LocalDate.now().minusYears(3);
+        for (int i = 0; i < 3; i++) {
+            long day = archivedDay.plusDays(i / 2).atStartOfDay(zone).toInstant().toEpochMilli();
+            long id = FIRST_ARCHIVED_ID + i;
+            jdbcTemplate.update(ARCHIVE_SQL, id, userId, day, day + 9 * 60 * MINUTE, day + 17 * 60 * MINUTE,
+                    day, day, now);
+            archivedIds.add(id);
+        }
+        Long copiedId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM attendance WHERE user_id = ?",
+                Long.class, userId);
+        jdbcTemplate.update("INSERT INTO attendance_archive (id, user_id, attendance_date, clock_in_time, "
+                + "clock_out_time, break_duration_minutes, total_hours, overtime_hours, status, notes, created_at, "
+                + "updated_at, archived_at) SELECT id, user_id, attendance_date, clock_in_time, clock_out_time, "
+                + "break_duration_minutes, total_hours, overtime_hours, status, notes, created_at, updated_at, ? "
+                + "FROM attendance WHERE id = ?", now, copiedId);
+        archivedIds.add(copiedId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : archivedIds) {
+            jdbcTemplate.update("DELETE FROM attendance_archive WHERE id = ?", id);
+        }
+    }
+
+    @Test
+    void pagesCoverTheWholeHistoryOnceNewestFirst() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        List<Long> dates = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/attendance/history/{userId}/page", userId)
+                    .param("size", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body).get("data");
+            for (JsonNode item : page.get("items")) {
+                ids.add(item.get("id").asLong());
+                dates.add(item.get("attendanceDate").asLong());
+            }
+            JsonNode next = page.get("nextCursor");
+            cursor = next == null || next.isNull() ? null : next.asText();
+            assertThat(page.get("hasMore").asBoolean()).isEqualTo(cursor != null);
+            if (cursor != null) {
+                assertThat(page.get("items")).hasSize(2);
+            }
+            pages++;
+        } while (cursor != null && pages < 1000);
+
+        assertThat(cursor).isNull();
+        // No row is repeated, not even the one present in both tiers, and none is skipped
+        assertThat(ids).doesNotHaveDuplicates();
+        Set<Long> expected = new LinkedHashSet<>();
+        for (Attendance attendance : attendanceService.getUserAttendanceHistory(userId)) {
+            expected.add(attendance.getId());
+        }
+        assertThat(ids).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(ids).containsAll(archivedIds);
+        // Strictly descending by (attendanceDate, id)
+        for (int i = 1; i < ids.size(); i++) {
+            int byDate = Long.compare(dates.get(i - 1), dates.get(i));
+            assertThat(byDate > 0 || (byDate == 0 && ids.get(i - 1) > ids.get(i)))
+                    .as("Row %d follows row %d", ids.get(i), ids.get(i - 1))
+                    .isTrue();
+        }
+    }
+
+    @Test
+    void rejectsMalformedCursorsAndPageSizes() throws Exception {
+        mockMvc.perform(get("/api/attendance/history/{userId}/page", userId).param("cursor", "!!not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message")
+                        .value(ApiMessages.FAILED_TO_FETCH_ATTENDANCE_HISTORY + ApiMessages.INVALID_CURSOR));
+        mockMvc.perform(get("/api/attendance/history/{userId}/page", userId).param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/attendance/history/{userId}/page", userId).param("size", "100000"))
+                .andExpect(status().isBadRequest());
+    }
+}
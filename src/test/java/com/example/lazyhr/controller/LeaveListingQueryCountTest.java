@@ -0,0 +1,121 @@
+package com.example.lazyhr.controller;
+
+import com.example.lazyhr.model.LeaveCategory;
+import com.example.lazyhr.model.LeavePeriod;
+import com.example.lazyhr.model.LeaveRequest;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.repository.LeaveRequestRepository;
+import com.example.lazyhr.repository.UserRepository;
+import com.example.lazyhr.service.LeaveService;
+import com.example.lazyhr.support.SqlStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each leave listing issues, however many rows it returns
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.lazyhr.support.SqlStatementCounter")
+@AutoConfigureMockMvc
+class LeaveListingQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<LeaveRequest> leaves = new ArrayList<>();
+    private User jdoe;
+
+    @BeforeEach
+    void setUp() {
+        jdoe = userRepository.findByUsername("jdoe").orElseThrow();
+        List<User> employees = List.of(jdoe, userRepository.findByUsername("asmith").orElseThrow(),
+                userRepository.findByUsername("bwilson").orElseThrow());
+        List<User> approvers = List.of(userRepository.findByUsername("manager").orElseThrow(),
+                userRepository.findByUsername("admin").orElseThrow());
+        // A year nothing else books leave in
+        LocalDate monday = LocalDate.now().plusYears(6).withDayOfYear(100)
+                .with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+
+        for (int week = 0; week < 4; week++) {
+            for (int i = 0; i < employees.size(); i++) {
+                LeaveRequest leave = apply(employees.get(i), monday.plusWeeks(week).plusDays(i));
+                if (week % 2 == 0) {
+                    leaveService.approveLeave(leave.getId(), approvers.get((week / 2 + i) % 2).getId(), null);
+                }
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaveRequestRepository.deleteAllById(leaves.stream().map(LeaveRequest::getId).toList());
+    }
+
+    @Test
+    void entityListingsFetchRequesterAndApproverInOneSelect() throws Exception {
+        assertStatements(1, "/api/leave/pending");
+        assertStatements(1, "/api/leave/status/APPROVED");
+        // User lookup, then the listing
+        assertStatements(2, "/api/leave/user/" + jdoe.getId());
+    }
+
+    @Test
+    void pagedListingsAreOneSelectPerPage() throws Exception {
+        assertStatements(1, "/api/leave/pending/page?size=2");
+        assertStatements(1, "/api/leave/status/APPROVED/page?size=2");
+        assertStatements(2, "/api/leave/user/" + jdoe.getId() + "/page?size=2");
+
+        mockMvc.perform(get("/api/leave/status/APPROVED/page").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.items[0].approvedByName").isNotEmpty())
+                .andExpect(jsonPath("$.data.items[0].employeeName").isNotEmpty())
+                .andExpect(jsonPath("$.data.hasMore").value(true));
+    }
+
+    private void assertStatements(int expected, String url) throws Exception {
+        SqlStatementCounter.reset();
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        assertThat(SqlStatementCounter.count()).as("SQL statements for %s", url).isEqualTo(expected);
+    }
+
+    private LeaveRequest apply(User user, LocalDate day) {
+        long timestamp = day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        LeaveRequest request = new LeaveRequest();
+        request.setUser(user);
+        request.setLeaveCategory(LeaveCategory.ANNUAL);
+        request.setLeavePeriod(LeavePeriod.FULL_DAY);
+        request.setStartDate(timestamp);
+        request.setEndDate(timestamp);
+        request.setReason("Listing test");
+        LeaveRequest saved = leaveService.applyLeave(request);
+        leaves.add(saved);
+        return saved;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.lazyhr.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Work-hour totals over millions of records: the minute engine against the BigDecimal calculation it
+ * replaced. Excluded from the default test task; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class WorkHoursBenchmarkTest {
+
+    private static final int RECORDS = 5_000_000;
+    private static final long MINUTE = 60_000L;
+
+    private final long[] clockIns = new long[RECORDS];
+    private final long[] clockOuts = new long[RECORDS];
+    private final int[] breaks = new int[RECORDS];
+
+    @Test
+    void minuteEngineOutrunsBigDecimal() {
+        Random random = new Random(42);
+        long base = 1_700_000_000_000L;
+        for (int i = 0; i < RECORDS; i++) {
+            clockIns[i] = base + i * 1_000L;
+            clockOuts[i] = clockIns[i] + (240 + random.nextInt(480)) * MINUTE + random.nextInt(60_000);
+            breaks[i] = random.nextInt(4) * 15;
+        }
+
+        // Warm up, then keep the best of a few runs
+        double bestMinutes = 0;
+        double bestBigDecimal = 0;
+        long workedMinutes = 0;
+        long overtimeMinutes = 0;
+        BigDecimal[] bigDecimalTotals = null;
+        for (int run = 0; run < 5; run++) {
+            long started = System.nanoTime();
+            long[] totals = minuteTotals();
+            bestMinutes = Math.max(bestMinutes, RECORDS / ((System.nanoTime() - started) / 1e9));
+            workedMinutes = totals[0];
+            overtimeMinutes = totals[1];
+
+            started = System.nanoTime();
+            bigDecimalTotals = bigDecimalTotals();
+            bestBigDecimal = Math.max(bestBigDecimal, RECORDS / ((System.nanoTime() - started) / 1e9));
+        }
+
+        System.out.printf("Work hours: minute engine %.1f million records/s, BigDecimal %.1f million records/s "
+                + "(%s worked, %s overtime hours)%n", bestMinutes / 1e6, bestBigDecimal / 1e6,
+                WorkHours.toHours(workedMinutes), WorkHours.toHours(overtimeMinutes));
+        // Per-record rounding to hundredths is the only difference between the two totals
+        BigDecimal tolerance = BigDecimal.valueOf(RECORDS).multiply(new BigDecimal("0.005"));
+        assertThat(WorkHours.toHours(workedMinutes).subtract(bigDecimalTotals[0]).abs()).isLessThanOrEqualTo(tolerance);
+        assertThat(WorkHours.toHours(overtimeMinutes).subtract(bigDecimalTotals[1]).abs()).isLessThanOrEqualTo(tolerance);
+        assertThat(bestMinutes).isGreaterThan(bestBigDecimal * 5);
+    }
+
+    private long[] minuteTotals() {
+        long worked = 0;
+        long overtime = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            int minutes = WorkHours.workedMinutes(clockIns[i], clockOuts[i], breaks[i]);
+            worked += minutes;
+            overtime += WorkHours.overtimeMinutes(minutes, WorkHours.DEFAULT_STANDARD_DAY_MINUTES);
+        }
+        return new long[] { worked, overtime };
+    }
+
+    private BigDecimal[] bigDecimalTotals() {
+        BigDecimal worked = BigDecimal.ZERO;
+        BigDecimal overtime = BigDecimal.ZERO;
+        for (int i = 0; i < RECORDS; i++) {
+            BigDecimal[] hours = WorkHoursTest.bigDecimalHours(clockIns[i], clockOuts[i], breaks[i]);
+            worked = worked.add(hours[0]);
+            overtime = overtime.add(hours[1]);
+        }
+        return new BigDecimal[] { worked, overtime };
+    }
+}
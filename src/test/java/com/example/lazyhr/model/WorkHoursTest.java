@@ -0,0 +1,55 @@
+package com.example.lazyhr.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkHoursTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void matchesBigDecimalCalculationForEveryMinuteOfTwoDays() {
+        long clockIn = 1_700_000_000_000L;
+        for (int breakMinutes : new int[] { 0, 30, 45 }) {
+            for (long millis = 0; millis <= 2 * 24 * 60 * MINUTE; millis += MINUTE + 17) {
+                Attendance attendance = new Attendance();
+                attendance.setClockInTime(clockIn);
+                attendance.setClockOutTime(clockIn + millis);
+                attendance.setBreakDurationMinutes(breakMinutes);
+                attendance.calculateTotalHours(WorkHours.DEFAULT_STANDARD_DAY_MINUTES);
+
+                BigDecimal[] expected = bigDecimalHours(clockIn, clockIn + millis, breakMinutes);
+                assertThat(attendance.getTotalHours()).isEqualTo(expected[0]);
+                assertThat(attendance.getOvertimeHours()).isEqualByComparingTo(expected[1]);
+            }
+        }
+    }
+
+    @Test
+    void overtimeStartsAfterConfiguredStandardDay() {
+        assertThat(WorkHours.overtimeMinutes(450, 420)).isEqualTo(30);
+        assertThat(WorkHours.overtimeMinutes(400, 420)).isZero();
+        assertThat(WorkHours.toHours(WorkHours.overtimeMinutes(450, 420))).isEqualTo(new BigDecimal("0.50"));
+    }
+
+    @Test
+    void roundsHalfUpAwayFromZero() {
+        assertThat(WorkHours.toHours(1)).isEqualTo(new BigDecimal("0.02"));
+        assertThat(WorkHours.toHours(-1)).isEqualTo(new BigDecimal("-0.02"));
+        assertThat(WorkHours.toHours(5000)).isEqualTo(new BigDecimal("83.33"));
+    }
+
+    // Calculation used before the minute engine: scale-2 division, then subtract 8 hours
+    static BigDecimal[] bigDecimalHours(long clockIn, long clockOut, int breakMinutes) {
+        long totalMinutes = ((clockOut - clockIn) / MINUTE) - breakMinutes;
+        BigDecimal totalHours = BigDecimal.valueOf(totalMinutes).divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
+        BigDecimal standardHours = BigDecimal.valueOf(8);
+        BigDecimal overtimeHours = totalHours.compareTo(standardHours) > 0
+                ? totalHours.subtract(standardHours) : BigDecimal.ZERO;
+        return new BigDecimal[] { totalHours, overtimeHours };
+    }
+}
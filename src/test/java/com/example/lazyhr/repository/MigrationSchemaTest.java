@@ -0,0 +1,148 @@
+package com.example.lazyhr.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fails when the indexes of db/migration and of the entity {@code @Index} and unique declarations drift apart.
+ * The migrations are written for MySQL (multi-table UPDATE, range partitions, date functions) and cannot run
+ * on H2, so their index definitions are read from the scripts and compared with the schema Hibernate
+ * generated for the test database, which is the schema {@link QueryPlanRegressionTest} checks plans against.
+ */
+@SpringBootTest
+class MigrationSchemaTest {
+
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "CREATE TABLE (?:IF NOT EXISTS )?(\\w+) \\((.*?)\\)\\s*ENGINE", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern ALTER_TABLE = Pattern.compile(
+            "ALTER TABLE (\\w+)(.*?);", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CREATE (UNIQUE )?INDEX (\\w+) ON (\\w+) \\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INLINE_KEY = Pattern.compile(
+            "(?<!PRIMARY |FOREIGN )KEY (\\w+) \\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern UNIQUE_CONSTRAINT = Pattern.compile(
+            "CONSTRAINT \\w+ UNIQUE \\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+
+    private static final String INDEX_COLUMNS_SQL = "SELECT i.INDEX_NAME, i.TABLE_NAME, i.INDEX_TYPE_NAME, c.COLUMN_NAME "
+            + "FROM INFORMATION_SCHEMA.INDEXES i JOIN INFORMATION_SCHEMA.INDEX_COLUMNS c "
+            + "ON c.INDEX_SCHEMA = i.INDEX_SCHEMA AND c.INDEX_NAME = i.INDEX_NAME "
+            + "WHERE i.INDEX_SCHEMA = 'PUBLIC' ORDER BY i.INDEX_NAME, c.ORDINAL_POSITION";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Index name to "table(columns)", lower case
+    private final Map<String, String> migratedIndexes = new TreeMap<>();
+    private final Set<String> migratedUniques = new TreeSet<>();
+    private final Map<String, String> generatedIndexes = new TreeMap<>();
+    private final Set<String> generatedUniques = new TreeSet<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Resource[] scripts = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql");
+        assertThat(scripts).as("Migration scripts").hasSizeGreaterThanOrEqualTo(12);
+        for (Resource script : scripts) {
+            readMigration(script.getContentAsString(StandardCharsets.UTF_8));
+        }
+
+        Map<String, String> tables = new LinkedHashMap<>();
+        Map<String, List<String>> columns = new LinkedHashMap<>();
+        Map<String, Boolean> unique = new LinkedHashMap<>();
+        jdbcTemplate.query(INDEX_COLUMNS_SQL, rs -> {
+            String name = rs.getString("INDEX_NAME").toLowerCase(Locale.ROOT);
+            tables.put(name, rs.getString("TABLE_NAME"));
+            unique.put(name, !"INDEX".equalsIgnoreCase(rs.getString("INDEX_TYPE_NAME")));
+            columns.computeIfAbsent(name, k -> new ArrayList<>()).add(rs.getString("COLUMN_NAME"));
+        });
+        columns.forEach((name, indexColumns) -> {
+            String key = key(tables.get(name), indexColumns);
+            if (name.startsWith("idx_")) {
+                generatedIndexes.put(name, key);
+            }
+            if (unique.get(name)) {
+                generatedUniques.add(key);
+            }
+        });
+    }
+
+    @Test
+    void everyMigratedIndexIsDeclaredOnItsEntity() {
+        assertThat(migratedIndexes).as("Indexes created by db/migration").isNotEmpty();
+        assertThat(generatedIndexes).as("Entity @Index declarations").containsAllEntriesOf(migratedIndexes);
+    }
+
+    @Test
+    void everyEntityIndexIsMigrated() {
+        assertThat(migratedIndexes).as("Indexes created by db/migration").containsAllEntriesOf(generatedIndexes);
+    }
+
+    @Test
+    void everyMigratedUniqueKeyIsDeclaredOnItsEntity() {
+        assertThat(migratedUniques).as("Unique keys created by db/migration").isNotEmpty();
+        assertThat(generatedUniques).as("Entity unique declarations").containsAll(migratedUniques);
+    }
+
+    private void readMigration(String sql) {
+        String script = sql.replaceAll("--[^\\n]*", "");
+
+        Matcher table = CREATE_TABLE.matcher(script);
+        while (table.find()) {
+            Matcher key = INLINE_KEY.matcher(table.group(2));
+            while (key.find()) {
+                migratedIndexes.put(key.group(1).toLowerCase(Locale.ROOT), key(table.group(1), split(key.group(2))));
+            }
+            readUniques(table.group(1), table.group(2));
+        }
+
+        Matcher alter = ALTER_TABLE.matcher(script);
+        while (alter.find()) {
+            readUniques(alter.group(1), alter.group(2));
+        }
+
+        Matcher index = CREATE_INDEX.matcher(script);
+        while (index.find()) {
+            String key = key(index.group(3), split(index.group(4)));
+            if (index.group(1) != null) {
+                migratedUniques.add(key);
+            } else {
+                migratedIndexes.put(index.group(2).toLowerCase(Locale.ROOT), key);
+            }
+        }
+    }
+
+    private void readUniques(String table, String definitions) {
+        Matcher unique = UNIQUE_CONSTRAINT.matcher(definitions);
+        while (unique.find()) {
+            migratedUniques.add(key(table, split(unique.group(1))));
+        }
+    }
+
+    private static List<String> split(String columns) {
+        return Arrays.stream(columns.split(",")).map(String::trim).toList();
+    }
+
+    private static String key(String table, List<String> columns) {
+        return (table + "(" + String.join(", ", columns) + ")").toLowerCase(Locale.ROOT);
+    }
+}
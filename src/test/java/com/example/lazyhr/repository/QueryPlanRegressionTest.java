@@ -0,0 +1,180 @@
+package com.example.lazyhr.repository;
+
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.support.SqlStatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fails when one of the hot attendance or leave queries stops using the index that db/migration
+ * creates for it. Repository queries are run once to capture the SQL Hibernate generates, which is then
+ * EXPLAINed with the same parameters; the indexes come from the entity {@code @Index} declarations,
+ * which {@link MigrationSchemaTest} holds to db/migration. Plain JDBC statements of the services are written out here.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.lazyhr.support.SqlStatementCounter")
+class QueryPlanRegressionTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private ArchivedAttendanceRepository archivedAttendanceRepository;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private DailyAttendanceSummaryRepository summaryRepository;
+
+    @Autowired
+    private OvertimeLedgerRepository ledgerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void findActiveClockedInAttendancesUsesIndex() {
+        assertUsesIndex("idx_attendance_date_clock_out",
+                () -> attendanceRepository.findActiveClockedInAttendances(1L), 1L);
+    }
+
+    @Test
+    void findTodayAttendancesUsesIndex() {
+        assertUsesIndex("idx_attendance_date_clock_out",
+                () -> attendanceRepository.findTodayAttendances(1L), 1L);
+    }
+
+    @Test
+    void countClockedInTodayUsesIndex() {
+        assertUsesIndex("idx_attendance_date_clock_out",
+                () -> attendanceRepository.countClockedInToday(1L), 1L);
+    }
+
+    @Test
+    void findActiveAttendancesUsesIndex() {
+        assertUsesIndex("idx_attendance_clock_out_user",
+                () -> attendanceRepository.findActiveAttendances(1L), 1L);
+    }
+
+    @Test
+    void findAllActiveSessionsUsesIndex() {
+        assertUsesIndex("idx_attendance_clock_out_user",
+                () -> attendanceRepository.findAllActiveSessions());
+    }
+
+    @Test
+    void findByUserIdAndAttendanceDateUsesIndex() {
+        assertUsesIndex("idx_attendance_user_date_id",
+                () -> attendanceRepository.findByUserIdAndAttendanceDate(1L, 1L), 1L, 1L);
+    }
+
+    @Test
+    void findOverlappingLeavesTimestampUsesIndex() {
+        User user = userRepository.findByUsername("jdoe").orElseThrow();
+        // startDate <= :endTimestamp AND endDate >= :startTimestamp AND user = :user
+        assertUsesIndex("idx_leave_user_status_start",
+                () -> leaveRequestRepository.findOverlappingLeavesTimestamp(user, 1L, 2L), 2L, 1L, user.getId());
+    }
+
+    @Test
+    void findPendingLeaveRequestsUsesIndex() {
+        assertUsesIndex("idx_leave_status_applied",
+                () -> leaveRequestRepository.findPendingLeaveRequests());
+    }
+
+    @Test
+    void findByUserOrderByAppliedDateDescUsesIndex() {
+        User user = userRepository.findByUsername("jdoe").orElseThrow();
+        assertUsesIndex("idx_leave_user_applied",
+                () -> leaveRequestRepository.findByUserOrderByAppliedDateDesc(user), user.getId());
+    }
+
+    @Test
+    void findLeaveRequestsForTimestampUsesIndex() {
+        assertUsesIndex("idx_leave_start_end",
+                () -> leaveRequestRepository.findLeaveRequestsForTimestamp(1L), 1L, 1L);
+    }
+
+    @Test
+    void aggregateForDepartmentUsesIndex() {
+        assertUsesIndex("idx_users_department_position",
+                () -> summaryRepository.aggregateForDepartment("Engineering", 1L, 2L), "Engineering", 1L, 2L);
+    }
+
+    @Test
+    void aggregateByDepartmentUsesIndex() {
+        assertUsesIndex("idx_daily_summary_date_user",
+                () -> summaryRepository.aggregateByDepartment(1L, 2L), 1L, 2L);
+    }
+
+    @Test
+    void archivedHistoryPageUsesIndex() {
+        // userId, attendanceDate twice, id, then the page limit
+        assertUsesIndex("idx_attendance_archive_user_date_id",
+                () -> archivedAttendanceRepository.findHistoryPageAfter(1L, 2L, 1L, PageRequest.of(0, 10)),
+                1L, 2L, 2L, 1L, 10);
+    }
+
+    @Test
+    void archivedDateRangeUsesIndex() {
+        assertUsesIndex("idx_attendance_archive_date",
+                () -> archivedAttendanceRepository.findByAttendanceDateBetween(1L, 2L), 1L, 2L);
+    }
+
+    @Test
+    void overtimeByUserUsesIndex() {
+        assertUsesIndex("idx_overtime_ledger_month_user",
+                () -> ledgerRepository.sumByUser(1L, 2L), 1L, 2L);
+    }
+
+    @Test
+    void archiveCandidatesUseIndex() {
+        // AttendanceArchiveService.SELECT_CANDIDATES_SQL
+        assertPlanUses("idx_attendance_needs_review",
+                "SELECT id, attendance_date FROM attendance WHERE attendance_date < ? AND clock_out_time IS NOT NULL"
+                        + " AND needs_review = FALSE AND (attendance_date > ? OR (attendance_date = ? AND id > ?))"
+                        + " ORDER BY attendance_date, id LIMIT ?",
+                2L, 0L, 0L, 0L, 10);
+    }
+
+    @Test
+    void analyticsRefreshUsesIndex() {
+        // AttendanceAnalyticsEngine.SELECT_CHANGED_SQL
+        assertPlanUses("idx_attendance_updated_at",
+                "SELECT id, user_id, attendance_date, status FROM attendance WHERE updated_at >= ? ORDER BY id", 1L);
+    }
+
+    /**
+     * Run the repository call, then EXPLAIN the first statement Hibernate prepared for it
+     */
+    private void assertUsesIndex(String index, Runnable query, Object... parameters) {
+        SqlStatementCounter.reset();
+        query.run();
+        List<String> statements = SqlStatementCounter.statements();
+        assertThat(statements).as("Statements prepared for the query").isNotEmpty();
+
+        String sql = statements.get(0);
+        assertThat(sql.chars().filter(c -> c == '?').count())
+                .as("Parameters of %s", sql)
+                .isEqualTo(parameters.length);
+        assertPlanUses(index, sql, parameters);
+    }
+
+    private void assertPlanUses(String index, String sql, Object... parameters) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+        assertThat(plan)
+                .as("Query plan for %s", sql)
+                .containsIgnoringCase(index);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.dto.ActiveSession;
+import com.example.lazyhr.model.Attendance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ActiveSessionRegistryTest {
+
+    // No such user or attendance row exists, so reconciliation always treats this session as stale
+    private static final Long GHOST_USER_ID = 9_000_001L;
+    private static final ActiveSession GHOST = new ActiveSession(9_000_001L, GHOST_USER_ID, 0L, 1L);
+
+    @Autowired
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.findByUsername("jdoe").getId();
+        closeOpenSessions();
+    }
+
+    @AfterEach
+    void tearDown() {
+        activeSessionRegistry.sessionClosed(GHOST_USER_ID, GHOST.getAttendanceId());
+        activeSessionRegistry.reconcile();
+        closeOpenSessions();
+    }
+
+    @Test
+    void sessionChangesApplyOnlyAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            activeSessionRegistry.sessionOpened(GHOST);
+            assertThat(activeSessionRegistry.isClockedIn(GHOST_USER_ID)).isFalse();
+        });
+        assertThat(activeSessionRegistry.getActiveSession(GHOST_USER_ID)).contains(GHOST);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            activeSessionRegistry.sessionClosed(GHOST_USER_ID, GHOST.getAttendanceId());
+            assertThat(activeSessionRegistry.isClockedIn(GHOST_USER_ID)).isTrue();
+        });
+        assertThat(activeSessionRegistry.isClockedIn(GHOST_USER_ID)).isFalse();
+    }
+
+    @Test
+    void rolledBackSessionChangesAreDiscarded() {
+        transactionTemplate.executeWithoutResult(status -> {
+            activeSessionRegistry.sessionOpened(GHOST);
+            status.setRollbackOnly();
+        });
+
+        assertThat(activeSessionRegistry.isClockedIn(GHOST_USER_ID)).isFalse();
+    }
+
+    @Test
+    void reconcileRepairsMissingAndStaleSessions() {
+        Attendance open = attendanceService.clockIn(userId);
+        // Lose the real session and hold one the database does not know
+        activeSessionRegistry.sessionClosed(userId, open.getId());
+        activeSessionRegistry.sessionOpened(GHOST);
+
+        ActiveSessionRegistry.ReconciliationReport report = activeSessionRegistry.reconcile();
+
+        assertThat(report.getMissing()).isGreaterThanOrEqualTo(1);
+        assertThat(report.getStale()).isGreaterThanOrEqualTo(1);
+        assertThat(activeSessionRegistry.getActiveSession(userId))
+                .map(ActiveSession::getAttendanceId).contains(open.getId());
+        assertThat(activeSessionRegistry.isClockedIn(GHOST_USER_ID)).isFalse();
+        assertThat(activeSessionRegistry.reconcile().getMissing()).isZero();
+    }
+
+    @Test
+    void readsTrustTheRegistryWhileWritesCheckTheDatabase() {
+        Attendance open = attendanceService.clockIn(userId);
+        // As if the session had been opened on another node since the last reconciliation
+        activeSessionRegistry.sessionClosed(userId, open.getId());
+
+        assertThat(attendanceService.getActiveAttendance(userId)).isEmpty();
+        assertThat(attendanceService.isUserClockedIn(userId)).isFalse();
+
+        assertThat(attendanceService.clockIn(userId).getId()).isEqualTo(open.getId());
+        assertThat(attendanceService.getActiveAttendance(userId)).map(Attendance::getId).contains(open.getId());
+        assertThat(attendanceService.clockOut(userId).getId()).isEqualTo(open.getId());
+        assertThat(attendanceService.isUserClockedIn(userId)).isFalse();
+    }
+
+    private void closeOpenSessions() {
+        activeSessionRegistry.reconcile();
+        while (attendanceService.isUserClockedIn(userId)) {
+            attendanceService.clockOut(userId);
+        }
+    }
+}
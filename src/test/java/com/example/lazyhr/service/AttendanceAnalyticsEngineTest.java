@@ -0,0 +1,127 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.dto.AttendanceReport;
+import com.example.lazyhr.dto.AttendanceReportRow;
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.repository.AttendanceRepository;
+import com.example.lazyhr.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AttendanceAnalyticsEngineTest {
+
+    @Autowired
+    private AttendanceAnalyticsEngine engine;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final List<Attendance> saved = new ArrayList<>();
+    private User user;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("jdoe").orElseThrow();
+        // A week nothing else writes to
+        monday = LocalDate.now().minusYears(5).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        saved.add(save(monday, AttendanceStatus.PRESENT, 480));
+        saved.add(save(monday.plusDays(1), AttendanceStatus.PRESENT, 450));
+        saved.add(save(monday.plusDays(2), AttendanceStatus.LATE, 420));
+        saved.add(save(monday.plusDays(7), AttendanceStatus.PRESENT, 480));
+        engine.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        attendanceRepository.deleteAll(saved);
+        engine.reload();
+    }
+
+    @Test
+    void groupsByWeekAndStatus() {
+        AttendanceReport report = engine.query(millis(monday), millis(monday.plusDays(13)), user.getDepartment(), null,
+                EnumSet.of(AttendanceAnalyticsEngine.Dimension.WEEK, AttendanceAnalyticsEngine.Dimension.STATUS));
+
+        assertThat(report.getRows()).hasSize(3);
+        AttendanceReportRow firstWeekPresent = row(report, millis(monday), AttendanceStatus.PRESENT);
+        assertThat(firstWeekPresent.getRecordCount()).isEqualTo(2);
+        assertThat(firstWeekPresent.getWorkedMinutes()).isEqualTo(930);
+        assertThat(row(report, millis(monday), AttendanceStatus.LATE).getRecordCount()).isEqualTo(1);
+        assertThat(row(report, millis(monday.plusDays(7)), AttendanceStatus.PRESENT).getRecordCount()).isEqualTo(1);
+    }
+
+    @Test
+    void filtersByStatusAndDepartment() {
+        AttendanceReport late = engine.query(millis(monday), millis(monday.plusDays(13)), user.getDepartment(),
+                AttendanceStatus.LATE, EnumSet.of(AttendanceAnalyticsEngine.Dimension.DEPARTMENT));
+        assertThat(late.getRows()).singleElement().satisfies(row -> {
+            assertThat(row.getDepartment()).isEqualTo(user.getDepartment());
+            assertThat(row.getRecordCount()).isEqualTo(1);
+        });
+
+        AttendanceReport unknown = engine.query(millis(monday), millis(monday.plusDays(13)), "No Such Department", null,
+                EnumSet.noneOf(AttendanceAnalyticsEngine.Dimension.class));
+        assertThat(unknown.getRows()).isEmpty();
+    }
+
+    @Test
+    void refreshAppliesChangedRows() {
+        Attendance changed = saved.get(0);
+        changed.setStatus(AttendanceStatus.HALF_DAY);
+        saved.set(0, attendanceRepository.save(changed));
+        saved.add(save(monday.plusDays(3), AttendanceStatus.PRESENT, 300));
+        engine.refresh();
+
+        AttendanceReport report = engine.query(millis(monday), millis(monday.plusDays(6)), user.getDepartment(), null,
+                EnumSet.of(AttendanceAnalyticsEngine.Dimension.STATUS));
+        assertThat(row(report, null, AttendanceStatus.HALF_DAY).getRecordCount()).isEqualTo(1);
+        assertThat(row(report, null, AttendanceStatus.PRESENT).getRecordCount()).isEqualTo(2);
+        assertThat(row(report, null, AttendanceStatus.PRESENT).getWorkedMinutes()).isEqualTo(750);
+    }
+
+    private AttendanceReportRow row(AttendanceReport report, Long weekStart, AttendanceStatus status) {
+        return report.getRows().stream()
+                .filter(row -> row.getStatus() == status)
+                .filter(row -> weekStart == null || weekStart.equals(row.getWeekStart()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Attendance save(LocalDate day, AttendanceStatus status, int workedMinutes) {
+        long dayMillis = millis(day);
+        Attendance attendance = new Attendance();
+        attendance.setUser(user);
+        attendance.setAttendanceDate(dayMillis);
+        attendance.setClockInTime(dayMillis + 9 * 3_600_000L);
+        attendance.setClockOutTime(dayMillis + 9 * 3_600_000L + workedMinutes * 60_000L);
+        attendance.setBreakDurationMinutes(0);
+        attendance.setStatus(status);
+        attendance.calculateTotalHours(480);
+        return attendanceRepository.save(attendance);
+    }
+
+    private long millis(LocalDate day) {
+        return day.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
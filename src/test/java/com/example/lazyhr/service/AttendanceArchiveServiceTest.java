@@ -0,0 +1,137 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.dto.AttendanceHistoryItem;
+import com.example.lazyhr.dto.CursorPage;
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.repository.ArchivedAttendanceRepository;
+import com.example.lazyhr.repository.AttendanceRepository;
+import com.example.lazyhr.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AttendanceArchiveServiceTest {
+
+    @Autowired
+    private AttendanceArchiveService archiveService;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private DailyAttendanceSummaryService dailySummaryService;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private ArchivedAttendanceRepository archivedAttendanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private long oldDay;
+    private long nextOldDay;
+    private long recentDay;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("jdoe").orElseThrow();
+        ZoneId zone = ZoneId.systemDefault();
+        oldDay = LocalDate.now().minusYears(3).atStartOfDay(zone).toInstant().toEpochMilli();
+        nextOldDay = LocalDate.now().minusYears(3).plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        recentDay = LocalDate.now().minusDays(2).atStartOfDay(zone).toInstant().toEpochMilli();
+        ids.add(save(oldDay).getId());
+        ids.add(save(nextOldDay).getId());
+        ids.add(save(recentDay).getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : ids) {
+            jdbcTemplate.update("DELETE FROM attendance WHERE id = ?", id);
+            jdbcTemplate.update("DELETE FROM attendance_archive WHERE id = ?", id);
+        }
+        dailySummaryService.rebuild(oldDay, nextOldDay);
+    }
+
+    @Test
+    void archiveMovesOnlyClosedRecordsBeforeTheBoundary() {
+        archiveService.archive();
+
+        assertThat(attendanceRepository.findById(ids.get(0))).isEmpty();
+        assertThat(attendanceRepository.findById(ids.get(1))).isEmpty();
+        assertThat(attendanceRepository.findById(ids.get(2))).isPresent();
+        assertThat(archivedAttendanceRepository.findAllById(ids)).hasSize(2);
+    }
+
+    @Test
+    void serviceReadsSpanBothTiers() {
+        archiveService.archive();
+
+        List<Attendance> range = attendanceService.getAttendanceByUserTimestamp(user.getId(), oldDay, recentDay);
+        assertThat(range).extracting(Attendance::getId).containsSubsequence(ids.get(2), ids.get(1), ids.get(0));
+        assertThat(attendanceService.getUserAttendanceHistory(user.getId()))
+                .extracting(Attendance::getId).containsAll(ids);
+        assertThat(attendanceService.getAttendanceByDepartment(user.getDepartment(),
+                LocalDate.now().minusYears(3), LocalDate.now()))
+                .extracting(Attendance::getId).containsAll(ids);
+    }
+
+    @Test
+    void historyPagesContinueIntoTheArchive() {
+        archiveService.archive();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<AttendanceHistoryItem> page = attendanceService.getUserAttendanceHistoryPage(user.getId(), cursor, 1);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).doesNotHaveDuplicates();
+        assertThat(seen.indexOf(ids.get(2))).isLessThan(seen.indexOf(ids.get(1)));
+        assertThat(seen.indexOf(ids.get(1))).isLessThan(seen.indexOf(ids.get(0)));
+    }
+
+    @Test
+    void summaryRebuildIncludesArchivedRecords() {
+        archiveService.archive();
+
+        dailySummaryService.rebuild(oldDay, oldDay);
+        assertThat(dailySummaryService.getSummaries(user.getId(), oldDay, oldDay))
+                .singleElement()
+                .satisfies(summary -> assertThat(summary.getWorkedMinutes()).isEqualTo(480));
+    }
+
+    private Attendance save(long day) {
+        Attendance attendance = new Attendance();
+        attendance.setUser(user);
+        attendance.setAttendanceDate(day);
+        attendance.setClockInTime(day + 9 * 3_600_000L);
+        attendance.setClockOutTime(day + 17 * 3_600_000L);
+        attendance.setBreakDurationMinutes(0);
+        attendance.setStatus(AttendanceStatus.PRESENT);
+        attendance.calculateTotalHours(480);
+        return attendanceRepository.save(attendance);
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.dto.BoardEntry;
+import com.example.lazyhr.event.AttendanceChangedEvent;
+import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.repository.AttendanceRepository;
+import com.example.lazyhr.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.UnsupportedEncodingException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AttendanceBoardServiceTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AttendanceBoardService boardService;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long jdoeId;
+    private Long asmithId;
+
+    @BeforeEach
+    void setUp() {
+        jdoeId = userService.findByUsername("jdoe").getId();
+        asmithId = userService.findByUsername("asmith").getId();
+        for (Long userId : List.of(jdoeId, asmithId)) {
+            while (attendanceService.isUserClockedIn(userId)) {
+                attendanceService.clockOut(userId);
+            }
+        }
+    }
+
+    @Test
+    void streamStartsWithASnapshotAndMissesNoChangeAfterIt() throws Exception {
+        // Clock events keep arriving while the stream opens, so some land on either side of the snapshot
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch running = new CountDownLatch(1);
+        Future<?> punches = executor.submit(() -> {
+            running.countDown();
+            for (int i = 0; i < 20; i++) {
+                attendanceService.clockIn(asmithId);
+                attendanceService.clockOut(asmithId);
+            }
+        });
+        running.await(10, TimeUnit.SECONDS);
+        MvcResult result = mockMvc.perform(get("/api/attendance/board/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        try {
+            punches.get(30, TimeUnit.SECONDS);
+            attendanceService.clockIn(jdoeId);
+
+            // Folding the deltas into the snapshot ends on the same board the service holds
+            awaitTrue(() -> sameEntries(fold(events(result)), boardService.getSnapshot().getEntries()));
+            List<String[]> events = events(result);
+            assertThat(events.get(0)[0]).isEqualTo("snapshot");
+            assertThat(events.subList(1, events.size())).extracting(event -> event[0]).containsOnly("delta");
+            JsonNode jdoe = fold(events).get(jdoeId);
+            assertThat(jdoe.get("clockOutTime").isNull()).isTrue();
+            assertThat(jdoe.get("attendanceId").asLong())
+                    .isEqualTo(attendanceService.getActiveAttendance(jdoeId).orElseThrow().getId());
+        } finally {
+            executor.shutdownNow();
+            result.getRequest().getAsyncContext().complete();
+            attendanceService.clockOut(jdoeId);
+        }
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWhileTheBoardStaysCurrent() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AttendanceBoardService board = new AttendanceBoardService();
+        ReflectionTestUtils.setField(board, "attendanceRepository", attendanceRepository);
+        ReflectionTestUtils.setField(board, "userRepository", userRepository);
+        ReflectionTestUtils.setField(board, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(board, "emitterTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(board, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(board, "maxPendingEvents", 4);
+        ReflectionTestUtils.setField(board, "senderThreads", 1);
+        ReflectionTestUtils.setField(board, "maxCachedUsers", 100);
+        board.start();
+
+        // The only sender thread is stuck, as if writing to a client that stopped reading
+        ExecutorService stuck = (ExecutorService) ReflectionTestUtils.getField(board, "senders");
+        stuck.shutdownNow();
+        ExecutorService senders = Executors.newSingleThreadExecutor();
+        CountDownLatch blocked = new CountDownLatch(1);
+        senders.execute(() -> {
+            try {
+                blocked.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ReflectionTestUtils.setField(board, "senders", senders);
+        try {
+            board.load();
+            SseEmitter slow = board.subscribe();
+            awaitTrue(() -> subscribers(meterRegistry) == 1);
+
+            long today = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            // Later than any session already on the board, which only shows each user's latest one
+            long firstClockIn = System.currentTimeMillis() + MINUTE;
+            for (int i = 0; i < 10; i++) {
+                board.onAttendanceChanged(new AttendanceChangedEvent(AttendanceChangedEvent.Type.CLOCKED_IN,
+                        9_200_000L + i, jdoeId, today, firstClockIn + i * 1000L, null, 0, AttendanceStatus.PRESENT));
+            }
+
+            // A snapshot and three deltas fill its queue; the next delta drops it, and every change still applies
+            awaitTrue(() -> meterRegistry.get("lazyhr.attendance.board.dropped").counter().count() == 1);
+            awaitTrue(() -> subscribers(meterRegistry) == 0);
+            awaitTrue(() -> Long.valueOf(9_200_009L).equals(entry(board, jdoeId)));
+
+            // Once the sender gets free it completes the dropped stream rather than sending it stale events
+            blocked.countDown();
+            awaitTrue(() -> isCompleted(slow));
+
+            // Reconnecting starts over from a fresh snapshot
+            board.subscribe();
+            awaitTrue(() -> subscribers(meterRegistry) == 1);
+            assertThat(meterRegistry.get("lazyhr.attendance.board.dropped").counter().count()).isEqualTo(1);
+        } finally {
+            blocked.countDown();
+            board.shutdown();
+        }
+    }
+
+    // Each complete event as {name, data}; heartbeats are comments and carry no name
+    private List<String[]> events(MvcResult result) {
+        String content;
+        try {
+            content = result.getResponse().getContentAsString();
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        List<String[]> events = new ArrayList<>();
+        int end = content.lastIndexOf("\n\n");
+        if (end < 0) {
+            return events;
+        }
+        for (String block : content.substring(0, end).split("\n\n")) {
+            String name = null;
+            StringBuilder data = new StringBuilder();
+            for (String line : block.split("\n")) {
+                if (line.startsWith("event:")) {
+                    name = line.substring("event:".length());
+                } else if (line.startsWith("data:")) {
+                    data.append(line.substring("data:".length()));
+                }
+            }
+            if (name != null) {
+                events.add(new String[] { name, data.toString() });
+            }
+        }
+        return events;
+    }
+
+    private Map<Long, JsonNode> fold(List<String[]> events) {
+        Map<Long, JsonNode> board = new HashMap<>();
+        try {
+            for (String[] event : events) {
+                JsonNode data = objectMapper.readTree(event[1]);
+                if ("snapshot".equals(event[0])) {
+                    board.clear();
+                    for (JsonNode entry : data.get("entries")) {
+                        board.put(entry.get("userId").asLong(), entry);
+                    }
+                } else if ("delta".equals(event[0])) {
+                    board.put(data.get("userId").asLong(), data);
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return board;
+    }
+
+    private boolean sameEntries(Map<Long, JsonNode> streamed, List<BoardEntry> current) {
+        if (streamed.size() != current.size()) {
+            return false;
+        }
+        for (BoardEntry entry : current) {
+            JsonNode node = streamed.get(entry.getUserId());
+            if (node == null
+                    || !Objects.equals(entry.getAttendanceId(), longOrNull(node.get("attendanceId")))
+                    || !Objects.equals(entry.getClockInTime(), longOrNull(node.get("clockInTime")))
+                    || !Objects.equals(entry.getClockOutTime(), longOrNull(node.get("clockOutTime")))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Long longOrNull(JsonNode node) {
+        return node == null || node.isNull() ? null : node.asLong();
+    }
+
+    private static Long entry(AttendanceBoardService board, Long userId) {
+        return board.getSnapshot().getEntries().stream()
+                .filter(entry -> entry.getUserId().equals(userId))
+                .map(BoardEntry::getAttendanceId)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static double subscribers(MeterRegistry meterRegistry) {
+        return meterRegistry.get("lazyhr.attendance.board.subscribers").gauge().value();
+    }
+
+    // A completed emitter refuses further sends
+    private static boolean isCompleted(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().comment("probe"));
+            return false;
+        } catch (IllegalStateException e) {
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.lazyhr.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replay throughput of the attendance event log. Excluded from the default test task; run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class AttendanceEventLogBenchmarkTest {
+
+    private static final int EVENTS = 5_000_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysMillionsOfEventsPerSecond() throws IOException {
+        try (AttendanceEventLog log = new AttendanceEventLog(directory, false)) {
+            for (long id = 0; id < EVENTS; id++) {
+                log.append(AttendanceEventLogTest.event(id % 200_000, null));
+            }
+
+            long[] checksum = new long[1];
+            // Warm up, then keep the best of a few runs
+            double best = 0;
+            for (int run = 0; run < 5; run++) {
+                long started = System.nanoTime();
+                log.replay(0, record -> {
+                    checksum[0] += record.getAttendanceId() + record.getClockInTime();
+                    return true;
+                });
+                double seconds = (System.nanoTime() - started) / 1e9;
+                best = Math.max(best, EVENTS / seconds);
+            }
+
+            System.out.printf("Attendance event log replay: %.1f million events/s (checksum %d)%n", best / 1e6, checksum[0]);
+            assertThat(best).isGreaterThan(1_000_000);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.event.AttendanceChangedEvent;
+import com.example.lazyhr.model.AttendanceStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AttendanceEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysFromAnyOffsetAfterReopening() throws IOException {
+        try (AttendanceEventLog log = new AttendanceEventLog(directory, false)) {
+            for (long id = 1; id <= 10; id++) {
+                assertThat(log.append(event(id, AttendanceStatus.PRESENT))).isEqualTo(id - 1);
+            }
+            log.append(new AttendanceChangedEvent(AttendanceChangedEvent.Type.CLOCKED_IN, null, 7L, 1000L, 2000L,
+                    null, null, null));
+        }
+
+        try (AttendanceEventLog log = new AttendanceEventLog(directory, false)) {
+            assertThat(log.nextOffset()).isEqualTo(11);
+            List<Long> ids = new ArrayList<>();
+            long next = log.replay(4, record -> ids.add(record.getAttendanceId()));
+            assertThat(next).isEqualTo(11);
+            assertThat(ids).containsExactly(5L, 6L, 7L, 8L, 9L, 10L, -1L);
+
+            List<AttendanceChangedEvent.Type> types = new ArrayList<>();
+            log.replay(10, record -> {
+                types.add(record.getType());
+                assertThat(record.getClockOutTime()).isEqualTo(-1);
+                assertThat(record.getStatus()).isNull();
+                return true;
+            });
+            assertThat(types).containsExactly(AttendanceChangedEvent.Type.CLOCKED_IN);
+
+            // A visitor returning false stops the replay right after that event
+            assertThat(log.replay(0, record -> record.getOffset() < 2)).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void cutsOffATornTail() throws IOException {
+        try (AttendanceEventLog log = new AttendanceEventLog(directory, false)) {
+            for (long id = 1; id <= 3; id++) {
+                log.append(event(id, AttendanceStatus.PRESENT));
+            }
+        }
+        // Half of a fourth record, as left by a crash mid-write
+        Path segment = directory.resolve(String.format("%020d.log", 0));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(java.nio.ByteBuffer.allocate(AttendanceEventLog.RECORD_SIZE / 2));
+        }
+
+        try (AttendanceEventLog log = new AttendanceEventLog(directory, false)) {
+            assertThat(log.nextOffset()).isEqualTo(3);
+            assertThat(Files.size(segment)).isEqualTo(3L * AttendanceEventLog.RECORD_SIZE);
+            assertThat(log.append(event(4, AttendanceStatus.LATE))).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void restoresLatestStatePerRecordFromSnapshotAndTail() throws IOException {
+        try (AttendanceEventLog log = new AttendanceEventLog(directory, false)) {
+            log.append(event(1, AttendanceStatus.PRESENT));
+            log.append(event(2, AttendanceStatus.PRESENT));
+            log.append(event(1, AttendanceStatus.LATE));
+            assertThat(log.snapshot()).isEqualTo(3);
+
+            log.append(event(3, AttendanceStatus.PRESENT));
+            log.append(event(2, AttendanceStatus.HALF_DAY));
+            assertThat(log.snapshot()).isEqualTo(5);
+            log.append(event(3, AttendanceStatus.LATE));
+
+            // Segments covered by the older snapshot are gone
+            assertThat(log.firstOffset()).isEqualTo(3);
+            assertThatThrownBy(() -> log.replay(0, record -> true)).isInstanceOf(IllegalStateException.class);
+        }
+
+        try (AttendanceEventLog log = new AttendanceEventLog(directory, false)) {
+            assertThat(log.snapshotOffset()).isEqualTo(5);
+            Map<Long, AttendanceStatus> state = new HashMap<>();
+            long next = log.restore(record -> {
+                state.put(record.getAttendanceId(), record.getStatus());
+                return true;
+            });
+            assertThat(next).isEqualTo(6);
+            assertThat(state).containsOnly(Map.entry(1L, AttendanceStatus.LATE), Map.entry(2L, AttendanceStatus.HALF_DAY),
+                    Map.entry(3L, AttendanceStatus.LATE));
+        }
+    }
+
+    @Test
+    void carriesNotesThroughReplayAndSnapshots() throws IOException {
+        try (AttendanceEventLog log = new AttendanceEventLog(directory, false)) {
+            log.append(notesEvent(1, "Left early for the dentist"));
+            log.append(event(2, AttendanceStatus.PRESENT));
+            log.snapshot();
+            log.append(notesEvent(2, "Visiting the Z\u00fcrich office"));
+            log.snapshot();
+
+            List<String> notes = new ArrayList<>();
+            log.replay(2, record -> notes.add(record.getNotes()));
+            assertThat(notes).containsExactly("Visiting the Z\u00fcrich office");
+        }
+
+        try (AttendanceEventLog log = new AttendanceEventLog(directory, false)) {
+            Map<Long, String> state = new HashMap<>();
+            log.restore(record -> {
+                state.put(record.getAttendanceId(), record.getNotes());
+                return true;
+            });
+            assertThat(state).containsOnly(Map.entry(1L, "Left early for the dentist"),
+                    Map.entry(2L, "Visiting the Z\u00fcrich office"));
+        }
+    }
+
+    private static AttendanceChangedEvent notesEvent(long attendanceId, String notes) {
+        return new AttendanceChangedEvent(AttendanceChangedEvent.Type.UPDATED, attendanceId, attendanceId % 50,
+                1_700_000_000_000L, 1_700_000_000_000L + attendanceId, 1_700_030_000_000L, 30, AttendanceStatus.PRESENT,
+                notes);
+    }
+
+    static AttendanceChangedEvent event(long attendanceId, AttendanceStatus status) {
+        return new AttendanceChangedEvent(AttendanceChangedEvent.Type.UPDATED, attendanceId, attendanceId % 50,
+                1_700_000_000_000L, 1_700_000_000_000L + attendanceId, 1_700_030_000_000L, 30, status);
+    }
+}
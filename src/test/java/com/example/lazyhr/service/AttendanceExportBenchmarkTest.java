@@ -0,0 +1,133 @@
+package com.example.lazyhr.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Heap use of a multi-million-row attendance export. Excluded from the default test task; run with
+ * {@code ./gradlew benchmark}. The rows live in the in-memory H2 database, so the heap is sampled
+ * during the export and only its growth is compared.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class AttendanceExportBenchmarkTest {
+
+    private static final int ROWS = 2_000_000;
+    private static final int INSERT_BATCH = 10_000;
+    private static final int SAMPLE_EVERY = 200_000;
+    private static final long MAX_GROWTH_BYTES = 64L * 1024 * 1024;
+    private static final long MINUTE = 60_000L;
+
+    private static final String INSERT_SQL = "INSERT INTO attendance (user_id, attendance_date, clock_in_time, clock_out_time, "
+            + "break_duration_minutes, total_hours, overtime_hours, status, notes, created_at, updated_at, needs_review, "
+            + "status_override) VALUES (?, ?, ?, ?, 30, 8.00, 0.00, 'PRESENT', ?, ?, ?, FALSE, FALSE)";
+
+    @Autowired
+    private AttendanceExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long startTimestamp;
+    private long endTimestamp;
+
+    @BeforeEach
+    void setUp() {
+        // A stretch of days nothing else writes to, so the range holds exactly the rows inserted here
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = LocalDate.of(2003, 1, 1);
+        int days = 1000;
+        startTimestamp = firstDay.atStartOfDay(zone).toInstant().toEpochMilli();
+        endTimestamp = firstDay.plusDays(days).atStartOfDay(zone).toInstant().toEpochMilli() - 1;
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int row = 0; row < ROWS; row++) {
+            long day = firstDay.plusDays(row % days).atStartOfDay(zone).toInstant().toEpochMilli();
+            long clockIn = day + 8 * 60 * MINUTE + (row / days % 60) * MINUTE;
+            long clockOut = clockIn + 510 * MINUTE;
+            batch.add(new Object[] { userIds.get(row % userIds.size()), day, clockIn, clockOut,
+                    row % 10 == 0 ? "exported, \"quoted\"" : null, clockIn, clockOut });
+            if (batch.size() == INSERT_BATCH) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM attendance WHERE attendance_date >= ? AND attendance_date <= ?",
+                startTimestamp, endTimestamp);
+    }
+
+    @Test
+    void heapStaysFlatWhileExportingMillionsOfRows() {
+        for (AttendanceExportService.Format format : AttendanceExportService.Format.values()) {
+            HeapSamplingStream output = new HeapSamplingStream();
+            long started = System.nanoTime();
+            long written = exportService.export(startTimestamp, endTimestamp, format, output);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            long growth = output.maxUsed - output.firstUsed;
+            System.out.printf("Export %s: %d rows, %.1f MB, %.0f rows/s, heap growth %.1f MB over %d samples%n",
+                    format, written, output.bytes / 1e6, written / seconds, growth / 1e6, output.samples);
+            assertThat(written).isEqualTo(ROWS);
+            assertThat(output.samples).isGreaterThanOrEqualTo(ROWS / SAMPLE_EVERY - 1);
+            assertThat(growth).as("Heap growth during the %s export", format).isLessThan(MAX_GROWTH_BYTES);
+        }
+    }
+
+    // Discards the export, sampling the live heap after every SAMPLE_EVERY rows
+    private static class HeapSamplingStream extends OutputStream {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private long rows;
+        private long bytes;
+        private int samples;
+        private long firstUsed = -1;
+        private long maxUsed;
+
+        @Override
+        public void write(int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n' && ++rows % SAMPLE_EVERY == 0) {
+                    sample();
+                }
+            }
+        }
+
+        private void sample() {
+            System.gc();
+            long used = memory.getHeapMemoryUsage().getUsed();
+            if (firstUsed < 0) {
+                firstUsed = used;
+            }
+            maxUsed = Math.max(maxUsed, used);
+            samples++;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.ClockDirection;
+import com.example.lazyhr.support.JdbcStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement count and throughput of the bulk punch upload against one clock-in/clock-out call per punch.
+ * Excluded from the default test task; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Import(JdbcStatementCounter.class)
+class AttendancePunchUploadBenchmarkTest {
+
+    private static final String[] USERNAMES = { "jdoe", "asmith", "bwilson", "manager", "admin" };
+    private static final int SESSIONS_PER_USER = 800;
+    private static final int SINGLE_CALL_SESSIONS = 200;
+    private static final long MINUTE = 60_000L;
+    // lazyhr.attendance.punches.chunk-size
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_STATEMENTS_PER_CHUNK = 40;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private UserService userService;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (String username : USERNAMES) {
+            Long userId = userService.findByUsername(username).getId();
+            userIds.add(userId);
+            while (attendanceService.isUserClockedIn(userId)) {
+                attendanceService.clockOut(userId);
+            }
+        }
+    }
+
+    @Test
+    void uploadUsesFewStatementsAndOutrunsSingleCalls() {
+        // Eight half-hour sessions a day per user, on consecutive days ending well before today
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = LocalDate.now().minusDays(SESSIONS_PER_USER / 8 + 10);
+        List<ClockEvent> punches = new ArrayList<>();
+        long sequence = 0;
+        for (int session = 0; session < SESSIONS_PER_USER; session++) {
+            long clockIn = firstDay.plusDays(session / 8).atTime(8, 0).atZone(zone).toInstant().toEpochMilli()
+                    + (session % 8) * 60 * MINUTE;
+            for (Long userId : userIds) {
+                punches.add(new ClockEvent(sequence++, userId, ClockDirection.IN, clockIn));
+                punches.add(new ClockEvent(sequence++, userId, ClockDirection.OUT, clockIn + 30 * MINUTE));
+            }
+        }
+
+        JdbcStatementCounter.reset();
+        long started = System.nanoTime();
+        List<ClockEventOutcome> outcomes = attendanceService.recordPunches(punches);
+        double uploadSeconds = (System.nanoTime() - started) / 1e9;
+        int uploadStatements = JdbcStatementCounter.count();
+        assertThat(outcomes).containsOnly(ClockEventOutcome.CLOCKED_IN, ClockEventOutcome.CLOCKED_OUT);
+
+        Long userId = userIds.get(0);
+        JdbcStatementCounter.reset();
+        started = System.nanoTime();
+        for (int session = 0; session < SINGLE_CALL_SESSIONS; session++) {
+            attendanceService.clockIn(userId);
+            attendanceService.clockOut(userId);
+        }
+        double singleSeconds = (System.nanoTime() - started) / 1e9;
+        int singleStatements = JdbcStatementCounter.count();
+
+        double uploadRate = punches.size() / uploadSeconds;
+        double singleRate = SINGLE_CALL_SESSIONS * 2 / singleSeconds;
+        System.out.printf("Punch upload: %d punches in %d statements, %.0f punches/s%n",
+                punches.size(), uploadStatements, uploadRate);
+        System.out.printf("Single calls: %d punches in %d statements, %.0f punches/s%n",
+                SINGLE_CALL_SESSIONS * 2, singleStatements, singleRate);
+
+        // Each chunk costs a fixed number of statements however many punches and days it holds
+        int chunks = (punches.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        assertThat(uploadStatements).isLessThanOrEqualTo(chunks * MAX_STATEMENTS_PER_CHUNK);
+        assertThat(uploadRate).isGreaterThan(singleRate * 5);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.dto.UserOvertime;
+import com.example.lazyhr.model.ClockDirection;
+import com.example.lazyhr.model.DailyAttendanceSummary;
+import com.example.lazyhr.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AttendancePunchUploadTest {
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DailyAttendanceSummaryService dailySummaryService;
+
+    @Autowired
+    private OvertimeLedgerService overtimeLedgerService;
+
+    private Long userId;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.findByUsername("jdoe").getId();
+        other = userService.findByUsername("asmith");
+        closeOpenSessions(userId);
+        closeOpenSessions(other.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        closeOpenSessions(userId);
+        closeOpenSessions(other.getId());
+    }
+
+    @Test
+    void reUploadedPunchesAreReportedAsDuplicates() {
+        long clockIn = System.currentTimeMillis() - 3_600_000;
+        List<ClockEvent> punches = List.of(
+                new ClockEvent(0, userId, ClockDirection.IN, clockIn),
+                new ClockEvent(1, userId, ClockDirection.OUT, clockIn + 1_800_000));
+
+        assertThat(attendanceService.recordPunches(punches))
+                .containsExactly(ClockEventOutcome.CLOCKED_IN, ClockEventOutcome.CLOCKED_OUT);
+        assertThat(attendanceService.recordPunches(punches))
+                .containsExactly(ClockEventOutcome.DUPLICATE, ClockEventOutcome.DUPLICATE);
+    }
+
+    @Test
+    void clockOutAtOrBeforeClockInIsRejected() {
+        long clockIn = System.currentTimeMillis() - 7_200_000;
+        List<ClockEventOutcome> outcomes = attendanceService.recordPunches(List.of(
+                new ClockEvent(0, userId, ClockDirection.IN, clockIn),
+                new ClockEvent(1, userId, ClockDirection.OUT, clockIn)));
+
+        assertThat(outcomes).containsExactly(ClockEventOutcome.CLOCKED_IN, ClockEventOutcome.CLOCK_OUT_BEFORE_CLOCK_IN);
+        assertThat(attendanceService.isUserClockedIn(userId)).isTrue();
+    }
+
+    @Test
+    void uploadRefreshesSummariesOfEveryUserAsSingleRefreshesWould() {
+        long clockIn = System.currentTimeMillis() - 3 * 3_600_000L;
+        ZoneId zone = ZoneId.systemDefault();
+        long day = Instant.ofEpochMilli(clockIn).atZone(zone).toLocalDate().atStartOfDay(zone).toInstant().toEpochMilli();
+        List<ClockEventOutcome> outcomes = attendanceService.recordPunches(List.of(
+                new ClockEvent(0, userId, ClockDirection.IN, clockIn),
+                new ClockEvent(1, other.getId(), ClockDirection.IN, clockIn + 60_000),
+                new ClockEvent(2, userId, ClockDirection.OUT, clockIn + 5_400_000),
+                new ClockEvent(3, other.getId(), ClockDirection.OUT, clockIn + 3_600_000)));
+        assertThat(outcomes).containsExactly(ClockEventOutcome.CLOCKED_IN, ClockEventOutcome.CLOCKED_IN,
+                ClockEventOutcome.CLOCKED_OUT, ClockEventOutcome.CLOCKED_OUT);
+
+        DailyAttendanceSummary mine = summary(userId, day);
+        DailyAttendanceSummary theirs = summary(other.getId(), day);
+        assertThat(mine.getWorkedMinutes()).isGreaterThanOrEqualTo(90);
+        assertThat(theirs.getWorkedMinutes()).isGreaterThanOrEqualTo(59);
+        List<UserOvertime> ledger = overtimeLedgerService.getOvertimeByUser(day, day);
+
+        // Refreshing each user and day on its own finds nothing left to change
+        dailySummaryService.refresh(userId, userService.findById(userId).getDepartment(), day);
+        dailySummaryService.refresh(other.getId(), other.getDepartment(), day);
+        assertThat(summary(userId, day)).usingRecursiveComparison().ignoringFields("updatedAt").isEqualTo(mine);
+        assertThat(summary(other.getId(), day)).usingRecursiveComparison().ignoringFields("updatedAt").isEqualTo(theirs);
+        assertThat(overtimeLedgerService.getOvertimeByUser(day, day)).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(ledger);
+    }
+
+    private DailyAttendanceSummary summary(Long user, long day) {
+        List<DailyAttendanceSummary> summaries = dailySummaryService.getSummaries(user, day, day);
+        assertThat(summaries).hasSize(1);
+        return summaries.get(0);
+    }
+
+    private void closeOpenSessions(Long user) {
+        while (attendanceService.isUserClockedIn(user)) {
+            attendanceService.clockOut(user);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.repository.AttendanceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AttendanceServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private UserService userService;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.findByUsername("jdoe").getId();
+        closeOpenSessions();
+    }
+
+    @AfterEach
+    void tearDown() {
+        closeOpenSessions();
+    }
+
+    @Test
+    void concurrentClockInsOpenExactlyOneSession() throws Exception {
+        List<Attendance> results = runConcurrently(THREADS * 4, () -> attendanceService.clockIn(userId));
+
+        Set<Long> sessionIds = new HashSet<>();
+        for (Attendance attendance : results) {
+            sessionIds.add(attendance.getId());
+        }
+        assertThat(sessionIds).hasSize(1);
+        assertThat(attendanceRepository.findActiveAttendances(userId)).hasSize(1);
+        assertThat(attendanceService.isUserClockedIn(userId)).isTrue();
+    }
+
+    @Test
+    void interleavedClockInsAndOutsNeverLeaveTwoOpenSessions() throws Exception {
+        // Every other call is a clock-in, so both directions always race each other
+        AtomicInteger calls = new AtomicInteger();
+        runConcurrently(THREADS * 8, () -> {
+            if (calls.getAndIncrement() % 2 == 0) {
+                return attendanceService.clockIn(userId);
+            }
+            try {
+                return attendanceService.clockOut(userId);
+            } catch (IllegalStateException e) {
+                return null; // Nothing open yet
+            }
+        });
+
+        assertThat(attendanceRepository.findActiveAttendances(userId)).hasSizeLessThanOrEqualTo(1);
+        assertThat(attendanceService.isUserClockedIn(userId))
+                .isEqualTo(!attendanceRepository.findActiveAttendances(userId).isEmpty());
+    }
+
+    private List<Attendance> runConcurrently(int calls, Callable<Attendance> call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Attendance>> futures = new ArrayList<>(calls);
+        try {
+            for (int i = 0; i < calls; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+
+            List<Attendance> results = new ArrayList<>(calls);
+            for (Future<Attendance> future : futures) {
+                Attendance attendance = future.get(30, TimeUnit.SECONDS);
+                if (attendance != null) {
+                    results.add(attendance);
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void closeOpenSessions() {
+        while (attendanceService.isUserClockedIn(userId)) {
+            attendanceService.clockOut(userId);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.Holiday;
+import com.example.lazyhr.model.LeavePeriod;
+import com.example.lazyhr.model.LeaveCategory;
+import com.example.lazyhr.model.LeaveRequest;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.repository.LeaveRequestRepository;
+import com.example.lazyhr.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "lazyhr.calendar.department-regions=Development:DE")
+class BusinessCalendarServiceTest {
+
+    @Autowired
+    private BusinessCalendarService calendar;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final List<Long> holidays = new ArrayList<>();
+    private final List<LeaveRequest> leaves = new ArrayList<>();
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        // A week in the future nothing else touches
+        monday = LocalDate.now().plusYears(2).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaveRequestRepository.deleteAllById(leaves.stream().map(LeaveRequest::getId).toList());
+        holidays.forEach(calendar::deleteHoliday);
+    }
+
+    @Test
+    void countsWeekdaysOnly() {
+        assertThat(calendar.workingDays(null, millis(monday), millis(monday.plusDays(13)))).isEqualTo(10);
+        assertThat(calendar.workingDays(null, millis(monday.plusDays(5)), millis(monday.plusDays(6)))).isZero();
+        assertThat(calendar.workingDays(null, millis(monday.plusDays(1)), millis(monday))).isZero();
+        assertThat(calendar.isWorkingDay(null, millis(monday.plusDays(6)))).isFalse();
+    }
+
+    @Test
+    void regionalHolidaysApplyOnlyToMappedDepartments() {
+        addHoliday(null, monday, "Common holiday");
+        addHoliday("DE", monday.plusDays(2), "Regional holiday");
+
+        long start = millis(monday);
+        long end = millis(monday.plusDays(6));
+        assertThat(calendar.workingDays("Marketing", start, end)).isEqualTo(4);
+        assertThat(calendar.workingDays("Development", start, end)).isEqualTo(3);
+        assertThat(calendar.isWorkingDay("Development", millis(monday.plusDays(2)))).isFalse();
+        assertThat(calendar.isWorkingDay("Marketing", millis(monday.plusDays(2)))).isTrue();
+    }
+
+    @Test
+    void rangesOutsideThePrecomputedWindowStillCountWeekends() {
+        LocalDate oldMonday = LocalDate.of(1901, 1, 7);
+        assertThat(calendar.workingDays(null, millis(oldMonday), millis(oldMonday.plusDays(20)))).isEqualTo(15);
+
+        // A range that starts before the window and ends inside it
+        LocalDate windowedMonday = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        long weeks = ChronoUnit.WEEKS.between(oldMonday, windowedMonday);
+        assertThat(calendar.workingDays("Marketing", millis(oldMonday), millis(windowedMonday.minusDays(1))))
+                .isEqualTo(weeks * 5);
+    }
+
+    @Test
+    void leaveIsChargedForWorkingDaysOnly() {
+        addHoliday("DE", monday.plusDays(4), "Regional holiday");
+        User user = userRepository.findByUsername("jdoe").orElseThrow();
+
+        // Friday to the following Tuesday: Friday is a holiday in the user's region, then a weekend
+        LeaveRequest request = new LeaveRequest();
+        request.setUser(user);
+        request.setLeaveCategory(LeaveCategory.ANNUAL);
+        request.setLeavePeriod(LeavePeriod.FULL_DAY);
+        request.setStartDate(millis(monday.plusDays(4)));
+        request.setEndDate(millis(monday.plusDays(8)));
+        request.setReason("Trip");
+        leaves.add(leaveService.applyLeave(request));
+
+        assertThat(request.getTotalDays()).isEqualByComparingTo(BigDecimal.valueOf(2));
+    }
+
+    private void addHoliday(String region, LocalDate day, String name) {
+        Holiday holiday = new Holiday();
+        holiday.setRegion(region);
+        holiday.setHolidayDate(millis(day));
+        holiday.setName(name);
+        holidays.add(calendar.addHoliday(holiday).getId());
+    }
+
+    private long millis(LocalDate day) {
+        return day.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
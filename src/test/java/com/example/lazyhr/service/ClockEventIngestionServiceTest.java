@@ -0,0 +1,177 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.ClockDirection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClockEventIngestionServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    @TempDir
+    Path directory;
+
+    private final List<ClockEventIngestionService> started = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (ClockEventIngestionService service : started) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void replaysUnflushedEventsAfterRestart() throws Exception {
+        try (ClockEventJournal journal = new ClockEventJournal(journal(), false)) {
+            journal.recover();
+            for (long sequence = 0; sequence < 3; sequence++) {
+                journal.append(new ClockEvent(sequence, USER_ID, ClockDirection.IN, 1000 + sequence));
+            }
+            journal.commit(0);
+        }
+
+        RecordingWriter writer = new RecordingWriter();
+        ClockEventIngestionService service = start(writer, 5, 10);
+        awaitTrue(() -> writer.written.size() == 2);
+        assertThat(writer.written).extracting(ClockEvent::getSequence).containsExactly(1L, 2L);
+
+        // New punches continue above everything the journal has seen
+        assertThat(service.submit(USER_ID, ClockDirection.OUT).getSequence()).isEqualTo(3);
+        awaitTrue(() -> writer.written.size() == 3);
+    }
+
+    @Test
+    void truncatesTheJournalOnceEveryEventIsFlushed() throws Exception {
+        RecordingWriter writer = new RecordingWriter();
+        ClockEventIngestionService service = start(writer, 5, 10);
+        for (int i = 0; i < 3; i++) {
+            service.submit(USER_ID, i % 2 == 0 ? ClockDirection.IN : ClockDirection.OUT);
+        }
+
+        awaitTrue(() -> writer.written.size() == 3);
+        awaitTrue(() -> "C,2\n".equals(read(journal())));
+        service.stop();
+        started.remove(service);
+
+        try (ClockEventJournal journal = new ClockEventJournal(journal(), false)) {
+            ClockEventJournal.Recovery recovery = journal.recover();
+            assertThat(recovery.getPending()).isEmpty();
+            assertThat(recovery.getHighWaterMark()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void movesABatchToTheDeadLetterFileAfterMaxFlushAttempts() throws Exception {
+        RecordingWriter writer = new RecordingWriter();
+        writer.failing = true;
+        ClockEventIngestionService service = start(writer, 5, 10);
+        ClockEvent event = service.submit(USER_ID, ClockDirection.IN);
+
+        awaitTrue(() -> read(directory.resolve("clock-events.dead")).contains("E," + event.getSequence() + ","));
+        assertThat(writer.attempts).isEqualTo(2);
+        service.stop();
+        started.remove(service);
+
+        // Dead-lettered events are committed, so a restart does not replay them
+        try (ClockEventJournal journal = new ClockEventJournal(journal(), false)) {
+            assertThat(journal.recover().getPending()).isEmpty();
+        }
+    }
+
+    @Test
+    void rejectsPunchesWhileTheQueueStaysFull() throws Exception {
+        RecordingWriter writer = new RecordingWriter();
+        writer.blocked = new CountDownLatch(1);
+        ClockEventIngestionService service = start(writer, 1, 1);
+
+        service.submit(USER_ID, ClockDirection.IN); // Taken by the flusher, which then blocks in the writer
+        service.submit(USER_ID, ClockDirection.OUT); // Waits for the flusher to free the only slot
+        assertThatThrownBy(() -> service.submit(USER_ID, ClockDirection.IN))
+                .isInstanceOf(ClockEventIngestionService.QueueFullException.class);
+        assertThat(service.getPendingCount()).isEqualTo(1);
+
+        writer.blocked.countDown();
+        awaitTrue(() -> writer.written.size() == 2);
+        assertThat(writer.written).extracting(ClockEvent::getSequence).containsExactly(0L, 1L);
+    }
+
+    private ClockEventIngestionService start(ClockEventBatchWriter writer, int queueCapacity, int batchSize)
+            throws IOException {
+        ClockEventIngestionService service = new ClockEventIngestionService();
+        ReflectionTestUtils.setField(service, "batchWriter", writer);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(service, "batchSize", batchSize);
+        ReflectionTestUtils.setField(service, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(service, "offerTimeoutMs", 500L);
+        ReflectionTestUtils.setField(service, "journalPath", journal().toString());
+        ReflectionTestUtils.setField(service, "journalFsync", false);
+        ReflectionTestUtils.setField(service, "maxFlushAttempts", 2);
+        ReflectionTestUtils.setField(service, "deadLetterPath", directory.resolve("clock-events.dead").toString());
+        service.start();
+        started.add(service);
+        return service;
+    }
+
+    private Path journal() {
+        return directory.resolve("clock-events.journal");
+    }
+
+    private static String read(Path path) {
+        try {
+            return Files.exists(path) ? Files.readString(path, StandardCharsets.UTF_8) : "";
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    // Stands in for the database: records what it was given, or fails every call
+    private static class RecordingWriter extends ClockEventBatchWriter {
+        private final List<ClockEvent> written = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+        private volatile CountDownLatch blocked;
+        private volatile int attempts;
+
+        @Override
+        public List<ClockEventOutcome> write(List<ClockEvent> events) {
+            attempts++;
+            if (failing) {
+                throw new IllegalStateException("database unavailable");
+            }
+            if (blocked != null) {
+                try {
+                    blocked.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            written.addAll(events);
+            return Collections.nCopies(events.size(), ClockEventOutcome.CLOCKED_IN);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.dto.AttendanceAggregate;
+import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.model.DailyAttendanceSummary;
+import com.example.lazyhr.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Department and team aggregation over a 50k-employee dataset, against hydrating the same summaries and
+ * users as entities and grouping them in memory. Excluded from the default test task; run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class DepartmentAggregationBenchmarkTest {
+
+    private static final int EMPLOYEES = 50_000;
+    private static final int DAYS = 10;
+    private static final int DEPARTMENTS = 25;
+    private static final int POSITIONS = 8;
+    private static final int INSERT_BATCH = 10_000;
+    private static final String PREFIX = "bench-";
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users (username, password, email, first_name, last_name, "
+            + "employee_id, department, position, hire_date, is_active, role, created_at, updated_at) "
+            + "VALUES (?, 'x', ?, 'Bench', ?, ?, ?, ?, 0, TRUE, 'EMPLOYEE', 0, 0)";
+
+    private static final String INSERT_SUMMARY_SQL = "INSERT INTO daily_attendance_summary (user_id, summary_date, first_in, "
+            + "last_out, worked_minutes, overtime_minutes, session_count, open_sessions, status, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 1, 0, ?, 0)";
+
+    @Autowired
+    private DailyAttendanceSummaryService dailySummaryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private long startTimestamp;
+    private long endTimestamp;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> users = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            users.add(new Object[] { PREFIX + i, PREFIX + i + "@example.com", "Employee " + i, "B" + i,
+                    department(i), "Position-" + (i % POSITIONS) });
+        }
+        batchInsert(INSERT_USER_SQL, users);
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE ? ORDER BY id",
+                Long.class, PREFIX + "%");
+        assertThat(userIds).hasSize(EMPLOYEES);
+
+        // Days nothing else writes to, so the aggregates cover exactly the rows inserted here
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = LocalDate.of(2004, 3, 1);
+        startTimestamp = firstDay.atStartOfDay(zone).toInstant().toEpochMilli();
+        endTimestamp = firstDay.plusDays(DAYS).atStartOfDay(zone).toInstant().toEpochMilli() - 1;
+        AttendanceStatus[] statuses = { AttendanceStatus.PRESENT, AttendanceStatus.PRESENT, AttendanceStatus.LATE,
+                AttendanceStatus.ABSENT };
+        List<Object[]> summaries = new ArrayList<>(INSERT_BATCH);
+        for (int day = 0; day < DAYS; day++) {
+            long dayTimestamp = firstDay.plusDays(day).atStartOfDay(zone).toInstant().toEpochMilli();
+            for (int i = 0; i < EMPLOYEES; i++) {
+                AttendanceStatus status = statuses[(i + day) % statuses.length];
+                int worked = status == AttendanceStatus.ABSENT ? 0 : 420 + (i % 120);
+                summaries.add(new Object[] { userIds.get(i), dayTimestamp, dayTimestamp + 8 * 3_600_000L,
+                        dayTimestamp + 17 * 3_600_000L, worked, Math.max(0, worked - 480), status.name() });
+                if (summaries.size() == INSERT_BATCH) {
+                    batchInsert(INSERT_SUMMARY_SQL, summaries);
+                    summaries.clear();
+                }
+            }
+        }
+        batchInsert(INSERT_SUMMARY_SQL, summaries);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM daily_attendance_summary WHERE summary_date >= ? AND summary_date <= ?",
+                startTimestamp, endTimestamp);
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE ?", PREFIX + "%");
+    }
+
+    @Test
+    void groupedQueriesOutrunHydratingEntities() {
+        List<AttendanceAggregate> byDepartment = timed("All departments",
+                () -> dailySummaryService.getDepartmentAggregates(startTimestamp, endTimestamp));
+        assertThat(byDepartment).hasSize(DEPARTMENTS * DAYS);
+        assertThat(byDepartment.stream().mapToLong(AttendanceAggregate::getRecordedCount).sum())
+                .isEqualTo((long) EMPLOYEES * DAYS);
+
+        List<AttendanceAggregate> oneDepartment = timed("One department",
+                () -> dailySummaryService.getDepartmentAggregates(department(0), startTimestamp, endTimestamp));
+        assertThat(oneDepartment).hasSize(DAYS);
+
+        List<AttendanceAggregate> teams = timed("Teams of one department",
+                () -> dailySummaryService.getTeamAggregates(department(0), startTimestamp, endTimestamp));
+        assertThat(teams).hasSize(POSITIONS * DAYS);
+
+        Map<String, long[]> hydrated = timed("Hydrated entities", this::aggregateEntities);
+        assertThat(hydrated).hasSize(DEPARTMENTS * DAYS);
+
+        double grouped = best(() -> dailySummaryService.getDepartmentAggregates(startTimestamp, endTimestamp));
+        double entities = best(this::aggregateEntities);
+        System.out.printf("Department aggregation over %d employees and %d days: grouped %.0f ms, hydrated %.0f ms%n",
+                EMPLOYEES, DAYS, grouped * 1000, entities * 1000);
+        assertThat(grouped).isLessThan(entities / 2);
+    }
+
+    // What the department totals cost before the grouped projections: every summary and its user as entities
+    private Map<String, long[]> aggregateEntities() {
+        return transactionTemplate.execute(status -> {
+            Map<String, long[]> totals = new HashMap<>();
+            List<Object[]> rows = entityManager.createQuery("SELECT s, u FROM DailyAttendanceSummary s "
+                    + "JOIN User u ON u.id = s.userId WHERE s.summaryDate >= :start AND s.summaryDate <= :end", Object[].class)
+                    .setParameter("start", startTimestamp)
+                    .setParameter("end", endTimestamp)
+                    .getResultList();
+            for (Object[] row : rows) {
+                DailyAttendanceSummary summary = (DailyAttendanceSummary) row[0];
+                User user = (User) row[1];
+                long[] total = totals.computeIfAbsent(user.getDepartment() + ":" + summary.getSummaryDate(),
+                        k -> new long[3]);
+                total[0]++;
+                total[1] += summary.getWorkedMinutes();
+                total[2] += summary.getOvertimeMinutes();
+            }
+            entityManager.clear();
+            return totals;
+        });
+    }
+
+    private <T> T timed(String label, Supplier<T> query) {
+        long started = System.nanoTime();
+        T result = query.get();
+        System.out.printf("%s: %.0f ms%n", label, (System.nanoTime() - started) / 1e6);
+        return result;
+    }
+
+    // Warm up, then keep the best of a few runs, in seconds
+    private static double best(Supplier<?> query) {
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            long started = System.nanoTime();
+            query.get();
+            best = Math.min(best, (System.nanoTime() - started) / 1e9);
+        }
+        return best;
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += INSERT_BATCH) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + INSERT_BATCH, rows.size())));
+        }
+    }
+
+    private static String department(int employee) {
+        return String.format("Bench-%02d", employee % DEPARTMENTS);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.LeaveCategory;
+import com.example.lazyhr.model.LeavePeriod;
+import com.example.lazyhr.model.LeavePolicy;
+import com.example.lazyhr.model.LeaveRequest;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.repository.LeaveRequestRepository;
+import com.example.lazyhr.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class LeaveBalanceServiceTest {
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private LeaveBalanceService balanceService;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<LeaveRequest> leaves = new ArrayList<>();
+    private User user;
+    private User approver;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("jdoe").orElseThrow();
+        approver = userRepository.findByUsername("manager").orElseThrow();
+        // A year nothing else books leave in
+        monday = LocalDate.now().plusYears(3).withDayOfYear(100).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaveRequestRepository.deleteAllById(leaves.stream().map(LeaveRequest::getId).toList());
+        balanceService.updatePolicy(LeaveCategory.ANNUAL, new BigDecimal("21.0"));
+    }
+
+    @Test
+    void balanceIsCachedUntilALeaveIsDecided() {
+        LeaveService.LeaveBalanceSummary before = leaveService.getLeaveBalanceSummary(user.getId(), monday.getYear());
+        assertThat(before.getAnnualLeaveUsed()).isZero();
+        assertThat(before.getAnnualLeaveAllocated()).isEqualTo(21.0);
+        assertThat(before.getSpecialHolidayUsed()).isZero();
+        double hits = hits();
+        assertThat(leaveService.getLeaveBalanceSummary(user.getId(), monday.getYear()))
+                .isNotSameAs(before)
+                .usingRecursiveComparison().isEqualTo(before);
+        assertThat(hits()).isEqualTo(hits + 1);
+
+        // Callers get copies, so changing one does not leak into the cache
+        before.setAnnualLeaveUsed(99.0);
+        assertThat(leaveService.getLeaveBalanceSummary(user.getId(), monday.getYear()).getAnnualLeaveUsed()).isZero();
+
+        LeaveRequest annual = apply(LeaveCategory.ANNUAL, monday, monday.plusDays(1));
+        LeaveRequest sick = apply(LeaveCategory.SICK, monday.plusDays(7), monday.plusDays(7));
+        // Pending requests do not count
+        hits = hits();
+        assertThat(leaveService.getLeaveBalanceSummary(user.getId(), monday.getYear()).getAnnualLeaveUsed()).isZero();
+        assertThat(hits()).isEqualTo(hits + 1);
+
+        leaveService.approveLeave(annual.getId(), approver.getId(), null);
+        leaveService.approveLeave(sick.getId(), approver.getId(), null);
+        LeaveService.LeaveBalanceSummary after = leaveService.getLeaveBalanceSummary(user.getId(), monday.getYear());
+        assertThat(after.getAnnualLeaveUsed()).isEqualTo(2.0);
+        assertThat(after.getAnnualLeaveRemaining()).isEqualTo(19.0);
+        assertThat(after.getSickLeaveUsed()).isEqualTo(1.0);
+        assertThat(after.getPrivateLeaveUsed()).isZero();
+    }
+
+    @Test
+    void allocationsComeFromThePolicyTable() {
+        leaveService.getLeaveBalanceSummary(user.getId(), monday.getYear());
+
+        LeavePolicy policy = balanceService.updatePolicy(LeaveCategory.ANNUAL, new BigDecimal("25.0"));
+        assertThat(policy.getId()).isNotNull();
+
+        LeaveService.LeaveBalanceSummary balance = leaveService.getLeaveBalanceSummary(user.getId(), monday.getYear());
+        assertThat(balance.getAnnualLeaveAllocated()).isEqualTo(25.0);
+        assertThat(balance.getSickLeaveAllocated()).isEqualTo(14.0);
+        assertThat(balance.getPrivateLeaveAllocated()).isEqualTo(5.0);
+    }
+
+    private double hits() {
+        return meterRegistry.get("lazyhr.leave.balance.cache").tag("result", "hit").counter().count();
+    }
+
+    private LeaveRequest apply(LeaveCategory category, LocalDate start, LocalDate end) {
+        ZoneId zone = ZoneId.systemDefault();
+        LeaveRequest request = new LeaveRequest();
+        request.setUser(user);
+        request.setLeaveCategory(category);
+        request.setLeavePeriod(LeavePeriod.FULL_DAY);
+        request.setStartDate(start.atStartOfDay(zone).toInstant().toEpochMilli());
+        request.setEndDate(end.atStartOfDay(zone).toInstant().toEpochMilli());
+        request.setReason("Balance test");
+        LeaveRequest saved = leaveService.applyLeave(request);
+        leaves.add(saved);
+        return saved;
+    }
+}
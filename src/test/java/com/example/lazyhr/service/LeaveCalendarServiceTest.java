@@ -0,0 +1,136 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.dto.LeaveCalendar;
+import com.example.lazyhr.dto.LeaveCalendarMember;
+import com.example.lazyhr.model.LeaveCategory;
+import com.example.lazyhr.model.LeavePeriod;
+import com.example.lazyhr.model.LeaveRequest;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.repository.LeaveRequestRepository;
+import com.example.lazyhr.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class LeaveCalendarServiceTest {
+
+    @Autowired
+    private LeaveCalendarService leaveCalendarService;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private BusinessCalendarService businessCalendar;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<LeaveRequest> leaves = new ArrayList<>();
+    private User user;
+    private User approver;
+    private YearMonth month;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("jdoe").orElseThrow();
+        approver = userRepository.findByUsername("manager").orElseThrow();
+        // A year nothing else books leave in
+        month = YearMonth.from(LocalDate.now().plusYears(8).withMonth(3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaveRequestRepository.deleteAllById(leaves.stream().map(LeaveRequest::getId).toList());
+    }
+
+    @Test
+    void calendarFollowsApplyApproveAndCancel() {
+        LocalDate monday = month.atDay(8).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+        LeaveRequest week = apply(monday, monday.plusDays(1));
+        // Starts in the previous month; only its days in this month are shown
+        LeaveRequest boundary = apply(month.atDay(1).minusDays(3), month.atDay(1).plusDays(3));
+
+        LeaveCalendar calendar = leaveCalendarService.getCalendar(user.getDepartment(), month);
+        int row = row(calendar);
+        assertThat(calendar.getDays()).isEqualTo(month.lengthOfMonth());
+        assertThat(daysWith(calendar.getPending(), row)).containsExactly(0, 1, 2, 3,
+                monday.getDayOfMonth() - 1, monday.getDayOfMonth());
+        assertThat(daysWith(calendar.getApproved(), row)).isEmpty();
+        assertThat(leaveCalendarService.getCalendar(user.getDepartment(), month)).isSameAs(calendar);
+
+        leaveService.approveLeave(week.getId(), approver.getId(), null);
+        calendar = leaveCalendarService.getCalendar(user.getDepartment(), month);
+        assertThat(daysWith(calendar.getApproved(), row)).containsExactly(monday.getDayOfMonth() - 1,
+                monday.getDayOfMonth());
+        assertThat(daysWith(calendar.getPending(), row)).containsExactly(0, 1, 2, 3);
+
+        leaveService.cancelLeaveRequest(boundary.getId(), user.getId());
+        leaves.remove(boundary);
+        calendar = leaveCalendarService.getCalendar(user.getDepartment(), month);
+        assertThat(daysWith(calendar.getPending(), row)).isEmpty();
+        // Days nobody is off encode to nothing
+        assertThat(calendar.getPending()).containsOnly("");
+
+        BitSet workingDays = BitSet.valueOf(Base64.getDecoder().decode(calendar.getWorkingDays()));
+        for (int day = 0; day < calendar.getDays(); day++) {
+            assertThat(workingDays.get(day))
+                    .isEqualTo(businessCalendar.isWorkingDay(user.getDepartment(), at(month.atDay(day + 1))));
+        }
+    }
+
+    private int row(LeaveCalendar calendar) {
+        List<LeaveCalendarMember> members = calendar.getMembers();
+        for (int i = 0; i < members.size(); i++) {
+            if (members.get(i).getUserId().equals(user.getId())) {
+                return i;
+            }
+        }
+        throw new AssertionError("User is not a row of the calendar");
+    }
+
+    private static List<Integer> daysWith(List<String> bitmaps, int row) {
+        List<Integer> days = new ArrayList<>();
+        for (int day = 0; day < bitmaps.size(); day++) {
+            if (BitSet.valueOf(Base64.getDecoder().decode(bitmaps.get(day))).get(row)) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    private LeaveRequest apply(LocalDate start, LocalDate end) {
+        LeaveRequest request = new LeaveRequest();
+        request.setUser(user);
+        request.setLeaveCategory(LeaveCategory.ANNUAL);
+        request.setLeavePeriod(LeavePeriod.FULL_DAY);
+        request.setStartDate(at(start));
+        request.setEndDate(at(end));
+        request.setReason("Calendar test");
+        LeaveRequest saved = leaveService.applyLeave(request);
+        leaves.add(saved);
+        return saved;
+    }
+
+    private static long at(LocalDate day) {
+        return day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
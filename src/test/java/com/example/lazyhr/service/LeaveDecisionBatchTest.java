@@ -0,0 +1,170 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.LeaveCategory;
+import com.example.lazyhr.model.LeavePeriod;
+import com.example.lazyhr.model.LeaveRequest;
+import com.example.lazyhr.model.LeaveStatus;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.repository.LeaveRequestRepository;
+import com.example.lazyhr.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// One stripe per group, so a batch over two users is decided in two groups
+@SpringBootTest(properties = "lazyhr.locks.max-stripes-per-batch=1")
+class LeaveDecisionBatchTest {
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<LeaveRequest> leaves = new ArrayList<>();
+    private User user;
+    private User approver;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("jdoe").orElseThrow();
+        approver = userRepository.findByUsername("manager").orElseThrow();
+        // A year nothing else books leave in
+        monday = LocalDate.now().plusYears(5).withDayOfYear(100).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaveRequestRepository.deleteAllById(leaves.stream().map(LeaveRequest::getId).toList());
+    }
+
+    @Test
+    void batchReportsAnOutcomePerRequest() {
+        LeaveRequest first = apply(monday);
+        LeaveRequest second = apply(monday.plusDays(1));
+        LeaveRequest decided = apply(monday.plusDays(2));
+        leaveService.rejectLeave(decided.getId(), approver.getId(), null);
+
+        List<LeaveDecisionOutcome> outcomes = leaveService.decideLeaves(
+                List.of(first.getId(), decided.getId(), -1L, second.getId(), first.getId()),
+                approver.getId(), "Batch", LeaveStatus.APPROVED);
+
+        assertThat(outcomes).containsExactly(LeaveDecisionOutcome.APPROVED, LeaveDecisionOutcome.NOT_PENDING,
+                LeaveDecisionOutcome.NOT_FOUND, LeaveDecisionOutcome.APPROVED, LeaveDecisionOutcome.NOT_PENDING);
+        LeaveRequest approved = leaveRequestRepository.findById(first.getId()).orElseThrow();
+        assertThat(approved.getStatus()).isEqualTo(LeaveStatus.APPROVED);
+        assertThat(approved.getComments()).isEqualTo("Batch");
+        assertThat(approved.getVersion()).isEqualTo(first.getVersion() + 1);
+        assertThat(leaveRequestRepository.findById(decided.getId()).orElseThrow().getStatus())
+                .isEqualTo(LeaveStatus.REJECTED);
+    }
+
+    @Test
+    void batchOverSeveralUsersKeepsOutcomeOrder() {
+        User other = userRepository.findByUsername("asmith").orElseThrow();
+        LeaveRequest first = apply(monday.plusWeeks(4));
+        LeaveRequest otherFirst = apply(other, monday.plusWeeks(4));
+        LeaveRequest overlapping = apply(monday.plusWeeks(4));
+        LeaveRequest otherSecond = apply(other, monday.plusWeeks(4).plusDays(1));
+
+        List<LeaveDecisionOutcome> outcomes = leaveService.decideLeaves(
+                List.of(otherFirst.getId(), first.getId(), -1L, overlapping.getId(), otherSecond.getId()),
+                approver.getId(), null, LeaveStatus.APPROVED);
+
+        assertThat(outcomes).containsExactly(LeaveDecisionOutcome.APPROVED, LeaveDecisionOutcome.APPROVED,
+                LeaveDecisionOutcome.NOT_FOUND, LeaveDecisionOutcome.OVERLAPS, LeaveDecisionOutcome.APPROVED);
+        assertThat(leaveRequestRepository.findById(otherSecond.getId()).orElseThrow().getStatus())
+                .isEqualTo(LeaveStatus.APPROVED);
+    }
+
+    @Test
+    void batchApprovalSkipsOverlappingLeave() {
+        LeaveRequest first = apply(monday.plusWeeks(3));
+        LeaveRequest sameDay = apply(monday.plusWeeks(3));
+        LeaveRequest approvedDay = apply(monday.plusWeeks(3).plusDays(1));
+        LeaveRequest overlapsApproved = apply(monday.plusWeeks(3).plusDays(1));
+        leaveService.approveLeave(approvedDay.getId(), approver.getId(), null);
+
+        List<LeaveDecisionOutcome> outcomes = leaveService.decideLeaves(
+                List.of(first.getId(), sameDay.getId(), overlapsApproved.getId()),
+                approver.getId(), null, LeaveStatus.APPROVED);
+
+        assertThat(outcomes).containsExactly(LeaveDecisionOutcome.APPROVED, LeaveDecisionOutcome.OVERLAPS,
+                LeaveDecisionOutcome.OVERLAPS);
+        assertThat(leaveRequestRepository.findById(sameDay.getId()).orElseThrow().getStatus())
+                .isEqualTo(LeaveStatus.PENDING);
+        assertThat(leaveRequestRepository.findById(overlapsApproved.getId()).orElseThrow().getStatus())
+                .isEqualTo(LeaveStatus.PENDING);
+    }
+
+    @Test
+    void concurrentApproversDecideEachRequestOnce() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(apply(monday.plusWeeks(1).plusDays(i % 5).plusWeeks(i / 5)).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<List<LeaveDecisionOutcome>> approving = executor.submit(() -> {
+                start.await();
+                return leaveService.decideLeaves(ids, approver.getId(), null, LeaveStatus.APPROVED);
+            });
+            Future<List<LeaveDecisionOutcome>> rejecting = executor.submit(() -> {
+                start.await();
+                return leaveService.decideLeaves(ids, approver.getId(), null, LeaveStatus.REJECTED);
+            });
+            start.countDown();
+
+            List<LeaveDecisionOutcome> approved = approving.get();
+            List<LeaveDecisionOutcome> rejected = rejecting.get();
+            for (int i = 0; i < ids.size(); i++) {
+                boolean approvedWon = approved.get(i) == LeaveDecisionOutcome.APPROVED;
+                boolean rejectedWon = rejected.get(i) == LeaveDecisionOutcome.REJECTED;
+                assertThat(approvedWon).isNotEqualTo(rejectedWon);
+                assertThat(leaveRequestRepository.findById(ids.get(i)).orElseThrow().getStatus())
+                        .isEqualTo(approvedWon ? LeaveStatus.APPROVED : LeaveStatus.REJECTED);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LeaveRequest apply(LocalDate day) {
+        return apply(user, day);
+    }
+
+    private LeaveRequest apply(User requester, LocalDate day) {
+        long timestamp = day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        LeaveRequest request = new LeaveRequest();
+        request.setUser(requester);
+        request.setLeaveCategory(LeaveCategory.ANNUAL);
+        request.setLeavePeriod(LeavePeriod.FULL_DAY);
+        request.setStartDate(timestamp);
+        request.setEndDate(timestamp);
+        request.setReason("Batch decision test");
+        LeaveRequest saved = leaveService.applyLeave(request);
+        leaves.add(saved);
+        return saved;
+    }
+}
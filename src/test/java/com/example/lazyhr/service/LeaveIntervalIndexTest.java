@@ -0,0 +1,154 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.LeaveCategory;
+import com.example.lazyhr.model.LeavePeriod;
+import com.example.lazyhr.model.LeaveRequest;
+import com.example.lazyhr.model.LeaveStatus;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.repository.LeaveRequestRepository;
+import com.example.lazyhr.repository.UserRepository;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class LeaveIntervalIndexTest {
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private LeaveIntervalIndex leaveIntervalIndex;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<LeaveRequest> leaves = new ArrayList<>();
+    private User user;
+    private User approver;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("jdoe").orElseThrow();
+        approver = userRepository.findByUsername("manager").orElseThrow();
+        // A year nothing else books leave in
+        monday = LocalDate.now().plusYears(4).withDayOfYear(100).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+        leaveIntervalIndex.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaveRequestRepository.deleteAllById(leaves.stream().map(LeaveRequest::getId).toList());
+        leaveIntervalIndex.reload();
+    }
+
+    @Test
+    void indexFollowsApplyApproveRejectAndCancel() {
+        LeaveRequest first = apply(monday, monday.plusDays(2));
+        LeaveRequest second = apply(monday.plusDays(1), monday.plusDays(1));
+        LeaveRequest third = apply(monday.plusDays(7), monday.plusDays(8));
+
+        List<LeaveRequest> onTuesday = leaveService.getLeaveRequestsForTimestamp(at(monday.plusDays(1)));
+        assertThat(ids(onTuesday)).containsExactly(first.getId(), second.getId());
+        // Requesters come with the leave, so callers outside the transaction can render them
+        assertThat(onTuesday).allSatisfy(leave -> assertThat(Hibernate.isInitialized(leave.getUser())).isTrue());
+        assertThat(leaveIntervalIndex.findApproved(user.getId(), at(monday), at(monday.plusDays(8)))).isEmpty();
+
+        leaveService.approveLeave(first.getId(), approver.getId(), null);
+        leaveService.rejectLeave(second.getId(), approver.getId(), null);
+        leaveService.cancelLeaveRequest(third.getId(), user.getId());
+        leaves.remove(third);
+
+        assertThat(ids(leaveService.getLeaveRequestsForTimestamp(at(monday.plusDays(1)))))
+                .containsExactly(first.getId());
+        assertThat(leaveService.getLeaveRequestsForTimestamp(at(monday.plusDays(7)))).isEmpty();
+        List<LeaveIntervalIndex.Span> approved = leaveIntervalIndex.findApproved(user.getId(), at(monday.plusDays(2)),
+                at(monday.plusDays(9)));
+        assertThat(approved).extracting(LeaveIntervalIndex.Span::getId).containsExactly(first.getId());
+        assertThat(approved.get(0).getStatus()).isEqualTo(LeaveStatus.APPROVED);
+    }
+
+    @Test
+    void reloadPicksUpChangesMadeBehindTheIndex() {
+        LeaveRequest leave = apply(monday, monday);
+        leaveRequestRepository.delete(leave);
+        leaves.remove(leave);
+        assertThat(leaveService.getLeaveRequestsForTimestamp(at(monday))).isEmpty();
+        // The index still has the request; findAllById drops it, and a reload removes it for good
+        leaveIntervalIndex.reload();
+        assertThat(leaveIntervalIndex.findApproved(user.getId(), at(monday), at(monday))).isEmpty();
+    }
+
+    @Test
+    void stabbingQueriesMatchALinearScan() {
+        Random random = new Random(42);
+        List<LeaveIntervalIndex.Span> spans = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            long start = random.nextInt(10_000);
+            spans.add(new LeaveIntervalIndex.Span(id, id % 50, start, start + random.nextInt(60), LeaveStatus.APPROVED));
+        }
+        LeaveIntervalIndex.Intervals intervals = LeaveIntervalIndex.Intervals.of(spans);
+        for (int i = 0; i < 500; i++) {
+            long from = random.nextInt(10_100);
+            long to = from + random.nextInt(30);
+            List<Long> expected = new ArrayList<>();
+            spans.stream()
+                    .filter(span -> span.getStartDate() <= to && span.getEndDate() >= from)
+                    .sorted((a, b) -> a.getStartDate() != b.getStartDate()
+                            ? Long.compare(a.getStartDate(), b.getStartDate()) : Long.compare(a.getId(), b.getId()))
+                    .forEach(span -> expected.add(span.getId()));
+            List<Long> found = new ArrayList<>();
+            intervals.collect(from, to, span -> found.add(span.getId()));
+            assertThat(found).isEqualTo(expected);
+        }
+
+        LeaveIntervalIndex.Intervals changed = intervals.without(1).with(
+                new LeaveIntervalIndex.Span(1, 1, 20_000, 20_005, LeaveStatus.PENDING));
+        List<Long> found = new ArrayList<>();
+        changed.collect(20_003, 20_003, span -> found.add(span.getId()));
+        assertThat(found).containsExactly(1L);
+        assertThat(changed.size()).isEqualTo(intervals.size());
+    }
+
+    private LeaveRequest apply(LocalDate start, LocalDate end) {
+        LeaveRequest request = new LeaveRequest();
+        request.setUser(user);
+        request.setLeaveCategory(LeaveCategory.ANNUAL);
+        request.setLeavePeriod(LeavePeriod.FULL_DAY);
+        request.setStartDate(at(start));
+        request.setEndDate(at(end));
+        request.setReason("Index test");
+        LeaveRequest saved = leaveService.applyLeave(request);
+        leaves.add(saved);
+        return saved;
+    }
+
+    private static long at(LocalDate day) {
+        return day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static List<Long> ids(List<LeaveRequest> requests) {
+        List<Long> ids = new ArrayList<>();
+        for (LeaveRequest request : requests) {
+            ids.add(request.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.LeaveCategory;
+import com.example.lazyhr.model.LeavePeriod;
+import com.example.lazyhr.model.LeaveRequest;
+import com.example.lazyhr.model.LeaveStatus;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.repository.LeaveRequestRepository;
+import com.example.lazyhr.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class LeaveServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 400;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private LeaveIntervalIndex leaveIntervalIndex;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private List<User> users;
+    private User approver;
+    private long windowStart;
+    private long windowEnd;
+
+    @BeforeEach
+    void setUp() {
+        users = List.of(userRepository.findByUsername("jdoe").orElseThrow(),
+                userRepository.findByUsername("asmith").orElseThrow());
+        approver = userRepository.findByUsername("manager").orElseThrow();
+        // A year nothing else books leave in
+        LocalDate first = LocalDate.now().plusYears(7).withDayOfYear(1);
+        windowStart = at(first);
+        windowEnd = at(first.plusDays(60));
+        deleteWindow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteWindow();
+        leaveIntervalIndex.reload();
+    }
+
+    @Test
+    void racingApplicationsAndApprovalsNeverCommitOverlappingApprovedLeave() throws Exception {
+        ConcurrentLinkedQueue<Long> pending = new ConcurrentLinkedQueue<>();
+        LocalDate first = LocalDate.now().plusYears(7).withDayOfYear(1);
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            User user = users.get(random.nextInt(users.size()));
+            LocalDate start = first.plusDays(random.nextInt(40));
+            try {
+                pending.add(apply(user, start, start.plusDays(random.nextInt(5))).getId());
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                // Overlaps approved leave, or covers only a weekend
+            }
+
+            Long leaveId = pending.poll();
+            if (leaveId == null) {
+                return;
+            }
+            if (random.nextBoolean()) {
+                try {
+                    leaveService.approveLeave(leaveId, approver.getId(), null);
+                } catch (IllegalStateException e) {
+                    // Overlaps approved leave, or was decided by a batch
+                }
+            } else {
+                List<Long> batch = new ArrayList<>(List.of(leaveId));
+                Long other = pending.poll();
+                if (other != null) {
+                    batch.add(other);
+                }
+                leaveService.decideLeaves(batch, approver.getId(), null, LeaveStatus.APPROVED);
+            }
+        });
+
+        int approvedCount = 0;
+        for (User user : users) {
+            List<LeaveRequest> approved = new ArrayList<>();
+            for (LeaveRequest leave : leaveRequestRepository.findByUserAndStartDateBetween(user, windowStart, windowEnd)) {
+                if (leave.getStatus() == LeaveStatus.APPROVED) {
+                    approved.add(leave);
+                }
+            }
+            for (int i = 0; i < approved.size(); i++) {
+                for (int j = i + 1; j < approved.size(); j++) {
+                    LeaveRequest a = approved.get(i);
+                    LeaveRequest b = approved.get(j);
+                    assertThat(a.getStartDate() <= b.getEndDate() && b.getStartDate() <= a.getEndDate())
+                            .as("approved leave %d and %d overlap", a.getId(), b.getId())
+                            .isFalse();
+                }
+            }
+            approvedCount += approved.size();
+        }
+        assertThat(approvedCount).isPositive();
+    }
+
+    private void runConcurrently(Runnable operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>(OPERATIONS);
+            for (int i = 0; i < OPERATIONS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    operation.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                // Any other failure, including a conflict that outlived its retries, fails the test
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LeaveRequest apply(User user, LocalDate start, LocalDate end) {
+        LeaveRequest request = new LeaveRequest();
+        request.setUser(user);
+        request.setLeaveCategory(LeaveCategory.ANNUAL);
+        request.setLeavePeriod(LeavePeriod.FULL_DAY);
+        request.setStartDate(at(start));
+        request.setEndDate(at(end));
+        request.setReason("Concurrency test");
+        return leaveService.applyLeave(request);
+    }
+
+    private void deleteWindow() {
+        for (User user : users) {
+            leaveRequestRepository.deleteAllById(leaveRequestRepository
+                    .findByUserAndStartDateBetween(user, windowStart, windowEnd).stream().map(LeaveRequest::getId).toList());
+        }
+    }
+
+    private static long at(LocalDate day) {
+        return day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
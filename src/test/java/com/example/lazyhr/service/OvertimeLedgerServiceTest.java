@@ -0,0 +1,117 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.dto.UserOvertime;
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.repository.AttendanceRepository;
+import com.example.lazyhr.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OvertimeLedgerServiceTest {
+
+    @Autowired
+    private OvertimeLedgerService ledgerService;
+
+    @Autowired
+    private DailyAttendanceSummaryService summaryService;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final List<Attendance> saved = new ArrayList<>();
+    private User user;
+    private LocalDate month;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("jdoe").orElseThrow();
+        // A month nothing else writes to
+        month = LocalDate.now().minusYears(6).withDayOfMonth(1);
+        saved.add(save(month.plusDays(2), 540));
+        saved.add(save(month.plusDays(3), 510));
+        saved.add(save(month.plusMonths(1).plusDays(4), 500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        attendanceRepository.deleteAll(saved);
+        summaryService.rebuild(millis(month), millis(month.plusMonths(2).minusDays(1)));
+    }
+
+    @Test
+    void clockOutsAndBreakEditsAreAppliedToTheMonth() {
+        assertThat(overtime(month)).isEqualTo(90);
+
+        Attendance edited = saved.get(0);
+        edited.setBreakDurationMinutes(45);
+        edited.calculateTotalHours(480);
+        saved.set(0, attendanceRepository.save(edited));
+        summaryService.refresh(edited);
+
+        assertThat(overtime(month)).isEqualTo(45);
+        assertThat(ledgerService.getOvertimeMinutes(user.getId(), millis(month), millis(month.plusMonths(2).minusDays(1))))
+                .isEqualTo(65);
+    }
+
+    @Test
+    void partialMonthsAreReadFromTheDailySummaries() {
+        long firstDayOnly = ledgerService.getOvertimeMinutes(user.getId(), millis(month.plusDays(2)), millis(month.plusDays(2)));
+        assertThat(firstDayOnly).isEqualTo(60);
+
+        long acrossMonths = ledgerService.getOvertimeMinutes(user.getId(), millis(month.plusDays(3)),
+                millis(month.plusMonths(1).plusDays(10)));
+        assertThat(acrossMonths).isEqualTo(50);
+    }
+
+    @Test
+    void rebuildMatchesIncrementalTotals() {
+        long before = overtime(month);
+        ledgerService.rebuild(millis(month), millis(month));
+        assertThat(overtime(month)).isEqualTo(before);
+    }
+
+    private long overtime(LocalDate monthStart) {
+        List<UserOvertime> rows = ledgerService.getOvertimeByUser(millis(monthStart), millis(monthStart));
+        return rows.stream()
+                .filter(row -> row.getUserId().equals(user.getId()))
+                .mapToLong(UserOvertime::getOvertimeMinutes)
+                .findFirst()
+                .orElse(0L);
+    }
+
+    private Attendance save(LocalDate day, int workedMinutes) {
+        long dayMillis = millis(day);
+        Attendance attendance = new Attendance();
+        attendance.setUser(user);
+        attendance.setAttendanceDate(dayMillis);
+        attendance.setClockInTime(dayMillis + 9 * 3_600_000L);
+        attendance.setClockOutTime(dayMillis + 9 * 3_600_000L + workedMinutes * 60_000L);
+        attendance.setBreakDurationMinutes(0);
+        attendance.setStatus(AttendanceStatus.PRESENT);
+        attendance.calculateTotalHours(480);
+        Attendance result = attendanceRepository.save(attendance);
+        summaryService.refresh(result);
+        return result;
+    }
+
+    private long millis(LocalDate day) {
+        return day.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.model.ShiftSchedule;
+import com.example.lazyhr.model.User;
+import com.example.lazyhr.repository.AttendanceRepository;
+import com.example.lazyhr.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ShiftScheduleServiceTest {
+
+    @Autowired
+    private ShiftScheduleService scheduleService;
+
+    @Autowired
+    private ShiftReclassifier reclassifier;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final List<Attendance> saved = new ArrayList<>();
+    private User user;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("jdoe").orElseThrow();
+        // A week nothing else writes to
+        monday = LocalDate.now().minusYears(7).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+        // Monday 09:00 for eight hours with ten minutes of grace; the rest of the week off
+        ShiftSchedule shift = new ShiftSchedule();
+        shift.setDayOfWeek(DayOfWeek.MONDAY.getValue());
+        shift.setStartMinute(9 * 60);
+        shift.setDurationMinutes(480);
+        shift.setGraceMinutes(10);
+        scheduleService.replaceSchedule(user.getId(), null, new ArrayList<>(List.of(shift)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        attendanceRepository.deleteAll(saved);
+        scheduleService.replaceSchedule(user.getId(), null, new ArrayList<>());
+    }
+
+    @Test
+    void onlyTheFirstSessionCanBeLate() {
+        Attendance morning = record(monday, 9 * 60 + 20, 12 * 60);
+        Attendance afternoon = record(monday, 13 * 60, 18 * 60);
+
+        List<Attendance> changed = scheduleService.classify(user.getId(), user.getDepartment(), millis(monday),
+                List.of(afternoon, morning));
+
+        assertThat(changed).containsExactly(morning);
+        assertThat(morning.getStatus()).isEqualTo(AttendanceStatus.LATE);
+        assertThat(afternoon.getStatus()).isEqualTo(AttendanceStatus.PRESENT);
+    }
+
+    @Test
+    void shortClosedDayIsHalfDayButOpenDayIsNot() {
+        Attendance open = record(monday, 9 * 60, null);
+        scheduleService.classify(user.getId(), user.getDepartment(), millis(monday), List.of(open));
+        assertThat(open.getStatus()).isEqualTo(AttendanceStatus.PRESENT);
+
+        Attendance shortDay = record(monday, 9 * 60, 12 * 60);
+        scheduleService.classify(user.getId(), user.getDepartment(), millis(monday), List.of(shortDay));
+        assertThat(shortDay.getStatus()).isEqualTo(AttendanceStatus.HALF_DAY);
+    }
+
+    @Test
+    void manualStatusAndDaysOffAreLeftAlone() {
+        Attendance manual = record(monday, 11 * 60, 12 * 60);
+        manual.setStatus(AttendanceStatus.PRESENT);
+        manual.setStatusOverride(true);
+        assertThat(scheduleService.classify(user.getId(), user.getDepartment(), millis(monday), List.of(manual))).isEmpty();
+
+        Attendance tuesday = record(monday.plusDays(1), 11 * 60, 12 * 60);
+        assertThat(scheduleService.classify(user.getId(), user.getDepartment(), millis(monday.plusDays(1)),
+                List.of(tuesday))).isEmpty();
+    }
+
+    @Test
+    void reclassifyUpdatesStoredRecords() {
+        Attendance late = record(monday, 9 * 60 + 30, 18 * 60);
+        late.setUser(user);
+        saved.add(attendanceRepository.save(late));
+
+        ShiftReclassifier.ReclassifyReport report = reclassifier.reclassify(millis(monday), millis(monday.plusDays(6)));
+
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(attendanceRepository.findById(saved.get(0).getId()).orElseThrow().getStatus())
+                .isEqualTo(AttendanceStatus.LATE);
+    }
+
+    private Attendance record(LocalDate day, int clockInMinute, Integer clockOutMinute) {
+        long dayMillis = millis(day);
+        Attendance attendance = new Attendance();
+        attendance.setAttendanceDate(dayMillis);
+        attendance.setClockInTime(dayMillis + clockInMinute * 60_000L);
+        attendance.setClockOutTime(clockOutMinute != null ? dayMillis + clockOutMinute * 60_000L : null);
+        attendance.setBreakDurationMinutes(0);
+        attendance.setStatus(AttendanceStatus.PRESENT);
+        return attendance;
+    }
+
+    private long millis(LocalDate day) {
+        return day.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+}
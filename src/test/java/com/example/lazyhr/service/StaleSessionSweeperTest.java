@@ -0,0 +1,130 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.ClockDirection;
+import com.example.lazyhr.repository.AttendanceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StaleSessionSweeperTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private StaleSessionSweeper staleSessionSweeper;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private UserService userService;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userService.findByUsername("jdoe").getId();
+        closeOpenSessions();
+    }
+
+    @AfterEach
+    void tearDown() {
+        closeOpenSessions();
+    }
+
+    @Test
+    void sweepClosesStaleSessionsAndFlagsThemForReview() {
+        long clockIn = System.currentTimeMillis() - 20 * HOUR;
+        Long id = openSession(clockIn);
+
+        StaleSessionSweeper.SweepReport report = staleSessionSweeper.sweep(false);
+
+        assertThat(report.getClosed()).isGreaterThanOrEqualTo(1);
+        assertThat(report.getCutoff()).isGreaterThan(clockIn);
+        Attendance record = attendanceRepository.findById(id).orElseThrow();
+        assertThat(record.getClockOutTime()).isNotNull().isGreaterThan(clockIn).isLessThanOrEqualTo(clockIn + 20 * HOUR);
+        assertThat(record.isNeedsReview()).isTrue();
+        assertThat(attendanceService.isUserClockedIn(userId)).isFalse();
+    }
+
+    @Test
+    void sweepLeavesRecentSessionsOpen() {
+        Long id = openSession(System.currentTimeMillis() - HOUR);
+
+        staleSessionSweeper.sweep(false);
+
+        assertThat(attendanceRepository.findById(id).orElseThrow().getClockOutTime()).isNull();
+        assertThat(attendanceService.isUserClockedIn(userId)).isTrue();
+    }
+
+    @Test
+    void sweepRacingAClockOutClosesTheSessionOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Long id = openSession(System.currentTimeMillis() - 20 * HOUR - round * 60_000L);
+
+                CountDownLatch start = new CountDownLatch(1);
+                Future<StaleSessionSweeper.SweepReport> sweep = pool.submit(() -> {
+                    start.await();
+                    return staleSessionSweeper.sweep(false);
+                });
+                Future<Attendance> clockOut = pool.submit(() -> {
+                    start.await();
+                    try {
+                        return attendanceService.clockOut(userId);
+                    } catch (IllegalStateException e) {
+                        return null; // The sweep closed it first
+                    }
+                });
+                start.countDown();
+                sweep.get(30, TimeUnit.SECONDS);
+                Attendance clockedOut = clockOut.get(30, TimeUnit.SECONDS);
+
+                // Whichever side lost must not have touched the row
+                Attendance record = attendanceRepository.findById(id).orElseThrow();
+                assertThat(record.getClockOutTime()).isNotNull();
+                boolean closedByOwner = clockedOut != null && id.equals(clockedOut.getId());
+                assertThat(record.isNeedsReview()).isEqualTo(!closedByOwner);
+                if (closedByOwner) {
+                    assertThat(clockedOut.getClockOutTime()).isEqualTo(record.getClockOutTime());
+                }
+                assertThat(attendanceRepository.findActiveAttendances(userId)).isEmpty();
+                assertThat(attendanceService.isUserClockedIn(userId)).isFalse();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Long openSession(long clockIn) {
+        assertThat(attendanceService.recordPunches(List.of(new ClockEvent(0, userId, ClockDirection.IN, clockIn))))
+                .containsExactly(ClockEventOutcome.CLOCKED_IN);
+        List<Attendance> active = attendanceRepository.findActiveAttendances(userId);
+        assertThat(active).hasSize(1);
+        return active.get(0).getId();
+    }
+
+    private void closeOpenSessions() {
+        while (attendanceService.isUserClockedIn(userId)) {
+            attendanceService.clockOut(userId);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.lazyhr.service;
+
+import com.example.lazyhr.event.AttendanceChangedEvent;
+import com.example.lazyhr.model.Attendance;
+import com.example.lazyhr.model.AttendanceStatus;
+import com.example.lazyhr.repository.AttendanceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodayAttendanceCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private volatile CountDownLatch loading;
+    private volatile CountDownLatch released;
+
+    private TodayAttendanceCache cache;
+    private long today;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        cache = new TodayAttendanceCache();
+        ReflectionTestUtils.setField(cache, "attendanceRepository", repository());
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        cache.registerMetrics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void servesRepeatedReadsFromOneLoadAsPrivateCopies() {
+        List<Attendance> first = cache.getTodayAttendances();
+        first.get(0).setNotes("changed by the caller");
+        List<Attendance> second = cache.getTodayAttendances();
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getClockedInCount()).isEqualTo(1);
+        assertThat(second.get(0)).isNotSameAs(first.get(0));
+        assertThat(second.get(0).getNotes()).isEqualTo("load 1");
+    }
+
+    @Test
+    void dropsTheSnapshotOnlyForChangesToToday() {
+        cache.getTodayAttendances();
+
+        cache.onAttendanceChanged(event(today - TimeUnit.DAYS.toMillis(1)));
+        cache.getTodayAttendances();
+        assertThat(loads).hasValue(1);
+
+        cache.onAttendanceChanged(event(today));
+        assertThat(cache.getTodayAttendances().get(0).getNotes()).isEqualTo("load 2");
+
+        cache.onAttendanceChanged(event(null));
+        assertThat(cache.getTodayAttendances().get(0).getNotes()).isEqualTo("load 3");
+    }
+
+    @Test
+    void reloadsAfterRolloverAndOnceTheTtlRunsOut() throws Exception {
+        cache.getTodayAttendances();
+
+        // A snapshot from yesterday is never served, even inside the TTL
+        Object snapshot = ((AtomicReference<?>) ReflectionTestUtils.getField(cache, "snapshot")).get();
+        ReflectionTestUtils.setField(snapshot, "day", today - TimeUnit.DAYS.toMillis(1));
+        cache.getTodayAttendances();
+        assertThat(loads).hasValue(2);
+
+        // The midnight job drops it outright
+        cache.invalidate();
+        cache.getTodayAttendances();
+        assertThat(loads).hasValue(3);
+
+        ReflectionTestUtils.setField(cache, "ttlMs", 50L);
+        Thread.sleep(100);
+        cache.getTodayAttendances();
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        loading = new CountDownLatch(1);
+        released = new CountDownLatch(1);
+        List<Future<List<Attendance>>> reads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            reads.add(executor.submit(cache::getTodayAttendances));
+        }
+        assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+        released.countDown();
+
+        for (Future<List<Attendance>> read : reads) {
+            assertThat(read.get(10, TimeUnit.SECONDS).get(0).getNotes()).isEqualTo("load 1");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void loadRacingAChangeIsNotKept() throws Exception {
+        loading = new CountDownLatch(1);
+        released = new CountDownLatch(1);
+        Future<List<Attendance>> racing = executor.submit(cache::getTodayAttendances);
+        assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // The change commits after the load read the database but before it stored the result
+        cache.onAttendanceChanged(event(today));
+        released.countDown();
+        assertThat(racing.get(10, TimeUnit.SECONDS).get(0).getNotes()).isEqualTo("load 1");
+
+        assertThat(cache.getTodayAttendances().get(0).getNotes()).isEqualTo("load 2");
+        assertThat(loads).hasValue(2);
+    }
+
+    private AttendanceChangedEvent event(Long attendanceDate) {
+        return new AttendanceChangedEvent(AttendanceChangedEvent.Type.CLOCKED_IN, 1L, 7L, attendanceDate,
+                System.currentTimeMillis(), null, 0, AttendanceStatus.PRESENT);
+    }
+
+    // Stands in for the database: each load returns one record tagged with the load number, and can be held
+    private AttendanceRepository repository() {
+        return (AttendanceRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { AttendanceRepository.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findTodayAttendances":
+                            Attendance attendance = new Attendance();
+                            attendance.setId(1L);
+                            attendance.setAttendanceDate((Long) args[0]);
+                            attendance.setClockInTime(System.currentTimeMillis());
+                            attendance.setNotes("load " + loads.incrementAndGet());
+                            CountDownLatch started = loading;
+                            if (started != null) {
+                                started.countDown();
+                                released.await(10, TimeUnit.SECONDS);
+                            }
+                            return List.of(attendance);
+                        case "countClockedInToday":
+                            return 1L;
+                        case "toString":
+                            return "AttendanceRepository stub";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.lazyhr.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Counts the JDBC statements executed on the current thread, including plain {@code JdbcTemplate} work
+ * that {@link SqlStatementCounter} does not see; a batch counts once per {@code executeBatch}.
+ * Import it into a test context to wrap the DataSource.
+ */
+public class JdbcStatementCounter implements BeanPostProcessor {
+
+    private static final ThreadLocal<int[]> EXECUTED = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return wrap(DataSource.class, dataSource);
+        }
+        return bean;
+    }
+
+    public static void reset() {
+        EXECUTED.get()[0] = 0;
+    }
+
+    public static int count() {
+        return EXECUTED.get()[0];
+    }
+
+    private static <T> T wrap(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(JdbcStatementCounter.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) {
+                        EXECUTED.get()[0]++;
+                    }
+                    Class<?> returned = method.getReturnType();
+                    if (result == null) {
+                        return null;
+                    }
+                    if (returned == Connection.class) {
+                        return wrap(Connection.class, (Connection) result);
+                    }
+                    if (returned == CallableStatement.class) {
+                        return wrap(CallableStatement.class, (CallableStatement) result);
+                    }
+                    if (returned == PreparedStatement.class) {
+                        return wrap(PreparedStatement.class, (PreparedStatement) result);
+                    }
+                    if (returned == Statement.class) {
+                        return wrap(Statement.class, (Statement) result);
+                    }
+                    return result;
+                }));
+    }
+}
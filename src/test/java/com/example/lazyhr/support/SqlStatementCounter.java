@@ -0,0 +1,33 @@
+package com.example.lazyhr.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL statements Hibernate prepares on the current thread. Registered through
+ * {@code hibernate.session_factory.statement_inspector}; MockMvc requests run on the test thread.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static int count() {
+        return STATEMENTS.get().size();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+}